@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+
+/**
+ * Compares building a large ReportedTransaction with aggregated totals using {@link BigDecimal}
+ * amount setters with the scaled <code>long</code> amount setters. Run with
+ * <code>-prof gc</code> to see the allocation rate.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Thread)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class TDDAmountBenchmark
+{
+  @Param ({ "10000" })
+  public int m_nLineCount;
+
+  private PeppolViDATDD090ReportedTransactionBuilder m_aBuilder;
+  // Raw input data in cents, as it would come from a database or CSV
+  private long [] m_aPriceCents;
+  private long [] m_aQuantities;
+  private String [] m_aIDs;
+
+  @Setup
+  public void setup ()
+  {
+    m_aBuilder = new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT);
+    m_aPriceCents = new long [m_nLineCount];
+    m_aQuantities = new long [m_nLineCount];
+    m_aIDs = new String [m_nLineCount];
+    for (int i = 0; i < m_nLineCount; ++i)
+    {
+      m_aPriceCents[i] = 100 + (i * 37L) % 100_000;
+      m_aQuantities[i] = 1 + i % 12;
+      m_aIDs[i] = Integer.toString (i + 1);
+    }
+  }
+
+  private PeppolViDATDD090ReportedTransactionBuilder _reset ()
+  {
+    return m_aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT)
+                     .customizationID ("urn:cen.eu:en16931:2017")
+                     .profileID ("urn:fdc:peppol.eu:2017:poacc:billing:01:1.0")
+                     .id ("bench")
+                     .issueDate (LocalDate.of (2026, 1, 30))
+                     .documentTypeCode ("380")
+                     .documentCurrencyCode ("EUR")
+                     .aggregateTotals (true);
+  }
+
+  @Benchmark
+  public ReportedTransaction bigDecimal ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _reset ();
+    for (int i = 0; i < m_nLineCount; ++i)
+    {
+      final int nIndex = i;
+      final BigDecimal aQuantity = BigDecimal.valueOf (m_aQuantities[i]);
+      final BigDecimal aPrice = BigDecimal.valueOf (m_aPriceCents[i], 2);
+      aBuilder.addDocumentLine (l -> l.id (m_aIDs[nIndex])
+                                      .quantity (aQuantity)
+                                      .quantityUnit ("C62")
+                                      .lineExtensionAmount (aPrice.multiply (aQuantity))
+                                      .priceAmount (aPrice)
+                                      .item (x -> x.name ("Item")
+                                                   .classifiedTaxCategory (c -> c.id ("S")
+                                                                                 .percentage (BigDecimal.TEN)
+                                                                                 .taxSchemeID ("VAT"))));
+    }
+    return aBuilder.build ();
+  }
+
+  @Benchmark
+  public ReportedTransaction scaledLong ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _reset ();
+    for (int i = 0; i < m_nLineCount; ++i)
+    {
+      final int nIndex = i;
+      aBuilder.addDocumentLine (l -> l.id (m_aIDs[nIndex])
+                                      .quantity (m_aQuantities[nIndex], 0)
+                                      .quantityUnit ("C62")
+                                      .lineExtensionAmount (m_aPriceCents[nIndex] * m_aQuantities[nIndex], 2)
+                                      .priceAmount (m_aPriceCents[nIndex], 2)
+                                      .item (x -> x.name ("Item")
+                                                   .classifiedTaxCategory (c -> c.id ("S")
+                                                                                 .percentage (BigDecimal.TEN)
+                                                                                 .taxSchemeID ("VAT"))));
+    }
+    return aBuilder.build ();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.binary.PeppolViDATDD090BinaryReader;
+import com.helger.peppol.vida.tdd.binary.PeppolViDATDD090BinaryWriter;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Compares the XML marshaller with the compact binary codec. Each invocation processes all good
+ * TDD 0.9.0 test files.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Thread)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+public class TDDCodecBenchmark
+{
+  private final List <TaxDataType> m_aTDDs = new ArrayList <> ();
+  private final List <ByteBuffer> m_aXMLs = new ArrayList <> ();
+  private final List <ByteBuffer> m_aBinaries = new ArrayList <> ();
+
+  private PeppolViDATDD090Marshaller m_aMarshaller;
+  private PeppolViDATDD090BinaryWriter m_aBinaryWriter;
+  private PeppolViDATDD090BinaryReader m_aBinaryReader;
+  private ByteBufferOutputStream m_aOS;
+
+  @Setup (Level.Trial)
+  public void setup ()
+  {
+    m_aMarshaller = new PeppolViDATDD090Marshaller ();
+    m_aBinaryWriter = new PeppolViDATDD090BinaryWriter ();
+    m_aBinaryReader = new PeppolViDATDD090BinaryReader ();
+    m_aOS = new ByteBufferOutputStream (64 * 1024, false);
+
+    long nXMLBytes = 0;
+    long nBinaryBytes = 0;
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+    {
+      final TaxDataType aTDD = m_aMarshaller.read (aRes);
+      m_aTDDs.add (aTDD);
+
+      m_aOS.reset ();
+      nXMLBytes += m_aMarshaller.writeToBuffer (aTDD, m_aOS);
+      m_aXMLs.add (_copy (m_aOS.getAsReadOnlyBuffer ()));
+
+      m_aOS.reset ();
+      nBinaryBytes += m_aBinaryWriter.write (aTDD, m_aOS);
+      m_aBinaries.add (_copy (m_aOS.getAsReadOnlyBuffer ()));
+    }
+    System.out.println ("Total size of " + m_aTDDs.size () + " TDDs: XML " + nXMLBytes + " bytes, binary " + nBinaryBytes + " bytes");
+  }
+
+  private static ByteBuffer _copy (final ByteBuffer aSrc)
+  {
+    final ByteBuffer ret = ByteBuffer.allocate (aSrc.remaining ());
+    ret.put (aSrc).flip ();
+    return ret;
+  }
+
+  @Benchmark
+  public void xmlWrite (final Blackhole aBH)
+  {
+    for (final TaxDataType aTDD : m_aTDDs)
+    {
+      m_aOS.reset ();
+      aBH.consume (m_aMarshaller.writeToBuffer (aTDD, m_aOS));
+    }
+  }
+
+  @Benchmark
+  public void xmlRead (final Blackhole aBH)
+  {
+    for (final ByteBuffer aXML : m_aXMLs)
+      aBH.consume (m_aMarshaller.readFromBuffer (aXML));
+  }
+
+  @Benchmark
+  public void binaryWrite (final Blackhole aBH)
+  {
+    for (final TaxDataType aTDD : m_aTDDs)
+    {
+      m_aOS.reset ();
+      aBH.consume (m_aBinaryWriter.write (aTDD, m_aOS));
+    }
+  }
+
+  @Benchmark
+  public void binaryRead (final Blackhole aBH)
+  {
+    for (final ByteBuffer aBinary : m_aBinaries)
+      aBH.consume (m_aBinaryReader.read (aBinary));
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090TrainingRun;
+
+/**
+ * Measures the wall clock time of a fresh JVM that runs {@link PeppolViDATDD090TrainingRun} on all
+ * test files, with the default CDS archive of the JDK only and with an AppCDS archive created by a
+ * training run with the same class path.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.SingleShotTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 1)
+@Measurement (iterations = 10)
+@Fork (1)
+public class TDDStartupBenchmark
+{
+  @Param ({ "default", "appcds" })
+  public String m_sCDS;
+
+  private Path m_aTempDir;
+  private Path m_aInputDir;
+  private Path m_aArchive;
+
+  private static void _copy (final List <ClassPathResource> aResources, final Path aTargetDir) throws IOException
+  {
+    Files.createDirectories (aTargetDir);
+    for (final ClassPathResource aRes : aResources)
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        Files.copy (aIS, aTargetDir.resolve (Paths.get (aRes.getPath ()).getFileName ()));
+      }
+  }
+
+  private void _runJVM (final String sCDSOption) throws IOException, InterruptedException
+  {
+    final List <String> aCmd = new ArrayList <> ();
+    aCmd.add (Paths.get (System.getProperty ("java.home"), "bin", "java").toString ());
+    aCmd.add (sCDSOption);
+    aCmd.add ("-cp");
+    aCmd.add (System.getProperty ("java.class.path"));
+    aCmd.add (PeppolViDATDD090TrainingRun.class.getName ());
+    aCmd.add (m_aInputDir.toString ());
+    final Process aProcess = new ProcessBuilder (aCmd).redirectErrorStream (true)
+                                                      .redirectOutput (ProcessBuilder.Redirect.DISCARD)
+                                                      .start ();
+    final int nExitCode = aProcess.waitFor ();
+    if (nExitCode != 0)
+      throw new IllegalStateException ("Training run failed with exit code " + nExitCode);
+  }
+
+  @Setup (Level.Trial)
+  public void setup () throws Exception
+  {
+    m_aTempDir = Files.createTempDirectory ("tdd-startup");
+    m_aInputDir = m_aTempDir.resolve ("input");
+    _copy (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles (), m_aInputDir.resolve ("invoice"));
+    _copy (PeppolViDATestFiles.getAllGoodBillingCreditNoteFiles (), m_aInputDir.resolve ("creditnote"));
+    _copy (PeppolViDATestFiles.getAllGoodTDD090Files (), m_aInputDir.resolve ("tdd"));
+
+    m_aArchive = m_aTempDir.resolve ("tdd.jsa");
+    if ("appcds".equals (m_sCDS))
+    {
+      // The training run itself
+      _runJVM ("-XX:ArchiveClassesAtExit=" + m_aArchive);
+      System.out.println ("Created AppCDS archive with " + Files.size (m_aArchive) + " bytes");
+    }
+  }
+
+  @TearDown (Level.Trial)
+  public void tearDown () throws IOException
+  {
+    try (final Stream <Path> aStream = Files.walk (m_aTempDir))
+    {
+      aStream.sorted (Comparator.reverseOrder ()).map (Path::toFile).forEach (File::delete);
+    }
+  }
+
+  @Benchmark
+  public void startup () throws Exception
+  {
+    _runJVM ("appcds".equals (m_sCDS) ? "-XX:SharedArchiveFile=" + m_aArchive : "-Xshare:auto");
+  }
+}
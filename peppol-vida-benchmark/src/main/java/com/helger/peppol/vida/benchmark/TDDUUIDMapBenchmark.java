@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helger.peppol.vida.tdd.IUUIDLongMap;
+import com.helger.peppol.vida.tdd.UUIDLongDirectHashMap;
+import com.helger.peppol.vida.tdd.UUIDLongHashMap;
+
+/**
+ * Compares random lookups of UUID keys in a <code>HashMap&lt;UUID, Long&gt;</code> with
+ * {@link UUIDLongHashMap} and {@link UUIDLongDirectHashMap}. The keys are derived from an index, so
+ * that no key array needs to be kept. The used heap bytes per entry are printed after filling. The
+ * 100M variants need a machine with at least 32 GiB of RAM; use e.g.
+ * <code>-p m_nEntries=10000000</code> on smaller machines.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Thread)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = { "-Xms20g", "-Xmx20g", "-XX:MaxDirectMemorySize=8g" })
+public class TDDUUIDMapBenchmark
+{
+  @Param ({ "10000000", "100000000" })
+  public int m_nEntries;
+
+  @Param ({ "hashmap", "heap", "direct" })
+  public String m_sImpl;
+
+  private Map <UUID, Long> m_aHashMap;
+  private IUUIDLongMap m_aMap;
+  private SplittableRandom m_aRandom;
+
+  private static long _msb (final long nIndex)
+  {
+    // Spread the bits like a random UUID
+    long h = nIndex * 0x9e3779b97f4a7c15L;
+    h ^= h >>> 32;
+    return h * 0xbf58476d1ce4e5b9L;
+  }
+
+  private static long _lsb (final long nIndex)
+  {
+    return Long.rotateLeft (nIndex * 0xc4ceb9fe1a85ec53L, 17) | 1;
+  }
+
+  private static long _usedMemory ()
+  {
+    final Runtime aRT = Runtime.getRuntime ();
+    System.gc ();
+    return aRT.totalMemory () - aRT.freeMemory ();
+  }
+
+  @Setup (Level.Trial)
+  public void setup ()
+  {
+    final long nMemBefore = _usedMemory ();
+    switch (m_sImpl)
+    {
+      case "hashmap":
+        m_aHashMap = new HashMap <> (m_nEntries * 4 / 3 + 1);
+        for (int i = 0; i < m_nEntries; ++i)
+          m_aHashMap.put (new UUID (_msb (i), _lsb (i)), Long.valueOf (i));
+        break;
+      case "heap":
+        m_aMap = new UUIDLongHashMap (m_nEntries);
+        break;
+      case "direct":
+        m_aMap = new UUIDLongDirectHashMap (m_nEntries);
+        break;
+      default:
+        throw new IllegalStateException ("Unsupported implementation " + m_sImpl);
+    }
+    if (m_aMap != null)
+      for (int i = 0; i < m_nEntries; ++i)
+        m_aMap.put (_msb (i), _lsb (i), i);
+    System.out.println ("\n" +
+                        m_sImpl +
+                        " with " +
+                        m_nEntries +
+                        " entries uses " +
+                        ((_usedMemory () - nMemBefore) / m_nEntries) +
+                        " heap bytes per entry");
+    m_aRandom = new SplittableRandom (42);
+  }
+
+  @TearDown (Level.Trial)
+  public void tearDown ()
+  {
+    m_aHashMap = null;
+    m_aMap = null;
+  }
+
+  @Benchmark
+  public long lookupHit ()
+  {
+    final int nIndex = m_aRandom.nextInt (m_nEntries);
+    if (m_aHashMap != null)
+    {
+      // Callers usually have a UUID object
+      final Long aValue = m_aHashMap.get (new UUID (_msb (nIndex), _lsb (nIndex)));
+      return aValue == null ? -1 : aValue.longValue ();
+    }
+    return m_aMap.get (_msb (nIndex), _lsb (nIndex), -1);
+  }
+
+  @Benchmark
+  public long lookupMiss ()
+  {
+    final int nIndex = m_nEntries + m_aRandom.nextInt (m_nEntries);
+    if (m_aHashMap != null)
+    {
+      final Long aValue = m_aHashMap.get (new UUID (_msb (nIndex), _lsb (nIndex)));
+      return aValue == null ? -1 : aValue.longValue ();
+    }
+    return m_aMap.get (_msb (nIndex), _lsb (nIndex), -1);
+  }
+}
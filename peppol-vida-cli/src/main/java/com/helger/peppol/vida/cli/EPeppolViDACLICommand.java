@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+
+/**
+ * The sub commands of the command line interface.
+ *
+ * @author Philip Helger
+ */
+public enum EPeppolViDACLICommand implements IHasID <String>
+{
+  /**
+   * Convert UBL Invoices and CreditNotes to TDDs.
+   */
+  CONVERT ("convert"),
+  /**
+   * Validate TDDs against the XML Schema and the Schematron.
+   */
+  VALIDATE ("validate"),
+  /**
+   * Print the key header fields of TDDs.
+   */
+  ENVELOPE ("envelope"),
+  /**
+   * Serve the conversion and validation over HTTP.
+   */
+  SERVE ("serve");
+
+  private final String m_sID;
+
+  EPeppolViDACLICommand (@NonNull @Nonempty final String sID)
+  {
+    m_sID = sID;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  @Nullable
+  public static EPeppolViDACLICommand getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (EPeppolViDACLICommand.class, sID);
+  }
+}
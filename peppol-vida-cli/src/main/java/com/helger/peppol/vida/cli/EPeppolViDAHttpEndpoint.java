@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+
+/**
+ * The endpoints of {@link PeppolViDAHttpServer}.
+ *
+ * @author Philip Helger
+ */
+public enum EPeppolViDAHttpEndpoint implements IHasID <String>
+{
+  /**
+   * Convert a UBL Invoice or CreditNote to a TDD.
+   */
+  CONVERT ("convert", "POST"),
+  /**
+   * Validate a TDD against the XML Schema and the Schematron.
+   */
+  VALIDATE ("validate", "POST"),
+  /**
+   * The server metrics in the Prometheus text format.
+   */
+  METRICS ("metrics", "GET");
+
+  private final String m_sID;
+  private final String m_sMethod;
+
+  EPeppolViDAHttpEndpoint (@NonNull @Nonempty final String sID, @NonNull @Nonempty final String sMethod)
+  {
+    m_sID = sID;
+    m_sMethod = sMethod;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  /**
+   * @return The URL path of the endpoint. Never <code>null</code>.
+   */
+  @NonNull
+  @Nonempty
+  public String getPath ()
+  {
+    return "/" + m_sID;
+  }
+
+  /**
+   * @return The only HTTP method supported by the endpoint. Never <code>null</code>.
+   */
+  @NonNull
+  @Nonempty
+  public String getMethod ()
+  {
+    return m_sMethod;
+  }
+
+  @Nullable
+  public static EPeppolViDAHttpEndpoint getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (EPeppolViDAHttpEndpoint.class, sID);
+  }
+}
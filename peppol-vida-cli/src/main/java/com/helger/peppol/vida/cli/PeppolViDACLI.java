@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.xml.sax.SAXParseException;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.io.resource.inmemory.ReadableResourceByteArray;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDXSDValidator;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.validate.PeppolViDATDDValidator;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchConverter;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchResult;
+import com.helger.peppolid.IParticipantIdentifier;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+import com.helger.schematron.svrl.SVRLFailedAssert;
+import com.helger.schematron.svrl.SVRLHelper;
+import com.helger.schematron.svrl.jaxb.SchematronOutputType;
+
+/**
+ * Command line interface for the batch processing of Peppol ViDA pilot TDDs. See
+ * {@link PeppolViDACLIOptions#USAGE} for the supported commands and options. For every input file
+ * one NDJSON line is written to the output, and a throughput summary is printed to stderr at the
+ * end. The command <code>serve</code> runs {@link PeppolViDAHttpServer} until the process is
+ * terminated.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDACLI
+{
+  /** All files were processed successfully */
+  public static final int EXIT_OK = 0;
+  /** At least one file could not be processed successfully */
+  public static final int EXIT_FAILURES = 1;
+  /** Invalid command line */
+  public static final int EXIT_USAGE = 2;
+
+  private PeppolViDACLI ()
+  {}
+
+  @Nullable
+  private static IParticipantIdentifier _participant (@Nullable final String s)
+  {
+    if (s == null)
+      return null;
+    final IParticipantIdentifier ret = s.contains ("::") ? PeppolIdentifierFactory.INSTANCE.parseParticipantIdentifier (s)
+                                                         : PeppolIdentifierFactory.INSTANCE.createParticipantIdentifierWithDefaultScheme (s);
+    if (ret == null)
+      throw new IllegalArgumentException ("Invalid participant identifier '" + s + "'");
+    return ret;
+  }
+
+  @NonNull
+  private static ICommonsList <String> _failedAsserts (@Nullable final SchematronOutputType aSVRL)
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    if (aSVRL != null)
+      for (final SVRLFailedAssert aFA : SVRLHelper.getAllFailedAssertions (aSVRL))
+        if (aFA.getFlag ().isError ())
+          ret.add ("[" + aFA.getID () + "] " + aFA.getText ());
+    return ret;
+  }
+
+  @NonNull
+  private static PeppolViDATDD090BatchConverter _createConverter (@NonNull final PeppolViDACLIOptions aOptions)
+  {
+    return new PeppolViDATDD090BatchConverter ().documentScope (aOptions.getDocumentScope ())
+                                                .reporterRole (aOptions.getReporterRole ())
+                                                .reportingParty (_participant (aOptions.getReportingParty ()))
+                                                .receivingParty (_participant (aOptions.getReceivingParty ()))
+                                                .reportersRepresentative (_participant (aOptions.getReportersRepresentative ()))
+                                                .taxAuthorityID (aOptions.getTaxAuthorityID ())
+                                                .workerCount (aOptions.getWorkerCount ())
+                                                .schematronValidation (aOptions.isSchematron ());
+  }
+
+  @NonNull
+  private static PeppolViDACLISummary _convert (@NonNull final PeppolViDACLIOptions aOptions,
+                                                @NonNull final ICommonsList <Path> aFiles,
+                                                @NonNull final Consumer <String> aSink) throws IOException,
+                                                                                         InterruptedException
+  {
+    final Path aOutputDir = aOptions.getOutputDir ();
+    if (aOutputDir != null)
+      Files.createDirectories (aOutputDir);
+
+    final PeppolViDATDD090BatchConverter aConverter = _createConverter (aOptions);
+    final PeppolViDATDD090BatchConverter.Summary aSummary = aConverter.convert (aFiles.getAllMapped (x -> new FileSystemResource (x.toFile ())),
+                                                                                aResult -> aSink.accept (_convertResult (aResult,
+                                                                                                                         aOutputDir)));
+    return new PeppolViDACLISummary (aSummary.getTotalCount (), aSummary.getFailureCount (), aSummary.getDurationNanos ());
+  }
+
+  @NonNull
+  private static String _convertResult (@NonNull final PeppolViDATDD090BatchResult aResult,
+                                        @Nullable final Path aOutputDir)
+  {
+    final PeppolViDACLIJsonLine aLine = new PeppolViDACLIJsonLine ().add ("file", aResult.getSourceName ());
+    boolean bSuccess = aResult.isSuccess ();
+    if (aResult.getTDD () != null)
+    {
+      final String sUUID = aResult.getTDD ().getUUID ();
+      aLine.add ("uuid", sUUID).add ("bytes", aResult.getTDDBytes ().length);
+      if (aOutputDir != null)
+      {
+        // The UUID is unique per TDD
+        final Path aTarget = aOutputDir.resolve (sUUID + ".xml");
+        try
+        {
+          Files.write (aTarget, aResult.getTDDBytes ());
+          aLine.add ("output", aTarget.toString ());
+        }
+        catch (final IOException ex)
+        {
+          aLine.add ("error", "Failed to write '" + aTarget + "': " + ex.getMessage ());
+          bSuccess = false;
+        }
+      }
+    }
+    if (aResult.getErrorMessage () != null)
+      aLine.add ("error", aResult.getErrorMessage ());
+    if (aResult.getAllFailedAssertions ().isNotEmpty ())
+      aLine.add ("failedAsserts",
+                 aResult.getAllFailedAssertions ().getAllMapped (x -> "[" + x.getID () + "] " + x.getText ()));
+    return aLine.add ("success", bSuccess).getAsString ();
+  }
+
+  private static boolean _validate (@NonNull final PeppolViDATDDXSDValidator aXSDValidator,
+                                    final boolean bXSDOnly,
+                                    final byte @NonNull [] aBytes,
+                                    @NonNull final PeppolViDACLIJsonLine aLine) throws Exception
+  {
+    final ICommonsList <SAXParseException> aXSDErrors = aXSDValidator.validate (ByteBuffer.wrap (aBytes));
+    if (aXSDErrors.isNotEmpty ())
+    {
+      aLine.add ("xsdErrors",
+                 aXSDErrors.getAllMapped (x -> x.getLineNumber () + ":" + x.getColumnNumber () + ": " + x.getMessage ()));
+      // No Schematron on XSD invalid documents
+      return false;
+    }
+    if (bXSDOnly)
+      return true;
+
+    final SchematronOutputType aSVRL = PeppolViDATDDValidator.validateViDA_TDD_090 (new ReadableResourceByteArray (aBytes));
+    if (aSVRL == null)
+    {
+      aLine.add ("error", "Schematron validation failed");
+      return false;
+    }
+    final ICommonsList <String> aFailedAsserts = _failedAsserts (aSVRL);
+    if (aFailedAsserts.isNotEmpty ())
+      aLine.add ("failedAsserts", aFailedAsserts);
+    return aFailedAsserts.isEmpty ();
+  }
+
+  private static boolean _envelope (@NonNull final TaxDataType aTDD, @NonNull final PeppolViDACLIJsonLine aLine)
+  {
+    aLine.add ("uuid", aTDD.getUUID ())
+         .add ("customizationID", aTDD.getCustomizationID ())
+         .add ("profileID", aTDD.getProfileID ())
+         .add ("issueDate", aTDD.getIssueDate () == null ? null : aTDD.getIssueDate ().toLocalDate ().toString ())
+         .add ("documentTypeCode", aTDD.getDocumentTypeCode ())
+         .add ("documentScope", aTDD.getDocumentScope ())
+         .add ("reporterRole", aTDD.getReporterRole ());
+    if (aTDD.getTaxAuthority () != null && aTDD.getTaxAuthority ().getID () != null)
+      aLine.add ("taxAuthority", aTDD.getTaxAuthority ().getID ().getValue ());
+    if (aTDD.getReportingParty () != null && aTDD.getReportingParty ().getEndpointID () != null)
+      aLine.add ("reportingParty",
+                 aTDD.getReportingParty ().getEndpointID ().getSchemeID () +
+                                   ":" +
+                                   aTDD.getReportingParty ().getEndpointID ().getValue ());
+    if (aTDD.getReceivingParty () != null && aTDD.getReceivingParty ().getEndpointID () != null)
+      aLine.add ("receivingParty",
+                 aTDD.getReceivingParty ().getEndpointID ().getSchemeID () +
+                                   ":" +
+                                   aTDD.getReceivingParty ().getEndpointID ().getValue ());
+    final ICommonsList <String> aDocUUIDs = new CommonsArrayList <> ();
+    for (final ReportedTransaction aRT : aTDD.getReportedTransaction ())
+      if (aRT.getReportedDocument () != null)
+        aDocUUIDs.add (aRT.getReportedDocument ().getUUID ());
+    aLine.add ("reportedTransactionCount", aTDD.getReportedTransaction ().size ()).add ("reportedDocuments", aDocUUIDs);
+    return true;
+  }
+
+  private static int _serve (@NonNull final PeppolViDACLIOptions aOptions, @NonNull final PrintStream aErr)
+  {
+    try (final PeppolViDAHttpServer aServer = new PeppolViDAHttpServer (_createConverter (aOptions)))
+    {
+      if (aOptions.getBindAddress () != null)
+        aServer.bindAddress (InetAddress.getByName (aOptions.getBindAddress ()));
+      aServer.port (aOptions.getPort ())
+             .maxInFlight (aOptions.getMaxInFlight ())
+             .maxRequestBytes (aOptions.getMaxRequestBytes ())
+             .start ();
+      aErr.println ("serve: listening on port " + aServer.getPort ());
+      Runtime.getRuntime ().addShutdownHook (new Thread (aServer::close, "vida-http-shutdown"));
+      aServer.awaitStop ();
+      return EXIT_OK;
+    }
+    catch (final IllegalArgumentException | UnknownHostException ex)
+    {
+      aErr.println ("Error: " + ex.getMessage ());
+      return EXIT_USAGE;
+    }
+    catch (final IOException ex)
+    {
+      aErr.println ("Error: " + ex.getMessage ());
+      return EXIT_FAILURES;
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+      return EXIT_OK;
+    }
+  }
+
+  /**
+   * Run the CLI.
+   *
+   * @param aArgs
+   *        The command line arguments. May not be <code>null</code>.
+   * @param aOut
+   *        The stream to write the NDJSON to, if no output file is specified. May not be
+   *        <code>null</code>.
+   * @param aErr
+   *        The stream to write usage messages and the summary to. May not be <code>null</code>.
+   * @return The process exit code. One of {@link #EXIT_OK}, {@link #EXIT_FAILURES} or
+   *         {@link #EXIT_USAGE}.
+   */
+  public static int run (@NonNull final String [] aArgs, @NonNull final PrintStream aOut, @NonNull final PrintStream aErr)
+  {
+    final PeppolViDACLIOptions aOptions;
+    final ICommonsList <Path> aFiles;
+    try
+    {
+      aOptions = PeppolViDACLIOptions.parse (aArgs);
+      aFiles = PeppolViDACLIInputResolver.resolve (aOptions.inputs ());
+    }
+    catch (final IllegalArgumentException | IOException ex)
+    {
+      aErr.println ("Error: " + ex.getMessage ());
+      aErr.println ();
+      aErr.print (PeppolViDACLIOptions.USAGE);
+      return EXIT_USAGE;
+    }
+
+    if (aOptions.getCommand () == EPeppolViDACLICommand.SERVE)
+      return _serve (aOptions, aErr);
+
+    final Path aOutputFile = aOptions.getOutputFile ();
+    try (final OutputStream aOS = aOutputFile == null ? null
+                                                      : new BufferedOutputStream (Files.newOutputStream (aOutputFile)))
+    {
+      final PrintStream aTarget = aOS == null ? aOut : new PrintStream (aOS, false, StandardCharsets.UTF_8);
+      final Consumer <String> aSink = aTarget::println;
+
+      final PeppolViDACLISummary aSummary = switch (aOptions.getCommand ())
+      {
+        case CONVERT -> _convert (aOptions, aFiles, aSink);
+        case VALIDATE ->
+        {
+          // Thread-safe and shared, because the compiled schema is cached
+          final PeppolViDATDDXSDValidator aXSDValidator = PeppolViDATDDXSDValidator.tdd090 ();
+          yield PeppolViDACLIProcessor.process (aFiles,
+                                                aOptions.getWorkerCount (),
+                                                (m, aBytes, aLine) -> _validate (aXSDValidator,
+                                                                                 aOptions.isXSDOnly (),
+                                                                                 aBytes,
+                                                                                 aLine),
+                                                aSink);
+        }
+        case ENVELOPE -> PeppolViDACLIProcessor.process (aFiles, aOptions.getWorkerCount (), (m, aBytes, aLine) -> {
+          final TaxDataType aTDD = m.read (aBytes);
+          if (aTDD == null)
+          {
+            aLine.add ("error", "Failed to read TDD");
+            return false;
+          }
+          return _envelope (aTDD, aLine);
+        }, aSink);
+        case SERVE -> throw new IllegalStateException ("Handled above");
+      };
+      aTarget.flush ();
+      if (aTarget.checkError ())
+        throw new IOException ("Failed to write the output");
+
+      aErr.println (aOptions.getCommand ().getID () + ": " + aSummary.getAsString ());
+      return aSummary.getFailureCount () == 0 ? EXIT_OK : EXIT_FAILURES;
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // E.g. invalid participant identifiers
+      aErr.println ("Error: " + ex.getMessage ());
+      return EXIT_USAGE;
+    }
+    catch (final IOException | UncheckedIOException ex)
+    {
+      aErr.println ("Error: " + ex.getMessage ());
+      return EXIT_FAILURES;
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+      aErr.println ("Interrupted");
+      return EXIT_FAILURES;
+    }
+  }
+
+  public static void main (final String [] aArgs)
+  {
+    System.exit (run (aArgs, System.out, System.err));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Resolves the command line inputs to a list of files. Each input can be a single file, a
+ * directory that is recursively searched for <code>.xml</code> files, or a glob pattern like
+ * <code>data/2026-*&#47;**.xml</code> (see {@link java.nio.file.FileSystem#getPathMatcher(String)}).
+ * Quote glob patterns so that the shell does not expand them.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDACLIInputResolver
+{
+  private static final String XML_EXTENSION = ".xml";
+
+  private PeppolViDACLIInputResolver ()
+  {}
+
+  static boolean isGlob (@NonNull final String s)
+  {
+    for (final char c : s.toCharArray ())
+      if (c == '*' || c == '?' || c == '[' || c == '{')
+        return true;
+    return false;
+  }
+
+  private static void _addDirectory (@NonNull final Path aDir,
+                                     @NonNull final PathMatcher aMatcher,
+                                     @NonNull final ICommonsList <Path> aTarget) throws IOException
+  {
+    try (final Stream <Path> aStream = Files.walk (aDir))
+    {
+      aStream.filter (Files::isRegularFile).filter (aMatcher::matches).sorted ().forEach (aTarget::add);
+    }
+  }
+
+  /**
+   * Resolve all inputs.
+   *
+   * @param aInputs
+   *        The inputs from the command line. May not be <code>null</code>.
+   * @return The list of all matching regular files, in the order of the inputs. Never
+   *         <code>null</code>.
+   * @throws IOException
+   *         If a directory cannot be read
+   * @throws IllegalArgumentException
+   *         If an input file or directory does not exist
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <Path> resolve (@NonNull final Iterable <String> aInputs) throws IOException
+  {
+    final ICommonsList <Path> ret = new CommonsArrayList <> ();
+    for (final String sInput : aInputs)
+    {
+      if (isGlob (sInput))
+      {
+        // Start at the longest directory prefix without glob characters
+        final String sNormalized = sInput.replace ('\\', '/');
+        int nBaseEnd = 0;
+        for (int i = 0; i < sNormalized.length () && !isGlob (sNormalized.substring (0, i + 1)); ++i)
+          if (sNormalized.charAt (i) == '/')
+            nBaseEnd = i + 1;
+        final Path aBaseDir = Paths.get (nBaseEnd == 0 ? "." : sNormalized.substring (0, nBaseEnd));
+        final PathMatcher aGlob = FileSystems.getDefault ().getPathMatcher ("glob:" + sNormalized.substring (nBaseEnd));
+        if (Files.isDirectory (aBaseDir))
+          _addDirectory (aBaseDir, x -> aGlob.matches (aBaseDir.relativize (x)), ret);
+      }
+      else
+      {
+        final Path aPath = Paths.get (sInput);
+        if (Files.isDirectory (aPath))
+          _addDirectory (aPath, x -> x.getFileName ().toString ().endsWith (XML_EXTENSION), ret);
+        else
+          if (Files.isRegularFile (aPath))
+            ret.add (aPath);
+          else
+            throw new IllegalArgumentException ("The input '" + sInput + "' does not exist");
+      }
+    }
+    return ret;
+  }
+}
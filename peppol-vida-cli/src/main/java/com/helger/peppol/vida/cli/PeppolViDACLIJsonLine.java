@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.functional.IThrowingConsumer;
+import com.helger.peppol.vida.tdd.json.JsonGenerator;
+
+/**
+ * A single line of NDJSON output. Properties are written in the order they are added. Properties
+ * with a <code>null</code> value are skipped. The JSON is created with the {@link JsonGenerator}
+ * of the TDD JSON codec.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class PeppolViDACLIJsonLine
+{
+  private final StringWriter m_aSW = new StringWriter (256);
+  private final JsonGenerator m_aGen = new JsonGenerator (m_aSW);
+
+  public PeppolViDACLIJsonLine ()
+  {
+    _write (JsonGenerator::beginObject);
+  }
+
+  private void _write (@NonNull final IThrowingConsumer <JsonGenerator, IOException> aAction)
+  {
+    try
+    {
+      aAction.accept (m_aGen);
+    }
+    catch (final IOException ex)
+    {
+      // Cannot happen for a StringWriter
+      throw new UncheckedIOException (ex);
+    }
+  }
+
+  @NonNull
+  public PeppolViDACLIJsonLine add (@NonNull final String sName, @Nullable final String sValue)
+  {
+    if (sValue != null)
+      _write (g -> {
+        g.name (sName);
+        g.value (sValue);
+      });
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDACLIJsonLine add (@NonNull final String sName, final long nValue)
+  {
+    _write (g -> {
+      g.name (sName);
+      g.value (nValue);
+    });
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDACLIJsonLine add (@NonNull final String sName, final boolean bValue)
+  {
+    _write (g -> {
+      g.name (sName);
+      g.value (bValue);
+    });
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDACLIJsonLine add (@NonNull final String sName, @Nullable final Iterable <String> aValues)
+  {
+    if (aValues != null)
+      _write (g -> {
+        g.name (sName);
+        g.beginArray ();
+        for (final String s : aValues)
+          g.value (s);
+        g.endArray ();
+      });
+    return this;
+  }
+
+  /**
+   * @return The JSON object as a single line without a trailing line break.
+   */
+  @NonNull
+  public String getAsString ()
+  {
+    // The object is only closed in the result, so that further properties can be added
+    _write (JsonGenerator::flush);
+    return m_aSW.toString () + '}';
+  }
+
+  @Override
+  public String toString ()
+  {
+    return getAsString ();
+  }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.style.ReturnsMutableObject;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+
+/**
+ * The parsed command line options.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class PeppolViDACLIOptions
+{
+  public static final String USAGE = """
+      Usage: peppol-vida-cli <command> [options] <file|directory|glob>...
+
+      Commands:
+        convert   Convert UBL Invoices and CreditNotes to TDDs
+        validate  Validate TDDs against the XML Schema and the Schematron
+        envelope  Print the key header fields of TDDs
+        serve     Serve POST /convert, POST /validate and GET /metrics over HTTP
+
+      Common options:
+        -w, --workers <n>                 Number of parallel workers (default: number of CPUs)
+        -o, --output <file>               Write the NDJSON results to the file (default: stdout)
+
+      Options for 'convert' (also used by 'serve'):
+        -d, --output-dir <dir>            Write the created TDDs to this directory
+        --schematron                      Schematron validate the created TDDs
+        --document-scope <D|IC|Intl>      (required)
+        --reporter-role <code>            (required)
+        --reporting-party <scheme::value> (required)
+        --receiving-party <scheme::value> (required)
+        --reporters-representative <scheme::value> (required)
+        --tax-authority <id>              (required)
+
+      Options for 'validate':
+        --xsd-only                        Skip the Schematron validation
+
+      Options for 'serve' (no inputs):
+        --bind <address>                  Address to listen on (default: loopback)
+        --port <n>                        Port to listen on (default: 8080)
+        --max-in-flight <n>               Concurrent requests before 503 (default: 4 * number of CPUs)
+        --max-request-size <bytes>        Maximum request body size before 413 (default: 10485760)
+      """;
+
+  private EPeppolViDACLICommand m_eCommand;
+  private final ICommonsList <String> m_aInputs = new CommonsArrayList <> ();
+  private int m_nWorkerCount = Runtime.getRuntime ().availableProcessors ();
+  private Path m_aOutputFile;
+  private Path m_aOutputDir;
+  private boolean m_bSchematron;
+  private boolean m_bXSDOnly;
+  private EViDATDDDocumentScope m_eDocumentScope;
+  private EViDATDDReporterRole m_eReporterRole;
+  private String m_sReportingParty;
+  private String m_sReceivingParty;
+  private String m_sReportersRepresentative;
+  private String m_sTaxAuthorityID;
+  private String m_sBindAddress;
+  private int m_nPort = PeppolViDAHttpServer.DEFAULT_PORT;
+  private int m_nMaxInFlight = 4 * Runtime.getRuntime ().availableProcessors ();
+  private int m_nMaxRequestBytes = PeppolViDAHttpServer.DEFAULT_MAX_REQUEST_BYTES;
+
+  private PeppolViDACLIOptions ()
+  {}
+
+  @NonNull
+  public EPeppolViDACLICommand getCommand ()
+  {
+    return m_eCommand;
+  }
+
+  @NonNull
+  @ReturnsMutableObject
+  public ICommonsList <String> inputs ()
+  {
+    return m_aInputs;
+  }
+
+  @Nonnegative
+  public int getWorkerCount ()
+  {
+    return m_nWorkerCount;
+  }
+
+  @Nullable
+  public Path getOutputFile ()
+  {
+    return m_aOutputFile;
+  }
+
+  @Nullable
+  public Path getOutputDir ()
+  {
+    return m_aOutputDir;
+  }
+
+  public boolean isSchematron ()
+  {
+    return m_bSchematron;
+  }
+
+  public boolean isXSDOnly ()
+  {
+    return m_bXSDOnly;
+  }
+
+  @Nullable
+  public EViDATDDDocumentScope getDocumentScope ()
+  {
+    return m_eDocumentScope;
+  }
+
+  @Nullable
+  public EViDATDDReporterRole getReporterRole ()
+  {
+    return m_eReporterRole;
+  }
+
+  @Nullable
+  public String getReportingParty ()
+  {
+    return m_sReportingParty;
+  }
+
+  @Nullable
+  public String getReceivingParty ()
+  {
+    return m_sReceivingParty;
+  }
+
+  @Nullable
+  public String getReportersRepresentative ()
+  {
+    return m_sReportersRepresentative;
+  }
+
+  @Nullable
+  public String getTaxAuthorityID ()
+  {
+    return m_sTaxAuthorityID;
+  }
+
+  @Nullable
+  public String getBindAddress ()
+  {
+    return m_sBindAddress;
+  }
+
+  @Nonnegative
+  public int getPort ()
+  {
+    return m_nPort;
+  }
+
+  @Nonnegative
+  public int getMaxInFlight ()
+  {
+    return m_nMaxInFlight;
+  }
+
+  @Nonnegative
+  public int getMaxRequestBytes ()
+  {
+    return m_nMaxRequestBytes;
+  }
+
+  @NonNull
+  private static String _value (@NonNull final String [] aArgs, final int nIndex)
+  {
+    if (nIndex >= aArgs.length)
+      throw new IllegalArgumentException ("Option '" + aArgs[nIndex - 1] + "' requires a value");
+    return aArgs[nIndex];
+  }
+
+  private static int _int (@NonNull final String [] aArgs, final int nIndex, final int nMin)
+  {
+    final String sValue = _value (aArgs, nIndex);
+    final int ret;
+    try
+    {
+      ret = Integer.parseInt (sValue);
+    }
+    catch (final NumberFormatException ex)
+    {
+      throw new IllegalArgumentException ("Option '" + aArgs[nIndex - 1] + "' requires a number");
+    }
+    if (ret < nMin)
+      throw new IllegalArgumentException ("Option '" + aArgs[nIndex - 1] + "' must be >= " + nMin);
+    return ret;
+  }
+
+  /**
+   * Parse the command line.
+   *
+   * @param aArgs
+   *        The command line arguments. May not be <code>null</code>.
+   * @return The parsed options. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the command line is invalid
+   */
+  @NonNull
+  public static PeppolViDACLIOptions parse (@NonNull final String [] aArgs)
+  {
+    if (aArgs.length == 0)
+      throw new IllegalArgumentException ("No command provided");
+
+    final PeppolViDACLIOptions ret = new PeppolViDACLIOptions ();
+    ret.m_eCommand = EPeppolViDACLICommand.getFromIDOrNull (aArgs[0]);
+    if (ret.m_eCommand == null)
+      throw new IllegalArgumentException ("Unknown command '" + aArgs[0] + "'");
+
+    for (int i = 1; i < aArgs.length; ++i)
+    {
+      final String sArg = aArgs[i];
+      switch (sArg)
+      {
+        case "-w":
+        case "--workers":
+          ret.m_nWorkerCount = _int (aArgs, ++i, 1);
+          break;
+        case "-o":
+        case "--output":
+          ret.m_aOutputFile = Paths.get (_value (aArgs, ++i));
+          break;
+        case "-d":
+        case "--output-dir":
+          ret.m_aOutputDir = Paths.get (_value (aArgs, ++i));
+          break;
+        case "--schematron":
+          ret.m_bSchematron = true;
+          break;
+        case "--xsd-only":
+          ret.m_bXSDOnly = true;
+          break;
+        case "--document-scope":
+          ret.m_eDocumentScope = EViDATDDDocumentScope.getFromIDOrNull (_value (aArgs, ++i));
+          if (ret.m_eDocumentScope == null)
+            throw new IllegalArgumentException ("Invalid document scope '" + aArgs[i] + "'");
+          break;
+        case "--reporter-role":
+          ret.m_eReporterRole = EViDATDDReporterRole.getFromIDOrNull (_value (aArgs, ++i));
+          if (ret.m_eReporterRole == null)
+            throw new IllegalArgumentException ("Invalid reporter role '" + aArgs[i] + "'");
+          break;
+        case "--reporting-party":
+          ret.m_sReportingParty = _value (aArgs, ++i);
+          break;
+        case "--receiving-party":
+          ret.m_sReceivingParty = _value (aArgs, ++i);
+          break;
+        case "--reporters-representative":
+          ret.m_sReportersRepresentative = _value (aArgs, ++i);
+          break;
+        case "--tax-authority":
+          ret.m_sTaxAuthorityID = _value (aArgs, ++i);
+          break;
+        case "--bind":
+          ret.m_sBindAddress = _value (aArgs, ++i);
+          break;
+        case "--port":
+          ret.m_nPort = _int (aArgs, ++i, 0);
+          if (ret.m_nPort > 65535)
+            throw new IllegalArgumentException ("Invalid port " + ret.m_nPort);
+          break;
+        case "--max-in-flight":
+          ret.m_nMaxInFlight = _int (aArgs, ++i, 1);
+          break;
+        case "--max-request-size":
+          ret.m_nMaxRequestBytes = _int (aArgs, ++i, 1);
+          break;
+        default:
+          if (sArg.startsWith ("-"))
+            throw new IllegalArgumentException ("Unknown option '" + sArg + "'");
+          ret.m_aInputs.add (sArg);
+          break;
+      }
+    }
+    if (ret.m_eCommand == EPeppolViDACLICommand.SERVE)
+    {
+      if (ret.m_aInputs.isNotEmpty ())
+        throw new IllegalArgumentException ("The 'serve' command takes no inputs");
+    }
+    else
+      if (ret.m_aInputs.isEmpty ())
+        throw new IllegalArgumentException ("No input provided");
+    return ret;
+  }
+}
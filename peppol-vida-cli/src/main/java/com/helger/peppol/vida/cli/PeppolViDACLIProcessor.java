@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+
+/**
+ * Processes a list of TDD files in parallel with a fixed number of worker threads. Each worker
+ * thread has its own {@link PeppolViDATDD090Marshaller} that is reused for all files handled by
+ * that thread. The number of files between reading and delivery of the NDJSON line is limited, so
+ * that huge inputs don't exhaust the memory. Lines are delivered in completion order and never
+ * concurrently.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+final class PeppolViDACLIProcessor
+{
+  /**
+   * The action to perform on a single file.
+   *
+   * @author Philip Helger
+   */
+  @FunctionalInterface
+  interface IFileHandler
+  {
+    /**
+     * Handle a single file.
+     *
+     * @param aMarshaller
+     *        The marshaller of the current worker thread. Never <code>null</code>.
+     * @param aBytes
+     *        The file content. Never <code>null</code>.
+     * @param aLine
+     *        The NDJSON line to add the results to. Never <code>null</code>.
+     * @return <code>true</code> if the file was handled successfully, <code>false</code>
+     *         otherwise.
+     * @throws Exception
+     *         In case of an unexpected error. Counts as failure.
+     */
+    boolean handle (@NonNull PeppolViDATDD090Marshaller aMarshaller,
+                    byte @NonNull [] aBytes,
+                    @NonNull PeppolViDACLIJsonLine aLine) throws Exception;
+  }
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger (0);
+
+  private PeppolViDACLIProcessor ()
+  {}
+
+  @NonNull
+  static PeppolViDACLISummary process (@NonNull final Iterable <Path> aFiles,
+                                       @Nonnegative final int nWorkerCount,
+                                       @NonNull final IFileHandler aHandler,
+                                       @NonNull final Consumer <String> aSink) throws InterruptedException
+  {
+    ValueEnforcer.notNull (aFiles, "Files");
+    ValueEnforcer.isGT0 (nWorkerCount, "WorkerCount");
+    ValueEnforcer.notNull (aHandler, "Handler");
+    ValueEnforcer.notNull (aSink, "Sink");
+
+    final long nStart = System.nanoTime ();
+    final int nMaxInFlight = 4 * nWorkerCount;
+    final Semaphore aInFlight = new Semaphore (nMaxInFlight);
+    final AtomicLong aFailureCount = new AtomicLong (0);
+    final AtomicReference <RuntimeException> aSinkException = new AtomicReference <> ();
+    final ThreadLocal <PeppolViDATDD090Marshaller> aMarshaller = ThreadLocal.withInitial (PeppolViDATDD090Marshaller::new);
+    final ExecutorService aExecutor = Executors.newFixedThreadPool (nWorkerCount, r -> {
+      final Thread t = new Thread (r, "vida-cli-" + THREAD_COUNTER.incrementAndGet ());
+      t.setDaemon (true);
+      return t;
+    });
+    long nTotalCount = 0;
+    try
+    {
+      for (final Path aFile : aFiles)
+      {
+        // Backpressure
+        aInFlight.acquire ();
+        if (aSinkException.get () != null)
+        {
+          aInFlight.release ();
+          break;
+        }
+
+        nTotalCount++;
+        aExecutor.execute ( () -> {
+          try
+          {
+            final PeppolViDACLIJsonLine aLine = new PeppolViDACLIJsonLine ().add ("file", aFile.toString ());
+            boolean bSuccess;
+            try
+            {
+              bSuccess = aHandler.handle (aMarshaller.get (), Files.readAllBytes (aFile), aLine);
+            }
+            catch (final Exception ex)
+            {
+              aLine.add ("error", ex.getClass ().getName () + ": " + ex.getMessage ());
+              bSuccess = false;
+            }
+            aLine.add ("success", bSuccess);
+            if (!bSuccess)
+              aFailureCount.incrementAndGet ();
+
+            synchronized (aSink)
+            {
+              if (aSinkException.get () == null)
+                aSink.accept (aLine.getAsString ());
+            }
+          }
+          catch (final RuntimeException ex)
+          {
+            // Stop feeding
+            aSinkException.compareAndSet (null, ex);
+          }
+          finally
+          {
+            aInFlight.release ();
+          }
+        });
+      }
+
+      // Wait until everything was delivered
+      aInFlight.acquire (nMaxInFlight);
+    }
+    finally
+    {
+      aExecutor.shutdownNow ();
+    }
+
+    if (aSinkException.get () != null)
+      throw aSinkException.get ();
+
+    return new PeppolViDACLISummary (nTotalCount, aFailureCount.get (), System.nanoTime () - nStart);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+
+/**
+ * Statistics of a single CLI run.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDACLISummary
+{
+  private final long m_nTotalCount;
+  private final long m_nFailureCount;
+  private final long m_nDurationNanos;
+
+  public PeppolViDACLISummary (final long nTotalCount, final long nFailureCount, final long nDurationNanos)
+  {
+    m_nTotalCount = nTotalCount;
+    m_nFailureCount = nFailureCount;
+    m_nDurationNanos = nDurationNanos;
+  }
+
+  /**
+   * @return The number of files processed.
+   */
+  public long getTotalCount ()
+  {
+    return m_nTotalCount;
+  }
+
+  /**
+   * @return The number of files that were not processed successfully.
+   */
+  public long getFailureCount ()
+  {
+    return m_nFailureCount;
+  }
+
+  /**
+   * @return The wall clock duration in nanoseconds.
+   */
+  public long getDurationNanos ()
+  {
+    return m_nDurationNanos;
+  }
+
+  /**
+   * @return The number of files per second.
+   */
+  public double getThroughputPerSecond ()
+  {
+    return m_nDurationNanos <= 0 ? 0 : m_nTotalCount * 1_000_000_000d / m_nDurationNanos;
+  }
+
+  /**
+   * @return The human readable summary line. Never <code>null</code>.
+   */
+  @NonNull
+  public String getAsString ()
+  {
+    return String.format (Locale.ROOT,
+                          "%d files, %d failures, %d ms, %.1f files/s",
+                          Long.valueOf (m_nTotalCount),
+                          Long.valueOf (m_nFailureCount),
+                          Long.valueOf (TimeUnit.NANOSECONDS.toMillis (m_nDurationNanos)),
+                          Double.valueOf (getThroughputPerSecond ()));
+  }
+
+  @Override
+  public String toString ()
+  {
+    return getAsString ();
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * Request counters and latency histograms per endpoint of {@link PeppolViDAHttpServer}. Recording
+ * is lock-free. The histograms use fixed buckets, so that the memory usage is constant and
+ * independent of the number of requests.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PeppolViDAHttpMetrics
+{
+  /** Upper bounds of the latency buckets in milliseconds. The last implicit bucket is +Inf */
+  private static final long [] BUCKET_BOUNDS_MS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000 };
+
+  private static final class EndpointMetrics
+  {
+    private final Map <Integer, LongAdder> m_aStatusCounts = new ConcurrentHashMap <> ();
+    // Not cumulative
+    private final AtomicLongArray m_aBuckets = new AtomicLongArray (BUCKET_BOUNDS_MS.length + 1);
+    private final LongAdder m_aCount = new LongAdder ();
+    private final LongAdder m_aSumNanos = new LongAdder ();
+  }
+
+  private final long m_nStartNanos = System.nanoTime ();
+  private final Map <EPeppolViDAHttpEndpoint, EndpointMetrics> m_aEndpoints = new EnumMap <> (EPeppolViDAHttpEndpoint.class);
+
+  public PeppolViDAHttpMetrics ()
+  {
+    // Fully populated upfront, so that the map is never modified afterwards
+    for (final EPeppolViDAHttpEndpoint e : EPeppolViDAHttpEndpoint.values ())
+      m_aEndpoints.put (e, new EndpointMetrics ());
+  }
+
+  static int getBucketIndex (@Nonnegative final long nDurationNanos)
+  {
+    // Upper bounds are inclusive
+    int i = 0;
+    while (i < BUCKET_BOUNDS_MS.length && nDurationNanos > TimeUnit.MILLISECONDS.toNanos (BUCKET_BOUNDS_MS[i]))
+      ++i;
+    return i;
+  }
+
+  /**
+   * Record a single handled request.
+   *
+   * @param eEndpoint
+   *        The endpoint that was called. May not be <code>null</code>.
+   * @param nStatusCode
+   *        The HTTP status code of the response.
+   * @param nDurationNanos
+   *        The time it took to handle the request, in nanoseconds.
+   */
+  public void record (@NonNull final EPeppolViDAHttpEndpoint eEndpoint,
+                      final int nStatusCode,
+                      @Nonnegative final long nDurationNanos)
+  {
+    ValueEnforcer.notNull (eEndpoint, "Endpoint");
+
+    final EndpointMetrics aMetrics = m_aEndpoints.get (eEndpoint);
+    aMetrics.m_aStatusCounts.computeIfAbsent (Integer.valueOf (nStatusCode), k -> new LongAdder ()).increment ();
+    aMetrics.m_aBuckets.incrementAndGet (getBucketIndex (nDurationNanos));
+    aMetrics.m_aCount.increment ();
+    aMetrics.m_aSumNanos.add (nDurationNanos);
+  }
+
+  /**
+   * @param eEndpoint
+   *        The endpoint to query. May not be <code>null</code>.
+   * @return The number of requests recorded for the endpoint, independent of the status code.
+   */
+  @Nonnegative
+  public long getRequestCount (@NonNull final EPeppolViDAHttpEndpoint eEndpoint)
+  {
+    return m_aEndpoints.get (eEndpoint).m_aCount.sum ();
+  }
+
+  /**
+   * @param eEndpoint
+   *        The endpoint to query. May not be <code>null</code>.
+   * @param nStatusCode
+   *        The HTTP status code to query.
+   * @return The number of requests recorded for the endpoint with the provided status code.
+   */
+  @Nonnegative
+  public long getRequestCount (@NonNull final EPeppolViDAHttpEndpoint eEndpoint, final int nStatusCode)
+  {
+    final LongAdder aCount = m_aEndpoints.get (eEndpoint).m_aStatusCounts.get (Integer.valueOf (nStatusCode));
+    return aCount == null ? 0 : aCount.sum ();
+  }
+
+  @NonNull
+  private static String _seconds (final double dSeconds)
+  {
+    return String.format (Locale.ROOT, "%.6f", Double.valueOf (dSeconds));
+  }
+
+  /**
+   * Get all metrics in the Prometheus text exposition format (version 0.0.4).
+   *
+   * @param nInFlight
+   *        The number of requests currently in flight.
+   * @return The metrics text. Never <code>null</code>.
+   */
+  @NonNull
+  public String getAsPrometheusText (@Nonnegative final int nInFlight)
+  {
+    final double dUptimeSeconds = (System.nanoTime () - m_nStartNanos) / 1_000_000_000d;
+    final StringBuilder aSB = new StringBuilder (4096);
+
+    aSB.append ("# HELP peppol_vida_http_uptime_seconds Time since the server was started\n")
+       .append ("# TYPE peppol_vida_http_uptime_seconds gauge\n")
+       .append ("peppol_vida_http_uptime_seconds ")
+       .append (_seconds (dUptimeSeconds))
+       .append ('\n');
+
+    aSB.append ("# HELP peppol_vida_http_in_flight Number of requests currently being processed\n")
+       .append ("# TYPE peppol_vida_http_in_flight gauge\n")
+       .append ("peppol_vida_http_in_flight ")
+       .append (nInFlight)
+       .append ('\n');
+
+    aSB.append ("# HELP peppol_vida_http_requests_total Number of handled requests\n")
+       .append ("# TYPE peppol_vida_http_requests_total counter\n");
+    for (final Map.Entry <EPeppolViDAHttpEndpoint, EndpointMetrics> aEntry : m_aEndpoints.entrySet ())
+      for (final Map.Entry <Integer, LongAdder> aStatus : aEntry.getValue ().m_aStatusCounts.entrySet ())
+        aSB.append ("peppol_vida_http_requests_total{endpoint=\"")
+           .append (aEntry.getKey ().getID ())
+           .append ("\",status=\"")
+           .append (aStatus.getKey ())
+           .append ("\"} ")
+           .append (aStatus.getValue ().sum ())
+           .append ('\n');
+
+    aSB.append ("# HELP peppol_vida_http_throughput_per_second Average number of requests per second since start\n")
+       .append ("# TYPE peppol_vida_http_throughput_per_second gauge\n");
+    for (final Map.Entry <EPeppolViDAHttpEndpoint, EndpointMetrics> aEntry : m_aEndpoints.entrySet ())
+      aSB.append ("peppol_vida_http_throughput_per_second{endpoint=\"")
+         .append (aEntry.getKey ().getID ())
+         .append ("\"} ")
+         .append (_seconds (dUptimeSeconds <= 0 ? 0 : aEntry.getValue ().m_aCount.sum () / dUptimeSeconds))
+         .append ('\n');
+
+    aSB.append ("# HELP peppol_vida_http_request_duration_seconds Request latency\n")
+       .append ("# TYPE peppol_vida_http_request_duration_seconds histogram\n");
+    for (final Map.Entry <EPeppolViDAHttpEndpoint, EndpointMetrics> aEntry : m_aEndpoints.entrySet ())
+    {
+      final String sEndpoint = aEntry.getKey ().getID ();
+      final EndpointMetrics aMetrics = aEntry.getValue ();
+      long nCumulative = 0;
+      for (int i = 0; i <= BUCKET_BOUNDS_MS.length; ++i)
+      {
+        nCumulative += aMetrics.m_aBuckets.get (i);
+        aSB.append ("peppol_vida_http_request_duration_seconds_bucket{endpoint=\"")
+           .append (sEndpoint)
+           .append ("\",le=\"")
+           .append (i < BUCKET_BOUNDS_MS.length ? _seconds (BUCKET_BOUNDS_MS[i] / 1_000d) : "+Inf")
+           .append ("\"} ")
+           .append (nCumulative)
+           .append ('\n');
+      }
+      aSB.append ("peppol_vida_http_request_duration_seconds_sum{endpoint=\"")
+         .append (sEndpoint)
+         .append ("\"} ")
+         .append (_seconds (aMetrics.m_aSumNanos.sum () / 1_000_000_000d))
+         .append ('\n');
+      // Use the bucket total, so that count and +Inf are consistent
+      aSB.append ("peppol_vida_http_request_duration_seconds_count{endpoint=\"")
+         .append (sEndpoint)
+         .append ("\"} ")
+         .append (nCumulative)
+         .append ('\n');
+    }
+    return aSB.toString ();
+  }
+}
@@ -0,0 +1,537 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDXSDValidator;
+import com.helger.peppol.vida.tdd.validate.PeppolViDATDDValidator;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchConverter;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchResult;
+import com.helger.schematron.svrl.SVRLFailedAssert;
+import com.helger.schematron.svrl.SVRLHelper;
+import com.helger.schematron.svrl.jaxb.SchematronOutputType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local HTTP server for TDD conversion and validation, based on the HTTP server built into the
+ * JDK. It has the following endpoints:
+ * <ul>
+ * <li><code>POST /convert</code> - the request body is a UBL Invoice or CreditNote, the response
+ * body is the TDD XML on success (the TDD UUID is in the header <code>X-TDD-UUID</code>) or a JSON
+ * error object with status 422</li>
+ * <li><code>POST /validate</code> - the request body is a TDD, the response body is a JSON object
+ * with the XSD errors and the failed Schematron assertions</li>
+ * <li><code>GET /metrics</code> - request counters and latency histograms in the Prometheus text
+ * format</li>
+ * </ul>
+ * The number of conversions and validations in flight is limited - excess requests are rejected
+ * immediately with status 503. Request bodies are parsed while they are received, without buffering
+ * them first, and up to the configured maximum size only - larger requests are rejected with status
+ * 413. Requests are handled on virtual threads if the
+ * runtime supports them (Java 21+), and on a cached platform thread pool otherwise.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class PeppolViDAHttpServer implements AutoCloseable
+{
+  /**
+   * A request body stream that fails as soon as more than the allowed number of bytes is read.
+   */
+  private static final class LimitedInputStream extends FilterInputStream
+  {
+    private long m_nRemaining;
+    private boolean m_bLimitExceeded = false;
+
+    LimitedInputStream (@NonNull final InputStream aIS, final long nMaxBytes)
+    {
+      super (aIS);
+      m_nRemaining = nMaxBytes;
+    }
+
+    private int _checkEnd () throws IOException
+    {
+      // Chunked requests have no length - so the limit is only known to be exceeded at this point
+      if (super.read () < 0)
+        return -1;
+      m_bLimitExceeded = true;
+      throw new IOException ("The request body is too large");
+    }
+
+    @Override
+    public int read () throws IOException
+    {
+      if (m_nRemaining <= 0)
+        return _checkEnd ();
+      final int ret = super.read ();
+      if (ret >= 0)
+        m_nRemaining--;
+      return ret;
+    }
+
+    @Override
+    public int read (final byte [] aBuf, final int nOfs, final int nLen) throws IOException
+    {
+      if (nLen == 0)
+        return 0;
+      if (m_nRemaining <= 0)
+        return _checkEnd ();
+      final int ret = super.read (aBuf, nOfs, (int) Math.min (nLen, m_nRemaining));
+      if (ret > 0)
+        m_nRemaining -= ret;
+      return ret;
+    }
+
+    @Override
+    public long skip (final long n) throws IOException
+    {
+      final long ret = super.skip (Math.min (n, m_nRemaining));
+      m_nRemaining -= ret;
+      return ret;
+    }
+
+    boolean isLimitExceeded ()
+    {
+      return m_bLimitExceeded;
+    }
+  }
+
+  public static final int DEFAULT_PORT = 8080;
+  public static final int DEFAULT_MAX_REQUEST_BYTES = 10 * 1024 * 1024;
+  public static final String HEADER_TDD_UUID = "X-TDD-UUID";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDAHttpServer.class);
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger (0);
+  private static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
+  private static final String CONTENT_TYPE_XML = "application/xml";
+  private static final String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=UTF-8";
+
+  private final PeppolViDATDD090BatchConverter m_aConverter;
+  private final PeppolViDATDDXSDValidator m_aXSDValidator = PeppolViDATDDXSDValidator.tdd090 ();
+  private final PeppolViDAHttpMetrics m_aMetrics = new PeppolViDAHttpMetrics ();
+  private final CountDownLatch m_aStopped = new CountDownLatch (1);
+  private InetAddress m_aBindAddress = InetAddress.getLoopbackAddress ();
+  private int m_nPort = DEFAULT_PORT;
+  private int m_nMaxInFlight = 4 * Runtime.getRuntime ().availableProcessors ();
+  private int m_nMaxRequestBytes = DEFAULT_MAX_REQUEST_BYTES;
+  private Semaphore m_aInFlight;
+  private ExecutorService m_aExecutor;
+  private HttpServer m_aServer;
+
+  /**
+   * Constructor
+   *
+   * @param aConverter
+   *        The converter with the TDD header fields used by <code>/convert</code>. May not be
+   *        <code>null</code>. Must not be modified after the server was started.
+   */
+  public PeppolViDAHttpServer (@NonNull final PeppolViDATDD090BatchConverter aConverter)
+  {
+    ValueEnforcer.notNull (aConverter, "Converter");
+    m_aConverter = aConverter;
+  }
+
+  /**
+   * @param a
+   *        The address to listen on. Defaults to the loopback address. May not be
+   *        <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public synchronized PeppolViDAHttpServer bindAddress (@NonNull final InetAddress a)
+  {
+    ValueEnforcer.notNull (a, "BindAddress");
+    _checkNotStarted ();
+    m_aBindAddress = a;
+    return this;
+  }
+
+  /**
+   * @param n
+   *        The port to listen on. Use 0 for an ephemeral port. Defaults to {@link #DEFAULT_PORT}.
+   * @return this for chaining
+   */
+  @NonNull
+  public synchronized PeppolViDAHttpServer port (@Nonnegative final int n)
+  {
+    ValueEnforcer.isBetweenInclusive (n, "Port", 0, 65535);
+    _checkNotStarted ();
+    m_nPort = n;
+    return this;
+  }
+
+  /**
+   * @param n
+   *        The maximum number of conversions and validations processed at the same time. Further
+   *        requests are rejected with status 503. Defaults to 4 times the number of CPUs.
+   * @return this for chaining
+   */
+  @NonNull
+  public synchronized PeppolViDAHttpServer maxInFlight (final int n)
+  {
+    ValueEnforcer.isGT0 (n, "MaxInFlight");
+    _checkNotStarted ();
+    m_nMaxInFlight = n;
+    return this;
+  }
+
+  /**
+   * @param n
+   *        The maximum request body size in bytes. Larger requests are rejected with status 413.
+   *        Defaults to {@link #DEFAULT_MAX_REQUEST_BYTES}.
+   * @return this for chaining
+   */
+  @NonNull
+  public synchronized PeppolViDAHttpServer maxRequestBytes (final int n)
+  {
+    ValueEnforcer.isGT0 (n, "MaxRequestBytes");
+    _checkNotStarted ();
+    m_nMaxRequestBytes = n;
+    return this;
+  }
+
+  private void _checkNotStarted ()
+  {
+    if (m_aServer != null)
+      throw new IllegalStateException ("The server was already started");
+  }
+
+  /**
+   * @return The metrics of this server. Never <code>null</code>.
+   */
+  @NonNull
+  public PeppolViDAHttpMetrics getMetrics ()
+  {
+    return m_aMetrics;
+  }
+
+  /**
+   * @return The port the server is listening on. Only differs from the configured port if 0 was
+   *         configured. -1 if the server is not started.
+   */
+  public synchronized int getPort ()
+  {
+    return m_aServer == null ? -1 : m_aServer.getAddress ().getPort ();
+  }
+
+  @NonNull
+  private static ExecutorService _createExecutor ()
+  {
+    try
+    {
+      // Java 21+ - looked up dynamically, because the code base targets Java 17
+      return (ExecutorService) Executors.class.getMethod ("newVirtualThreadPerTaskExecutor").invoke (null);
+    }
+    catch (final ReflectiveOperationException ex)
+    {
+      // Not bounded, because excess requests must be rejected quickly instead of being queued
+      return Executors.newCachedThreadPool (r -> {
+        final Thread t = new Thread (r, "vida-http-" + THREAD_COUNTER.incrementAndGet ());
+        t.setDaemon (true);
+        return t;
+      });
+    }
+  }
+
+  /**
+   * Start the server. The call returns immediately.
+   *
+   * @return this for chaining
+   * @throws IOException
+   *         If the server socket cannot be bound
+   */
+  @NonNull
+  public synchronized PeppolViDAHttpServer start () throws IOException
+  {
+    _checkNotStarted ();
+    m_aInFlight = new Semaphore (m_nMaxInFlight);
+    m_aExecutor = _createExecutor ();
+    final HttpServer aServer = HttpServer.create (new InetSocketAddress (m_aBindAddress, m_nPort), 0);
+    for (final EPeppolViDAHttpEndpoint e : EPeppolViDAHttpEndpoint.values ())
+      aServer.createContext (e.getPath (), aExchange -> _handle (e, aExchange));
+    aServer.setExecutor (m_aExecutor);
+    aServer.start ();
+    m_aServer = aServer;
+    LOGGER.info ("Peppol ViDA HTTP server listening on " + m_aBindAddress.getHostAddress () + ":" + getPort ());
+    return this;
+  }
+
+  /**
+   * Block until the server is stopped with {@link #close()}.
+   *
+   * @throws InterruptedException
+   *         If the calling thread is interrupted while waiting
+   */
+  public void awaitStop () throws InterruptedException
+  {
+    m_aStopped.await ();
+  }
+
+  /**
+   * Stop the server. Requests in progress get up to one second to complete.
+   */
+  @Override
+  public synchronized void close ()
+  {
+    if (m_aServer != null)
+    {
+      m_aServer.stop (1);
+      m_aExecutor.shutdownNow ();
+      m_aServer = null;
+      m_aStopped.countDown ();
+      LOGGER.info ("Peppol ViDA HTTP server stopped");
+    }
+  }
+
+  private static int _respond (@NonNull final HttpExchange aExchange,
+                               final int nStatusCode,
+                               @NonNull final String sContentType,
+                               final byte @NonNull [] aBody) throws IOException
+  {
+    aExchange.getResponseHeaders ().set ("Content-Type", sContentType);
+    aExchange.sendResponseHeaders (nStatusCode, aBody.length == 0 ? -1 : aBody.length);
+    try (final OutputStream aOS = aExchange.getResponseBody ())
+    {
+      aOS.write (aBody);
+    }
+    return nStatusCode;
+  }
+
+  private static int _respondJson (@NonNull final HttpExchange aExchange,
+                                   final int nStatusCode,
+                                   @NonNull final PeppolViDACLIJsonLine aJson) throws IOException
+  {
+    return _respond (aExchange, nStatusCode, CONTENT_TYPE_JSON, aJson.getAsString ().getBytes (StandardCharsets.UTF_8));
+  }
+
+  private static int _respondError (@NonNull final HttpExchange aExchange,
+                                    final int nStatusCode,
+                                    @NonNull final String sErrorMsg) throws IOException
+  {
+    return _respondJson (aExchange, nStatusCode, new PeppolViDACLIJsonLine ().add ("success", false).add ("error", sErrorMsg));
+  }
+
+  private int _respondTooLarge (@NonNull final HttpExchange aExchange) throws IOException
+  {
+    return _respondError (aExchange,
+                          HttpURLConnection.HTTP_ENTITY_TOO_LARGE,
+                          "The request body exceeds " + m_nMaxRequestBytes + " bytes");
+  }
+
+  /**
+   * Open the request body, that is limited to the configured maximum.
+   *
+   * @return <code>null</code> if the announced request body size is too large
+   */
+  @Nullable
+  private LimitedInputStream _openBody (@NonNull final HttpExchange aExchange)
+  {
+    // Reject early if the size is announced
+    final String sContentLength = aExchange.getRequestHeaders ().getFirst ("Content-Length");
+    if (sContentLength != null)
+      try
+      {
+        if (Long.parseLong (sContentLength.trim ()) > m_nMaxRequestBytes)
+          return null;
+      }
+      catch (final NumberFormatException ex)
+      {
+        // Ignore and rely on the stream limit
+      }
+    return new LimitedInputStream (aExchange.getRequestBody (), m_nMaxRequestBytes);
+  }
+
+  private int _convert (@NonNull final HttpExchange aExchange, @NonNull final LimitedInputStream aIS) throws IOException
+  {
+    final PeppolViDATDD090BatchResult aResult = m_aConverter.convertSingle ("request", aIS);
+    if (aIS.isLimitExceeded ())
+      return _respondTooLarge (aExchange);
+    if (!aResult.isSuccess ())
+    {
+      final PeppolViDACLIJsonLine aJson = new PeppolViDACLIJsonLine ().add ("success", false)
+                                                                      .add ("error", aResult.getErrorMessage ());
+      if (aResult.getAllFailedAssertions ().isNotEmpty ())
+        aJson.add ("failedAsserts",
+                   aResult.getAllFailedAssertions ().getAllMapped (x -> "[" + x.getID () + "] " + x.getText ()));
+      return _respondJson (aExchange, 422, aJson);
+    }
+
+    aExchange.getResponseHeaders ().set (HEADER_TDD_UUID, aResult.getTDD ().getUUID ());
+    return _respond (aExchange, HttpURLConnection.HTTP_OK, CONTENT_TYPE_XML, aResult.getTDDBytes ());
+  }
+
+  /**
+   * @return A new XML reader for untrusted request bodies, that rejects every DOCTYPE declaration.
+   *         This rules out external entities as well as entity expansion attacks.
+   */
+  @NonNull
+  private static XMLReader _createSecureXMLReader () throws ParserConfigurationException, SAXException
+  {
+    final SAXParserFactory aSPF = SAXParserFactory.newDefaultInstance ();
+    aSPF.setNamespaceAware (true);
+    aSPF.setFeature (XMLConstants.FEATURE_SECURE_PROCESSING, true);
+    aSPF.setFeature ("http://apache.org/xml/features/disallow-doctype-decl", true);
+    return aSPF.newSAXParser ().getXMLReader ();
+  }
+
+  private int _validate (@NonNull final HttpExchange aExchange, @NonNull final LimitedInputStream aIS) throws Exception
+  {
+    final PeppolViDACLIJsonLine aJson = new PeppolViDACLIJsonLine ();
+    // Parse only once: build the DOM for Schematron while XSD validating the stream
+    final TransformerHandler aDOMBuilder = ((SAXTransformerFactory) TransformerFactory.newDefaultInstance ()).newTransformerHandler ();
+    final DOMResult aDOM = new DOMResult ();
+    aDOMBuilder.setResult (aDOM);
+    final ICommonsList <SAXParseException> aXSDErrors = m_aXSDValidator.validate (new SAXSource (_createSecureXMLReader (), new InputSource (aIS)),
+                                                                                  new SAXResult (aDOMBuilder));
+    if (aIS.isLimitExceeded ())
+      return _respondTooLarge (aExchange);
+    if (aXSDErrors.isNotEmpty ())
+    {
+      // No Schematron on XSD invalid documents
+      return _respondJson (aExchange,
+                           HttpURLConnection.HTTP_OK,
+                           aJson.add ("success", false)
+                                .add ("xsdErrors",
+                                      aXSDErrors.getAllMapped (x -> x.getLineNumber () +
+                                                                    ":" +
+                                                                    x.getColumnNumber () +
+                                                                    ": " +
+                                                                    x.getMessage ())));
+    }
+
+    final SchematronOutputType aSVRL = PeppolViDATDDValidator.validateViDA_TDD_090 (aDOM.getNode (), null);
+    if (aSVRL == null)
+      return _respondError (aExchange, HttpURLConnection.HTTP_INTERNAL_ERROR, "Schematron validation failed");
+
+    final ICommonsList <String> aFailedAsserts = new CommonsArrayList <> ();
+    for (final SVRLFailedAssert aFA : SVRLHelper.getAllFailedAssertions (aSVRL))
+      if (aFA.getFlag ().isError ())
+        aFailedAsserts.add ("[" + aFA.getID () + "] " + aFA.getText ());
+    return _respondJson (aExchange,
+                         HttpURLConnection.HTTP_OK,
+                         aJson.add ("success", aFailedAsserts.isEmpty ()).add ("failedAsserts", aFailedAsserts));
+  }
+
+  private int _dispatch (@NonNull final EPeppolViDAHttpEndpoint eEndpoint, @NonNull final HttpExchange aExchange)
+                                                                                                                   throws Exception
+  {
+    // Contexts match by prefix
+    if (!eEndpoint.getPath ().equals (aExchange.getRequestURI ().getPath ()))
+      return _respondError (aExchange, HttpURLConnection.HTTP_NOT_FOUND, "Not found");
+    if (!eEndpoint.getMethod ().equals (aExchange.getRequestMethod ()))
+    {
+      aExchange.getResponseHeaders ().set ("Allow", eEndpoint.getMethod ());
+      return _respondError (aExchange, HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
+    }
+
+    if (eEndpoint == EPeppolViDAHttpEndpoint.METRICS)
+      return _respond (aExchange,
+                       HttpURLConnection.HTTP_OK,
+                       CONTENT_TYPE_PROMETHEUS,
+                       m_aMetrics.getAsPrometheusText (m_nMaxInFlight - m_aInFlight.availablePermits ())
+                                 .getBytes (StandardCharsets.UTF_8));
+
+    // Shed load instead of queueing
+    if (!m_aInFlight.tryAcquire ())
+    {
+      aExchange.getResponseHeaders ().set ("Retry-After", "1");
+      return _respondError (aExchange, HttpURLConnection.HTTP_UNAVAILABLE, "Too many requests in flight");
+    }
+    try
+    {
+      final LimitedInputStream aIS = _openBody (aExchange);
+      if (aIS == null)
+        return _respondTooLarge (aExchange);
+
+      try (aIS)
+      {
+        if (eEndpoint == EPeppolViDAHttpEndpoint.CONVERT)
+          return _convert (aExchange, aIS);
+        return _validate (aExchange, aIS);
+      }
+    }
+    finally
+    {
+      m_aInFlight.release ();
+    }
+  }
+
+  private void _handle (@NonNull final EPeppolViDAHttpEndpoint eEndpoint, @NonNull final HttpExchange aExchange)
+  {
+    final long nStartNanos = System.nanoTime ();
+    int nStatusCode = HttpURLConnection.HTTP_INTERNAL_ERROR;
+    try
+    {
+      nStatusCode = _dispatch (eEndpoint, aExchange);
+    }
+    catch (final Exception ex)
+    {
+      LOGGER.error ("Failed to handle " + aExchange.getRequestMethod () + " " + aExchange.getRequestURI (), ex);
+      try
+      {
+        _respondError (aExchange, HttpURLConnection.HTTP_INTERNAL_ERROR, "Internal error");
+      }
+      catch (final IOException | RuntimeException ex2)
+      {
+        // The response was already (partially) sent or the connection is gone
+      }
+    }
+    finally
+    {
+      aExchange.close ();
+      m_aMetrics.record (eEndpoint, nStatusCode, System.nanoTime () - nStartNanos);
+    }
+  }
+}
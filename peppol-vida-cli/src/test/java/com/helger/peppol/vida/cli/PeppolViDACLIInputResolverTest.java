@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Test class for class {@link PeppolViDACLIInputResolver}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDACLIInputResolverTest
+{
+  @Test
+  public void testIsGlob ()
+  {
+    assertTrue (PeppolViDACLIInputResolver.isGlob ("*.xml"));
+    assertTrue (PeppolViDACLIInputResolver.isGlob ("dir/**/a?.xml"));
+    assertTrue (PeppolViDACLIInputResolver.isGlob ("dir/{a,b}.xml"));
+    assertTrue (PeppolViDACLIInputResolver.isGlob ("dir/[ab].xml"));
+    assertFalse (PeppolViDACLIInputResolver.isGlob ("dir/a.xml"));
+    assertFalse (PeppolViDACLIInputResolver.isGlob ("dir"));
+  }
+
+  @Test
+  public void testResolve () throws Exception
+  {
+    final Path aDir = Files.createTempDirectory ("vida-cli");
+    try
+    {
+      Files.createDirectories (aDir.resolve ("sub/deeper"));
+      for (final String s : new String [] { "a.xml", "b.txt", "sub/c.xml", "sub/deeper/d.xml" })
+        Files.writeString (aDir.resolve (s), "<x/>");
+
+      // Directories are recursive and only contain XML files
+      ICommonsList <Path> aFiles = PeppolViDACLIInputResolver.resolve (new CommonsArrayList <> (aDir.toString ()));
+      assertEquals (3, aFiles.size ());
+
+      // Explicit files are taken as they are
+      aFiles = PeppolViDACLIInputResolver.resolve (new CommonsArrayList <> (aDir.resolve ("b.txt").toString ()));
+      assertEquals (1, aFiles.size ());
+
+      // Globs
+      aFiles = PeppolViDACLIInputResolver.resolve (new CommonsArrayList <> (aDir.resolve ("*.xml").toString ()));
+      assertEquals (1, aFiles.size ());
+      aFiles = PeppolViDACLIInputResolver.resolve (new CommonsArrayList <> (aDir.resolve ("sub/**.xml").toString ()));
+      assertEquals (2, aFiles.size ());
+
+      try
+      {
+        PeppolViDACLIInputResolver.resolve (new CommonsArrayList <> (aDir.resolve ("missing.xml").toString ()));
+        fail ();
+      }
+      catch (final IllegalArgumentException ex)
+      {
+        // expected
+      }
+    }
+    finally
+    {
+      try (final Stream <Path> aStream = Files.walk (aDir))
+      {
+        aStream.sorted (Comparator.reverseOrder ()).forEach (x -> x.toFile ().delete ());
+      }
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+
+/**
+ * Test class for class {@link PeppolViDACLIJsonLine}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDACLIJsonLineTest
+{
+  @Test
+  public void testBasic ()
+  {
+    assertEquals ("{}", new PeppolViDACLIJsonLine ().getAsString ());
+
+    final PeppolViDACLIJsonLine aLine = new PeppolViDACLIJsonLine ().add ("file", "a\"b\\c\n\u0001\u2028")
+                                                                    .add ("skipped", (String) null)
+                                                                    .add ("bytes", 42)
+                                                                    .add ("failedAsserts", new CommonsArrayList <> ("x", "y"));
+    assertEquals ("{\"file\":\"a\\\"b\\\\c\\n\\u0001\\u2028\",\"bytes\":42,\"failedAsserts\":[\"x\",\"y\"]}",
+                  aLine.getAsString ());
+
+    // Properties can still be added afterwards
+    aLine.add ("success", true);
+    assertEquals ("{\"file\":\"a\\\"b\\\\c\\n\\u0001\\u2028\",\"bytes\":42,\"failedAsserts\":[\"x\",\"y\"],\"success\":true}",
+                  aLine.getAsString ());
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+
+/**
+ * Test class for class {@link PeppolViDACLI}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDACLITest
+{
+  private static final class Result
+  {
+    private final int m_nExitCode;
+    private final ICommonsList <String> m_aLines;
+    private final String m_sErr;
+
+    Result (final int nExitCode, @NonNull final String sOut, @NonNull final String sErr)
+    {
+      m_nExitCode = nExitCode;
+      m_aLines = new CommonsArrayList <> (sOut.lines ().toList ());
+      m_sErr = sErr;
+    }
+  }
+
+  @Rule
+  public final TemporaryFolder m_aTempFolder = new TemporaryFolder ();
+
+  @NonNull
+  private static Result _run (@NonNull final ICommonsList <String> aArgs)
+  {
+    final ByteArrayOutputStream aOut = new ByteArrayOutputStream ();
+    final ByteArrayOutputStream aErr = new ByteArrayOutputStream ();
+    final int nExitCode = PeppolViDACLI.run (aArgs.toArray (new String [0]),
+                                             new PrintStream (aOut, true, StandardCharsets.UTF_8),
+                                             new PrintStream (aErr, true, StandardCharsets.UTF_8));
+    return new Result (nExitCode, aOut.toString (StandardCharsets.UTF_8), aErr.toString (StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The test files may be inside a JAR, so they are copied to the file system.
+   */
+  @NonNull
+  private ICommonsList <String> _paths (@NonNull final ICommonsList <ClassPathResource> aResources) throws IOException
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    for (final ClassPathResource aRes : aResources)
+    {
+      final Path aFile = m_aTempFolder.getRoot ().toPath ().resolve ("input").resolve (aRes.getPath ());
+      Files.createDirectories (aFile.getParent ());
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        Files.copy (aIS, aFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+      ret.add (aFile.toString ());
+    }
+    return ret;
+  }
+
+  @Test
+  public void testValidate () throws Exception
+  {
+    final ICommonsList <String> aFiles = _paths (PeppolViDATestFiles.getAllGoodTDD090Files ());
+    final ICommonsList <String> aArgs = new CommonsArrayList <> ("validate", "-w", "3");
+    aArgs.addAll (aFiles);
+    final Result aResult = _run (aArgs);
+    assertEquals (aResult.m_sErr, PeppolViDACLI.EXIT_OK, aResult.m_nExitCode);
+    assertEquals (aFiles.size (), aResult.m_aLines.size ());
+    for (final String sLine : aResult.m_aLines)
+      assertTrue (sLine, sLine.endsWith ("\"success\":true}"));
+    assertTrue (aResult.m_sErr, aResult.m_sErr.startsWith ("validate: " + aFiles.size () + " files, 0 failures"));
+
+    // A UBL Invoice is not a TDD
+    final Result aResult2 = _run (new CommonsArrayList <> ("validate",
+                                                           "--xsd-only",
+                                                           _paths (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ()).getFirstOrNull ()));
+    assertEquals (PeppolViDACLI.EXIT_FAILURES, aResult2.m_nExitCode);
+    assertEquals (1, aResult2.m_aLines.size ());
+    assertTrue (aResult2.m_aLines.getFirstOrNull (), aResult2.m_aLines.getFirstOrNull ().contains ("\"xsdErrors\":[\""));
+  }
+
+  @Test
+  public void testEnvelope () throws Exception
+  {
+    final ICommonsList <String> aFiles = _paths (PeppolViDATestFiles.getAllGoodTDD090Files ());
+    final ICommonsList <String> aArgs = new CommonsArrayList <> ("envelope");
+    aArgs.addAll (aFiles);
+    final Result aResult = _run (aArgs);
+    assertEquals (aResult.m_sErr, PeppolViDACLI.EXIT_OK, aResult.m_nExitCode);
+    assertEquals (aFiles.size (), aResult.m_aLines.size ());
+    for (final String sLine : aResult.m_aLines)
+    {
+      assertTrue (sLine, sLine.contains ("\"uuid\":\""));
+      assertTrue (sLine, sLine.contains ("\"reportedTransactionCount\":"));
+    }
+  }
+
+  @Test
+  public void testConvert () throws Exception
+  {
+    final Path aOutputDir = m_aTempFolder.newFolder ("output").toPath ();
+    final ICommonsList <String> aFiles = _paths (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ());
+    final Path aNDJSON = aOutputDir.resolve ("result.ndjson");
+    final ICommonsList <String> aArgs = new CommonsArrayList <> ("convert",
+                                                                 "-w",
+                                                                 "2",
+                                                                 "-o",
+                                                                 aNDJSON.toString (),
+                                                                 "--output-dir",
+                                                                 aOutputDir.resolve ("tdd").toString (),
+                                                                 "--document-scope",
+                                                                 "D",
+                                                                 "--reporter-role",
+                                                                 "C2",
+                                                                 "--reporting-party",
+                                                                 "9915:c1id",
+                                                                 "--receiving-party",
+                                                                 "0242:c5id",
+                                                                 "--reporters-representative",
+                                                                 "iso6523-actorid-upis::0242:987654",
+                                                                 "--tax-authority",
+                                                                 "XX");
+    aArgs.addAll (aFiles);
+    final Result aResult = _run (aArgs);
+    assertEquals (aResult.m_sErr, PeppolViDACLI.EXIT_OK, aResult.m_nExitCode);
+    // Written to the file
+    assertTrue (aResult.m_aLines.isEmpty ());
+    final ICommonsList <String> aLines = new CommonsArrayList <> (Files.readAllLines (aNDJSON));
+    assertEquals (aFiles.size (), aLines.size ());
+    // Input order
+    for (int i = 0; i < aLines.size (); ++i)
+      assertTrue (aLines.get (i), aLines.get (i).startsWith ("{\"file\":\"" + aFiles.get (i).replace ("\\", "\\\\")));
+    for (final String sLine : aLines)
+      assertTrue (sLine, sLine.contains ("\"output\":\""));
+    try (final Stream <Path> aStream = Files.list (aOutputDir.resolve ("tdd")))
+    {
+      assertEquals (aFiles.size (), aStream.count ());
+    }
+
+    // The created TDDs are valid
+    final Result aResult2 = _run (new CommonsArrayList <> ("validate", aOutputDir.resolve ("tdd").toString ()));
+    assertEquals (aResult2.m_sErr, PeppolViDACLI.EXIT_OK, aResult2.m_nExitCode);
+    assertEquals (aFiles.size (), aResult2.m_aLines.size ());
+  }
+
+  @Test
+  public void testUsage () throws Exception
+  {
+    final String sFile = _paths (PeppolViDATestFiles.getAllGoodTDD090Files ()).getFirstOrNull ();
+    for (final String [] aArgs : new String [] [] { {},
+                                                    { "unknown", sFile },
+                                                    { "validate" },
+                                                    { "validate", "--bla", sFile },
+                                                    { "validate", "-w", "0", sFile },
+                                                    { "validate", "-w" },
+                                                    { "validate", "does-not-exist.xml" } })
+    {
+      final Result aResult = _run (new CommonsArrayList <> (aArgs));
+      assertEquals (String.join (" ", aArgs), PeppolViDACLI.EXIT_USAGE, aResult.m_nExitCode);
+      assertTrue (aResult.m_aLines.isEmpty ());
+      assertFalse (aResult.m_sErr.isEmpty ());
+    }
+
+    // Missing header fields
+    final Result aResult = _run (new CommonsArrayList <> ("convert",
+                                                          _paths (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ()).getFirstOrNull ()));
+    assertEquals (PeppolViDACLI.EXIT_FAILURES, aResult.m_nExitCode);
+    assertEquals (1, aResult.m_aLines.size ());
+  }
+}
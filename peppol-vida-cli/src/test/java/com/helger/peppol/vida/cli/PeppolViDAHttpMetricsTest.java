@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link PeppolViDAHttpMetrics}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDAHttpMetricsTest
+{
+  @Test
+  public void testBucketIndex ()
+  {
+    assertEquals (0, PeppolViDAHttpMetrics.getBucketIndex (0));
+    // Upper bounds are inclusive
+    assertEquals (0, PeppolViDAHttpMetrics.getBucketIndex (TimeUnit.MILLISECONDS.toNanos (1)));
+    assertEquals (1, PeppolViDAHttpMetrics.getBucketIndex (TimeUnit.MILLISECONDS.toNanos (1) + 1));
+    assertEquals (13, PeppolViDAHttpMetrics.getBucketIndex (TimeUnit.MINUTES.toNanos (1)));
+  }
+
+  @Test
+  public void testPrometheusText ()
+  {
+    final PeppolViDAHttpMetrics aMetrics = new PeppolViDAHttpMetrics ();
+    aMetrics.record (EPeppolViDAHttpEndpoint.VALIDATE, 200, TimeUnit.MILLISECONDS.toNanos (3));
+    aMetrics.record (EPeppolViDAHttpEndpoint.VALIDATE, 200, TimeUnit.MILLISECONDS.toNanos (30));
+    aMetrics.record (EPeppolViDAHttpEndpoint.VALIDATE, 503, 1000);
+    assertEquals (3, aMetrics.getRequestCount (EPeppolViDAHttpEndpoint.VALIDATE));
+    assertEquals (2, aMetrics.getRequestCount (EPeppolViDAHttpEndpoint.VALIDATE, 200));
+    assertEquals (0, aMetrics.getRequestCount (EPeppolViDAHttpEndpoint.CONVERT, 200));
+
+    final String s = aMetrics.getAsPrometheusText (2);
+    assertTrue (s, s.contains ("peppol_vida_http_in_flight 2\n"));
+    assertTrue (s, s.contains ("peppol_vida_http_requests_total{endpoint=\"validate\",status=\"503\"} 1\n"));
+    // Cumulative buckets
+    assertTrue (s, s.contains ("peppol_vida_http_request_duration_seconds_bucket{endpoint=\"validate\",le=\"0.001000\"} 1\n"));
+    assertTrue (s, s.contains ("peppol_vida_http_request_duration_seconds_bucket{endpoint=\"validate\",le=\"0.005000\"} 2\n"));
+    assertTrue (s, s.contains ("peppol_vida_http_request_duration_seconds_bucket{endpoint=\"validate\",le=\"+Inf\"} 3\n"));
+    assertTrue (s, s.contains ("peppol_vida_http_request_duration_seconds_count{endpoint=\"validate\"} 3\n"));
+    assertTrue (s, s.contains ("peppol_vida_http_request_duration_seconds_count{endpoint=\"convert\"} 0\n"));
+  }
+}
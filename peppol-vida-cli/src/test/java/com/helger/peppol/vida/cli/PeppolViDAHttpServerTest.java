@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchConverter;
+import com.helger.peppolid.factory.IIdentifierFactory;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+
+/**
+ * Test class for class {@link PeppolViDAHttpServer}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDAHttpServerTest
+{
+  private static final class Response
+  {
+    private final int m_nStatusCode;
+    private final String m_sBody;
+    private final String m_sTDDUUID;
+
+    Response (final int nStatusCode, @NonNull final String sBody, @Nullable final String sTDDUUID)
+    {
+      m_nStatusCode = nStatusCode;
+      m_sBody = sBody;
+      m_sTDDUUID = sTDDUUID;
+    }
+  }
+
+  @NonNull
+  private static PeppolViDAHttpServer _createServer ()
+  {
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    final PeppolViDATDD090BatchConverter aConverter = new PeppolViDATDD090BatchConverter ().documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                                                                             .reporterRole (EViDATDDReporterRole.SENDER)
+                                                                                             .reportingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                                                                                             .receivingParty (aIF.createParticipantIdentifierWithDefaultScheme ("0242:c5id"))
+                                                                                             .reportersRepresentative (aIF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                                                                                             .taxAuthorityID ("XX");
+    return new PeppolViDAHttpServer (aConverter).port (0);
+  }
+
+  private static byte @NonNull [] _bytes (@NonNull final ClassPathResource aRes) throws IOException
+  {
+    try (final InputStream aIS = aRes.getInputStream ())
+    {
+      return aIS.readAllBytes ();
+    }
+  }
+
+  @NonNull
+  private static HttpURLConnection _open (@NonNull final PeppolViDAHttpServer aServer,
+                                          @NonNull final String sMethod,
+                                          @NonNull final String sPath) throws IOException
+  {
+    final HttpURLConnection aConn = (HttpURLConnection) new URL ("http://127.0.0.1:" + aServer.getPort () + sPath).openConnection ();
+    aConn.setRequestMethod (sMethod);
+    return aConn;
+  }
+
+  @NonNull
+  private static Response _read (@NonNull final HttpURLConnection aConn) throws IOException
+  {
+    final int nStatusCode = aConn.getResponseCode ();
+    final InputStream aIS = nStatusCode < 400 ? aConn.getInputStream () : aConn.getErrorStream ();
+    final String sBody = aIS == null ? "" : new String (aIS.readAllBytes (), StandardCharsets.UTF_8);
+    return new Response (nStatusCode, sBody, aConn.getHeaderField (PeppolViDAHttpServer.HEADER_TDD_UUID));
+  }
+
+  @NonNull
+  private static Response _request (@NonNull final PeppolViDAHttpServer aServer,
+                                    @NonNull final String sMethod,
+                                    @NonNull final String sPath,
+                                    final byte @Nullable [] aBody) throws IOException
+  {
+    final HttpURLConnection aConn = _open (aServer, sMethod, sPath);
+    if (aBody != null)
+    {
+      aConn.setDoOutput (true);
+      aConn.setFixedLengthStreamingMode (aBody.length);
+      try (final OutputStream aOS = aConn.getOutputStream ())
+      {
+        aOS.write (aBody);
+      }
+    }
+    return _read (aConn);
+  }
+
+  @Test
+  public void testEndpoints () throws Exception
+  {
+    try (final PeppolViDAHttpServer aServer = _createServer ().start ())
+    {
+      assertTrue (aServer.getPort () > 0);
+
+      // Convert
+      for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+      {
+        final Response aResponse = _request (aServer, "POST", "/convert", _bytes (aRes));
+        assertEquals (aRes.getPath () + ": " + aResponse.m_sBody, 200, aResponse.m_nStatusCode);
+        assertNotNull (aResponse.m_sTDDUUID);
+        assertTrue (aResponse.m_sBody.contains (aResponse.m_sTDDUUID));
+      }
+      // A TDD is not a UBL document
+      final ClassPathResource aTDD = PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ();
+      Response aResponse = _request (aServer, "POST", "/convert", _bytes (aTDD));
+      assertEquals (422, aResponse.m_nStatusCode);
+      assertTrue (aResponse.m_sBody, aResponse.m_sBody.startsWith ("{\"success\":false,\"error\":\""));
+
+      // Validate
+      for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+      {
+        aResponse = _request (aServer, "POST", "/validate", _bytes (aRes));
+        assertEquals (200, aResponse.m_nStatusCode);
+        assertEquals (aRes.getPath (), "{\"success\":true,\"failedAsserts\":[]}", aResponse.m_sBody);
+      }
+      aResponse = _request (aServer,
+                            "POST",
+                            "/validate",
+                            _bytes (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().getFirstOrNull ()));
+      assertEquals (200, aResponse.m_nStatusCode);
+      assertTrue (aResponse.m_sBody, aResponse.m_sBody.startsWith ("{\"success\":false,\"xsdErrors\":[\""));
+
+      // Wrong method and path
+      assertEquals (405, _request (aServer, "GET", "/convert", null).m_nStatusCode);
+      assertEquals (405, _request (aServer, "POST", "/metrics", new byte [0]).m_nStatusCode);
+      assertEquals (404, _request (aServer, "POST", "/convert/more", new byte [0]).m_nStatusCode);
+
+      // Metrics
+      final int nInvoiceCount = PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().size ();
+      assertEquals (nInvoiceCount, aServer.getMetrics ().getRequestCount (EPeppolViDAHttpEndpoint.CONVERT, 200));
+      assertEquals (1, aServer.getMetrics ().getRequestCount (EPeppolViDAHttpEndpoint.CONVERT, 422));
+      aResponse = _request (aServer, "GET", "/metrics", null);
+      assertEquals (200, aResponse.m_nStatusCode);
+      assertTrue (aResponse.m_sBody,
+                  aResponse.m_sBody.contains ("peppol_vida_http_requests_total{endpoint=\"convert\",status=\"200\"} " +
+                                              nInvoiceCount +
+                                              "\n"));
+      assertTrue (aResponse.m_sBody,
+                  aResponse.m_sBody.contains ("peppol_vida_http_request_duration_seconds_bucket{endpoint=\"convert\",le=\"+Inf\"} " +
+                                              (nInvoiceCount + 3) +
+                                              "\n"));
+      assertTrue (aResponse.m_sBody, aResponse.m_sBody.contains ("peppol_vida_http_in_flight 0\n"));
+    }
+  }
+
+  private static int _postChunked (@NonNull final PeppolViDAHttpServer aServer,
+                                   @NonNull final String sPath,
+                                   final byte @NonNull [] aBody) throws IOException
+  {
+    final HttpURLConnection aConn = _open (aServer, "POST", sPath);
+    aConn.setDoOutput (true);
+    aConn.setChunkedStreamingMode (16);
+    try (final OutputStream aOS = aConn.getOutputStream ())
+    {
+      aOS.write (aBody);
+    }
+    catch (final IOException ex)
+    {
+      // The server may close the connection before everything was sent
+    }
+    return _read (aConn).m_nStatusCode;
+  }
+
+  /**
+   * Declare an external entity pointing to the provided file and reference it in the first element
+   * with the provided start tag.
+   */
+  private static byte @NonNull [] _withExternalEntity (@NonNull final ClassPathResource aRes,
+                                                      @NonNull final String sStartTag,
+                                                      @NonNull final Path aFile) throws IOException
+  {
+    final String sXML = new String (_bytes (aRes), StandardCharsets.UTF_8);
+    final int nDeclEnd = sXML.startsWith ("<?xml") ? sXML.indexOf ("?>") + 2 : 0;
+    final String ret = sXML.substring (0, nDeclEnd) +
+                       "<!DOCTYPE x [<!ENTITY e SYSTEM \"" +
+                       aFile.toUri () +
+                       "\">]>" +
+                       sXML.substring (nDeclEnd).replaceFirst (sStartTag, sStartTag + "&e;");
+    return ret.getBytes (StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testExternalEntitiesAreRejected () throws Exception
+  {
+    final String sSecret = "ViDA-XXE-secret";
+    final Path aSecretFile = Files.createTempFile ("xxe", ".txt");
+    try (final PeppolViDAHttpServer aServer = _createServer ().start ())
+    {
+      Files.writeString (aSecretFile, sSecret);
+
+      Response aResponse = _request (aServer,
+                                     "POST",
+                                     "/validate",
+                                     _withExternalEntity (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull (),
+                                                          "<cbc:Name>",
+                                                          aSecretFile));
+      assertEquals (200, aResponse.m_nStatusCode);
+      assertTrue (aResponse.m_sBody, aResponse.m_sBody.startsWith ("{\"success\":false,\"xsdErrors\":[\""));
+      assertTrue (aResponse.m_sBody, aResponse.m_sBody.contains ("DOCTYPE"));
+      assertFalse (aResponse.m_sBody, aResponse.m_sBody.contains (sSecret));
+
+      aResponse = _request (aServer,
+                            "POST",
+                            "/convert",
+                            _withExternalEntity (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().getFirstOrNull (),
+                                                 "<cbc:ID>",
+                                                 aSecretFile));
+      assertEquals (422, aResponse.m_nStatusCode);
+      assertFalse (aResponse.m_sBody, aResponse.m_sBody.contains (sSecret));
+    }
+    finally
+    {
+      Files.deleteIfExists (aSecretFile);
+    }
+  }
+
+  @Test
+  public void testRequestTooLarge () throws Exception
+  {
+    try (final PeppolViDAHttpServer aServer = _createServer ().maxRequestBytes (100).start ())
+    {
+      final byte [] aTDD = _bytes (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+      final byte [] aInvoice = _bytes (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().getFirstOrNull ());
+      // Announced length
+      assertEquals (413, _request (aServer, "POST", "/validate", aTDD).m_nStatusCode);
+      assertEquals (413, _request (aServer, "POST", "/convert", aInvoice).m_nStatusCode);
+
+      // Chunked - no length announced, so the limit is detected while parsing
+      assertEquals (413, _postChunked (aServer, "/validate", aTDD));
+      assertEquals (413, _postChunked (aServer, "/convert", aInvoice));
+    }
+  }
+
+  @Test
+  public void testChunkedRequest () throws Exception
+  {
+    try (final PeppolViDAHttpServer aServer = _createServer ().start ())
+    {
+      assertEquals (200,
+                    _postChunked (aServer,
+                                  "/convert",
+                                  _bytes (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().getFirstOrNull ())));
+      assertEquals (200,
+                    _postChunked (aServer, "/validate", _bytes (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ())));
+    }
+  }
+
+  @Test
+  public void testLoadShedding () throws Exception
+  {
+    try (final PeppolViDAHttpServer aServer = _createServer ().maxInFlight (1).start ())
+    {
+      // Occupy the only slot with a request whose body is not yet complete
+      final HttpURLConnection aConn = _open (aServer, "POST", "/validate");
+      aConn.setDoOutput (true);
+      aConn.setChunkedStreamingMode (16);
+      final byte [] aBody = _bytes (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+      final OutputStream aOS = aConn.getOutputStream ();
+      aOS.write (aBody, 0, 16);
+      aOS.flush ();
+
+      // Wait until the server picked it up
+      final long nEnd = System.currentTimeMillis () + 10_000;
+      while (!_request (aServer, "GET", "/metrics", null).m_sBody.contains ("peppol_vida_http_in_flight 1\n"))
+      {
+        assertTrue ("Request was not picked up", System.currentTimeMillis () < nEnd);
+        Thread.sleep (10);
+      }
+
+      final Response aRejected = _request (aServer, "POST", "/validate", aBody);
+      assertEquals (503, aRejected.m_nStatusCode);
+
+      // Complete the first request
+      aOS.write (aBody, 16, aBody.length - 16);
+      aOS.close ();
+      assertEquals (200, _read (aConn).m_nStatusCode);
+      assertEquals (1, aServer.getMetrics ().getRequestCount (EPeppolViDAHttpEndpoint.VALIDATE, 503));
+    }
+  }
+}
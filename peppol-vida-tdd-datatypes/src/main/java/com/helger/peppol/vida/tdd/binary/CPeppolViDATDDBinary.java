@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.binary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+
+/**
+ * Contains all the constants of the compact binary TDD encoding.
+ * <p>
+ * Every encoded TDD starts with the two magic bytes and the format version. Afterwards all
+ * elements follow in XSD order without names. Lengths and counts are unsigned varints, signed
+ * numbers are zig-zag encoded varints. Strings are either <code>null</code>, a reference into the
+ * static {@link #DICTIONARY}, a back reference to a string that already occurred in the same
+ * document or a new UTF-8 literal. Decimals are stored as scale and unscaled value.
+ * <p>
+ * The dictionary is part of the format: entries may only be appended together with a new format
+ * version.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CPeppolViDATDDBinary
+{
+  public static final byte MAGIC_1 = 'P';
+  public static final byte MAGIC_2 = 'T';
+  /** The current format version */
+  public static final byte FORMAT_VERSION = 1;
+
+  /** String tag for <code>null</code> */
+  static final int STRING_NULL = 0;
+  /** String tag for a new literal */
+  static final int STRING_LITERAL = 1;
+  /** First string tag that references the dictionary */
+  static final int STRING_DICTIONARY_BASE = 2;
+
+  /** Decimal kind for <code>null</code> */
+  static final int DECIMAL_NULL = 0;
+  /** Decimal kind for an unscaled value fitting into a long */
+  static final int DECIMAL_LONG = 1;
+  /** Decimal kind for a larger unscaled value */
+  static final int DECIMAL_BIG = 2;
+
+  /**
+   * Frequent code values, including currencies, tax categories, units, document types, party
+   * identifier schemes, country codes and the ViDA and billing specification identifiers.
+   */
+  static final String [] DICTIONARY = { "VAT",
+                                        // Currencies
+                                        "EUR",
+                                        "USD",
+                                        "GBP",
+                                        "DKK",
+                                        "SEK",
+                                        "NOK",
+                                        "PLN",
+                                        "CHF",
+                                        "HUF",
+                                        "CZK",
+                                        "RON",
+                                        "BGN",
+                                        // Tax categories
+                                        "S",
+                                        "Z",
+                                        "E",
+                                        "AE",
+                                        "K",
+                                        "G",
+                                        "O",
+                                        "L",
+                                        "M",
+                                        "B",
+                                        // Units
+                                        "C62",
+                                        "EA",
+                                        "H87",
+                                        "HUR",
+                                        "DAY",
+                                        "KGM",
+                                        "LTR",
+                                        "MTR",
+                                        "XPP",
+                                        // Document type codes
+                                        "380",
+                                        "381",
+                                        "383",
+                                        "384",
+                                        "386",
+                                        "389",
+                                        "393",
+                                        "395",
+                                        "326",
+                                        "261",
+                                        "262",
+                                        "296",
+                                        "308",
+                                        "396",
+                                        "457",
+                                        "532",
+                                        // TDD code lists
+                                        "R",
+                                        "D",
+                                        "IC",
+                                        "Intl",
+                                        "C2",
+                                        "C3",
+                                        // Party identifier schemes
+                                        "0007",
+                                        "0009",
+                                        "0037",
+                                        "0060",
+                                        "0088",
+                                        "0096",
+                                        "0106",
+                                        "0151",
+                                        "0184",
+                                        "0190",
+                                        "0192",
+                                        "0195",
+                                        "0196",
+                                        "0204",
+                                        "0208",
+                                        "0210",
+                                        "0211",
+                                        "0216",
+                                        "0242",
+                                        "9906",
+                                        "9915",
+                                        "9930",
+                                        "9931",
+                                        "9938",
+                                        "9944",
+                                        "9956",
+                                        // Countries
+                                        "AT",
+                                        "BE",
+                                        "BG",
+                                        "CY",
+                                        "CZ",
+                                        "DE",
+                                        "DK",
+                                        "EE",
+                                        "EL",
+                                        "ES",
+                                        "FI",
+                                        "FR",
+                                        "GB",
+                                        "GR",
+                                        "HR",
+                                        "HU",
+                                        "IE",
+                                        "IS",
+                                        "IT",
+                                        "LT",
+                                        "LU",
+                                        "LV",
+                                        "MT",
+                                        "NL",
+                                        "NO",
+                                        "PL",
+                                        "PT",
+                                        "RO",
+                                        "SE",
+                                        "SI",
+                                        "SK",
+                                        "CH",
+                                        "XI",
+                                        // Payment means codes
+                                        "10",
+                                        "30",
+                                        "31",
+                                        "42",
+                                        "48",
+                                        "49",
+                                        "57",
+                                        "58",
+                                        "59",
+                                        "68",
+                                        "97",
+                                        "ZZZ",
+                                        // Specification identifiers
+                                        "urn:peppol:schema:taxdata:1.0::TaxData##urn:peppol:taxdata:ViDA-1::1.0",
+                                        "urn:peppol:taxreporting",
+                                        "urn:cen.eu:en16931:2017#compliant#urn:fdc:peppol.eu:2017:poacc:billing:3.0",
+                                        "urn:fdc:peppol.eu:2017:poacc:billing:01:1.0" };
+
+  /** Reverse lookup of {@link #DICTIONARY} */
+  static final Map <String, Integer> DICTIONARY_INDEX;
+  static
+  {
+    DICTIONARY_INDEX = new HashMap <> (DICTIONARY.length * 2);
+    for (int i = 0; i < DICTIONARY.length; ++i)
+      if (DICTIONARY_INDEX.put (DICTIONARY[i], Integer.valueOf (i)) != null)
+        throw new IllegalStateException ("Duplicate dictionary entry '" + DICTIONARY[i] + "'");
+  }
+
+  /** First string tag that references a string of the same document */
+  static final int STRING_BACKREF_BASE = STRING_DICTIONARY_BASE + DICTIONARY.length;
+
+  @PresentForCodeCoverage
+  private static final CPeppolViDATDDBinary INSTANCE = new CPeppolViDATDDBinary ();
+
+  private CPeppolViDATDDBinary ()
+  {}
+}
@@ -0,0 +1,807 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.binary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.datetime.xml.XMLOffsetTime;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDAnyTypeHelper;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReceivingParty;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.MonetaryTotal;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportersRepresentative;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportingParty;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.TaxAuthority;
+import com.helger.peppol.vida.tdd.v090.cac.AccountingCustomerParty;
+import com.helger.peppol.vida.tdd.v090.cac.AccountingSupplierParty;
+import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
+import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
+import com.helger.peppol.vida.tdd.v090.cac.CardAccount;
+import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.CommodityClassification;
+import com.helger.peppol.vida.tdd.v090.cac.Country;
+import com.helger.peppol.vida.tdd.v090.cac.Delivery;
+import com.helger.peppol.vida.tdd.v090.cac.FinancialInstitutionBranch;
+import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
+import com.helger.peppol.vida.tdd.v090.cac.InvoicePeriod;
+import com.helger.peppol.vida.tdd.v090.cac.Item;
+import com.helger.peppol.vida.tdd.v090.cac.Party;
+import com.helger.peppol.vida.tdd.v090.cac.PartyIdentification;
+import com.helger.peppol.vida.tdd.v090.cac.PartyTaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans.PayeeFinancialAccount;
+import com.helger.peppol.vida.tdd.v090.cac.PostalAddress;
+import com.helger.peppol.vida.tdd.v090.cac.Price;
+import com.helger.peppol.vida.tdd.v090.cac.TaxRepresentativeParty;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
+import com.helger.peppol.vida.tdd.v090.cbc.AllowanceTotalAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.Amount;
+import com.helger.peppol.vida.tdd.v090.cbc.BaseAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.ChargeTotalAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.EndpointID;
+import com.helger.peppol.vida.tdd.v090.cbc.IdentifierType;
+import com.helger.peppol.vida.tdd.v090.cbc.InvoicedQuantity;
+import com.helger.peppol.vida.tdd.v090.cbc.ItemClassificationCode;
+import com.helger.peppol.vida.tdd.v090.cbc.LineExtensionAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PayableAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PayableRoundingAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PaymentMeansCode;
+import com.helger.peppol.vida.tdd.v090.cbc.PrepaidAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PriceAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxExclusiveAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxInclusiveAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxableAmount;
+
+/**
+ * Reader for the compact binary encoding of Peppol ViDA pilot TDD 0.9.0 documents created by
+ * {@link PeppolViDATDD090BinaryWriter}.
+ * <p>
+ * All lists of a present element are created, even if they are empty. JAXB lists are created lazily
+ * by their getters and the writer accesses all of them, so this results in the same representation
+ * as the written source object.
+ * <p>
+ * Instances are meant to be reused for many documents to avoid allocations.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDD090BinaryReader
+{
+  private final List <String> m_aBackRefs = new ArrayList <> ();
+  private byte [] m_aScratch = new byte [256];
+  private ByteBuffer m_aBuf;
+  // Result of the last _amount call
+  private BigDecimal m_aAmountValue;
+  private String m_sAmountAttr;
+
+  public PeppolViDATDD090BinaryReader ()
+  {}
+
+  private int _byte ()
+  {
+    return m_aBuf.get () & 0xff;
+  }
+
+  private boolean _bool ()
+  {
+    return _byte () != 0;
+  }
+
+  private long _varLong ()
+  {
+    long ret = 0;
+    int nShift = 0;
+    while (true)
+    {
+      final int b = _byte ();
+      ret |= (long) (b & 0x7f) << nShift;
+      if ((b & 0x80) == 0)
+        return ret;
+      nShift += 7;
+      if (nShift >= 64)
+        throw new IllegalArgumentException ("Malformed varint");
+    }
+  }
+
+  private int _varInt ()
+  {
+    final long ret = _varLong ();
+    if (ret < 0 || ret > Integer.MAX_VALUE)
+      throw new IllegalArgumentException ("Varint out of range: " + ret);
+    return (int) ret;
+  }
+
+  private long _zigZagLong ()
+  {
+    final long n = _varLong ();
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  private int _count ()
+  {
+    final int ret = _varInt ();
+    // Each entry needs at least one byte
+    if (ret > m_aBuf.remaining ())
+      throw new IllegalArgumentException ("Invalid element count " + ret);
+    return ret;
+  }
+
+  @Nullable
+  private String _string ()
+  {
+    final int nTag = _varInt ();
+    if (nTag == CPeppolViDATDDBinary.STRING_NULL)
+      return null;
+    if (nTag == CPeppolViDATDDBinary.STRING_LITERAL)
+    {
+      final int nLen = _varInt ();
+      if (nLen > m_aBuf.remaining ())
+        throw new IllegalArgumentException ("Invalid string length " + nLen);
+      final String ret;
+      if (m_aBuf.hasArray ())
+      {
+        ret = new String (m_aBuf.array (), m_aBuf.arrayOffset () + m_aBuf.position (), nLen, StandardCharsets.UTF_8);
+        m_aBuf.position (m_aBuf.position () + nLen);
+      }
+      else
+      {
+        if (m_aScratch.length < nLen)
+          m_aScratch = new byte [Math.max (nLen, m_aScratch.length * 2)];
+        m_aBuf.get (m_aScratch, 0, nLen);
+        ret = new String (m_aScratch, 0, nLen, StandardCharsets.UTF_8);
+      }
+      m_aBackRefs.add (ret);
+      return ret;
+    }
+    if (nTag < CPeppolViDATDDBinary.STRING_BACKREF_BASE)
+      return CPeppolViDATDDBinary.DICTIONARY[nTag - CPeppolViDATDDBinary.STRING_DICTIONARY_BASE];
+    final int nIndex = nTag - CPeppolViDATDDBinary.STRING_BACKREF_BASE;
+    if (nIndex >= m_aBackRefs.size ())
+      throw new IllegalArgumentException ("Invalid string back reference " + nIndex);
+    return m_aBackRefs.get (nIndex);
+  }
+
+  @Nullable
+  private BigDecimal _decimalOfKind (final int nKind)
+  {
+    switch (nKind)
+    {
+      case CPeppolViDATDDBinary.DECIMAL_NULL:
+        return null;
+      case CPeppolViDATDDBinary.DECIMAL_LONG:
+      {
+        final int nScale = (int) _zigZagLong ();
+        return BigDecimal.valueOf (_zigZagLong (), nScale);
+      }
+      case CPeppolViDATDDBinary.DECIMAL_BIG:
+      {
+        final int nScale = (int) _zigZagLong ();
+        final int nLen = _varInt ();
+        if (nLen > m_aBuf.remaining ())
+          throw new IllegalArgumentException ("Invalid decimal length " + nLen);
+        final byte [] aBytes = new byte [nLen];
+        m_aBuf.get (aBytes);
+        return new BigDecimal (new BigInteger (aBytes), nScale);
+      }
+      default:
+        throw new IllegalArgumentException ("Invalid decimal kind " + nKind);
+    }
+  }
+
+  @Nullable
+  private BigDecimal _decimal ()
+  {
+    return _decimalOfKind (_varInt ());
+  }
+
+  /**
+   * Read an amount like element. If present, the value and attribute are available in
+   * {@link #m_aAmountValue} and {@link #m_sAmountAttr}.
+   */
+  private boolean _amount ()
+  {
+    final int nTag = _varInt ();
+    if (nTag == 0)
+      return false;
+    m_aAmountValue = _decimalOfKind (nTag - 1);
+    m_sAmountAttr = _string ();
+    return true;
+  }
+
+  @Nullable
+  private ZoneOffset _offset ()
+  {
+    return _bool () ? ZoneOffset.ofTotalSeconds ((int) _zigZagLong ()) : null;
+  }
+
+  @Nullable
+  private XMLOffsetDate _date ()
+  {
+    if (!_bool ())
+      return null;
+    final LocalDate aDate = LocalDate.ofEpochDay (_zigZagLong ());
+    return XMLOffsetDate.of (aDate, _offset ());
+  }
+
+  @Nullable
+  private XMLOffsetTime _time ()
+  {
+    if (!_bool ())
+      return null;
+    final LocalTime aTime = LocalTime.ofNanoOfDay (_varLong ());
+    return XMLOffsetTime.of (aTime, _offset ());
+  }
+
+  @Nullable
+  private Object _any ()
+  {
+    return PeppolViDATDDAnyTypeHelper.getAsElement (_string ());
+  }
+
+  @Nullable
+  private IdentifierType _id ()
+  {
+    if (!_bool ())
+      return null;
+    final IdentifierType ret = new IdentifierType ();
+    ret.setValue (_string ());
+    ret.setSchemeID (_string ());
+    return ret;
+  }
+
+  @Nullable
+  private EndpointID _endpointID ()
+  {
+    if (!_bool ())
+      return null;
+    final EndpointID ret = new EndpointID ();
+    ret.setValue (_string ());
+    ret.setSchemeID (_string ());
+    return ret;
+  }
+
+  @Nullable
+  private TaxScheme _taxScheme ()
+  {
+    if (!_bool ())
+      return null;
+    final TaxScheme ret = new TaxScheme ();
+    ret.setID (_id ());
+    return ret;
+  }
+
+  private void _postalAddresses (@NonNull final List <PostalAddress> aTarget)
+  {
+    final int nCount = _count ();
+    for (int i = 0; i < nCount; ++i)
+      if (_bool ())
+      {
+        final PostalAddress a = new PostalAddress ();
+        if (_bool ())
+        {
+          final Country aCountry = new Country ();
+          aCountry.setIdentificationCode (_string ());
+          a.setCountry (aCountry);
+        }
+        aTarget.add (a);
+      }
+      else
+        aTarget.add (null);
+  }
+
+  @Nullable
+  private PartyTaxScheme _partyTaxScheme ()
+  {
+    if (!_bool ())
+      return null;
+    final PartyTaxScheme ret = new PartyTaxScheme ();
+    ret.setCompanyID (_string ());
+    ret.setTaxScheme (_taxScheme ());
+    return ret;
+  }
+
+  @Nullable
+  private Party _party ()
+  {
+    if (!_bool ())
+      return null;
+    final Party ret = new Party ();
+    _postalAddresses (ret.getPostalAddress ());
+    ret.setPartyTaxScheme (_partyTaxScheme ());
+    return ret;
+  }
+
+  @Nullable
+  private InvoicePeriod _invoicePeriod ()
+  {
+    if (!_bool ())
+      return null;
+    final InvoicePeriod ret = new InvoicePeriod ();
+    ret.setStartDate (_date ());
+    ret.setEndDate (_date ());
+    ret.setDescriptionCode (_string ());
+    return ret;
+  }
+
+  @NonNull
+  private BillingReference _billingReference ()
+  {
+    final BillingReference ret = new BillingReference ();
+    if (_bool ())
+    {
+      final InvoiceDocumentReference aIDR = new InvoiceDocumentReference ();
+      aIDR.setID (_id ());
+      aIDR.setIssueDate (_date ());
+      ret.setInvoiceDocumentReference (aIDR);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private PaymentMeans _paymentMeans ()
+  {
+    final PaymentMeans ret = new PaymentMeans ();
+    if (_bool ())
+    {
+      final PaymentMeansCode aPMC = new PaymentMeansCode ();
+      aPMC.setValue (_string ());
+      aPMC.setName (_string ());
+      ret.setPaymentMeansCode (aPMC);
+    }
+    ret.setPaymentID (_string ());
+    if (_bool ())
+    {
+      final CardAccount aCA = new CardAccount ();
+      aCA.setPrimaryAccountNumberID (_string ());
+      aCA.setNetworkID (_string ());
+      aCA.setHolderName (_string ());
+      ret.setCardAccount (aCA);
+    }
+    if (_bool ())
+    {
+      final PayeeFinancialAccount aPFA = new PayeeFinancialAccount ();
+      aPFA.setID (_id ());
+      if (_bool ())
+      {
+        final FinancialInstitutionBranch aFIB = new FinancialInstitutionBranch ();
+        aFIB.setID (_id ());
+        aPFA.setFinancialInstitutionBranch (aFIB);
+      }
+      ret.setPayeeFinancialAccount (aPFA);
+    }
+    ret.setPaymentMandate (_any ());
+    return ret;
+  }
+
+  @NonNull
+  private AllowanceCharge _allowanceCharge ()
+  {
+    final AllowanceCharge ret = new AllowanceCharge ();
+    ret.setChargeIndicator (_bool ());
+    ret.setAllowanceChargeReasonCode (_string ());
+    ret.setAllowanceChargeReason (_string ());
+    ret.setMultiplierFactorNumeric (_decimal ());
+    if (_amount ())
+    {
+      final Amount a = new Amount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setAmount (a);
+    }
+    if (_amount ())
+    {
+      final BaseAmount a = new BaseAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setBaseAmount (a);
+    }
+    ret.setTaxCategory (_any ());
+    return ret;
+  }
+
+  private void _allowanceCharges (@NonNull final List <AllowanceCharge> aTarget)
+  {
+    final int nCount = _count ();
+    for (int i = 0; i < nCount; ++i)
+      aTarget.add (_allowanceCharge ());
+  }
+
+  @NonNull
+  private TaxTotal _taxTotal ()
+  {
+    final TaxTotal ret = new TaxTotal ();
+    if (_amount ())
+    {
+      final TaxAmount a = new TaxAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setTaxAmount (a);
+    }
+    final int nCount = _count ();
+    final List <TaxSubtotal> aTSs = ret.getTaxSubtotal ();
+    for (int i = 0; i < nCount; ++i)
+    {
+      final TaxSubtotal aTS = new TaxSubtotal ();
+      if (_amount ())
+      {
+        final TaxableAmount a = new TaxableAmount ();
+        a.setValue (m_aAmountValue);
+        a.setCurrencyID (m_sAmountAttr);
+        aTS.setTaxableAmount (a);
+      }
+      if (_amount ())
+      {
+        final TaxAmount a = new TaxAmount ();
+        a.setValue (m_aAmountValue);
+        a.setCurrencyID (m_sAmountAttr);
+        aTS.setTaxAmount (a);
+      }
+      if (_bool ())
+      {
+        final TaxSubtotal.TaxCategory aTC = new TaxSubtotal.TaxCategory ();
+        aTC.setID (_id ());
+        aTC.setPercent (_decimal ());
+        aTC.setTaxExemptionReasonCode (_string ());
+        aTC.setTaxExemptionReason (_string ());
+        aTC.setTaxScheme (_taxScheme ());
+        aTS.setTaxCategory (aTC);
+      }
+      aTSs.add (aTS);
+    }
+    return ret;
+  }
+
+  @Nullable
+  private MonetaryTotal _monetaryTotal ()
+  {
+    if (!_bool ())
+      return null;
+    final MonetaryTotal ret = new MonetaryTotal ();
+    if (_amount ())
+    {
+      final LineExtensionAmount a = new LineExtensionAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setLineExtensionAmount (a);
+    }
+    if (_amount ())
+    {
+      final TaxExclusiveAmount a = new TaxExclusiveAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setTaxExclusiveAmount (a);
+    }
+    if (_amount ())
+    {
+      final TaxInclusiveAmount a = new TaxInclusiveAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setTaxInclusiveAmount (a);
+    }
+    if (_amount ())
+    {
+      final AllowanceTotalAmount a = new AllowanceTotalAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setAllowanceTotalAmount (a);
+    }
+    if (_amount ())
+    {
+      final ChargeTotalAmount a = new ChargeTotalAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setChargeTotalAmount (a);
+    }
+    if (_amount ())
+    {
+      final PrepaidAmount a = new PrepaidAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setPrepaidAmount (a);
+    }
+    if (_amount ())
+    {
+      final PayableRoundingAmount a = new PayableRoundingAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setPayableRoundingAmount (a);
+    }
+    if (_amount ())
+    {
+      final PayableAmount a = new PayableAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setPayableAmount (a);
+    }
+    return ret;
+  }
+
+  @Nullable
+  private Item _item ()
+  {
+    if (!_bool ())
+      return null;
+    final Item ret = new Item ();
+    ret.setDescription (_string ());
+    ret.setName (_string ());
+    final int nCount = _count ();
+    final List <CommodityClassification> aCCs = ret.getCommodityClassification ();
+    for (int i = 0; i < nCount; ++i)
+    {
+      final CommodityClassification aCC = new CommodityClassification ();
+      if (_bool ())
+      {
+        final ItemClassificationCode aICC = new ItemClassificationCode ();
+        aICC.setValue (_string ());
+        aICC.setListID (_string ());
+        aICC.setListVersionID (_string ());
+        aCC.setItemClassificationCode (aICC);
+      }
+      aCCs.add (aCC);
+    }
+    if (_bool ())
+    {
+      final ClassifiedTaxCategory aCTC = new ClassifiedTaxCategory ();
+      aCTC.setID (_id ());
+      aCTC.setPercent (_decimal ());
+      aCTC.setTaxScheme (_taxScheme ());
+      ret.setClassifiedTaxCategory (aCTC);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private DocumentLine _documentLine ()
+  {
+    final DocumentLine ret = new DocumentLine ();
+    ret.setID (_id ());
+    ret.setNote (_string ());
+    if (_amount ())
+    {
+      final InvoicedQuantity a = new InvoicedQuantity ();
+      a.setValue (m_aAmountValue);
+      a.setUnitCode (m_sAmountAttr);
+      ret.setInvoicedQuantity (a);
+    }
+    if (_amount ())
+    {
+      final LineExtensionAmount a = new LineExtensionAmount ();
+      a.setValue (m_aAmountValue);
+      a.setCurrencyID (m_sAmountAttr);
+      ret.setLineExtensionAmount (a);
+    }
+    ret.setInvoicePeriod (_invoicePeriod ());
+    _allowanceCharges (ret.getAllowanceCharge ());
+    ret.setItem (_item ());
+    if (_bool ())
+    {
+      final Price aPrice = new Price ();
+      if (_amount ())
+      {
+        final PriceAmount a = new PriceAmount ();
+        a.setValue (m_aAmountValue);
+        a.setCurrencyID (m_sAmountAttr);
+        aPrice.setPriceAmount (a);
+      }
+      ret.setPrice (aPrice);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private ReportedDocument _reportedDocument ()
+  {
+    final ReportedDocument ret = new ReportedDocument ();
+    ret.setCustomizationID (_string ());
+    ret.setProfileID (_string ());
+    ret.setID (_id ());
+    ret.setUUID (_string ());
+    ret.setIssueDate (_date ());
+    ret.setIssueTime (_time ());
+    ret.setDocumentTypeCode (_string ());
+    ret.setNote (_string ());
+    ret.setTaxPointDate (_date ());
+    ret.setDocumentCurrencyCode (_string ());
+    ret.setTaxCurrencyCode (_string ());
+    ret.setInvoicePeriod (_invoicePeriod ());
+
+    int nCount = _count ();
+    final List <BillingReference> aBRs = ret.getBillingReference ();
+    for (int i = 0; i < nCount; ++i)
+      aBRs.add (_billingReference ());
+
+    if (_bool ())
+    {
+      final AccountingSupplierParty a = new AccountingSupplierParty ();
+      a.setParty (_party ());
+      ret.setAccountingSupplierParty (a);
+    }
+    if (_bool ())
+    {
+      final AccountingCustomerParty a = new AccountingCustomerParty ();
+      a.setParty (_party ());
+      ret.setAccountingCustomerParty (a);
+    }
+    if (_bool ())
+    {
+      final TaxRepresentativeParty a = new TaxRepresentativeParty ();
+      _postalAddresses (a.getPostalAddress ());
+      a.setPartyTaxScheme (_partyTaxScheme ());
+      ret.setTaxRepresentativeParty (a);
+    }
+    if (_bool ())
+    {
+      final Delivery a = new Delivery ();
+      a.setActualDeliveryDate (_date ());
+      ret.setDelivery (a);
+    }
+
+    nCount = _count ();
+    final List <PaymentMeans> aPMs = ret.getPaymentMeans ();
+    for (int i = 0; i < nCount; ++i)
+      aPMs.add (_paymentMeans ());
+
+    _allowanceCharges (ret.getAllowanceCharge ());
+
+    nCount = _count ();
+    final List <TaxTotal> aTTs = ret.getTaxTotal ();
+    for (int i = 0; i < nCount; ++i)
+      aTTs.add (_taxTotal ());
+
+    ret.setMonetaryTotal (_monetaryTotal ());
+
+    nCount = _count ();
+    final List <DocumentLine> aDLs = ret.getDocumentLine ();
+    for (int i = 0; i < nCount; ++i)
+      aDLs.add (_documentLine ());
+    return ret;
+  }
+
+  @NonNull
+  private TaxDataType _tdd ()
+  {
+    if (_byte () != CPeppolViDATDDBinary.MAGIC_1 || _byte () != CPeppolViDATDDBinary.MAGIC_2)
+      throw new IllegalArgumentException ("Not a binary TDD");
+    final int nVersion = _byte ();
+    if (nVersion != CPeppolViDATDDBinary.FORMAT_VERSION)
+      throw new IllegalArgumentException ("Unsupported binary TDD format version " + nVersion);
+
+    final TaxDataType ret = new TaxDataType ();
+    ret.setCustomizationID (_string ());
+    ret.setProfileID (_string ());
+    ret.setUUID (_string ());
+    ret.setIssueDate (_date ());
+    ret.setIssueTime (_time ());
+    ret.setDocumentTypeCode (_string ());
+    ret.setDocumentCurrencyCode (_string ());
+    ret.setDocumentScope (_string ());
+    ret.setReporterRole (_string ());
+
+    if (_bool ())
+    {
+      final TaxAuthority a = new TaxAuthority ();
+      a.setID (_id ());
+      a.setName (_string ());
+      ret.setTaxAuthority (a);
+    }
+    if (_bool ())
+    {
+      final ReportingParty a = new ReportingParty ();
+      a.setEndpointID (_endpointID ());
+      ret.setReportingParty (a);
+    }
+    if (_bool ())
+    {
+      final ReceivingParty a = new ReceivingParty ();
+      a.setEndpointID (_endpointID ());
+      ret.setReceivingParty (a);
+    }
+    if (_bool ())
+    {
+      final ReportersRepresentative a = new ReportersRepresentative ();
+      if (_bool ())
+      {
+        final PartyIdentification aPI = new PartyIdentification ();
+        aPI.setID (_id ());
+        a.setPartyIdentification (aPI);
+      }
+      ret.setReportersRepresentative (a);
+    }
+
+    final int nCount = _count ();
+    final List <ReportedTransaction> aRTs = ret.getReportedTransaction ();
+    for (int i = 0; i < nCount; ++i)
+    {
+      final ReportedTransaction aRT = new ReportedTransaction ();
+      if (_bool ())
+        aRT.setReportedDocument (_reportedDocument ());
+      aRTs.add (aRT);
+    }
+    return ret;
+  }
+
+  /**
+   * Decode the TDD contained between position and limit of the provided buffer. The position of
+   * the buffer is not modified.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   * @return The decoded TDD. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the buffer does not contain a valid binary TDD
+   */
+  @NonNull
+  public TaxDataType read (@NonNull final ByteBuffer aBuffer)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+
+    m_aBuf = aBuffer.duplicate ();
+    m_aBackRefs.clear ();
+    try
+    {
+      return _tdd ();
+    }
+    catch (final BufferUnderflowException | IndexOutOfBoundsException | DateTimeException ex)
+    {
+      throw new IllegalArgumentException ("Malformed binary TDD", ex);
+    }
+    finally
+    {
+      m_aBuf = null;
+      m_aAmountValue = null;
+      m_sAmountAttr = null;
+    }
+  }
+
+  /**
+   * Decode the TDD contained in the provided byte array.
+   *
+   * @param aBytes
+   *        The bytes to read from. May not be <code>null</code>.
+   * @return The decoded TDD. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the bytes do not contain a valid binary TDD
+   */
+  @NonNull
+  public TaxDataType read (final byte @NonNull [] aBytes)
+  {
+    ValueEnforcer.notNull (aBytes, "Bytes");
+    return read (ByteBuffer.wrap (aBytes));
+  }
+}
@@ -0,0 +1,649 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.binary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.datetime.xml.XMLOffsetTime;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDAnyTypeHelper;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.MonetaryTotal;
+import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
+import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
+import com.helger.peppol.vida.tdd.v090.cac.CardAccount;
+import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.CommodityClassification;
+import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
+import com.helger.peppol.vida.tdd.v090.cac.InvoicePeriod;
+import com.helger.peppol.vida.tdd.v090.cac.Item;
+import com.helger.peppol.vida.tdd.v090.cac.Party;
+import com.helger.peppol.vida.tdd.v090.cac.PartyTaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans.PayeeFinancialAccount;
+import com.helger.peppol.vida.tdd.v090.cac.PostalAddress;
+import com.helger.peppol.vida.tdd.v090.cac.TaxRepresentativeParty;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
+import com.helger.peppol.vida.tdd.v090.cbc.EndpointID;
+import com.helger.peppol.vida.tdd.v090.cbc.IdentifierType;
+
+/**
+ * Writer for the compact binary encoding of Peppol ViDA pilot TDD 0.9.0 documents. See
+ * {@link CPeppolViDATDDBinary} for the format. The encoding is lossless - reading the result with
+ * {@link PeppolViDATDD090BinaryReader} results in an equal {@link TaxDataType}.
+ * <p>
+ * Instances are meant to be reused for many documents to avoid allocations.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDD090BinaryWriter
+{
+  private final Map <String, Integer> m_aBackRefs = new HashMap <> ();
+  private ByteBufferOutputStream m_aOS;
+
+  public PeppolViDATDD090BinaryWriter ()
+  {}
+
+  private void _byte (final int n)
+  {
+    m_aOS.write (n);
+  }
+
+  private void _varInt (final int n)
+  {
+    int v = n;
+    while ((v & ~0x7f) != 0)
+    {
+      m_aOS.write ((v & 0x7f) | 0x80);
+      v >>>= 7;
+    }
+    m_aOS.write (v);
+  }
+
+  private void _varLong (final long n)
+  {
+    long v = n;
+    while ((v & ~0x7fL) != 0)
+    {
+      m_aOS.write ((int) ((v & 0x7f) | 0x80));
+      v >>>= 7;
+    }
+    m_aOS.write ((int) v);
+  }
+
+  private void _zigZagLong (final long n)
+  {
+    _varLong ((n << 1) ^ (n >> 63));
+  }
+
+  private void _bool (final boolean b)
+  {
+    m_aOS.write (b ? 1 : 0);
+  }
+
+  private void _string (@Nullable final String s)
+  {
+    if (s == null)
+    {
+      _varInt (CPeppolViDATDDBinary.STRING_NULL);
+      return;
+    }
+
+    final Integer aDictIndex = CPeppolViDATDDBinary.DICTIONARY_INDEX.get (s);
+    if (aDictIndex != null)
+    {
+      _varInt (CPeppolViDATDDBinary.STRING_DICTIONARY_BASE + aDictIndex.intValue ());
+      return;
+    }
+
+    final Integer aBackRef = m_aBackRefs.get (s);
+    if (aBackRef != null)
+    {
+      _varInt (CPeppolViDATDDBinary.STRING_BACKREF_BASE + aBackRef.intValue ());
+      return;
+    }
+    m_aBackRefs.put (s, Integer.valueOf (m_aBackRefs.size ()));
+
+    _varInt (CPeppolViDATDDBinary.STRING_LITERAL);
+    final int nLen = s.length ();
+    boolean bASCII = true;
+    for (int i = 0; i < nLen; ++i)
+      if (s.charAt (i) >= 0x80)
+      {
+        bASCII = false;
+        break;
+      }
+    if (bASCII)
+    {
+      // Fast path without an intermediate byte array
+      _varInt (nLen);
+      for (int i = 0; i < nLen; ++i)
+        m_aOS.write (s.charAt (i));
+    }
+    else
+    {
+      final byte [] aBytes = s.getBytes (StandardCharsets.UTF_8);
+      _varInt (aBytes.length);
+      m_aOS.write (aBytes, 0, aBytes.length);
+    }
+  }
+
+  /**
+   * Write a decimal with a kind tag. The tag is the kind plus the provided offset, so that the
+   * presence of an enclosing object can be merged into the same byte.
+   */
+  private void _decimal (@Nullable final BigDecimal a, final int nTagOffset)
+  {
+    if (a == null)
+    {
+      _varInt (nTagOffset + CPeppolViDATDDBinary.DECIMAL_NULL);
+      return;
+    }
+    final BigInteger aUnscaled = a.unscaledValue ();
+    if (aUnscaled.bitLength () < 64)
+    {
+      _varInt (nTagOffset + CPeppolViDATDDBinary.DECIMAL_LONG);
+      _zigZagLong (a.scale ());
+      _zigZagLong (aUnscaled.longValue ());
+    }
+    else
+    {
+      _varInt (nTagOffset + CPeppolViDATDDBinary.DECIMAL_BIG);
+      _zigZagLong (a.scale ());
+      final byte [] aBytes = aUnscaled.toByteArray ();
+      _varInt (aBytes.length);
+      m_aOS.write (aBytes, 0, aBytes.length);
+    }
+  }
+
+  private void _decimal (@Nullable final BigDecimal a)
+  {
+    _decimal (a, 0);
+  }
+
+  /**
+   * Amounts, quantities and the like: absent object, or present with value and one attribute
+   */
+  private void _amount (final boolean bPresent, @Nullable final BigDecimal aValue, @Nullable final String sAttr)
+  {
+    if (!bPresent)
+      _varInt (0);
+    else
+    {
+      _decimal (aValue, 1);
+      _string (sAttr);
+    }
+  }
+
+  private void _offset (@Nullable final ZoneOffset aOffset)
+  {
+    if (aOffset == null)
+      _byte (0);
+    else
+    {
+      _byte (1);
+      _zigZagLong (aOffset.getTotalSeconds ());
+    }
+  }
+
+  private void _date (@Nullable final XMLOffsetDate a)
+  {
+    if (a == null)
+      _byte (0);
+    else
+    {
+      _byte (1);
+      _zigZagLong (a.toLocalDate ().toEpochDay ());
+      _offset (a.getOffset ());
+    }
+  }
+
+  private void _time (@Nullable final XMLOffsetTime a)
+  {
+    if (a == null)
+      _byte (0);
+    else
+    {
+      _byte (1);
+      _varLong (a.toLocalTime ().toNanoOfDay ());
+      _offset (a.getOffset ());
+    }
+  }
+
+  private void _any (@Nullable final Object a)
+  {
+    _string (PeppolViDATDDAnyTypeHelper.getAsXMLString (a));
+  }
+
+  private void _id (@Nullable final IdentifierType a)
+  {
+    if (a == null)
+      _byte (0);
+    else
+    {
+      _byte (1);
+      _string (a.getValue ());
+      _string (a.getSchemeID ());
+    }
+  }
+
+  private void _endpointID (@Nullable final EndpointID a)
+  {
+    if (a == null)
+      _byte (0);
+    else
+    {
+      _byte (1);
+      _string (a.getValue ());
+      _string (a.getSchemeID ());
+    }
+  }
+
+  private void _taxScheme (@Nullable final TaxScheme a)
+  {
+    if (a == null)
+      _byte (0);
+    else
+    {
+      _byte (1);
+      _id (a.getID ());
+    }
+  }
+
+  private void _postalAddresses (@NonNull final List <PostalAddress> aList)
+  {
+    _varInt (aList.size ());
+    for (final PostalAddress a : aList)
+    {
+      _bool (a != null);
+      if (a != null)
+      {
+        _bool (a.getCountry () != null);
+        if (a.getCountry () != null)
+          _string (a.getCountry ().getIdentificationCode ());
+      }
+    }
+  }
+
+  private void _partyTaxScheme (@Nullable final PartyTaxScheme a)
+  {
+    _bool (a != null);
+    if (a != null)
+    {
+      _string (a.getCompanyID ());
+      _taxScheme (a.getTaxScheme ());
+    }
+  }
+
+  private void _party (@Nullable final Party a)
+  {
+    _bool (a != null);
+    if (a != null)
+    {
+      _postalAddresses (a.getPostalAddress ());
+      _partyTaxScheme (a.getPartyTaxScheme ());
+    }
+  }
+
+  private void _invoicePeriod (@Nullable final InvoicePeriod a)
+  {
+    _bool (a != null);
+    if (a != null)
+    {
+      _date (a.getStartDate ());
+      _date (a.getEndDate ());
+      _string (a.getDescriptionCode ());
+    }
+  }
+
+  private void _billingReference (@NonNull final BillingReference a)
+  {
+    final InvoiceDocumentReference aIDR = a.getInvoiceDocumentReference ();
+    _bool (aIDR != null);
+    if (aIDR != null)
+    {
+      _id (aIDR.getID ());
+      _date (aIDR.getIssueDate ());
+    }
+  }
+
+  private void _paymentMeans (@NonNull final PaymentMeans a)
+  {
+    _bool (a.getPaymentMeansCode () != null);
+    if (a.getPaymentMeansCode () != null)
+    {
+      _string (a.getPaymentMeansCode ().getValue ());
+      _string (a.getPaymentMeansCode ().getName ());
+    }
+    _string (a.getPaymentID ());
+    final CardAccount aCA = a.getCardAccount ();
+    _bool (aCA != null);
+    if (aCA != null)
+    {
+      _string (aCA.getPrimaryAccountNumberID ());
+      _string (aCA.getNetworkID ());
+      _string (aCA.getHolderName ());
+    }
+    final PayeeFinancialAccount aPFA = a.getPayeeFinancialAccount ();
+    _bool (aPFA != null);
+    if (aPFA != null)
+    {
+      _id (aPFA.getID ());
+      _bool (aPFA.getFinancialInstitutionBranch () != null);
+      if (aPFA.getFinancialInstitutionBranch () != null)
+        _id (aPFA.getFinancialInstitutionBranch ().getID ());
+    }
+    _any (a.getPaymentMandate ());
+  }
+
+  private void _allowanceCharge (@NonNull final AllowanceCharge a)
+  {
+    _bool (a.isChargeIndicator ());
+    _string (a.getAllowanceChargeReasonCode ());
+    _string (a.getAllowanceChargeReason ());
+    _decimal (a.getMultiplierFactorNumeric ());
+    _amount (a.getAmount () != null,
+             a.getAmount () == null ? null : a.getAmount ().getValue (),
+             a.getAmount () == null ? null : a.getAmount ().getCurrencyID ());
+    _amount (a.getBaseAmount () != null,
+             a.getBaseAmount () == null ? null : a.getBaseAmount ().getValue (),
+             a.getBaseAmount () == null ? null : a.getBaseAmount ().getCurrencyID ());
+    _any (a.getTaxCategory ());
+  }
+
+  private void _allowanceCharges (@NonNull final List <AllowanceCharge> aList)
+  {
+    _varInt (aList.size ());
+    for (final AllowanceCharge a : aList)
+      _allowanceCharge (a);
+  }
+
+  private void _taxTotal (@NonNull final TaxTotal a)
+  {
+    _amount (a.getTaxAmount () != null,
+             a.getTaxAmount () == null ? null : a.getTaxAmount ().getValue (),
+             a.getTaxAmount () == null ? null : a.getTaxAmount ().getCurrencyID ());
+    _varInt (a.getTaxSubtotal ().size ());
+    for (final TaxSubtotal aTS : a.getTaxSubtotal ())
+    {
+      _amount (aTS.getTaxableAmount () != null,
+               aTS.getTaxableAmount () == null ? null : aTS.getTaxableAmount ().getValue (),
+               aTS.getTaxableAmount () == null ? null : aTS.getTaxableAmount ().getCurrencyID ());
+      _amount (aTS.getTaxAmount () != null,
+               aTS.getTaxAmount () == null ? null : aTS.getTaxAmount ().getValue (),
+               aTS.getTaxAmount () == null ? null : aTS.getTaxAmount ().getCurrencyID ());
+      final TaxSubtotal.TaxCategory aTC = aTS.getTaxCategory ();
+      _bool (aTC != null);
+      if (aTC != null)
+      {
+        _id (aTC.getID ());
+        _decimal (aTC.getPercent ());
+        _string (aTC.getTaxExemptionReasonCode ());
+        _string (aTC.getTaxExemptionReason ());
+        _taxScheme (aTC.getTaxScheme ());
+      }
+    }
+  }
+
+  private void _monetaryTotal (@Nullable final MonetaryTotal a)
+  {
+    _bool (a != null);
+    if (a != null)
+    {
+      _amount (a.getLineExtensionAmount () != null,
+               a.getLineExtensionAmount () == null ? null : a.getLineExtensionAmount ().getValue (),
+               a.getLineExtensionAmount () == null ? null : a.getLineExtensionAmount ().getCurrencyID ());
+      _amount (a.getTaxExclusiveAmount () != null,
+               a.getTaxExclusiveAmount () == null ? null : a.getTaxExclusiveAmount ().getValue (),
+               a.getTaxExclusiveAmount () == null ? null : a.getTaxExclusiveAmount ().getCurrencyID ());
+      _amount (a.getTaxInclusiveAmount () != null,
+               a.getTaxInclusiveAmount () == null ? null : a.getTaxInclusiveAmount ().getValue (),
+               a.getTaxInclusiveAmount () == null ? null : a.getTaxInclusiveAmount ().getCurrencyID ());
+      _amount (a.getAllowanceTotalAmount () != null,
+               a.getAllowanceTotalAmount () == null ? null : a.getAllowanceTotalAmount ().getValue (),
+               a.getAllowanceTotalAmount () == null ? null : a.getAllowanceTotalAmount ().getCurrencyID ());
+      _amount (a.getChargeTotalAmount () != null,
+               a.getChargeTotalAmount () == null ? null : a.getChargeTotalAmount ().getValue (),
+               a.getChargeTotalAmount () == null ? null : a.getChargeTotalAmount ().getCurrencyID ());
+      _amount (a.getPrepaidAmount () != null,
+               a.getPrepaidAmount () == null ? null : a.getPrepaidAmount ().getValue (),
+               a.getPrepaidAmount () == null ? null : a.getPrepaidAmount ().getCurrencyID ());
+      _amount (a.getPayableRoundingAmount () != null,
+               a.getPayableRoundingAmount () == null ? null : a.getPayableRoundingAmount ().getValue (),
+               a.getPayableRoundingAmount () == null ? null : a.getPayableRoundingAmount ().getCurrencyID ());
+      _amount (a.getPayableAmount () != null,
+               a.getPayableAmount () == null ? null : a.getPayableAmount ().getValue (),
+               a.getPayableAmount () == null ? null : a.getPayableAmount ().getCurrencyID ());
+    }
+  }
+
+  private void _item (@Nullable final Item a)
+  {
+    _bool (a != null);
+    if (a != null)
+    {
+      _string (a.getDescription ());
+      _string (a.getName ());
+      _varInt (a.getCommodityClassification ().size ());
+      for (final CommodityClassification aCC : a.getCommodityClassification ())
+      {
+        _bool (aCC.getItemClassificationCode () != null);
+        if (aCC.getItemClassificationCode () != null)
+        {
+          _string (aCC.getItemClassificationCode ().getValue ());
+          _string (aCC.getItemClassificationCode ().getListID ());
+          _string (aCC.getItemClassificationCode ().getListVersionID ());
+        }
+      }
+      final ClassifiedTaxCategory aCTC = a.getClassifiedTaxCategory ();
+      _bool (aCTC != null);
+      if (aCTC != null)
+      {
+        _id (aCTC.getID ());
+        _decimal (aCTC.getPercent ());
+        _taxScheme (aCTC.getTaxScheme ());
+      }
+    }
+  }
+
+  private void _documentLine (@NonNull final DocumentLine a)
+  {
+    _id (a.getID ());
+    _string (a.getNote ());
+    _amount (a.getInvoicedQuantity () != null,
+             a.getInvoicedQuantity () == null ? null : a.getInvoicedQuantity ().getValue (),
+             a.getInvoicedQuantity () == null ? null : a.getInvoicedQuantity ().getUnitCode ());
+    _amount (a.getLineExtensionAmount () != null,
+             a.getLineExtensionAmount () == null ? null : a.getLineExtensionAmount ().getValue (),
+             a.getLineExtensionAmount () == null ? null : a.getLineExtensionAmount ().getCurrencyID ());
+    _invoicePeriod (a.getInvoicePeriod ());
+    _allowanceCharges (a.getAllowanceCharge ());
+    _item (a.getItem ());
+    _bool (a.getPrice () != null);
+    if (a.getPrice () != null)
+      _amount (a.getPrice ().getPriceAmount () != null,
+               a.getPrice ().getPriceAmount () == null ? null : a.getPrice ().getPriceAmount ().getValue (),
+               a.getPrice ().getPriceAmount () == null ? null : a.getPrice ().getPriceAmount ().getCurrencyID ());
+  }
+
+  private void _reportedDocument (@NonNull final ReportedDocument a)
+  {
+    _string (a.getCustomizationID ());
+    _string (a.getProfileID ());
+    _id (a.getID ());
+    _string (a.getUUID ());
+    _date (a.getIssueDate ());
+    _time (a.getIssueTime ());
+    _string (a.getDocumentTypeCode ());
+    _string (a.getNote ());
+    _date (a.getTaxPointDate ());
+    _string (a.getDocumentCurrencyCode ());
+    _string (a.getTaxCurrencyCode ());
+    _invoicePeriod (a.getInvoicePeriod ());
+
+    _varInt (a.getBillingReference ().size ());
+    for (final BillingReference aBR : a.getBillingReference ())
+      _billingReference (aBR);
+
+    _bool (a.getAccountingSupplierParty () != null);
+    if (a.getAccountingSupplierParty () != null)
+      _party (a.getAccountingSupplierParty ().getParty ());
+    _bool (a.getAccountingCustomerParty () != null);
+    if (a.getAccountingCustomerParty () != null)
+      _party (a.getAccountingCustomerParty ().getParty ());
+
+    final TaxRepresentativeParty aTRP = a.getTaxRepresentativeParty ();
+    _bool (aTRP != null);
+    if (aTRP != null)
+    {
+      _postalAddresses (aTRP.getPostalAddress ());
+      _partyTaxScheme (aTRP.getPartyTaxScheme ());
+    }
+
+    _bool (a.getDelivery () != null);
+    if (a.getDelivery () != null)
+      _date (a.getDelivery ().getActualDeliveryDate ());
+
+    _varInt (a.getPaymentMeans ().size ());
+    for (final PaymentMeans aPM : a.getPaymentMeans ())
+      _paymentMeans (aPM);
+
+    _allowanceCharges (a.getAllowanceCharge ());
+
+    _varInt (a.getTaxTotal ().size ());
+    for (final TaxTotal aTT : a.getTaxTotal ())
+      _taxTotal (aTT);
+
+    _monetaryTotal (a.getMonetaryTotal ());
+
+    _varInt (a.getDocumentLine ().size ());
+    for (final DocumentLine aDL : a.getDocumentLine ())
+      _documentLine (aDL);
+  }
+
+  private void _tdd (@NonNull final TaxDataType a)
+  {
+    _byte (CPeppolViDATDDBinary.MAGIC_1);
+    _byte (CPeppolViDATDDBinary.MAGIC_2);
+    _byte (CPeppolViDATDDBinary.FORMAT_VERSION);
+
+    _string (a.getCustomizationID ());
+    _string (a.getProfileID ());
+    _string (a.getUUID ());
+    _date (a.getIssueDate ());
+    _time (a.getIssueTime ());
+    _string (a.getDocumentTypeCode ());
+    _string (a.getDocumentCurrencyCode ());
+    _string (a.getDocumentScope ());
+    _string (a.getReporterRole ());
+
+    _bool (a.getTaxAuthority () != null);
+    if (a.getTaxAuthority () != null)
+    {
+      _id (a.getTaxAuthority ().getID ());
+      _string (a.getTaxAuthority ().getName ());
+    }
+    _bool (a.getReportingParty () != null);
+    if (a.getReportingParty () != null)
+      _endpointID (a.getReportingParty ().getEndpointID ());
+    _bool (a.getReceivingParty () != null);
+    if (a.getReceivingParty () != null)
+      _endpointID (a.getReceivingParty ().getEndpointID ());
+    _bool (a.getReportersRepresentative () != null);
+    if (a.getReportersRepresentative () != null)
+    {
+      _bool (a.getReportersRepresentative ().getPartyIdentification () != null);
+      if (a.getReportersRepresentative ().getPartyIdentification () != null)
+        _id (a.getReportersRepresentative ().getPartyIdentification ().getID ());
+    }
+
+    _varInt (a.getReportedTransaction ().size ());
+    for (final ReportedTransaction aRT : a.getReportedTransaction ())
+    {
+      _bool (aRT.getReportedDocument () != null);
+      if (aRT.getReportedDocument () != null)
+        _reportedDocument (aRT.getReportedDocument ());
+    }
+  }
+
+  /**
+   * Append the binary encoding of the provided TDD to the provided stream.
+   *
+   * @param aTDD
+   *        The TDD to encode. May not be <code>null</code>.
+   * @param aOS
+   *        The buffer stream to append to. May not be <code>null</code>.
+   * @return The number of bytes written.
+   * @throws IllegalArgumentException
+   *         If an untyped element contains something else than a DOM node
+   */
+  public int write (@NonNull final TaxDataType aTDD, @NonNull final ByteBufferOutputStream aOS)
+  {
+    ValueEnforcer.notNull (aTDD, "TDD");
+    ValueEnforcer.notNull (aOS, "OutputStream");
+
+    final int nStart = aOS.size ();
+    m_aOS = aOS;
+    m_aBackRefs.clear ();
+    try
+    {
+      _tdd (aTDD);
+    }
+    finally
+    {
+      m_aOS = null;
+    }
+    return aOS.size () - nStart;
+  }
+
+  /**
+   * Get the binary encoding of the provided TDD as a new byte array. Prefer
+   * {@link #write(TaxDataType, ByteBufferOutputStream)} in hot paths.
+   *
+   * @param aTDD
+   *        The TDD to encode. May not be <code>null</code>.
+   * @return The encoded bytes. Never <code>null</code>.
+   */
+  public byte @NonNull [] getAsBytes (@NonNull final TaxDataType aTDD)
+  {
+    final ByteBufferOutputStream aOS = new ByteBufferOutputStream (4 * 1024, false);
+    write (aTDD, aOS);
+    final ByteBuffer aBuf = aOS.getAsReadOnlyBuffer ();
+    final byte [] ret = new byte [aBuf.remaining ()];
+    aBuf.get (ret);
+    return ret;
+  }
+}
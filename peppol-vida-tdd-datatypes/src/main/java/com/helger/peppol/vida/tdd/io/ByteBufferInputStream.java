@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * An {@link InputStream} that reads directly from a {@link ByteBuffer} without copying the content.
+ * The stream operates on a duplicate of the provided buffer, so the position and limit of the
+ * original buffer are never modified. This makes it suitable for direct and memory-mapped buffers
+ * that are shared between readers.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ByteBufferInputStream extends InputStream
+{
+  private final ByteBuffer m_aBuffer;
+  private int m_nMark;
+
+  /**
+   * Constructor reading from the current position to the limit of the buffer.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   */
+  public ByteBufferInputStream (@NonNull final ByteBuffer aBuffer)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+    m_aBuffer = aBuffer.duplicate ();
+    m_nMark = m_aBuffer.position ();
+  }
+
+  /**
+   * Constructor reading a slice of the buffer. The position and limit of the buffer are ignored.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOffset
+   *        The absolute offset into the buffer. Must be &ge; 0.
+   * @param nLength
+   *        The number of bytes to read. Must be &ge; 0.
+   */
+  public ByteBufferInputStream (@NonNull final ByteBuffer aBuffer, final int nOffset, final int nLength)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+    ValueEnforcer.isGE0 (nOffset, "Offset");
+    ValueEnforcer.isGE0 (nLength, "Length");
+    if ((long) nOffset + nLength > aBuffer.capacity ())
+      throw new IllegalArgumentException ("Offset " +
+                                          nOffset +
+                                          " and length " +
+                                          nLength +
+                                          " exceed the buffer capacity of " +
+                                          aBuffer.capacity ());
+    m_aBuffer = aBuffer.duplicate ();
+    m_aBuffer.limit (nOffset + nLength).position (nOffset);
+    m_nMark = nOffset;
+  }
+
+  @Override
+  public int read ()
+  {
+    return m_aBuffer.hasRemaining () ? m_aBuffer.get () & 0xff : -1;
+  }
+
+  @Override
+  public int read (final byte @NonNull [] aBuf, final int nOfs, final int nLen)
+  {
+    if (nLen == 0)
+      return 0;
+    final int nRemaining = m_aBuffer.remaining ();
+    if (nRemaining == 0)
+      return -1;
+    final int nRead = Math.min (nLen, nRemaining);
+    m_aBuffer.get (aBuf, nOfs, nRead);
+    return nRead;
+  }
+
+  @Override
+  public long skip (final long n)
+  {
+    if (n <= 0)
+      return 0;
+    final int nSkip = (int) Math.min (n, m_aBuffer.remaining ());
+    m_aBuffer.position (m_aBuffer.position () + nSkip);
+    return nSkip;
+  }
+
+  @Override
+  public int available ()
+  {
+    return m_aBuffer.remaining ();
+  }
+
+  @Override
+  public boolean markSupported ()
+  {
+    return true;
+  }
+
+  @Override
+  public void mark (final int nReadLimit)
+  {
+    m_nMark = m_aBuffer.position ();
+  }
+
+  @Override
+  public void reset ()
+  {
+    m_aBuffer.position (m_nMark);
+  }
+
+  /**
+   * @return The number of bytes that were not yet read.
+   */
+  public int getRemaining ()
+  {
+    return m_aBuffer.remaining ();
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * An {@link OutputStream} that writes into a reusable {@link ByteBuffer}. If the buffer is too
+ * small, it is replaced by a larger one of the same kind (heap or direct). Call {@link #reset()}
+ * to reuse the same buffer for the next document, so that in steady state no allocation happens.
+ * <p>
+ * Closing this stream has no effect.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ByteBufferOutputStream extends OutputStream
+{
+  public static final int DEFAULT_INITIAL_CAPACITY = 16 * 1024;
+
+  private final boolean m_bDirect;
+  private ByteBuffer m_aBuffer;
+
+  /**
+   * Constructor with a heap buffer of the default initial capacity.
+   */
+  public ByteBufferOutputStream ()
+  {
+    this (DEFAULT_INITIAL_CAPACITY, false);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param nInitialCapacity
+   *        The initial capacity of the buffer in bytes. Must be &gt; 0.
+   * @param bDirect
+   *        <code>true</code> to use a direct (off-heap) buffer, <code>false</code> to use a heap
+   *        buffer.
+   */
+  public ByteBufferOutputStream (final int nInitialCapacity, final boolean bDirect)
+  {
+    ValueEnforcer.isGT0 (nInitialCapacity, "InitialCapacity");
+    m_bDirect = bDirect;
+    m_aBuffer = _allocate (nInitialCapacity);
+  }
+
+  @NonNull
+  private ByteBuffer _allocate (final int nCapacity)
+  {
+    return m_bDirect ? ByteBuffer.allocateDirect (nCapacity) : ByteBuffer.allocate (nCapacity);
+  }
+
+  private void _ensureCapacity (final int nAdditional)
+  {
+    if (m_aBuffer.remaining () < nAdditional)
+    {
+      final long nRequired = (long) m_aBuffer.position () + nAdditional;
+      if (nRequired > Integer.MAX_VALUE)
+        throw new IllegalStateException ("Cannot grow the buffer beyond 2GB");
+      final int nNewCapacity = (int) Math.min (Integer.MAX_VALUE,
+                                               Math.max (nRequired, (long) m_aBuffer.capacity () * 2));
+      final ByteBuffer aNew = _allocate (nNewCapacity);
+      m_aBuffer.flip ();
+      aNew.put (m_aBuffer);
+      m_aBuffer = aNew;
+    }
+  }
+
+  /**
+   * @return <code>true</code> if a direct buffer is used, <code>false</code> for a heap buffer.
+   */
+  public boolean isDirect ()
+  {
+    return m_bDirect;
+  }
+
+  @Override
+  public void write (final int b)
+  {
+    _ensureCapacity (1);
+    m_aBuffer.put ((byte) b);
+  }
+
+  @Override
+  public void write (final byte @NonNull [] aBuf, final int nOfs, final int nLen)
+  {
+    _ensureCapacity (nLen);
+    m_aBuffer.put (aBuf, nOfs, nLen);
+  }
+
+  /**
+   * Write the content of the provided buffer (from position to limit) into this stream. The
+   * position of the source buffer is not modified.
+   *
+   * @param aSrc
+   *        The source buffer. May not be <code>null</code>.
+   */
+  public void write (@NonNull final ByteBuffer aSrc)
+  {
+    _ensureCapacity (aSrc.remaining ());
+    m_aBuffer.put (aSrc.duplicate ());
+  }
+
+  /**
+   * @return The number of bytes written since the last {@link #reset()}.
+   */
+  public int size ()
+  {
+    return m_aBuffer.position ();
+  }
+
+  /**
+   * @return The current capacity of the underlying buffer.
+   */
+  public int getCapacity ()
+  {
+    return m_aBuffer.capacity ();
+  }
+
+  /**
+   * Discard all written content but keep the underlying buffer.
+   */
+  public void reset ()
+  {
+    m_aBuffer.clear ();
+  }
+
+  /**
+   * Get a read-only view of all bytes written since the last {@link #reset()}. The returned buffer
+   * shares the content with this stream and is only valid until the next write or reset.
+   *
+   * @return A read-only buffer with position 0 and limit {@link #size()}. Never <code>null</code>.
+   */
+  @NonNull
+  public ByteBuffer getAsReadOnlyBuffer ()
+  {
+    final ByteBuffer ret = m_aBuffer.duplicate ();
+    ret.flip ();
+    return ret.asReadOnlyBuffer ();
+  }
+
+  /**
+   * Write all bytes written since the last {@link #reset()} to the provided channel. The content of
+   * this stream is not modified.
+   *
+   * @param aChannel
+   *        The channel to write to. May not be <code>null</code>.
+   * @return The number of bytes written.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public int writeTo (@NonNull final WritableByteChannel aChannel) throws IOException
+  {
+    ValueEnforcer.notNull (aChannel, "Channel");
+    final ByteBuffer aView = m_aBuffer.duplicate ();
+    aView.flip ();
+    final int ret = aView.remaining ();
+    while (aView.hasRemaining ())
+      aChannel.write (aView);
+    return ret;
+  }
+
+  @Override
+  public void close ()
+  {
+    // Nothing to do - the buffer is meant to be reused
+  }
+}
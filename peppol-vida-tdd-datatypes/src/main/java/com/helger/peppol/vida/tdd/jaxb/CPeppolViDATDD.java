@@ -17,6 +17,7 @@
 package com.helger.peppol.vida.tdd.jaxb;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.annotation.style.PresentForCodeCoverage;
@@ -55,9 +56,27 @@ public final class CPeppolViDATDD
   /** Namespace URI for Peppol ViDA pilot TDD XSD 0.9.0 */
   public static final String TDD_XSD_0_9_0_NS = "urn:peppol:schema:taxdata:1.0";
 
+  /**
+   * The part of the CustomizationID that identifies the ViDA-1 specification, that only allows a
+   * single ReportedTransaction per TDD.
+   */
+  public static final String CUSTOMIZATION_ID_VIDA1_PART = "urn:peppol:taxdata:ViDA-1";
+
   @PresentForCodeCoverage
   private static final CPeppolViDATDD INSTANCE = new CPeppolViDATDD ();
 
   private CPeppolViDATDD ()
   {}
+
+  /**
+   * Check if the provided CustomizationID claims conformance to the ViDA-1 specification.
+   *
+   * @param sCustomizationID
+   *        The CustomizationID to check. May be <code>null</code>.
+   * @return <code>true</code> if it is a ViDA-1 CustomizationID, <code>false</code> otherwise.
+   */
+  public static boolean isViDA1CustomizationID (@Nullable final String sCustomizationID)
+  {
+    return sCustomizationID != null && sCustomizationID.contains (CUSTOMIZATION_ID_VIDA1_PART);
+  }
 }
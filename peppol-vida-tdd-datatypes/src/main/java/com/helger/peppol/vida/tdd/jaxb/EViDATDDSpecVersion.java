@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+
+/**
+ * All supported Peppol ViDA pilot TDD specification versions.
+ *
+ * @author Philip Helger
+ */
+public enum EViDATDDSpecVersion implements IHasID <String>
+{
+  /** TDD 0.9.0 */
+  V_0_9_0 ("0.9.0",
+           CPeppolViDATDD.TDD_XSD_0_9_0_NS,
+           CPeppolViDATDD.TDD_XSD_0_9_0_CBC,
+           CPeppolViDATDD.TDD_XSD_0_9_0_CAC,
+           CPeppolViDATDD.TDD_XSD_0_9_0);
+
+  private final String m_sID;
+  private final String m_sNamespaceURI;
+  private final ClassPathResource [] m_aXSDs;
+
+  EViDATDDSpecVersion (@NonNull @Nonempty final String sID,
+                       @NonNull @Nonempty final String sNamespaceURI,
+                       @NonNull final ClassPathResource @NonNull... aXSDs)
+  {
+    m_sID = sID;
+    m_sNamespaceURI = sNamespaceURI;
+    m_aXSDs = aXSDs;
+  }
+
+  /**
+   * @return The version number as used in the specification (e.g. "0.9.0").
+   */
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  /**
+   * @return The namespace URI of the root element of this version.
+   */
+  @NonNull
+  @Nonempty
+  public String getNamespaceURI ()
+  {
+    return m_sNamespaceURI;
+  }
+
+  /**
+   * @return All XML Schemas that make up this version, in the order they need to be compiled.
+   *         Never <code>null</code> nor empty.
+   */
+  @NonNull
+  @Nonempty
+  @ReturnsMutableCopy
+  public ICommonsList <ClassPathResource> getAllXSDs ()
+  {
+    return new CommonsArrayList <> (m_aXSDs);
+  }
+
+  @Nullable
+  public static EViDATDDSpecVersion getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (EViDATDDSpecVersion.class, sID);
+  }
+}
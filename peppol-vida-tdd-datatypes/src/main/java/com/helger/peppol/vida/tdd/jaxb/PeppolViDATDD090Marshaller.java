@@ -16,22 +16,46 @@
  */
 package com.helger.peppol.vida.tdd.jaxb;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import javax.xml.validation.Schema;
+
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonempty;
 import com.helger.annotation.concurrent.NotThreadSafe;
 import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.io.resource.ClassPathResource;
 import com.helger.jaxb.GenericJAXBMarshaller;
+import com.helger.jaxb.JAXBMarshallerHelper;
+import com.helger.peppol.vida.tdd.io.ByteBufferInputStream;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jfr.PeppolViDATDDMarshalEvent;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.ObjectFactory;
 import com.helger.peppol.vida.tdd.v090.TaxDataType;
 import com.helger.xml.namespace.MapBasedNamespaceContext;
 
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+
 /**
  * This is the reader and writer for Peppol ViDA pilot TDD 0.9.0 documents. This class may be
- * derived to override protected methods from {@link GenericJAXBMarshaller}.
+ * derived to override protected methods from {@link GenericJAXBMarshaller}.<br>
+ * If XSD validation is enabled, the Schema from {@link PeppolViDATDDSchemaCache} is used, so that
+ * reading, writing and {@link PeppolViDATDDXSDValidator} validate against the same securely compiled
+ * Schema.<br>
+ * Besides the generic methods, documents can be read from and written to {@link ByteBuffer}s
+ * without intermediate byte arrays. This allows parsing memory-mapped segment files in place.
+ * These buffer based methods report their timings and sizes to {@link PeppolViDATDDMetrics} and
+ * emit a {@link PeppolViDATDDMarshalEvent} if enabled in JFR.
  *
  * @author Philip Helger
  */
@@ -67,4 +91,142 @@ public class PeppolViDATDD090Marshaller extends GenericJAXBMarshaller <TaxDataTy
     super (TaxDataType.class, _getAllXSDs (), new ObjectFactory ()::createTaxData);
     setNamespaceContext (createNamespaceContext ());
   }
+
+  @Override
+  @Nullable
+  protected Schema createValidationSchema ()
+  {
+    // Use the same securely compiled Schema as PeppolViDATDDXSDValidator and the streaming writer
+    return isUseSchema () ? PeppolViDATDDSchemaCache.getSchema090 () : null;
+  }
+
+  /**
+   * Create a new JAXB marshaller for writing single elements, using the same JAXB context and
+   * namespace prefixes as this marshaller. No XSD validation is performed.
+   *
+   * @return A new fragment marshaller. Never <code>null</code>.
+   * @throws JAXBException
+   *         If the marshaller cannot be created
+   */
+  @NonNull
+  Marshaller createFragmentMarshaller () throws JAXBException
+  {
+    final Marshaller ret = getJAXBContext (getClassLoader ()).createMarshaller ();
+    JAXBMarshallerHelper.setJakartaNamespacePrefixMapper (ret, getNamespaceContext ());
+    JAXBMarshallerHelper.setFragment (ret, true);
+    customizeMarshaller (ret);
+    return ret;
+  }
+
+  /**
+   * Read a TDD from the bytes between position and limit of the provided buffer. The buffer
+   * content is not copied and the position of the buffer is not modified, so this can be used on
+   * shared direct and memory-mapped buffers.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   * @return <code>null</code> if the content could not be read.
+   */
+  @Nullable
+  public TaxDataType readFromBuffer (@NonNull final ByteBuffer aBuffer)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+    return readFromBuffer (aBuffer, aBuffer.position (), aBuffer.remaining ());
+  }
+
+  /**
+   * Read a TDD from an absolute region of the provided buffer. The position and limit of the
+   * buffer are ignored and not modified. This is the preferred way to read a single document out
+   * of a memory-mapped segment file.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   * @param nOffset
+   *        The absolute offset of the document inside the buffer. Must be &ge; 0.
+   * @param nLength
+   *        The length of the document in bytes. Must be &ge; 0.
+   * @return <code>null</code> if the content could not be read.
+   */
+  @Nullable
+  public TaxDataType readFromBuffer (@NonNull final ByteBuffer aBuffer, final int nOffset, final int nLength)
+  {
+    final PeppolViDATDDMarshalEvent aEvent = new PeppolViDATDDMarshalEvent ();
+    aEvent.begin ();
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final TaxDataType ret = read (new ByteBufferInputStream (aBuffer, nOffset, nLength));
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.MARSHAL_READ, nStartNanos);
+    PeppolViDATDDMetrics.count (EPeppolViDATDDMetric.MARSHAL_READ_BYTES, nLength);
+    if (aEvent.shouldCommit ())
+    {
+      aEvent.setTDDUUID (ret == null ? null : ret.getUUID ());
+      aEvent.setWrite (false);
+      aEvent.setBytes (nLength);
+      aEvent.setSuccess (ret != null);
+      aEvent.commit ();
+    }
+    return ret;
+  }
+
+  /**
+   * Append the serialized TDD to the provided reusable buffer stream. Previous content of the
+   * stream is kept - call {@link ByteBufferOutputStream#reset()} before if only this document
+   * should be contained.
+   *
+   * @param aTDD
+   *        The TDD to write. May not be <code>null</code>.
+   * @param aBBOS
+   *        The buffer stream to write to. May not be <code>null</code>.
+   * @return The number of bytes written or -1 if the TDD could not be serialized.
+   */
+  public int writeToBuffer (@NonNull final TaxDataType aTDD, @NonNull final ByteBufferOutputStream aBBOS)
+  {
+    ValueEnforcer.notNull (aTDD, "TDD");
+    ValueEnforcer.notNull (aBBOS, "BufferStream");
+    final PeppolViDATDDMarshalEvent aEvent = new PeppolViDATDDMarshalEvent ();
+    aEvent.begin ();
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final int nStart = aBBOS.size ();
+    // Closing the buffer stream has no effect
+    final int ret = write (aTDD, aBBOS).isFailure () ? -1 : aBBOS.size () - nStart;
+    if (ret >= 0)
+    {
+      PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.MARSHAL_WRITE, nStartNanos);
+      PeppolViDATDDMetrics.count (EPeppolViDATDDMetric.MARSHAL_WRITE_BYTES, ret);
+    }
+    if (aEvent.shouldCommit ())
+    {
+      aEvent.setTDDUUID (aTDD.getUUID ());
+      aEvent.setWrite (true);
+      aEvent.setBytes (Math.max (ret, 0));
+      aEvent.setSuccess (ret >= 0);
+      aEvent.commit ();
+    }
+    return ret;
+  }
+
+  /**
+   * Serialize the TDD into the provided scratch buffer stream and write the result to the provided
+   * channel. The scratch stream is reset before writing, so that it can be reused for every
+   * document. The channel is not closed.
+   *
+   * @param aTDD
+   *        The TDD to write. May not be <code>null</code>.
+   * @param aScratch
+   *        The reusable scratch buffer stream. May not be <code>null</code>.
+   * @param aChannel
+   *        The channel to write to. May not be <code>null</code>.
+   * @return The number of bytes written to the channel or -1 if the TDD could not be serialized.
+   * @throws IOException
+   *         In case writing to the channel fails
+   */
+  public int writeToChannel (@NonNull final TaxDataType aTDD,
+                             @NonNull final ByteBufferOutputStream aScratch,
+                             @NonNull final WritableByteChannel aChannel) throws IOException
+  {
+    ValueEnforcer.notNull (aChannel, "Channel");
+    aScratch.reset ();
+    if (writeToBuffer (aTDD, aScratch) < 0)
+      return -1;
+    return aScratch.writeTo (aChannel);
+  }
 }
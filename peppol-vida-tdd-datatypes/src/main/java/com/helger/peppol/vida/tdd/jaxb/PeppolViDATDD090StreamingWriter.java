@@ -0,0 +1,461 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.validation.ValidatorHandler;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.base.io.stream.CountingOutputStream;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.peppol.vida.tdd.v090.ObjectFactory;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * Streaming writer for a single TDD with an arbitrary number of ReportedTransactions. The TDD
+ * header is written once and every ReportedTransaction is serialized when it is added, so that the
+ * transactions don't need to be kept in memory. The DocumentLines of a ReportedTransaction may also
+ * be streamed, see {@link #write(ReportedTransaction, Iterable)}.
+ * <p>
+ * All elements are marshalled as SAX events into a single XSD validator, that is followed by the
+ * XML serializer. So the whole TDD is XSD validated exactly once while it is written. If a
+ * validation error occurs, the output is incomplete and the writer cannot be used any further.
+ * <p>
+ * This is meant for aggregated bulk reporting with non ViDA-1 CustomizationIDs. If the envelope
+ * uses a ViDA-1 CustomizationID (see {@link CPeppolViDATDD#isViDA1CustomizationID(String)}), adding
+ * a second ReportedTransaction is refused.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDD090StreamingWriter implements Closeable
+{
+  private static final QName QNAME_REPORTED_TRANSACTION = new QName (CPeppolViDATDD.TDD_XSD_0_9_0_NS,
+                                                                     "ReportedTransaction");
+  private static final QName QNAME_REPORTED_DOCUMENT = new QName (CPeppolViDATDD.TDD_XSD_0_9_0_NS, "ReportedDocument");
+  private static final QName QNAME_DOCUMENT_LINE = new QName (CPeppolViDATDD.TDD_XSD_0_9_0_NS, "DocumentLine");
+
+  /**
+   * Forwards the events of the JAXB fragment marshallers. The end of the root element and the root
+   * namespace declarations are kept open until the writer is closed. Namespace declarations of the
+   * single elements that are already declared on the root element are dropped. Streamed
+   * DocumentLines are inserted at the end of the ReportedDocument element, as they are its last
+   * child elements.
+   *
+   * @author Philip Helger
+   */
+  private static final class EventFilter extends XMLFilterImpl
+  {
+    private final ICommonsOrderedMap <String, String> m_aRootNamespaces = new CommonsLinkedHashMap <> ();
+    private final Marshaller m_aLineMarshaller;
+    private String m_sRootURI;
+    private String m_sRootLocalName;
+    private String m_sRootQName;
+    private int m_nDepth = 0;
+    private Iterator <? extends DocumentLine> m_aLines;
+
+    EventFilter (@NonNull final ValidatorHandler aValidator, @NonNull final Marshaller aLineMarshaller)
+    {
+      setContentHandler (aValidator);
+      m_aLineMarshaller = aLineMarshaller;
+    }
+
+    boolean isRootStarted ()
+    {
+      return m_sRootQName != null;
+    }
+
+    void setLines (@Nullable final Iterator <? extends DocumentLine> aLines)
+    {
+      m_aLines = aLines;
+    }
+
+    private boolean _isRootNamespace (@NonNull final String sPrefix, @NonNull final String sURI)
+    {
+      return EqualsHelper.equals (m_aRootNamespaces.get (sPrefix), sURI);
+    }
+
+    @Override
+    public void startPrefixMapping (final String sPrefix, final String sURI) throws SAXException
+    {
+      if (!isRootStarted () && m_nDepth == 0)
+      {
+        // Declaration on the root element
+        m_aRootNamespaces.put (sPrefix, sURI);
+        super.startPrefixMapping (sPrefix, sURI);
+      }
+      else
+        if (!_isRootNamespace (sPrefix, sURI))
+          super.startPrefixMapping (sPrefix, sURI);
+    }
+
+    @Override
+    public void endPrefixMapping (final String sPrefix) throws SAXException
+    {
+      // The root namespaces are ended in endRoot
+      if (!m_aRootNamespaces.containsKey (sPrefix))
+        super.endPrefixMapping (sPrefix);
+    }
+
+    @Override
+    public void startElement (final String sURI,
+                              final String sLocalName,
+                              final String sQName,
+                              final Attributes aAttrs) throws SAXException
+    {
+      if (!isRootStarted ())
+      {
+        m_sRootURI = sURI;
+        m_sRootLocalName = sLocalName;
+        m_sRootQName = sQName;
+      }
+      m_nDepth++;
+      super.startElement (sURI, sLocalName, sQName, aAttrs);
+    }
+
+    private void _writeLines () throws SAXException
+    {
+      final Iterator <? extends DocumentLine> aLines = m_aLines;
+      m_aLines = null;
+      try
+      {
+        while (aLines.hasNext ())
+          m_aLineMarshaller.marshal (new JAXBElement <> (QNAME_DOCUMENT_LINE, DocumentLine.class, aLines.next ()),
+                                     this);
+      }
+      catch (final JAXBException ex)
+      {
+        throw new SAXException (ex);
+      }
+    }
+
+    @Override
+    public void endElement (final String sURI, final String sLocalName, final String sQName) throws SAXException
+    {
+      // The root element of the envelope is ended in endRoot
+      if (m_nDepth == 1)
+        return;
+
+      if (m_aLines != null &&
+          m_nDepth == 3 &&
+          QNAME_REPORTED_DOCUMENT.getNamespaceURI ().equals (sURI) &&
+          QNAME_REPORTED_DOCUMENT.getLocalPart ().equals (sLocalName))
+        _writeLines ();
+      m_nDepth--;
+      super.endElement (sURI, sLocalName, sQName);
+    }
+
+    void endRoot () throws SAXException
+    {
+      super.endElement (m_sRootURI, m_sRootLocalName, m_sRootQName);
+      for (final Map.Entry <String, String> aEntry : m_aRootNamespaces.entrySet ())
+        super.endPrefixMapping (aEntry.getKey ());
+    }
+  }
+
+  private final TaxDataType m_aEnvelope;
+  private final boolean m_bViDA1;
+  private final CountingOutputStream m_aOS;
+  private final ValidatorHandler m_aValidator;
+  private final Marshaller m_aMarshaller;
+  private final EventFilter m_aFilter;
+  private ICommonsList <ReportedTransaction> m_aInitialRTs;
+  private long m_nTransactionCount = 0;
+  private boolean m_bClosed = false;
+  // Stays set if writing was interrupted by an exception
+  private boolean m_bFailed = false;
+
+  /**
+   * Constructor. Nothing is written until the first ReportedTransaction is added.
+   *
+   * @param aEnvelope
+   *        The TDD providing the header fields. ReportedTransactions already contained in it are
+   *        written first. The object is not modified. May not be <code>null</code>.
+   * @param aChannel
+   *        The channel to write to. It is not closed by this writer. May not be <code>null</code>.
+   */
+  public PeppolViDATDD090StreamingWriter (@NonNull final TaxDataType aEnvelope,
+                                          @NonNull final WritableByteChannel aChannel)
+  {
+    ValueEnforcer.notNull (aEnvelope, "Envelope");
+    ValueEnforcer.notNull (aChannel, "Channel");
+    m_aEnvelope = aEnvelope.clone ();
+    m_aInitialRTs = new CommonsArrayList <> (m_aEnvelope.getReportedTransaction ());
+    m_aEnvelope.getReportedTransaction ().clear ();
+    m_bViDA1 = CPeppolViDATDD.isViDA1CustomizationID (m_aEnvelope.getCustomizationID ());
+
+    final PeppolViDATDD090Marshaller aTDDMarshaller = new PeppolViDATDD090Marshaller ();
+    final Charset aCharset = aTDDMarshaller.getCharset () != null ? aTDDMarshaller.getCharset ()
+                                                                  : StandardCharsets.UTF_8;
+    // Channels.newOutputStream would close the channel on close
+    m_aOS = new CountingOutputStream (Channels.newOutputStream (aChannel));
+    try
+    {
+      final TransformerHandler aSerializer = ((SAXTransformerFactory) TransformerFactory.newDefaultInstance ()).newTransformerHandler ();
+      aSerializer.getTransformer ().setOutputProperty (OutputKeys.ENCODING, aCharset.name ());
+      aSerializer.setResult (new StreamResult (m_aOS));
+
+      m_aValidator = PeppolViDATDDSchemaCache.createValidatorHandler (EViDATDDSpecVersion.V_0_9_0);
+      m_aValidator.setContentHandler (aSerializer);
+
+      m_aMarshaller = aTDDMarshaller.createFragmentMarshaller ();
+      m_aFilter = new EventFilter (m_aValidator, aTDDMarshaller.createFragmentMarshaller ());
+    }
+    catch (final TransformerConfigurationException | JAXBException ex)
+    {
+      throw new IllegalStateException ("Failed to create the XML writer", ex);
+    }
+  }
+
+  @NonNull
+  private static RuntimeException _createException (@NonNull final Exception ex) throws IOException
+  {
+    String sMsg = null;
+    Throwable t = ex;
+    while (t != null)
+    {
+      if (t instanceof IOException)
+        throw (IOException) t;
+      if (t.getMessage () != null)
+        sMsg = t.getMessage ();
+      t = t.getCause ();
+    }
+    return new IllegalArgumentException ("Failed to write the TDD: " + sMsg, ex);
+  }
+
+  private void _marshal (@NonNull final JAXBElement <?> aElement) throws IOException
+  {
+    try
+    {
+      m_aMarshaller.marshal (aElement, m_aFilter);
+    }
+    catch (final JAXBException ex)
+    {
+      throw _createException (ex);
+    }
+  }
+
+  private void _writeHeader () throws IOException
+  {
+    if (!m_aFilter.isRootStarted ())
+    {
+      try
+      {
+        m_aValidator.startDocument ();
+      }
+      catch (final SAXException ex)
+      {
+        throw _createException (ex);
+      }
+      // Contains no ReportedTransaction, so only the header is written
+      _marshal (new ObjectFactory ().createTaxData (m_aEnvelope));
+    }
+
+    if (m_aInitialRTs != null)
+    {
+      final List <ReportedTransaction> aInitialRTs = m_aInitialRTs;
+      m_aInitialRTs = null;
+      for (final ReportedTransaction aRT : aInitialRTs)
+        _write (aRT, null);
+    }
+  }
+
+  private long _getPendingTransactionCount ()
+  {
+    return m_nTransactionCount + (m_aInitialRTs == null ? 0 : m_aInitialRTs.size ());
+  }
+
+  private void _checkViDA1 ()
+  {
+    if (m_bViDA1 && _getPendingTransactionCount () > 0)
+      throw new IllegalStateException ("A TDD with the ViDA-1 CustomizationID '" +
+                                       m_aEnvelope.getCustomizationID () +
+                                       "' must contain exactly one ReportedTransaction");
+  }
+
+  private void _write (@NonNull final ReportedTransaction aRT,
+                       @Nullable final Iterator <? extends DocumentLine> aLines) throws IOException
+  {
+    _checkViDA1 ();
+    m_aFilter.setLines (aLines);
+    try
+    {
+      _marshal (new JAXBElement <> (QNAME_REPORTED_TRANSACTION, ReportedTransaction.class, aRT));
+    }
+    finally
+    {
+      m_aFilter.setLines (null);
+    }
+    m_nTransactionCount++;
+  }
+
+  private void _checkWritable ()
+  {
+    if (m_bClosed)
+      throw new IllegalStateException ("The writer is already closed");
+    if (m_bFailed)
+      throw new IllegalStateException ("A previous write failed");
+  }
+
+  /**
+   * Serialize and write the provided ReportedTransaction.
+   *
+   * @param aRT
+   *        The ReportedTransaction to write. May not be <code>null</code>.
+   * @return this for chaining
+   * @throws IOException
+   *         In case writing to the channel fails
+   * @throws IllegalArgumentException
+   *         If the ReportedTransaction is not XSD valid. The writer cannot be used afterwards.
+   * @throws IllegalStateException
+   *         If the writer is closed, if a previous write failed or if it would be the second
+   *         ReportedTransaction of a ViDA-1 TDD
+   */
+  @NonNull
+  public PeppolViDATDD090StreamingWriter write (@NonNull final ReportedTransaction aRT) throws IOException
+  {
+    ValueEnforcer.notNull (aRT, "ReportedTransaction");
+    _checkWritable ();
+    _checkViDA1 ();
+    m_bFailed = true;
+    _writeHeader ();
+    _write (aRT, null);
+    m_bFailed = false;
+    return this;
+  }
+
+  /**
+   * Serialize and write the provided ReportedTransaction, with the DocumentLines taken from the
+   * provided iterable. The lines are serialized one by one, so if the iterable creates the lines on
+   * the fly, they are never all in memory at the same time. The DocumentLines already contained in
+   * the ReportedTransaction are written first. The ReportedTransaction is not modified.
+   *
+   * @param aRT
+   *        The ReportedTransaction to write. May not be <code>null</code>.
+   * @param aLines
+   *        The additional DocumentLines to write. May not be <code>null</code>.
+   * @return this for chaining
+   * @throws IOException
+   *         In case writing to the channel fails
+   * @throws IllegalArgumentException
+   *         If there is no DocumentLine at all or if the ReportedTransaction or a DocumentLine is
+   *         not XSD valid. In the latter case the writer cannot be used afterwards.
+   * @throws IllegalStateException
+   *         If the writer is closed, if a previous write failed or if it would be the second
+   *         ReportedTransaction of a ViDA-1 TDD
+   */
+  @NonNull
+  public PeppolViDATDD090StreamingWriter write (@NonNull final ReportedTransaction aRT,
+                                                @NonNull final Iterable <? extends DocumentLine> aLines) throws IOException
+  {
+    ValueEnforcer.notNull (aRT, "ReportedTransaction");
+    ValueEnforcer.notNull (aRT.getReportedDocument (), "ReportedTransaction.ReportedDocument");
+    ValueEnforcer.notNull (aLines, "Lines");
+    _checkWritable ();
+    final Iterator <? extends DocumentLine> aIt = aLines.iterator ();
+    if (aRT.getReportedDocument ().getDocumentLine ().isEmpty () && !aIt.hasNext ())
+      throw new IllegalArgumentException ("At least one DocumentLine is required");
+    _checkViDA1 ();
+
+    m_bFailed = true;
+    _writeHeader ();
+    _write (aRT, aIt);
+    m_bFailed = false;
+    return this;
+  }
+
+  /**
+   * @return The number of ReportedTransactions written so far.
+   */
+  public long getTransactionCount ()
+  {
+    return m_nTransactionCount;
+  }
+
+  /**
+   * @return The number of bytes written to the channel so far. The serializer buffers the output,
+   *         so this is only the total after {@link #close()}.
+   */
+  public long getBytesWritten ()
+  {
+    return m_aOS.getBytesWritten ();
+  }
+
+  /**
+   * Write the end of the TDD. The channel is not closed. If a previous write failed, nothing is
+   * written.
+   *
+   * @throws IllegalStateException
+   *         If no ReportedTransaction was written, as the result would not be XSD valid
+   */
+  public void close () throws IOException
+  {
+    if (!m_bClosed && !m_bFailed)
+    {
+      m_bClosed = true;
+      if (_getPendingTransactionCount () == 0)
+        throw new IllegalStateException ("At least one ReportedTransaction must be written");
+      m_bFailed = true;
+      _writeHeader ();
+      try
+      {
+        m_aFilter.endRoot ();
+        m_aValidator.endDocument ();
+      }
+      catch (final SAXException ex)
+      {
+        throw _createException (ex);
+      }
+      m_aOS.flush ();
+      m_bFailed = false;
+    }
+    m_bClosed = true;
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.jspecify.annotations.Nullable;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+
+/**
+ * Helper for the TDD elements that have no type in the XSD (like
+ * <code>AllowanceCharge/TaxCategory</code> or <code>PaymentMeans/PaymentMandate</code>). JAXB
+ * maps them to {@link Object} and unmarshals them as DOM {@link Element}s. Non-XML codecs use
+ * this class to carry them as XML strings.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDDAnyTypeHelper
+{
+  private static final ThreadLocal <DocumentBuilder> DOC_BUILDER = ThreadLocal.withInitial ( () -> {
+    try
+    {
+      final DocumentBuilderFactory aDBF = DocumentBuilderFactory.newInstance ();
+      aDBF.setNamespaceAware (true);
+      aDBF.setFeature (XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      aDBF.setFeature ("http://apache.org/xml/features/disallow-doctype-decl", true);
+      return aDBF.newDocumentBuilder ();
+    }
+    catch (final ParserConfigurationException ex)
+    {
+      throw new IllegalStateException ("Failed to create DocumentBuilder", ex);
+    }
+  });
+
+  private static final ThreadLocal <Transformer> TRANSFORMER = ThreadLocal.withInitial ( () -> {
+    try
+    {
+      final TransformerFactory aTF = TransformerFactory.newInstance ();
+      aTF.setFeature (XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      final Transformer ret = aTF.newTransformer ();
+      ret.setOutputProperty (OutputKeys.OMIT_XML_DECLARATION, "yes");
+      ret.setOutputProperty (OutputKeys.ENCODING, "UTF-8");
+      return ret;
+    }
+    catch (final TransformerConfigurationException ex)
+    {
+      throw new IllegalStateException ("Failed to create Transformer", ex);
+    }
+  });
+
+  @PresentForCodeCoverage
+  private static final PeppolViDATDDAnyTypeHelper INSTANCE = new PeppolViDATDDAnyTypeHelper ();
+
+  private PeppolViDATDDAnyTypeHelper ()
+  {}
+
+  /**
+   * Get the content of an untyped element as an XML string.
+   *
+   * @param aObj
+   *        The object as returned by the JAXB getter. May be <code>null</code>.
+   * @return <code>null</code> if the parameter is <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the object is not a DOM node
+   */
+  @Nullable
+  public static String getAsXMLString (@Nullable final Object aObj)
+  {
+    if (aObj == null)
+      return null;
+    if (!(aObj instanceof Node))
+      throw new IllegalArgumentException ("Only DOM nodes are supported for untyped elements, but got " +
+                                          aObj.getClass ().getName ());
+    try
+    {
+      final StringWriter aSW = new StringWriter ();
+      TRANSFORMER.get ().transform (new DOMSource ((Node) aObj), new StreamResult (aSW));
+      return aSW.toString ();
+    }
+    catch (final TransformerException ex)
+    {
+      throw new IllegalArgumentException ("Failed to serialize untyped element", ex);
+    }
+  }
+
+  /**
+   * Parse the XML string created by {@link #getAsXMLString(Object)} back into a DOM element.
+   *
+   * @param sXML
+   *        The XML string. May be <code>null</code>.
+   * @return <code>null</code> if the parameter is <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the XML cannot be parsed
+   */
+  @Nullable
+  public static Element getAsElement (@Nullable final String sXML)
+  {
+    if (sXML == null)
+      return null;
+    try
+    {
+      final DocumentBuilder aDB = DOC_BUILDER.get ();
+      aDB.reset ();
+      return aDB.parse (new InputSource (new StringReader (sXML))).getDocumentElement ();
+    }
+    catch (final Exception ex)
+    {
+      throw new IllegalArgumentException ("Failed to parse untyped element", ex);
+    }
+  }
+}
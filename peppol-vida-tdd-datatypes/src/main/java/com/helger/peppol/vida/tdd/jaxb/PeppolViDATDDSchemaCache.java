@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.PresentForCodeCoverage;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+
+/**
+ * Process wide cache for the compiled XML Schemas of the Peppol ViDA pilot TDD. The compilation of
+ * the XSDs takes place lazily upon first access of a specific version and the result is shared
+ * between all threads. {@link Schema} objects are immutable and thread-safe by definition.
+ * <p>
+ * The Schemas are compiled with secure processing and can only import XSDs from the class path.
+ * The validators created by this class additionally never resolve external DTDs, entities or
+ * Schemas referenced by the validated documents.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PeppolViDATDDSchemaCache
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDDSchemaCache.class);
+
+  private static final Map <EViDATDDSpecVersion, Schema> CACHE = new ConcurrentHashMap <> ();
+
+  @PresentForCodeCoverage
+  private static final PeppolViDATDDSchemaCache INSTANCE = new PeppolViDATDDSchemaCache ();
+
+  private PeppolViDATDDSchemaCache ()
+  {}
+
+  @NonNull
+  private static Schema _compile (@NonNull final EViDATDDSpecVersion eVersion)
+  {
+    final long nStart = System.nanoTime ();
+    final ICommonsList <ClassPathResource> aXSDs = eVersion.getAllXSDs ();
+    final Source [] aSources = new Source [aXSDs.size ()];
+    int nIndex = 0;
+    for (final ClassPathResource aXSD : aXSDs)
+    {
+      // Only pass the system ID, so that the relative imports between the XSDs can be resolved
+      aSources[nIndex++] = new StreamSource (aXSD.getAsURL ().toExternalForm ());
+    }
+
+    try
+    {
+      final SchemaFactory aSF = SchemaFactory.newInstance (XMLConstants.W3C_XML_SCHEMA_NS_URI);
+      aSF.setFeature (XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      aSF.setProperty (XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      // The imports between the XSDs are resolved from the class path ("resource" in native images)
+      aSF.setProperty (XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file,jar,resource");
+      final Schema ret = aSF.newSchema (aSources);
+      if (LOGGER.isDebugEnabled ())
+        LOGGER.debug ("Compiled TDD " +
+                      eVersion.getID () +
+                      " XML Schema in " +
+                      ((System.nanoTime () - nStart) / 1_000_000L) +
+                      " milliseconds");
+      return ret;
+    }
+    catch (final SAXException ex)
+    {
+      throw new IllegalStateException ("Failed to compile the XML Schemas of TDD " + eVersion.getID (), ex);
+    }
+  }
+
+  /**
+   * Get the compiled XML Schema for the provided TDD version. The Schema is compiled upon the
+   * first call for a version and cached afterwards.
+   *
+   * @param eVersion
+   *        The TDD version to use. May not be <code>null</code>.
+   * @return The compiled Schema and never <code>null</code>.
+   * @throws IllegalStateException
+   *         If the contained XSDs cannot be compiled
+   */
+  @NonNull
+  public static Schema getSchema (@NonNull final EViDATDDSpecVersion eVersion)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    return CACHE.computeIfAbsent (eVersion, PeppolViDATDDSchemaCache::_compile);
+  }
+
+  /**
+   * @return The compiled XML Schema for TDD 0.9.0. Never <code>null</code>.
+   */
+  @NonNull
+  public static Schema getSchema090 ()
+  {
+    return getSchema (EViDATDDSpecVersion.V_0_9_0);
+  }
+
+  /**
+   * Create a new validator for the provided TDD version that does not access any external
+   * resources referenced by the validated document.
+   *
+   * @param eVersion
+   *        The TDD version to use. May not be <code>null</code>.
+   * @return A new validator and never <code>null</code>.
+   */
+  @NonNull
+  public static Validator createValidator (@NonNull final EViDATDDSpecVersion eVersion)
+  {
+    final Validator ret = getSchema (eVersion).newValidator ();
+    try
+    {
+      ret.setProperty (XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      ret.setProperty (XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    }
+    catch (final SAXException ex)
+    {
+      throw new IllegalStateException ("Failed to restrict the external access of the Validator", ex);
+    }
+    return ret;
+  }
+
+  /**
+   * Create a new validator handler for the provided TDD version that does not access any external
+   * resources referenced by the validated document.
+   *
+   * @param eVersion
+   *        The TDD version to use. May not be <code>null</code>.
+   * @return A new validator handler and never <code>null</code>.
+   */
+  @NonNull
+  public static ValidatorHandler createValidatorHandler (@NonNull final EViDATDDSpecVersion eVersion)
+  {
+    final ValidatorHandler ret = getSchema (eVersion).newValidatorHandler ();
+    try
+    {
+      ret.setProperty (XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      ret.setProperty (XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    }
+    catch (final SAXException ex)
+    {
+      throw new IllegalStateException ("Failed to restrict the external access of the ValidatorHandler", ex);
+    }
+    return ret;
+  }
+
+  /**
+   * Check if the XML Schema of the provided version was already compiled.
+   *
+   * @param eVersion
+   *        The TDD version to check. May be <code>null</code>.
+   * @return <code>true</code> if it is in the cache, <code>false</code> if not.
+   */
+  public static boolean isCached (@Nullable final EViDATDDSpecVersion eVersion)
+  {
+    return eVersion != null && CACHE.containsKey (eVersion);
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Validator;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.io.ByteBufferInputStream;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
+
+/**
+ * A fast, XSD-only validator for Peppol ViDA pilot TDD documents. It works on the raw XML and does
+ * not unmarshal the document into the JAXB model. The compiled XML Schema is taken from
+ * {@link PeppolViDATDDSchemaCache}, which also ensures that no external DTDs, entities or Schemas
+ * referenced by the validated documents are resolved.
+ * <p>
+ * Instances of this class are immutable and can be shared between threads - every validation
+ * call uses its own {@link Validator}.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class PeppolViDATDDXSDValidator
+{
+  private final EViDATDDSpecVersion m_eVersion;
+
+  /**
+   * Constructor
+   *
+   * @param eVersion
+   *        The TDD version to validate against. May not be <code>null</code>.
+   */
+  public PeppolViDATDDXSDValidator (@NonNull final EViDATDDSpecVersion eVersion)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    m_eVersion = eVersion;
+  }
+
+  /**
+   * @return The TDD version this validator works on. Never <code>null</code>.
+   */
+  @NonNull
+  public final EViDATDDSpecVersion getVersion ()
+  {
+    return m_eVersion;
+  }
+
+  /**
+   * Validate the provided XML source.
+   *
+   * @param aSource
+   *        The source to validate. May not be <code>null</code>.
+   * @return A list with all warnings, errors and fatal errors. Never <code>null</code> but empty
+   *         if the document is valid.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <SAXParseException> validate (@NonNull final Source aSource)
+  {
+    return validate (aSource, null);
+  }
+
+  /**
+   * Validate the provided XML source and optionally pass the validated document on to a result, so
+   * that the document only needs to be parsed once for further processing.
+   *
+   * @param aSource
+   *        The source to validate. May not be <code>null</code>.
+   * @param aResult
+   *        The result to write the validated document to. May be <code>null</code>. Must match the
+   *        type of the source as described in {@link Validator#validate(Source, Result)}.
+   * @return A list with all warnings, errors and fatal errors. Never <code>null</code> but empty
+   *         if the document is valid.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <SAXParseException> validate (@NonNull final Source aSource, @Nullable final Result aResult)
+  {
+    ValueEnforcer.notNull (aSource, "Source");
+
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final ICommonsList <SAXParseException> ret = new CommonsArrayList <> ();
+    final Validator aValidator = PeppolViDATDDSchemaCache.createValidator (m_eVersion);
+    aValidator.setErrorHandler (new ErrorHandler ()
+    {
+      @Override
+      public void warning (final SAXParseException ex)
+      {
+        ret.add (ex);
+      }
+
+      @Override
+      public void error (final SAXParseException ex)
+      {
+        ret.add (ex);
+      }
+
+      @Override
+      public void fatalError (final SAXParseException ex)
+      {
+        ret.add (ex);
+      }
+    });
+    try
+    {
+      aValidator.validate (aSource, aResult);
+    }
+    catch (final SAXParseException ex)
+    {
+      // Avoid duplicates - the error handler may already have received it
+      if (!ret.contains (ex))
+        ret.add (ex);
+    }
+    catch (final SAXException | IOException ex)
+    {
+      ret.add (new SAXParseException ("Failed to read the XML to validate: " + ex.getMessage (), null, ex));
+    }
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.XSD_VALIDATION, nStartNanos);
+    return ret;
+  }
+
+  /**
+   * Validate the XML read from the provided input stream. The stream is not closed.
+   *
+   * @param aIS
+   *        The input stream to read from. May not be <code>null</code>.
+   * @return A list with all warnings, errors and fatal errors. Never <code>null</code> but empty
+   *         if the document is valid.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <SAXParseException> validate (@NonNull final InputStream aIS)
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    return validate (new StreamSource (aIS));
+  }
+
+  /**
+   * Validate the XML contained between position and limit of the provided buffer. The position of
+   * the buffer is not modified and the content is not copied, so this works fine on direct and
+   * memory-mapped buffers.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   * @return A list with all warnings, errors and fatal errors. Never <code>null</code> but empty
+   *         if the document is valid.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <SAXParseException> validate (@NonNull final ByteBuffer aBuffer)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+    return validate (new ByteBufferInputStream (aBuffer));
+  }
+
+  /**
+   * Shortcut to check if the provided source is XSD valid.
+   *
+   * @param aSource
+   *        The source to validate. May not be <code>null</code>.
+   * @return <code>true</code> if no warning or error was found, <code>false</code> otherwise.
+   */
+  public boolean isValid (@NonNull final Source aSource)
+  {
+    return validate (aSource).isEmpty ();
+  }
+
+  /**
+   * Shortcut to check if the XML read from the provided input stream is XSD valid.
+   *
+   * @param aIS
+   *        The input stream to read from. May not be <code>null</code>.
+   * @return <code>true</code> if no warning or error was found, <code>false</code> otherwise.
+   */
+  public boolean isValid (@NonNull final InputStream aIS)
+  {
+    return validate (aIS).isEmpty ();
+  }
+
+  /**
+   * Shortcut to check if the XML contained in the provided buffer is XSD valid.
+   *
+   * @param aBuffer
+   *        The buffer to read from. May not be <code>null</code>.
+   * @return <code>true</code> if no warning or error was found, <code>false</code> otherwise.
+   */
+  public boolean isValid (@NonNull final ByteBuffer aBuffer)
+  {
+    return validate (aBuffer).isEmpty ();
+  }
+
+  /**
+   * @return A new validator for TDD 0.9.0. Never <code>null</code>.
+   */
+  @NonNull
+  public static PeppolViDATDDXSDValidator tdd090 ()
+  {
+    return new PeppolViDATDDXSDValidator (EViDATDDSpecVersion.V_0_9_0);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jfr;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+
+/**
+ * Constants for the Java Flight Recorder events of the Peppol ViDA TDD library.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CPeppolViDATDDJFR
+{
+  /** The top-level JFR category of all events */
+  public static final String CATEGORY_PEPPOL = "Peppol ViDA";
+  /** The second-level JFR category of all events */
+  public static final String CATEGORY_TDD = "TDD";
+
+  @PresentForCodeCoverage
+  private static final CPeppolViDATDDJFR INSTANCE = new CPeppolViDATDDJFR ();
+
+  private CPeppolViDATDDJFR ()
+  {}
+}
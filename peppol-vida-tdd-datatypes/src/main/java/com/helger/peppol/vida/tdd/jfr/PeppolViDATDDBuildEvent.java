@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jfr;
+
+import org.jspecify.annotations.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted for every TDD built by the TDD builder. The event duration covers the creation of the
+ * JAXB object tree.
+ * <p>
+ * The event is disabled by default. Enable it in the JFR settings via
+ * <code>com.helger.peppol.vida.TDDBuild#enabled=true</code>.
+ *
+ * @author Philip Helger
+ */
+@Name ("com.helger.peppol.vida.TDDBuild")
+@Label ("TDD Build")
+@Description ("Building a TDD object tree from the builder")
+@Category ({ CPeppolViDATDDJFR.CATEGORY_PEPPOL, CPeppolViDATDDJFR.CATEGORY_TDD })
+@Enabled (false)
+@StackTrace (false)
+public final class PeppolViDATDDBuildEvent extends Event
+{
+  @Name ("tddUUID")
+  @Label ("TDD UUID")
+  private String m_sTDDUUID;
+
+  @Name ("documentLineCount")
+  @Label ("Document Line Count")
+  @Description ("The total number of DocumentLines over all ReportedTransactions")
+  private int m_nDocumentLineCount;
+
+  @Name ("success")
+  @Label ("Success")
+  private boolean m_bSuccess;
+
+  public void setTDDUUID (@Nullable final String sTDDUUID)
+  {
+    m_sTDDUUID = sTDDUUID;
+  }
+
+  public void setDocumentLineCount (final int nDocumentLineCount)
+  {
+    m_nDocumentLineCount = nDocumentLineCount;
+  }
+
+  public void setSuccess (final boolean bSuccess)
+  {
+    m_bSuccess = bSuccess;
+  }
+}
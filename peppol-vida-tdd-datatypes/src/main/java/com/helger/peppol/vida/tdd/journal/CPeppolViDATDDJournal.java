@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.journal;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+
+/**
+ * Contains all the constants of the TDD outbox journal format. A journal is a directory of
+ * pre-allocated, memory-mapped segment files. Each segment file has the following layout (all
+ * numbers in big endian):
+ * <ol>
+ * <li>File header: magic (int), format version (byte), 3 reserved bytes, segment number
+ * (long)</li>
+ * <li>Any number of records: payload length (int), CRC32C (int), record type (byte), state (byte),
+ * 2 reserved bytes, TDD UUID MSB (long), TDD UUID LSB (long), payload</li>
+ * <li>Zero bytes up to the end of the file</li>
+ * </ol>
+ * The CRC32C covers everything from the record type to the end of the payload. A record with a
+ * payload length of 0 and the record type {@link #RECORD_TYPE_END} marks the end of the written
+ * data. A record with a wrong CRC is the result of an interrupted write and ends the segment as
+ * well.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CPeppolViDATDDJournal
+{
+  /** Magic number at the start of each journal segment file ("PVDJ") */
+  public static final int FILE_MAGIC = 0x5056444A;
+  /** The current format version */
+  public static final byte FORMAT_VERSION = 1;
+
+  public static final int FILE_HEADER_SIZE = 16;
+  public static final int RECORD_HEADER_SIZE = 28;
+  /** Offset of the first byte covered by the CRC inside a record */
+  public static final int RECORD_CRC_START = 8;
+
+  /** No record - the rest of the segment is empty */
+  public static final byte RECORD_TYPE_END = 0;
+  /** The record payload is the TDD XML as created by the marshaller */
+  public static final byte RECORD_TYPE_TDD = 1;
+  /** The record has no payload and changes the state of a previously written TDD */
+  public static final byte RECORD_TYPE_STATE = 2;
+
+  /** The default size of a single segment file in bytes */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  /** The minimum size of a single segment file in bytes */
+  public static final int MIN_SEGMENT_SIZE = 4 * 1024;
+
+  public static final String SEGMENT_FILE_EXTENSION = ".pvj";
+  private static final Pattern SEGMENT_FILE_NAME = Pattern.compile ("journal-([0-9]{20})\\.pvj");
+
+  @PresentForCodeCoverage
+  private static final CPeppolViDATDDJournal INSTANCE = new CPeppolViDATDDJournal ();
+
+  private CPeppolViDATDDJournal ()
+  {}
+
+  /**
+   * @param nSegmentNumber
+   *        The segment number. Must be &ge; 0.
+   * @return The file name of the segment, so that the lexicographical order matches the segment
+   *         order. Never <code>null</code>.
+   */
+  @NonNull
+  public static String getSegmentFileName (final long nSegmentNumber)
+  {
+    return String.format (Locale.ROOT, "journal-%020d", Long.valueOf (nSegmentNumber)) + SEGMENT_FILE_EXTENSION;
+  }
+
+  /**
+   * @param sFileName
+   *        The file name to check. May not be <code>null</code>.
+   * @return The segment number or -1 if the file name is not a segment file name.
+   */
+  public static long getSegmentNumber (@NonNull final String sFileName)
+  {
+    final Matcher aMatcher = SEGMENT_FILE_NAME.matcher (sFileName);
+    return aMatcher.matches () ? Long.parseLong (aMatcher.group (1)) : -1;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.journal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+
+/**
+ * The states of a TDD in the outbox journal. States can only move forward, in declaration order.
+ *
+ * @author Philip Helger
+ */
+public enum EPeppolViDATDDJournalState implements IHasID <String>
+{
+  /** The TDD was created */
+  BUILT ("built", (byte) 1),
+  /** The TDD was successfully validated */
+  VALIDATED ("validated", (byte) 2),
+  /** The TDD was handed to the AS4 sender */
+  SENT ("sent", (byte) 3),
+  /** The receipt of the TDD was acknowledged - the journal entry can be dropped by compaction */
+  ACKNOWLEDGED ("acknowledged", (byte) 4);
+
+  private final String m_sID;
+  private final byte m_nCode;
+
+  EPeppolViDATDDJournalState (@NonNull @Nonempty final String sID, final byte nCode)
+  {
+    m_sID = sID;
+    m_nCode = nCode;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  /**
+   * @return The code of this state inside the journal files.
+   */
+  public byte getCode ()
+  {
+    return m_nCode;
+  }
+
+  /**
+   * @param eOther
+   *        The state to compare to. May not be <code>null</code>.
+   * @return <code>true</code> if this state comes strictly before the provided state.
+   */
+  public boolean isBefore (@NonNull final EPeppolViDATDDJournalState eOther)
+  {
+    return m_nCode < eOther.m_nCode;
+  }
+
+  @Nullable
+  public static EPeppolViDATDDJournalState getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (EPeppolViDATDDJournalState.class, sID);
+  }
+
+  @Nullable
+  public static EPeppolViDATDDJournalState getFromCodeOrNull (final byte nCode)
+  {
+    for (final EPeppolViDATDDJournalState e : values ())
+      if (e.m_nCode == nCode)
+        return e;
+    return null;
+  }
+}
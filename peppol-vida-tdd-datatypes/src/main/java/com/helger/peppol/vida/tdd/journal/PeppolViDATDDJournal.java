@@ -0,0 +1,785 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.segment.CPeppolViDATDDSegment;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Durable, append-only outbox journal for TDDs, keyed by the TDD UUID. It is used to hand every
+ * created TDD exactly once to the sender, even across process crashes. See
+ * {@link CPeppolViDATDDJournal} for the file layout.
+ * <ul>
+ * <li>The TDD XML is appended as created by {@link PeppolViDATDD090Marshaller} and is never
+ * serialized again. {@link #getTDDBytes(String)} returns a view on the memory-mapped journal
+ * file.</li>
+ * <li>Every state change ({@link EPeppolViDATDDJournalState}) is appended as a small record.</li>
+ * <li>All modifying methods only return after the data was forced to the storage device. Concurrent
+ * callers share a single force call (group commit): while one thread forces, all others append and
+ * wait, and the next force covers all of them.</li>
+ * <li>Upon opening, all segments are scanned and the in-memory index is rebuilt. A record that was
+ * only partially written (detected by the CRC) and everything after it is discarded.</li>
+ * <li>{@link #compact()} copies all TDDs that are not yet acknowledged into a new segment and
+ * deletes all older segments.</li>
+ * </ul>
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class PeppolViDATDDJournal implements Closeable
+{
+  /**
+   * A single memory-mapped segment file
+   */
+  private static final class Segment
+  {
+    private final long m_nNumber;
+    private final Path m_aPath;
+    private final FileChannel m_aFC;
+    private final MappedByteBuffer m_aBuffer;
+    private int m_nWritePos;
+    private int m_nForcedPos;
+
+    Segment (final long nNumber,
+             @NonNull final Path aPath,
+             @NonNull final FileChannel aFC,
+             @NonNull final MappedByteBuffer aBuffer)
+    {
+      m_nNumber = nNumber;
+      m_aPath = aPath;
+      m_aFC = aFC;
+      m_aBuffer = aBuffer;
+    }
+
+    int getCapacity ()
+    {
+      return m_aBuffer.capacity ();
+    }
+  }
+
+  /**
+   * The location and state of a single TDD
+   */
+  private static final class Entry
+  {
+    private Segment m_aSegment;
+    private int m_nPayloadOffset;
+    private int m_nPayloadLength;
+    private EPeppolViDATDDJournalState m_eState;
+
+    Entry (@NonNull final Segment aSegment,
+           final int nPayloadOffset,
+           final int nPayloadLength,
+           @NonNull final EPeppolViDATDDJournalState eState)
+    {
+      m_aSegment = aSegment;
+      m_nPayloadOffset = nPayloadOffset;
+      m_nPayloadLength = nPayloadLength;
+      m_eState = eState;
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDDJournal.class);
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate (0);
+
+  private final Path m_aDir;
+  private final int m_nSegmentSize;
+
+  // Lock order: first m_aSyncLock, then m_aWriteLock
+  private final Object m_aSyncLock = new Object ();
+  private final Object m_aWriteLock = new Object ();
+
+  @GuardedBy ("m_aWriteLock")
+  private final ICommonsList <Segment> m_aSegments = new CommonsArrayList <> ();
+  @GuardedBy ("m_aWriteLock")
+  private final Map <UUID, Entry> m_aIndex = new HashMap <> ();
+  @GuardedBy ("m_aWriteLock")
+  private final CRC32C m_aCRC = new CRC32C ();
+  @GuardedBy ("m_aWriteLock")
+  private final ByteBuffer m_aRecordHeader = ByteBuffer.allocate (CPeppolViDATDDJournal.RECORD_HEADER_SIZE);
+  @GuardedBy ("m_aWriteLock")
+  private long m_nWrittenLSN = 0;
+  @GuardedBy ("m_aWriteLock")
+  private boolean m_bClosed = false;
+  // Written under m_aSyncLock only
+  private volatile long m_nDurableLSN = 0;
+  // Once forcing failed, durability can no longer be guaranteed
+  private volatile IOException m_aFailure;
+
+  /**
+   * Open the journal in the provided directory with the default segment size. The directory is
+   * created if it does not exist and all existing segments are recovered.
+   *
+   * @param aDir
+   *        The journal directory. May not be <code>null</code>.
+   * @throws IOException
+   *         If the journal cannot be opened
+   */
+  public PeppolViDATDDJournal (@NonNull final Path aDir) throws IOException
+  {
+    this (aDir, CPeppolViDATDDJournal.DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Open the journal in the provided directory. The directory is created if it does not exist and
+   * all existing segments are recovered.
+   *
+   * @param aDir
+   *        The journal directory. May not be <code>null</code>.
+   * @param nSegmentSize
+   *        The size of newly created segment files in bytes. A single TDD must fit into one
+   *        segment. Existing segments keep their size.
+   * @throws IOException
+   *         If the journal cannot be opened
+   */
+  public PeppolViDATDDJournal (@NonNull final Path aDir, final int nSegmentSize) throws IOException
+  {
+    ValueEnforcer.notNull (aDir, "Dir");
+    ValueEnforcer.isBetweenInclusive (nSegmentSize,
+                                      "SegmentSize",
+                                      CPeppolViDATDDJournal.MIN_SEGMENT_SIZE,
+                                      Integer.MAX_VALUE);
+    m_aDir = aDir;
+    m_nSegmentSize = nSegmentSize;
+
+    Files.createDirectories (aDir);
+    final ICommonsList <Path> aFiles = new CommonsArrayList <> ();
+    try (final Stream <Path> aStream = Files.list (aDir))
+    {
+      aStream.filter (x -> CPeppolViDATDDJournal.getSegmentNumber (x.getFileName ().toString ()) >= 0)
+             .sorted ()
+             .forEach (aFiles::add);
+    }
+
+    synchronized (m_aWriteLock)
+    {
+      try
+      {
+        for (final Path aFile : aFiles)
+          _recoverSegment (aFile);
+        if (m_aSegments.isEmpty ())
+          _createSegment (0);
+      }
+      catch (final IOException | RuntimeException ex)
+      {
+        _closeAllSegments ();
+        throw ex;
+      }
+      // Everything that was recovered is durable
+      m_nDurableLSN = m_nWrittenLSN;
+    }
+    if (LOGGER.isDebugEnabled ())
+      LOGGER.debug ("Opened TDD journal '" +
+                    aDir +
+                    "' with " +
+                    m_aSegments.size () +
+                    " segments and " +
+                    m_aIndex.size () +
+                    " TDDs");
+  }
+
+  @GuardedBy ("m_aWriteLock")
+  private int _getRecordCRC (@NonNull final ByteBuffer aBuffer, final int nRecordPos, final int nPayloadLength)
+  {
+    m_aCRC.reset ();
+    m_aCRC.update (aBuffer.slice (nRecordPos + CPeppolViDATDDJournal.RECORD_CRC_START,
+                                  CPeppolViDATDDJournal.RECORD_HEADER_SIZE -
+                                                                               CPeppolViDATDDJournal.RECORD_CRC_START +
+                                                                               nPayloadLength));
+    return (int) m_aCRC.getValue ();
+  }
+
+  @GuardedBy ("m_aWriteLock")
+  private void _recoverSegment (@NonNull final Path aFile) throws IOException
+  {
+    final FileChannel aFC = FileChannel.open (aFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    final long nFileSize = aFC.size ();
+    if (nFileSize < CPeppolViDATDDJournal.FILE_HEADER_SIZE || nFileSize > Integer.MAX_VALUE)
+    {
+      aFC.close ();
+      throw new IOException ("The journal segment '" + aFile + "' has an invalid size of " + nFileSize + " bytes");
+    }
+    final MappedByteBuffer aBuffer = aFC.map (FileChannel.MapMode.READ_WRITE, 0, nFileSize);
+    if (aBuffer.getInt (0) != CPeppolViDATDDJournal.FILE_MAGIC ||
+        aBuffer.get (4) != CPeppolViDATDDJournal.FORMAT_VERSION)
+    {
+      aFC.close ();
+      throw new IOException ("The file '" + aFile + "' is not a supported TDD journal segment");
+    }
+    final Segment aSegment = new Segment (aBuffer.getLong (8), aFile, aFC, aBuffer);
+    m_aSegments.add (aSegment);
+
+    final int nCapacity = aSegment.getCapacity ();
+    int nPos = CPeppolViDATDDJournal.FILE_HEADER_SIZE;
+    boolean bTorn = false;
+    while (nPos + CPeppolViDATDDJournal.RECORD_HEADER_SIZE <= nCapacity)
+    {
+      final int nPayloadLength = aBuffer.getInt (nPos);
+      final int nCRC = aBuffer.getInt (nPos + 4);
+      final byte nType = aBuffer.get (nPos + 8);
+      if (nType == CPeppolViDATDDJournal.RECORD_TYPE_END && nPayloadLength == 0 && nCRC == 0)
+        break;
+      if (nPayloadLength < 0 ||
+          nPayloadLength > nCapacity - nPos - CPeppolViDATDDJournal.RECORD_HEADER_SIZE ||
+          _getRecordCRC (aBuffer, nPos, nPayloadLength) != nCRC)
+      {
+        bTorn = true;
+        break;
+      }
+
+      final EPeppolViDATDDJournalState eState = EPeppolViDATDDJournalState.getFromCodeOrNull (aBuffer.get (nPos + 9));
+      if (eState == null)
+        throw new IOException ("Invalid state in journal segment '" + aFile + "' at offset " + nPos);
+      final UUID aKey = new UUID (aBuffer.getLong (nPos + 12), aBuffer.getLong (nPos + 20));
+      final Entry aEntry = m_aIndex.get (aKey);
+      if (nType == CPeppolViDATDDJournal.RECORD_TYPE_TDD)
+      {
+        final int nPayloadOffset = nPos + CPeppolViDATDDJournal.RECORD_HEADER_SIZE;
+        if (aEntry == null)
+          m_aIndex.put (aKey, new Entry (aSegment, nPayloadOffset, nPayloadLength, eState));
+        else
+        {
+          // A copy created by compaction - the newer location wins
+          aEntry.m_aSegment = aSegment;
+          aEntry.m_nPayloadOffset = nPayloadOffset;
+          aEntry.m_nPayloadLength = nPayloadLength;
+          if (aEntry.m_eState.isBefore (eState))
+            aEntry.m_eState = eState;
+        }
+      }
+      else
+        if (nType == CPeppolViDATDDJournal.RECORD_TYPE_STATE)
+        {
+          // The TDD may have been dropped by a compaction that did not finish deleting
+          if (aEntry != null && aEntry.m_eState.isBefore (eState))
+            aEntry.m_eState = eState;
+        }
+        else
+          throw new IOException ("Invalid record type " + nType + " in journal segment '" + aFile + "' at offset " + nPos);
+
+      nPos += CPeppolViDATDDJournal.RECORD_HEADER_SIZE + nPayloadLength;
+    }
+
+    if (bTorn)
+    {
+      LOGGER.warn ("Discarding the partially written data of journal segment '" +
+                   aFile +
+                   "' starting at offset " +
+                   nPos);
+      // Make sure that no old bytes are misinterpreted after new records were written
+      final ByteBuffer aZeros = ByteBuffer.allocate (Math.min (64 * 1024, nCapacity - nPos));
+      for (int i = nPos; i < nCapacity; i += aZeros.capacity ())
+        aBuffer.put (i, aZeros, 0, Math.min (aZeros.capacity (), nCapacity - i));
+      aBuffer.force ();
+    }
+    aSegment.m_nWritePos = nPos;
+    aSegment.m_nForcedPos = nPos;
+    m_nWrittenLSN += nPos;
+  }
+
+  @GuardedBy ("m_aWriteLock")
+  @NonNull
+  private Segment _createSegment (final long nNumber) throws IOException
+  {
+    final Path aFile = m_aDir.resolve (CPeppolViDATDDJournal.getSegmentFileName (nNumber));
+    final FileChannel aFC = FileChannel.open (aFile,
+                                              StandardOpenOption.CREATE_NEW,
+                                              StandardOpenOption.READ,
+                                              StandardOpenOption.WRITE);
+    // Mapping beyond the end of the file extends it - the new bytes are all zero
+    final MappedByteBuffer aBuffer = aFC.map (FileChannel.MapMode.READ_WRITE, 0, m_nSegmentSize);
+    aBuffer.putInt (0, CPeppolViDATDDJournal.FILE_MAGIC)
+           .put (4, CPeppolViDATDDJournal.FORMAT_VERSION)
+           .putLong (8, nNumber);
+    aBuffer.force ();
+    _forceDirectory ();
+
+    final Segment ret = new Segment (nNumber, aFile, aFC, aBuffer);
+    ret.m_nWritePos = CPeppolViDATDDJournal.FILE_HEADER_SIZE;
+    ret.m_nForcedPos = ret.m_nWritePos;
+    m_aSegments.add (ret);
+    m_nWrittenLSN += ret.m_nWritePos;
+    return ret;
+  }
+
+  private void _forceDirectory ()
+  {
+    // Makes the creation and deletion of files durable. Not supported on all platforms.
+    try (final FileChannel aFC = FileChannel.open (m_aDir, StandardOpenOption.READ))
+    {
+      aFC.force (true);
+    }
+    catch (final IOException ex)
+    {
+      // Ignore
+    }
+  }
+
+  @GuardedBy ("m_aWriteLock")
+  private void _checkWritable ()
+  {
+    if (m_bClosed)
+      throw new IllegalStateException ("The journal was already closed");
+    if (m_aFailure != null)
+      throw new IllegalStateException ("The journal is unusable after a failed write", m_aFailure);
+  }
+
+  @GuardedBy ("m_aWriteLock")
+  @NonNull
+  private Segment _writeRecord (final byte nType,
+                                @NonNull final EPeppolViDATDDJournalState eState,
+                                @NonNull final UUID aKey,
+                                @NonNull final ByteBuffer aPayload) throws IOException
+  {
+    final int nPayloadLength = aPayload.remaining ();
+    final int nRecordLength = CPeppolViDATDDJournal.RECORD_HEADER_SIZE + nPayloadLength;
+    Segment aSegment = m_aSegments.getLastOrNull ();
+    if (aSegment.m_nWritePos + nRecordLength > aSegment.getCapacity ())
+      aSegment = _createSegment (aSegment.m_nNumber + 1);
+
+    final MappedByteBuffer aBuffer = aSegment.m_aBuffer;
+    final int nPos = aSegment.m_nWritePos;
+    aBuffer.put (nPos + CPeppolViDATDDJournal.RECORD_HEADER_SIZE, aPayload, aPayload.position (), nPayloadLength);
+    aBuffer.put (nPos + 8, nType)
+           .put (nPos + 9, eState.getCode ())
+           .putShort (nPos + 10, (short) 0)
+           .putLong (nPos + 12, aKey.getMostSignificantBits ())
+           .putLong (nPos + 20, aKey.getLeastSignificantBits ());
+    aBuffer.putInt (nPos + 4, _getRecordCRC (aBuffer, nPos, nPayloadLength));
+    // The length is written last
+    aBuffer.putInt (nPos, nPayloadLength);
+
+    aSegment.m_nWritePos += nRecordLength;
+    m_nWrittenLSN += nRecordLength;
+    return aSegment;
+  }
+
+  /**
+   * Force all written data to the storage device. Must be called with m_aSyncLock held.
+   */
+  private void _forceAll () throws IOException
+  {
+    final ICommonsList <Segment> aDirty = new CommonsArrayList <> ();
+    final ICommonsList <int []> aRanges = new CommonsArrayList <> ();
+    final long nTargetLSN;
+    synchronized (m_aWriteLock)
+    {
+      nTargetLSN = m_nWrittenLSN;
+      for (final Segment aSegment : m_aSegments)
+        if (aSegment.m_nWritePos > aSegment.m_nForcedPos)
+        {
+          aDirty.add (aSegment);
+          aRanges.add (new int [] { aSegment.m_nForcedPos, aSegment.m_nWritePos - aSegment.m_nForcedPos });
+          aSegment.m_nForcedPos = aSegment.m_nWritePos;
+        }
+    }
+
+    // Appends continue while forcing
+    try
+    {
+      for (int i = 0; i < aDirty.size (); ++i)
+        aDirty.get (i).m_aBuffer.force (aRanges.get (i)[0], aRanges.get (i)[1]);
+    }
+    catch (final RuntimeException ex)
+    {
+      // MappedByteBuffer.force reports I/O errors as UncheckedIOException
+      final IOException aEx = new IOException ("Failed to force the TDD journal", ex);
+      m_aFailure = aEx;
+      throw aEx;
+    }
+    m_nDurableLSN = nTargetLSN;
+  }
+
+  /**
+   * Wait until everything up to the provided log position is durable. Only one thread forces at a
+   * time - all threads waiting meanwhile are covered by the next force.
+   */
+  private void _awaitDurable (final long nLSN) throws IOException
+  {
+    synchronized (m_aSyncLock)
+    {
+      if (m_aFailure != null)
+        throw m_aFailure;
+      if (m_nDurableLSN < nLSN)
+        _forceAll ();
+    }
+  }
+
+  /**
+   * Durably append a serialized TDD in the state {@link EPeppolViDATDDJournalState#BUILT}.
+   *
+   * @param sTDDUUID
+   *        The UUID of the TDD. May not be <code>null</code>.
+   * @param aTDDXML
+   *        The TDD XML as created by {@link PeppolViDATDD090Marshaller}, e.g. from
+   *        {@link ByteBufferOutputStream#getAsReadOnlyBuffer()}. The bytes between position and
+   *        limit are appended, the position of the buffer is not modified. May not be
+   *        <code>null</code>.
+   * @return <code>true</code> if the TDD was appended, <code>false</code> if a TDD with the same UUID
+   *         is already contained.
+   * @throws IOException
+   *         If writing fails
+   * @throws IllegalArgumentException
+   *         If the TDD does not fit into a single segment
+   */
+  public boolean append (@NonNull final String sTDDUUID, @NonNull final ByteBuffer aTDDXML) throws IOException
+  {
+    ValueEnforcer.notNull (sTDDUUID, "TDDUUID");
+    ValueEnforcer.notNull (aTDDXML, "TDDXML");
+    if (aTDDXML.remaining () >
+        m_nSegmentSize - CPeppolViDATDDJournal.FILE_HEADER_SIZE - CPeppolViDATDDJournal.RECORD_HEADER_SIZE)
+      throw new IllegalArgumentException ("The TDD with UUID '" +
+                                          sTDDUUID +
+                                          "' has " +
+                                          aTDDXML.remaining () +
+                                          " bytes and does not fit into a journal segment of " +
+                                          m_nSegmentSize +
+                                          " bytes");
+
+    final UUID aKey = CPeppolViDATDDSegment.getIndexKey (sTDDUUID);
+    final long nLSN;
+    synchronized (m_aWriteLock)
+    {
+      _checkWritable ();
+      if (m_aIndex.containsKey (aKey))
+        return false;
+      final Segment aSegment = _writeRecord (CPeppolViDATDDJournal.RECORD_TYPE_TDD,
+                                             EPeppolViDATDDJournalState.BUILT,
+                                             aKey,
+                                             aTDDXML);
+      m_aIndex.put (aKey,
+                    new Entry (aSegment,
+                               aSegment.m_nWritePos - aTDDXML.remaining (),
+                               aTDDXML.remaining (),
+                               EPeppolViDATDDJournalState.BUILT));
+      nLSN = m_nWrittenLSN;
+    }
+    _awaitDurable (nLSN);
+    return true;
+  }
+
+  /**
+   * Serialize the TDD into the provided scratch buffer stream and durably append it in the state
+   * {@link EPeppolViDATDDJournalState#BUILT}. The scratch stream is reset before writing, so that it
+   * can be reused for every document.
+   *
+   * @param aTDD
+   *        The TDD to append. May not be <code>null</code>.
+   * @param aMarshaller
+   *        The marshaller to use. May not be <code>null</code>.
+   * @param aScratch
+   *        The reusable scratch buffer stream. May not be <code>null</code>.
+   * @return <code>true</code> if the TDD was appended, <code>false</code> if a TDD with the same UUID
+   *         is already contained.
+   * @throws IOException
+   *         If writing fails
+   * @throws IllegalArgumentException
+   *         If the TDD cannot be serialized or does not fit into a single segment
+   */
+  public boolean append (@NonNull final TaxDataType aTDD,
+                         @NonNull final PeppolViDATDD090Marshaller aMarshaller,
+                         @NonNull final ByteBufferOutputStream aScratch) throws IOException
+  {
+    ValueEnforcer.notNull (aTDD, "TDD");
+    ValueEnforcer.notNull (aMarshaller, "Marshaller");
+    ValueEnforcer.notNull (aScratch, "Scratch");
+    ValueEnforcer.notEmpty (aTDD.getUUID (), "TDD.UUID");
+
+    aScratch.reset ();
+    if (aMarshaller.writeToBuffer (aTDD, aScratch) < 0)
+      throw new IllegalArgumentException ("Failed to serialize the TDD with UUID '" + aTDD.getUUID () + "'");
+    return append (aTDD.getUUID (), aScratch.getAsReadOnlyBuffer ());
+  }
+
+  /**
+   * Durably change the state of a contained TDD. States can only move forward, but states may be
+   * skipped.
+   *
+   * @param sTDDUUID
+   *        The UUID of the TDD. May not be <code>null</code>.
+   * @param eState
+   *        The new state. May not be <code>null</code>.
+   * @return <code>true</code> if the state was changed or the TDD already had this state,
+   *         <code>false</code> if no TDD with this UUID is contained.
+   * @throws IOException
+   *         If writing fails
+   * @throws IllegalStateException
+   *         If the TDD already has a later state
+   */
+  public boolean setState (@NonNull final String sTDDUUID, @NonNull final EPeppolViDATDDJournalState eState)
+                                                                                                          throws IOException
+  {
+    ValueEnforcer.notNull (sTDDUUID, "TDDUUID");
+    ValueEnforcer.notNull (eState, "State");
+
+    final UUID aKey = CPeppolViDATDDSegment.getIndexKey (sTDDUUID);
+    final long nLSN;
+    synchronized (m_aWriteLock)
+    {
+      _checkWritable ();
+      final Entry aEntry = m_aIndex.get (aKey);
+      if (aEntry == null)
+        return false;
+      if (aEntry.m_eState == eState)
+        return true;
+      if (eState.isBefore (aEntry.m_eState))
+        throw new IllegalStateException ("The TDD with UUID '" +
+                                         sTDDUUID +
+                                         "' cannot change from state '" +
+                                         aEntry.m_eState.getID () +
+                                         "' back to '" +
+                                         eState.getID () +
+                                         "'");
+      _writeRecord (CPeppolViDATDDJournal.RECORD_TYPE_STATE, eState, aKey, EMPTY);
+      aEntry.m_eState = eState;
+      nLSN = m_nWrittenLSN;
+    }
+    _awaitDurable (nLSN);
+    return true;
+  }
+
+  /**
+   * @param sTDDUUID
+   *        The UUID of the TDD. May be <code>null</code>.
+   * @return The current state of the TDD or <code>null</code> if no such TDD is contained.
+   */
+  @Nullable
+  public EPeppolViDATDDJournalState getState (@Nullable final String sTDDUUID)
+  {
+    if (sTDDUUID == null)
+      return null;
+    final UUID aKey = CPeppolViDATDDSegment.getIndexKey (sTDDUUID);
+    synchronized (m_aWriteLock)
+    {
+      final Entry aEntry = m_aIndex.get (aKey);
+      return aEntry == null ? null : aEntry.m_eState;
+    }
+  }
+
+  /**
+   * Get the serialized TDD without copying it. The returned buffer is a read-only view on the
+   * memory-mapped journal file and can be passed directly to
+   * {@link PeppolViDATDD090Marshaller#readFromBuffer(ByteBuffer)} or to a channel. It stays valid
+   * also after {@link #compact()} and {@link #close()}.
+   *
+   * @param sTDDUUID
+   *        The UUID of the TDD. May be <code>null</code>.
+   * @return The TDD XML or <code>null</code> if no such TDD is contained.
+   */
+  @Nullable
+  public ByteBuffer getTDDBytes (@Nullable final String sTDDUUID)
+  {
+    if (sTDDUUID == null)
+      return null;
+    final UUID aKey = CPeppolViDATDDSegment.getIndexKey (sTDDUUID);
+    synchronized (m_aWriteLock)
+    {
+      final Entry aEntry = m_aIndex.get (aKey);
+      if (aEntry == null)
+        return null;
+      return aEntry.m_aSegment.m_aBuffer.slice (aEntry.m_nPayloadOffset, aEntry.m_nPayloadLength)
+                                          .asReadOnlyBuffer ();
+    }
+  }
+
+  /**
+   * Get the keys of all TDDs in the provided state, e.g. to resume sending after a restart. The
+   * keys are the TDD UUIDs, if the TDD UUIDs are valid UUIDs.
+   *
+   * @param eState
+   *        The state to search. May not be <code>null</code>.
+   * @return The keys in no particular order. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <UUID> getAllKeysInState (@NonNull final EPeppolViDATDDJournalState eState)
+  {
+    ValueEnforcer.notNull (eState, "State");
+    final ICommonsList <UUID> ret = new CommonsArrayList <> ();
+    synchronized (m_aWriteLock)
+    {
+      for (final Map.Entry <UUID, Entry> aEntry : m_aIndex.entrySet ())
+        if (aEntry.getValue ().m_eState == eState)
+          ret.add (aEntry.getKey ());
+    }
+    return ret;
+  }
+
+  /**
+   * @return The number of contained TDDs, in any state.
+   */
+  @Nonnegative
+  public int getCount ()
+  {
+    synchronized (m_aWriteLock)
+    {
+      return m_aIndex.size ();
+    }
+  }
+
+  /**
+   * @return The number of segment files.
+   */
+  @Nonnegative
+  public int getSegmentCount ()
+  {
+    synchronized (m_aWriteLock)
+    {
+      return m_aSegments.size ();
+    }
+  }
+
+  /**
+   * Drop all acknowledged TDDs: all other TDDs are copied with their current state into a new
+   * segment and all older segments are deleted afterwards. The TDD XML is copied as it is, without
+   * parsing. Appends are blocked while compacting. If the process crashes while compacting, the
+   * copies are detected upon recovery.
+   *
+   * @return The number of dropped TDDs.
+   * @throws IOException
+   *         If writing or deleting fails
+   */
+  @Nonnegative
+  public int compact () throws IOException
+  {
+    synchronized (m_aSyncLock)
+    {
+      final ICommonsList <Segment> aOldSegments;
+      int nDropped = 0;
+      synchronized (m_aWriteLock)
+      {
+        _checkWritable ();
+        aOldSegments = m_aSegments.getClone ();
+        _createSegment (m_aSegments.getLastOrNull ().m_nNumber + 1);
+
+        final Iterator <Map.Entry <UUID, Entry>> it = m_aIndex.entrySet ().iterator ();
+        while (it.hasNext ())
+        {
+          final Map.Entry <UUID, Entry> aMapEntry = it.next ();
+          final Entry aEntry = aMapEntry.getValue ();
+          if (aEntry.m_eState == EPeppolViDATDDJournalState.ACKNOWLEDGED)
+          {
+            it.remove ();
+            nDropped++;
+          }
+          else
+          {
+            final ByteBuffer aPayload = aEntry.m_aSegment.m_aBuffer.slice (aEntry.m_nPayloadOffset,
+                                                                           aEntry.m_nPayloadLength);
+            final Segment aSegment = _writeRecord (CPeppolViDATDDJournal.RECORD_TYPE_TDD,
+                                                   aEntry.m_eState,
+                                                   aMapEntry.getKey (),
+                                                   aPayload);
+            aEntry.m_aSegment = aSegment;
+            aEntry.m_nPayloadOffset = aSegment.m_nWritePos - aEntry.m_nPayloadLength;
+          }
+        }
+      }
+
+      // The copies must be durable before the originals are deleted
+      _forceAll ();
+
+      synchronized (m_aWriteLock)
+      {
+        for (final Segment aSegment : aOldSegments)
+        {
+          m_aSegments.remove (aSegment);
+          aSegment.m_aFC.close ();
+          // The mapping stays valid until it is garbage collected
+          Files.delete (aSegment.m_aPath);
+        }
+      }
+      _forceDirectory ();
+      if (LOGGER.isDebugEnabled ())
+        LOGGER.debug ("Compacted TDD journal '" + m_aDir + "' - dropped " + nDropped + " acknowledged TDDs");
+      return nDropped;
+    }
+  }
+
+  @GuardedBy ("m_aWriteLock")
+  private void _closeAllSegments ()
+  {
+    for (final Segment aSegment : m_aSegments)
+      try
+      {
+        aSegment.m_aFC.close ();
+      }
+      catch (final IOException ex)
+      {
+        LOGGER.warn ("Failed to close journal segment '" + aSegment.m_aPath + "'", ex);
+      }
+  }
+
+  /**
+   * Force all outstanding data and close all segment files. Afterwards the journal cannot be
+   * modified anymore.
+   */
+  @Override
+  public void close () throws IOException
+  {
+    synchronized (m_aSyncLock)
+    {
+      synchronized (m_aWriteLock)
+      {
+        if (m_bClosed)
+          return;
+        m_bClosed = true;
+      }
+      try
+      {
+        if (m_aFailure == null)
+          _forceAll ();
+      }
+      finally
+      {
+        synchronized (m_aWriteLock)
+        {
+          _closeAllSegments ();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * Minimal streaming JSON generator that writes into a {@link Writer} via an internal character
+ * buffer. It only takes care of separators and escaping - the caller is responsible for the
+ * structure. Besides {@link PeppolViDATDD090JsonWriter} it is used for all other JSON output of
+ * this project, so that there is only one JSON escaping implementation.
+ * <p>
+ * ph-json is not used here: its <code>JsonWriter</code> serializes an <code>IJson</code> tree, so
+ * every TDD would first have to be copied into a tree of JSON objects, and its
+ * <code>JsonEscapeHelper</code> leaves control characters other than <code>\b</code>,
+ * <code>\f</code>, <code>\n</code>, <code>\r</code> and <code>\t</code> unescaped, which is not
+ * valid JSON. The tests check the output against the ph-json parser.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class JsonGenerator
+{
+  private static final char [] HEX = "0123456789abcdef".toCharArray ();
+
+  private final Writer m_aWriter;
+  private final char [] m_aBuf = new char [8 * 1024];
+  private int m_nBufLen = 0;
+  // Per nesting level: was the first entry already written?
+  private boolean [] m_aHasEntry = new boolean [16];
+  private int m_nDepth = 0;
+  private boolean m_bAfterName = false;
+
+  /**
+   * Constructor
+   *
+   * @param aWriter
+   *        The writer to write to. May not be <code>null</code>.
+   */
+  public JsonGenerator (@NonNull final Writer aWriter)
+  {
+    ValueEnforcer.notNull (aWriter, "Writer");
+    m_aWriter = aWriter;
+  }
+
+  private void _char (final char c) throws IOException
+  {
+    if (m_nBufLen == m_aBuf.length)
+      _flushBuffer ();
+    m_aBuf[m_nBufLen++] = c;
+  }
+
+  private void _chars (@NonNull final String s) throws IOException
+  {
+    final int nLen = s.length ();
+    for (int i = 0; i < nLen; ++i)
+      _char (s.charAt (i));
+  }
+
+  private void _flushBuffer () throws IOException
+  {
+    m_aWriter.write (m_aBuf, 0, m_nBufLen);
+    m_nBufLen = 0;
+  }
+
+  private void _beforeValue () throws IOException
+  {
+    if (m_bAfterName)
+    {
+      m_bAfterName = false;
+      return;
+    }
+    if (m_nDepth > 0)
+    {
+      if (m_aHasEntry[m_nDepth - 1])
+        _char (',');
+      else
+        m_aHasEntry[m_nDepth - 1] = true;
+    }
+  }
+
+  private void _push () throws IOException
+  {
+    if (m_nDepth == m_aHasEntry.length)
+      m_aHasEntry = Arrays.copyOf (m_aHasEntry, m_nDepth * 2);
+    m_aHasEntry[m_nDepth++] = false;
+  }
+
+  private void _quoted (@NonNull final String s) throws IOException
+  {
+    _char ('"');
+    final int nLen = s.length ();
+    for (int i = 0; i < nLen; ++i)
+    {
+      final char c = s.charAt (i);
+      switch (c)
+      {
+        case '"':
+          _char ('\\');
+          _char ('"');
+          break;
+        case '\\':
+          _char ('\\');
+          _char ('\\');
+          break;
+        case '\n':
+          _char ('\\');
+          _char ('n');
+          break;
+        case '\r':
+          _char ('\\');
+          _char ('r');
+          break;
+        case '\t':
+          _char ('\\');
+          _char ('t');
+          break;
+        default:
+          // Line and paragraph separator are escaped for JavaScript consumers
+          if (c < 0x20 || c == 0x2028 || c == 0x2029)
+          {
+            _char ('\\');
+            _char ('u');
+            _char (HEX[(c >> 12) & 0xf]);
+            _char (HEX[(c >> 8) & 0xf]);
+            _char (HEX[(c >> 4) & 0xf]);
+            _char (HEX[c & 0xf]);
+          }
+          else
+            _char (c);
+      }
+    }
+    _char ('"');
+  }
+
+  /**
+   * Start a new JSON object.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void beginObject () throws IOException
+  {
+    _beforeValue ();
+    _char ('{');
+    _push ();
+  }
+
+  /**
+   * End the current JSON object.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void endObject () throws IOException
+  {
+    m_nDepth--;
+    _char ('}');
+  }
+
+  /**
+   * Start a new JSON array.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void beginArray () throws IOException
+  {
+    _beforeValue ();
+    _char ('[');
+    _push ();
+  }
+
+  /**
+   * End the current JSON array.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void endArray () throws IOException
+  {
+    m_nDepth--;
+    _char (']');
+  }
+
+  /**
+   * Write the name of the next object property. Must be followed by exactly one value, object or
+   * array.
+   *
+   * @param sName
+   *        The property name. May not be <code>null</code>.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void name (@NonNull final String sName) throws IOException
+  {
+    _beforeValue ();
+    _quoted (sName);
+    _char (':');
+    m_bAfterName = true;
+  }
+
+  /**
+   * Write a string value.
+   *
+   * @param s
+   *        The value to write. May not be <code>null</code>.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void value (@NonNull final String s) throws IOException
+  {
+    _beforeValue ();
+    _quoted (s);
+  }
+
+  /**
+   * Write a number value. The scale is kept.
+   *
+   * @param a
+   *        The value to write. May not be <code>null</code>.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void value (@NonNull final BigDecimal a) throws IOException
+  {
+    _beforeValue ();
+    // The scale is kept, so "1.50" stays "1.50"
+    _chars (a.toString ());
+  }
+
+  /**
+   * Write a number value.
+   *
+   * @param n
+   *        The value to write.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void value (final long n) throws IOException
+  {
+    _beforeValue ();
+    _chars (Long.toString (n));
+  }
+
+  /**
+   * Write a boolean value.
+   *
+   * @param b
+   *        The value to write.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void value (final boolean b) throws IOException
+  {
+    _beforeValue ();
+    _chars (b ? "true" : "false");
+  }
+
+  /**
+   * Write a <code>null</code> value.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void nullValue () throws IOException
+  {
+    _beforeValue ();
+    _chars ("null");
+  }
+
+  /**
+   * Write the internal buffer to the writer and flush the writer. Must be called at the end.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void flush () throws IOException
+  {
+    _flushBuffer ();
+    m_aWriter.flush ();
+  }
+}
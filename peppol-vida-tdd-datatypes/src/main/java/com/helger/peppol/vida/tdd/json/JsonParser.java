@@ -0,0 +1,454 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Minimal streaming pull parser for JSON. It never builds a tree - the caller pulls tokens in the
+ * expected order. Syntax errors are reported as {@link JsonParseException}.
+ * <p>
+ * ph-json is not used here: its parser either builds an <code>IJson</code> tree or pushes events
+ * into a callback handler. A pull parser lets the TDD reader map each property directly with plain
+ * recursive descent, while a push parser would need an explicit state machine per element type.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+final class JsonParser
+{
+  /**
+   * Exception for malformed JSON.
+   *
+   * @author Philip Helger
+   */
+  static final class JsonParseException extends IOException
+  {
+    JsonParseException (@NonNull final String sMsg)
+    {
+      super (sMsg);
+    }
+  }
+
+  static final int T_NONE = 0;
+  static final int T_BEGIN_OBJECT = 1;
+  static final int T_END_OBJECT = 2;
+  static final int T_BEGIN_ARRAY = 3;
+  static final int T_END_ARRAY = 4;
+  static final int T_NAME = 5;
+  static final int T_STRING = 6;
+  static final int T_NUMBER = 7;
+  static final int T_TRUE = 8;
+  static final int T_FALSE = 9;
+  static final int T_NULL = 10;
+  static final int T_END_DOCUMENT = 11;
+
+  private static final int CTX_DOCUMENT = 0;
+  private static final int CTX_DOCUMENT_DONE = 1;
+  private static final int CTX_OBJECT_FIRST = 2;
+  private static final int CTX_OBJECT = 3;
+  private static final int CTX_AFTER_NAME = 4;
+  private static final int CTX_ARRAY_FIRST = 5;
+  private static final int CTX_ARRAY = 6;
+
+  private final Reader m_aReader;
+  private final char [] m_aBuf = new char [8 * 1024];
+  private int m_nBufPos = 0;
+  private int m_nBufLen = 0;
+  private int m_nPushBack = -2;
+  private int [] m_aStack = new int [16];
+  private int m_nDepth = 0;
+  private int m_nPeeked = T_NONE;
+  private final StringBuilder m_aSB = new StringBuilder ();
+
+  JsonParser (@NonNull final Reader aReader)
+  {
+    m_aReader = aReader;
+    m_aStack[m_nDepth++] = CTX_DOCUMENT;
+  }
+
+  private int _read () throws IOException
+  {
+    if (m_nPushBack != -2)
+    {
+      final int ret = m_nPushBack;
+      m_nPushBack = -2;
+      return ret;
+    }
+    if (m_nBufPos == m_nBufLen)
+    {
+      m_nBufLen = m_aReader.read (m_aBuf, 0, m_aBuf.length);
+      m_nBufPos = 0;
+      if (m_nBufLen <= 0)
+      {
+        m_nBufLen = 0;
+        return -1;
+      }
+    }
+    return m_aBuf[m_nBufPos++];
+  }
+
+  private int _readNonWS () throws IOException
+  {
+    int c;
+    do
+    {
+      c = _read ();
+    } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+    return c;
+  }
+
+  @NonNull
+  private JsonParseException _error (@NonNull final String sMsg)
+  {
+    return new JsonParseException (sMsg);
+  }
+
+  private void _expectLiteral (@NonNull final String sRest) throws IOException
+  {
+    for (int i = 0; i < sRest.length (); ++i)
+      if (_read () != sRest.charAt (i))
+        throw _error ("Invalid literal");
+  }
+
+  private void _readNumber (final int nFirst) throws IOException
+  {
+    m_aSB.setLength (0);
+    m_aSB.append ((char) nFirst);
+    while (true)
+    {
+      final int c = _read ();
+      if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-')
+        m_aSB.append ((char) c);
+      else
+      {
+        m_nPushBack = c;
+        break;
+      }
+    }
+  }
+
+  int peek () throws IOException
+  {
+    if (m_nPeeked != T_NONE)
+      return m_nPeeked;
+
+    final int nCtx = m_aStack[m_nDepth - 1];
+    int c = _readNonWS ();
+    switch (nCtx)
+    {
+      case CTX_OBJECT_FIRST:
+      case CTX_OBJECT:
+        if (c == '}')
+          return m_nPeeked = T_END_OBJECT;
+        if (nCtx == CTX_OBJECT)
+        {
+          if (c != ',')
+            throw _error ("Expected ',' or '}' in object");
+          c = _readNonWS ();
+        }
+        if (c != '"')
+          throw _error ("Expected a name in object");
+        return m_nPeeked = T_NAME;
+      case CTX_AFTER_NAME:
+        if (c != ':')
+          throw _error ("Expected ':' after name");
+        c = _readNonWS ();
+        break;
+      case CTX_ARRAY_FIRST:
+      case CTX_ARRAY:
+        if (c == ']')
+          return m_nPeeked = T_END_ARRAY;
+        if (nCtx == CTX_ARRAY)
+        {
+          if (c != ',')
+            throw _error ("Expected ',' or ']' in array");
+          c = _readNonWS ();
+        }
+        break;
+      case CTX_DOCUMENT_DONE:
+        if (c == -1)
+          return m_nPeeked = T_END_DOCUMENT;
+        throw _error ("Unexpected content after the JSON value");
+      default:
+        break;
+    }
+
+    switch (c)
+    {
+      case '{':
+        return m_nPeeked = T_BEGIN_OBJECT;
+      case '[':
+        return m_nPeeked = T_BEGIN_ARRAY;
+      case '"':
+        return m_nPeeked = T_STRING;
+      case 't':
+        _expectLiteral ("rue");
+        return m_nPeeked = T_TRUE;
+      case 'f':
+        _expectLiteral ("alse");
+        return m_nPeeked = T_FALSE;
+      case 'n':
+        _expectLiteral ("ull");
+        return m_nPeeked = T_NULL;
+      case -1:
+        throw _error ("Unexpected end of JSON");
+      default:
+        if (c == '-' || (c >= '0' && c <= '9'))
+        {
+          _readNumber (c);
+          return m_nPeeked = T_NUMBER;
+        }
+        throw _error ("Unexpected character '" + (char) c + "'");
+    }
+  }
+
+  private void _expect (final int nToken, @NonNull final String sWhat) throws IOException
+  {
+    if (peek () != nToken)
+      throw _error ("Expected " + sWhat);
+    m_nPeeked = T_NONE;
+  }
+
+  /**
+   * A value was consumed - update the enclosing context
+   */
+  private void _valueDone ()
+  {
+    switch (m_aStack[m_nDepth - 1])
+    {
+      case CTX_AFTER_NAME:
+        m_aStack[m_nDepth - 1] = CTX_OBJECT;
+        break;
+      case CTX_ARRAY_FIRST:
+        m_aStack[m_nDepth - 1] = CTX_ARRAY;
+        break;
+      case CTX_DOCUMENT:
+        m_aStack[m_nDepth - 1] = CTX_DOCUMENT_DONE;
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void _push (final int nCtx)
+  {
+    if (m_nDepth == m_aStack.length)
+      m_aStack = Arrays.copyOf (m_aStack, m_nDepth * 2);
+    m_aStack[m_nDepth++] = nCtx;
+  }
+
+  void beginObject () throws IOException
+  {
+    _expect (T_BEGIN_OBJECT, "'{'");
+    _valueDone ();
+    _push (CTX_OBJECT_FIRST);
+  }
+
+  void endObject () throws IOException
+  {
+    _expect (T_END_OBJECT, "'}'");
+    m_nDepth--;
+  }
+
+  void beginArray () throws IOException
+  {
+    _expect (T_BEGIN_ARRAY, "'['");
+    _valueDone ();
+    _push (CTX_ARRAY_FIRST);
+  }
+
+  void endArray () throws IOException
+  {
+    _expect (T_END_ARRAY, "']'");
+    m_nDepth--;
+  }
+
+  /**
+   * @return <code>true</code> if the current object or array has more entries.
+   */
+  boolean hasNext () throws IOException
+  {
+    final int n = peek ();
+    return n != T_END_OBJECT && n != T_END_ARRAY && n != T_END_DOCUMENT;
+  }
+
+  @NonNull
+  private String _readQuoted () throws IOException
+  {
+    m_aSB.setLength (0);
+    while (true)
+    {
+      final int c = _read ();
+      if (c == '"')
+        return m_aSB.toString ();
+      if (c == -1)
+        throw _error ("Unterminated string");
+      if (c == '\\')
+      {
+        final int e = _read ();
+        switch (e)
+        {
+          case '"':
+          case '\\':
+          case '/':
+            m_aSB.append ((char) e);
+            break;
+          case 'b':
+            m_aSB.append ('\b');
+            break;
+          case 'f':
+            m_aSB.append ('\f');
+            break;
+          case 'n':
+            m_aSB.append ('\n');
+            break;
+          case 'r':
+            m_aSB.append ('\r');
+            break;
+          case 't':
+            m_aSB.append ('\t');
+            break;
+          case 'u':
+          {
+            int n = 0;
+            for (int i = 0; i < 4; ++i)
+            {
+              final int d = Character.digit (_read (), 16);
+              if (d < 0)
+                throw _error ("Invalid unicode escape");
+              n = (n << 4) | d;
+            }
+            m_aSB.append ((char) n);
+            break;
+          }
+          default:
+            throw _error ("Invalid escape sequence");
+        }
+      }
+      else
+        m_aSB.append ((char) c);
+    }
+  }
+
+  @NonNull
+  String nextName () throws IOException
+  {
+    _expect (T_NAME, "a name");
+    m_aStack[m_nDepth - 1] = CTX_AFTER_NAME;
+    return _readQuoted ();
+  }
+
+  @NonNull
+  String nextString () throws IOException
+  {
+    _expect (T_STRING, "a string");
+    _valueDone ();
+    return _readQuoted ();
+  }
+
+  @NonNull
+  BigDecimal nextDecimal () throws IOException
+  {
+    final int n = peek ();
+    final String s;
+    if (n == T_NUMBER)
+    {
+      m_nPeeked = T_NONE;
+      _valueDone ();
+      s = m_aSB.toString ();
+    }
+    else
+      if (n == T_STRING)
+        s = nextString ();
+      else
+        throw _error ("Expected a number");
+    try
+    {
+      return new BigDecimal (s);
+    }
+    catch (final NumberFormatException ex)
+    {
+      throw _error ("Invalid number '" + s + "'");
+    }
+  }
+
+  boolean nextBoolean () throws IOException
+  {
+    final int n = peek ();
+    if (n != T_TRUE && n != T_FALSE)
+      throw _error ("Expected a boolean");
+    m_nPeeked = T_NONE;
+    _valueDone ();
+    return n == T_TRUE;
+  }
+
+  void nextNull () throws IOException
+  {
+    _expect (T_NULL, "null");
+    _valueDone ();
+  }
+
+  void skipValue () throws IOException
+  {
+    switch (peek ())
+    {
+      case T_BEGIN_OBJECT:
+        beginObject ();
+        while (hasNext ())
+        {
+          nextName ();
+          skipValue ();
+        }
+        endObject ();
+        break;
+      case T_BEGIN_ARRAY:
+        beginArray ();
+        while (hasNext ())
+          skipValue ();
+        endArray ();
+        break;
+      case T_STRING:
+        nextString ();
+        break;
+      case T_NUMBER:
+        nextDecimal ();
+        break;
+      case T_TRUE:
+      case T_FALSE:
+        nextBoolean ();
+        break;
+      case T_NULL:
+        nextNull ();
+        break;
+      default:
+        throw _error ("Expected a value");
+    }
+  }
+
+  void endDocument () throws IOException
+  {
+    _expect (T_END_DOCUMENT, "end of JSON");
+  }
+}
@@ -0,0 +1,1230 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.datetime.xml.XMLOffsetTime;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDAnyTypeHelper;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReceivingParty;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.MonetaryTotal;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportersRepresentative;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportingParty;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.TaxAuthority;
+import com.helger.peppol.vida.tdd.v090.cac.AccountingCustomerParty;
+import com.helger.peppol.vida.tdd.v090.cac.AccountingSupplierParty;
+import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
+import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
+import com.helger.peppol.vida.tdd.v090.cac.CardAccount;
+import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.CommodityClassification;
+import com.helger.peppol.vida.tdd.v090.cac.Country;
+import com.helger.peppol.vida.tdd.v090.cac.Delivery;
+import com.helger.peppol.vida.tdd.v090.cac.FinancialInstitutionBranch;
+import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
+import com.helger.peppol.vida.tdd.v090.cac.InvoicePeriod;
+import com.helger.peppol.vida.tdd.v090.cac.Item;
+import com.helger.peppol.vida.tdd.v090.cac.Party;
+import com.helger.peppol.vida.tdd.v090.cac.PartyIdentification;
+import com.helger.peppol.vida.tdd.v090.cac.PartyTaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans.PayeeFinancialAccount;
+import com.helger.peppol.vida.tdd.v090.cac.PostalAddress;
+import com.helger.peppol.vida.tdd.v090.cac.Price;
+import com.helger.peppol.vida.tdd.v090.cac.TaxRepresentativeParty;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal.TaxCategory;
+import com.helger.peppol.vida.tdd.v090.cbc.AllowanceTotalAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.Amount;
+import com.helger.peppol.vida.tdd.v090.cbc.BaseAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.ChargeTotalAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.EndpointID;
+import com.helger.peppol.vida.tdd.v090.cbc.IdentifierType;
+import com.helger.peppol.vida.tdd.v090.cbc.InvoicedQuantity;
+import com.helger.peppol.vida.tdd.v090.cbc.ItemClassificationCode;
+import com.helger.peppol.vida.tdd.v090.cbc.LineExtensionAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PayableAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PayableRoundingAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PaymentMeansCode;
+import com.helger.peppol.vida.tdd.v090.cbc.PrepaidAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.PriceAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxExclusiveAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxInclusiveAmount;
+import com.helger.peppol.vida.tdd.v090.cbc.TaxableAmount;
+
+/**
+ * Streaming JSON reader for Peppol ViDA pilot TDD 0.9.0 documents created by
+ * {@link PeppolViDATDD090JsonWriter}. The JSON is pulled token by token and directly converted
+ * into the JAXB objects. Unknown properties are ignored to allow for forward compatibility.
+ * <p>
+ * Empty arrays are not written, but all lists of a present element are created anyway. This is the
+ * same representation the source object has after it was written, as the JAXB getters create the
+ * lists lazily.
+ * <p>
+ * Instances are meant to be reused for many documents.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDD090JsonReader
+{
+  private JsonParser m_aParser;
+  // Result of the last _amount call
+  private BigDecimal m_aAmountValue;
+  private String m_sAmountAttr;
+
+  public PeppolViDATDD090JsonReader ()
+  {}
+
+  @Nullable
+  static ZoneOffset getOffset (@NonNull final String s)
+  {
+    return s.isEmpty () ? null : ZoneOffset.of (s);
+  }
+
+  @NonNull
+  static XMLOffsetDate parseDate (@NonNull final String s)
+  {
+    // "2026-01-30" optionally followed by an offset
+    if (s.length () < 10)
+      throw new DateTimeException ("Invalid date '" + s + "'");
+    return XMLOffsetDate.of (LocalDate.parse (s.substring (0, 10)), getOffset (s.substring (10)));
+  }
+
+  @NonNull
+  static XMLOffsetTime parseTime (@NonNull final String s)
+  {
+    int nOffsetStart = s.length ();
+    for (int i = 0; i < s.length (); ++i)
+    {
+      final char c = s.charAt (i);
+      if (c == 'Z' || c == '+' || c == '-')
+      {
+        nOffsetStart = i;
+        break;
+      }
+    }
+    return XMLOffsetTime.of (LocalTime.parse (s.substring (0, nOffsetStart)), getOffset (s.substring (nOffsetStart)));
+  }
+
+  @Nullable
+  private String _string () throws IOException
+  {
+    if (m_aParser.peek () == JsonParser.T_NULL)
+    {
+      m_aParser.nextNull ();
+      return null;
+    }
+    return m_aParser.nextString ();
+  }
+
+  @Nullable
+  private BigDecimal _decimal () throws IOException
+  {
+    if (m_aParser.peek () == JsonParser.T_NULL)
+    {
+      m_aParser.nextNull ();
+      return null;
+    }
+    return m_aParser.nextDecimal ();
+  }
+
+  @Nullable
+  private XMLOffsetDate _date () throws IOException
+  {
+    final String s = _string ();
+    return s == null ? null : parseDate (s);
+  }
+
+  @Nullable
+  private XMLOffsetTime _time () throws IOException
+  {
+    final String s = _string ();
+    return s == null ? null : parseTime (s);
+  }
+
+  @Nullable
+  private Object _any () throws IOException
+  {
+    return PeppolViDATDDAnyTypeHelper.getAsElement (_string ());
+  }
+
+  /**
+   * Read an object with a decimal "value" and one attribute into {@link #m_aAmountValue} and
+   * {@link #m_sAmountAttr}.
+   */
+  private void _amount (@NonNull final String sAttrName) throws IOException
+  {
+    m_aAmountValue = null;
+    m_sAmountAttr = null;
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+    {
+      final String sName = m_aParser.nextName ();
+      if ("value".equals (sName))
+        m_aAmountValue = _decimal ();
+      else
+        if (sAttrName.equals (sName))
+          m_sAmountAttr = _string ();
+        else
+          m_aParser.skipValue ();
+    }
+    m_aParser.endObject ();
+  }
+
+  /**
+   * Read an object with a string "value" and one attribute. Returns the value, and the attribute
+   * is stored in {@link #m_sAmountAttr}.
+   */
+  @Nullable
+  private String _valueWithAttr (@NonNull final String sAttrName) throws IOException
+  {
+    String ret = null;
+    m_sAmountAttr = null;
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+    {
+      final String sName = m_aParser.nextName ();
+      if ("value".equals (sName))
+        ret = _string ();
+      else
+        if (sAttrName.equals (sName))
+          m_sAmountAttr = _string ();
+        else
+          m_aParser.skipValue ();
+    }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private IdentifierType _id () throws IOException
+  {
+    final IdentifierType ret = new IdentifierType ();
+    ret.setValue (_valueWithAttr ("schemeID"));
+    ret.setSchemeID (m_sAmountAttr);
+    return ret;
+  }
+
+  @NonNull
+  private EndpointID _endpointID () throws IOException
+  {
+    final EndpointID ret = new EndpointID ();
+    ret.setValue (_valueWithAttr ("schemeID"));
+    ret.setSchemeID (m_sAmountAttr);
+    return ret;
+  }
+
+  /**
+   * Read an object that only consists of an "ID" property.
+   */
+  @Nullable
+  private IdentifierType _idOnly () throws IOException
+  {
+    IdentifierType ret = null;
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      if ("ID".equals (m_aParser.nextName ()))
+        ret = _id ();
+      else
+        m_aParser.skipValue ();
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private TaxScheme _taxScheme () throws IOException
+  {
+    final TaxScheme ret = new TaxScheme ();
+    ret.setID (_idOnly ());
+    return ret;
+  }
+
+  private void _postalAddresses (@NonNull final List <PostalAddress> aTarget) throws IOException
+  {
+    m_aParser.beginArray ();
+    while (m_aParser.hasNext ())
+    {
+      final PostalAddress a = new PostalAddress ();
+      m_aParser.beginObject ();
+      while (m_aParser.hasNext ())
+        if ("Country".equals (m_aParser.nextName ()))
+        {
+          final Country aCountry = new Country ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            if ("IdentificationCode".equals (m_aParser.nextName ()))
+              aCountry.setIdentificationCode (_string ());
+            else
+              m_aParser.skipValue ();
+          m_aParser.endObject ();
+          a.setCountry (aCountry);
+        }
+        else
+          m_aParser.skipValue ();
+      m_aParser.endObject ();
+      aTarget.add (a);
+    }
+    m_aParser.endArray ();
+  }
+
+  @NonNull
+  private PartyTaxScheme _partyTaxScheme () throws IOException
+  {
+    final PartyTaxScheme ret = new PartyTaxScheme ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "CompanyID":
+          ret.setCompanyID (_string ());
+          break;
+        case "TaxScheme":
+          ret.setTaxScheme (_taxScheme ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private Party _party () throws IOException
+  {
+    final Party ret = new Party ();
+    final List <PostalAddress> aPAs = ret.getPostalAddress ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "PostalAddress":
+          _postalAddresses (aPAs);
+          break;
+        case "PartyTaxScheme":
+          ret.setPartyTaxScheme (_partyTaxScheme ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  /**
+   * Read an object that only consists of a "Party" property.
+   */
+  @Nullable
+  private Party _partyOnly () throws IOException
+  {
+    Party ret = null;
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      if ("Party".equals (m_aParser.nextName ()))
+        ret = _party ();
+      else
+        m_aParser.skipValue ();
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private InvoicePeriod _invoicePeriod () throws IOException
+  {
+    final InvoicePeriod ret = new InvoicePeriod ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "StartDate":
+          ret.setStartDate (_date ());
+          break;
+        case "EndDate":
+          ret.setEndDate (_date ());
+          break;
+        case "DescriptionCode":
+          ret.setDescriptionCode (_string ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private BillingReference _billingReference () throws IOException
+  {
+    final BillingReference ret = new BillingReference ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      if ("InvoiceDocumentReference".equals (m_aParser.nextName ()))
+      {
+        final InvoiceDocumentReference aIDR = new InvoiceDocumentReference ();
+        m_aParser.beginObject ();
+        while (m_aParser.hasNext ())
+          switch (m_aParser.nextName ())
+          {
+            case "ID":
+              aIDR.setID (_id ());
+              break;
+            case "IssueDate":
+              aIDR.setIssueDate (_date ());
+              break;
+            default:
+              m_aParser.skipValue ();
+          }
+        m_aParser.endObject ();
+        ret.setInvoiceDocumentReference (aIDR);
+      }
+      else
+        m_aParser.skipValue ();
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private PaymentMeans _paymentMeans () throws IOException
+  {
+    final PaymentMeans ret = new PaymentMeans ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "PaymentMeansCode":
+        {
+          final PaymentMeansCode aPMC = new PaymentMeansCode ();
+          aPMC.setValue (_valueWithAttr ("name"));
+          aPMC.setName (m_sAmountAttr);
+          ret.setPaymentMeansCode (aPMC);
+          break;
+        }
+        case "PaymentID":
+          ret.setPaymentID (_string ());
+          break;
+        case "CardAccount":
+        {
+          final CardAccount aCA = new CardAccount ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            switch (m_aParser.nextName ())
+            {
+              case "PrimaryAccountNumberID":
+                aCA.setPrimaryAccountNumberID (_string ());
+                break;
+              case "NetworkID":
+                aCA.setNetworkID (_string ());
+                break;
+              case "HolderName":
+                aCA.setHolderName (_string ());
+                break;
+              default:
+                m_aParser.skipValue ();
+            }
+          m_aParser.endObject ();
+          ret.setCardAccount (aCA);
+          break;
+        }
+        case "PayeeFinancialAccount":
+        {
+          final PayeeFinancialAccount aPFA = new PayeeFinancialAccount ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            switch (m_aParser.nextName ())
+            {
+              case "ID":
+                aPFA.setID (_id ());
+                break;
+              case "FinancialInstitutionBranch":
+              {
+                final FinancialInstitutionBranch aFIB = new FinancialInstitutionBranch ();
+                aFIB.setID (_idOnly ());
+                aPFA.setFinancialInstitutionBranch (aFIB);
+                break;
+              }
+              default:
+                m_aParser.skipValue ();
+            }
+          m_aParser.endObject ();
+          ret.setPayeeFinancialAccount (aPFA);
+          break;
+        }
+        case "PaymentMandate":
+          ret.setPaymentMandate (_any ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private AllowanceCharge _allowanceCharge () throws IOException
+  {
+    final AllowanceCharge ret = new AllowanceCharge ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "ChargeIndicator":
+          ret.setChargeIndicator (m_aParser.nextBoolean ());
+          break;
+        case "AllowanceChargeReasonCode":
+          ret.setAllowanceChargeReasonCode (_string ());
+          break;
+        case "AllowanceChargeReason":
+          ret.setAllowanceChargeReason (_string ());
+          break;
+        case "MultiplierFactorNumeric":
+          ret.setMultiplierFactorNumeric (_decimal ());
+          break;
+        case "Amount":
+        {
+          _amount ("currencyID");
+          final Amount a = new Amount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setAmount (a);
+          break;
+        }
+        case "BaseAmount":
+        {
+          _amount ("currencyID");
+          final BaseAmount a = new BaseAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setBaseAmount (a);
+          break;
+        }
+        case "TaxCategory":
+          ret.setTaxCategory (_any ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  private void _allowanceCharges (@NonNull final List <AllowanceCharge> aTarget) throws IOException
+  {
+    m_aParser.beginArray ();
+    while (m_aParser.hasNext ())
+      aTarget.add (_allowanceCharge ());
+    m_aParser.endArray ();
+  }
+
+  @NonNull
+  private TaxCategory _taxCategory () throws IOException
+  {
+    final TaxCategory ret = new TaxCategory ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "ID":
+          ret.setID (_id ());
+          break;
+        case "Percent":
+          ret.setPercent (_decimal ());
+          break;
+        case "TaxExemptionReasonCode":
+          ret.setTaxExemptionReasonCode (_string ());
+          break;
+        case "TaxExemptionReason":
+          ret.setTaxExemptionReason (_string ());
+          break;
+        case "TaxScheme":
+          ret.setTaxScheme (_taxScheme ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private TaxSubtotal _taxSubtotal () throws IOException
+  {
+    final TaxSubtotal ret = new TaxSubtotal ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "TaxableAmount":
+        {
+          _amount ("currencyID");
+          final TaxableAmount a = new TaxableAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setTaxableAmount (a);
+          break;
+        }
+        case "TaxAmount":
+        {
+          _amount ("currencyID");
+          final TaxAmount a = new TaxAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setTaxAmount (a);
+          break;
+        }
+        case "TaxCategory":
+          ret.setTaxCategory (_taxCategory ());
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private TaxTotal _taxTotal () throws IOException
+  {
+    final TaxTotal ret = new TaxTotal ();
+    final List <TaxSubtotal> aTSs = ret.getTaxSubtotal ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "TaxAmount":
+        {
+          _amount ("currencyID");
+          final TaxAmount a = new TaxAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setTaxAmount (a);
+          break;
+        }
+        case "TaxSubtotal":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+            aTSs.add (_taxSubtotal ());
+          m_aParser.endArray ();
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private MonetaryTotal _monetaryTotal () throws IOException
+  {
+    final MonetaryTotal ret = new MonetaryTotal ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+    {
+      final String sName = m_aParser.nextName ();
+      switch (sName)
+      {
+        case "LineExtensionAmount":
+        case "TaxExclusiveAmount":
+        case "TaxInclusiveAmount":
+        case "AllowanceTotalAmount":
+        case "ChargeTotalAmount":
+        case "PrepaidAmount":
+        case "PayableRoundingAmount":
+        case "PayableAmount":
+          _amount ("currencyID");
+          break;
+        default:
+          m_aParser.skipValue ();
+          continue;
+      }
+      switch (sName)
+      {
+        case "LineExtensionAmount":
+        {
+          final LineExtensionAmount a = new LineExtensionAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setLineExtensionAmount (a);
+          break;
+        }
+        case "TaxExclusiveAmount":
+        {
+          final TaxExclusiveAmount a = new TaxExclusiveAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setTaxExclusiveAmount (a);
+          break;
+        }
+        case "TaxInclusiveAmount":
+        {
+          final TaxInclusiveAmount a = new TaxInclusiveAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setTaxInclusiveAmount (a);
+          break;
+        }
+        case "AllowanceTotalAmount":
+        {
+          final AllowanceTotalAmount a = new AllowanceTotalAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setAllowanceTotalAmount (a);
+          break;
+        }
+        case "ChargeTotalAmount":
+        {
+          final ChargeTotalAmount a = new ChargeTotalAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setChargeTotalAmount (a);
+          break;
+        }
+        case "PrepaidAmount":
+        {
+          final PrepaidAmount a = new PrepaidAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setPrepaidAmount (a);
+          break;
+        }
+        case "PayableRoundingAmount":
+        {
+          final PayableRoundingAmount a = new PayableRoundingAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setPayableRoundingAmount (a);
+          break;
+        }
+        default:
+        {
+          final PayableAmount a = new PayableAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setPayableAmount (a);
+          break;
+        }
+      }
+    }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private Item _item () throws IOException
+  {
+    final Item ret = new Item ();
+    final List <CommodityClassification> aCCs = ret.getCommodityClassification ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "Description":
+          ret.setDescription (_string ());
+          break;
+        case "Name":
+          ret.setName (_string ());
+          break;
+        case "CommodityClassification":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+          {
+            final CommodityClassification aCC = new CommodityClassification ();
+            m_aParser.beginObject ();
+            while (m_aParser.hasNext ())
+              if ("ItemClassificationCode".equals (m_aParser.nextName ()))
+              {
+                final ItemClassificationCode aICC = new ItemClassificationCode ();
+                m_aParser.beginObject ();
+                while (m_aParser.hasNext ())
+                  switch (m_aParser.nextName ())
+                  {
+                    case "value":
+                      aICC.setValue (_string ());
+                      break;
+                    case "listID":
+                      aICC.setListID (_string ());
+                      break;
+                    case "listVersionID":
+                      aICC.setListVersionID (_string ());
+                      break;
+                    default:
+                      m_aParser.skipValue ();
+                  }
+                m_aParser.endObject ();
+                aCC.setItemClassificationCode (aICC);
+              }
+              else
+                m_aParser.skipValue ();
+            m_aParser.endObject ();
+            aCCs.add (aCC);
+          }
+          m_aParser.endArray ();
+          break;
+        case "ClassifiedTaxCategory":
+        {
+          final ClassifiedTaxCategory aCTC = new ClassifiedTaxCategory ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            switch (m_aParser.nextName ())
+            {
+              case "ID":
+                aCTC.setID (_id ());
+                break;
+              case "Percent":
+                aCTC.setPercent (_decimal ());
+                break;
+              case "TaxScheme":
+                aCTC.setTaxScheme (_taxScheme ());
+                break;
+              default:
+                m_aParser.skipValue ();
+            }
+          m_aParser.endObject ();
+          ret.setClassifiedTaxCategory (aCTC);
+          break;
+        }
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private DocumentLine _documentLine () throws IOException
+  {
+    final DocumentLine ret = new DocumentLine ();
+    final List <AllowanceCharge> aACs = ret.getAllowanceCharge ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "ID":
+          ret.setID (_id ());
+          break;
+        case "Note":
+          ret.setNote (_string ());
+          break;
+        case "InvoicedQuantity":
+        {
+          _amount ("unitCode");
+          final InvoicedQuantity a = new InvoicedQuantity ();
+          a.setValue (m_aAmountValue);
+          a.setUnitCode (m_sAmountAttr);
+          ret.setInvoicedQuantity (a);
+          break;
+        }
+        case "LineExtensionAmount":
+        {
+          _amount ("currencyID");
+          final LineExtensionAmount a = new LineExtensionAmount ();
+          a.setValue (m_aAmountValue);
+          a.setCurrencyID (m_sAmountAttr);
+          ret.setLineExtensionAmount (a);
+          break;
+        }
+        case "InvoicePeriod":
+          ret.setInvoicePeriod (_invoicePeriod ());
+          break;
+        case "AllowanceCharge":
+          _allowanceCharges (aACs);
+          break;
+        case "Item":
+          ret.setItem (_item ());
+          break;
+        case "Price":
+        {
+          final Price aPrice = new Price ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            if ("PriceAmount".equals (m_aParser.nextName ()))
+            {
+              _amount ("currencyID");
+              final PriceAmount a = new PriceAmount ();
+              a.setValue (m_aAmountValue);
+              a.setCurrencyID (m_sAmountAttr);
+              aPrice.setPriceAmount (a);
+            }
+            else
+              m_aParser.skipValue ();
+          m_aParser.endObject ();
+          ret.setPrice (aPrice);
+          break;
+        }
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private ReportedDocument _reportedDocument () throws IOException
+  {
+    final ReportedDocument ret = new ReportedDocument ();
+    final List <BillingReference> aBRs = ret.getBillingReference ();
+    final List <PaymentMeans> aPMs = ret.getPaymentMeans ();
+    final List <AllowanceCharge> aACs = ret.getAllowanceCharge ();
+    final List <TaxTotal> aTTs = ret.getTaxTotal ();
+    final List <DocumentLine> aDLs = ret.getDocumentLine ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "CustomizationID":
+          ret.setCustomizationID (_string ());
+          break;
+        case "ProfileID":
+          ret.setProfileID (_string ());
+          break;
+        case "ID":
+          ret.setID (_id ());
+          break;
+        case "UUID":
+          ret.setUUID (_string ());
+          break;
+        case "IssueDate":
+          ret.setIssueDate (_date ());
+          break;
+        case "IssueTime":
+          ret.setIssueTime (_time ());
+          break;
+        case "DocumentTypeCode":
+          ret.setDocumentTypeCode (_string ());
+          break;
+        case "Note":
+          ret.setNote (_string ());
+          break;
+        case "TaxPointDate":
+          ret.setTaxPointDate (_date ());
+          break;
+        case "DocumentCurrencyCode":
+          ret.setDocumentCurrencyCode (_string ());
+          break;
+        case "TaxCurrencyCode":
+          ret.setTaxCurrencyCode (_string ());
+          break;
+        case "InvoicePeriod":
+          ret.setInvoicePeriod (_invoicePeriod ());
+          break;
+        case "BillingReference":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+            aBRs.add (_billingReference ());
+          m_aParser.endArray ();
+          break;
+        case "AccountingSupplierParty":
+        {
+          final AccountingSupplierParty a = new AccountingSupplierParty ();
+          a.setParty (_partyOnly ());
+          ret.setAccountingSupplierParty (a);
+          break;
+        }
+        case "AccountingCustomerParty":
+        {
+          final AccountingCustomerParty a = new AccountingCustomerParty ();
+          a.setParty (_partyOnly ());
+          ret.setAccountingCustomerParty (a);
+          break;
+        }
+        case "TaxRepresentativeParty":
+        {
+          final TaxRepresentativeParty a = new TaxRepresentativeParty ();
+          final List <PostalAddress> aPAs = a.getPostalAddress ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            switch (m_aParser.nextName ())
+            {
+              case "PostalAddress":
+                _postalAddresses (aPAs);
+                break;
+              case "PartyTaxScheme":
+                a.setPartyTaxScheme (_partyTaxScheme ());
+                break;
+              default:
+                m_aParser.skipValue ();
+            }
+          m_aParser.endObject ();
+          ret.setTaxRepresentativeParty (a);
+          break;
+        }
+        case "Delivery":
+        {
+          final Delivery a = new Delivery ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            if ("ActualDeliveryDate".equals (m_aParser.nextName ()))
+              a.setActualDeliveryDate (_date ());
+            else
+              m_aParser.skipValue ();
+          m_aParser.endObject ();
+          ret.setDelivery (a);
+          break;
+        }
+        case "PaymentMeans":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+            aPMs.add (_paymentMeans ());
+          m_aParser.endArray ();
+          break;
+        case "AllowanceCharge":
+          _allowanceCharges (aACs);
+          break;
+        case "TaxTotal":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+            aTTs.add (_taxTotal ());
+          m_aParser.endArray ();
+          break;
+        case "MonetaryTotal":
+          ret.setMonetaryTotal (_monetaryTotal ());
+          break;
+        case "DocumentLine":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+            aDLs.add (_documentLine ());
+          m_aParser.endArray ();
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    return ret;
+  }
+
+  @NonNull
+  private TaxDataType _tdd () throws IOException
+  {
+    final TaxDataType ret = new TaxDataType ();
+    final List <ReportedTransaction> aRTs = ret.getReportedTransaction ();
+    m_aParser.beginObject ();
+    while (m_aParser.hasNext ())
+      switch (m_aParser.nextName ())
+      {
+        case "CustomizationID":
+          ret.setCustomizationID (_string ());
+          break;
+        case "ProfileID":
+          ret.setProfileID (_string ());
+          break;
+        case "UUID":
+          ret.setUUID (_string ());
+          break;
+        case "IssueDate":
+          ret.setIssueDate (_date ());
+          break;
+        case "IssueTime":
+          ret.setIssueTime (_time ());
+          break;
+        case "DocumentTypeCode":
+          ret.setDocumentTypeCode (_string ());
+          break;
+        case "DocumentCurrencyCode":
+          ret.setDocumentCurrencyCode (_string ());
+          break;
+        case "DocumentScope":
+          ret.setDocumentScope (_string ());
+          break;
+        case "ReporterRole":
+          ret.setReporterRole (_string ());
+          break;
+        case "TaxAuthority":
+        {
+          final TaxAuthority a = new TaxAuthority ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            switch (m_aParser.nextName ())
+            {
+              case "ID":
+                a.setID (_id ());
+                break;
+              case "Name":
+                a.setName (_string ());
+                break;
+              default:
+                m_aParser.skipValue ();
+            }
+          m_aParser.endObject ();
+          ret.setTaxAuthority (a);
+          break;
+        }
+        case "ReportingParty":
+        {
+          final ReportingParty a = new ReportingParty ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            if ("EndpointID".equals (m_aParser.nextName ()))
+              a.setEndpointID (_endpointID ());
+            else
+              m_aParser.skipValue ();
+          m_aParser.endObject ();
+          ret.setReportingParty (a);
+          break;
+        }
+        case "ReceivingParty":
+        {
+          final ReceivingParty a = new ReceivingParty ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            if ("EndpointID".equals (m_aParser.nextName ()))
+              a.setEndpointID (_endpointID ());
+            else
+              m_aParser.skipValue ();
+          m_aParser.endObject ();
+          ret.setReceivingParty (a);
+          break;
+        }
+        case "ReportersRepresentative":
+        {
+          final ReportersRepresentative a = new ReportersRepresentative ();
+          m_aParser.beginObject ();
+          while (m_aParser.hasNext ())
+            if ("PartyIdentification".equals (m_aParser.nextName ()))
+            {
+              final PartyIdentification aPI = new PartyIdentification ();
+              aPI.setID (_idOnly ());
+              a.setPartyIdentification (aPI);
+            }
+            else
+              m_aParser.skipValue ();
+          m_aParser.endObject ();
+          ret.setReportersRepresentative (a);
+          break;
+        }
+        case "ReportedTransaction":
+          m_aParser.beginArray ();
+          while (m_aParser.hasNext ())
+          {
+            final ReportedTransaction aRT = new ReportedTransaction ();
+            m_aParser.beginObject ();
+            while (m_aParser.hasNext ())
+              if ("ReportedDocument".equals (m_aParser.nextName ()))
+                aRT.setReportedDocument (_reportedDocument ());
+              else
+                m_aParser.skipValue ();
+            m_aParser.endObject ();
+            aRTs.add (aRT);
+          }
+          m_aParser.endArray ();
+          break;
+        default:
+          m_aParser.skipValue ();
+      }
+    m_aParser.endObject ();
+    m_aParser.endDocument ();
+    return ret;
+  }
+
+  /**
+   * Read a TDD from the provided JSON reader. The reader is not closed.
+   *
+   * @param aReader
+   *        The reader to read from. May not be <code>null</code>.
+   * @return The read TDD. Never <code>null</code>.
+   * @throws IOException
+   *         In case reading fails
+   * @throws IllegalArgumentException
+   *         If the content is not a valid JSON TDD
+   */
+  @NonNull
+  public TaxDataType read (@NonNull final Reader aReader) throws IOException
+  {
+    ValueEnforcer.notNull (aReader, "Reader");
+
+    m_aParser = new JsonParser (aReader);
+    try
+    {
+      return _tdd ();
+    }
+    catch (final JsonParser.JsonParseException | DateTimeException ex)
+    {
+      throw new IllegalArgumentException ("Malformed JSON TDD: " + ex.getMessage (), ex);
+    }
+    finally
+    {
+      m_aParser = null;
+      m_aAmountValue = null;
+      m_sAmountAttr = null;
+    }
+  }
+
+  /**
+   * Read a TDD from the provided UTF-8 encoded JSON stream. The stream is not closed.
+   *
+   * @param aIS
+   *        The stream to read from. May not be <code>null</code>.
+   * @return The read TDD. Never <code>null</code>.
+   * @throws IOException
+   *         In case reading fails
+   * @throws IllegalArgumentException
+   *         If the content is not a valid JSON TDD
+   */
+  @NonNull
+  public TaxDataType read (@NonNull final InputStream aIS) throws IOException
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    return read (new InputStreamReader (aIS, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Read a TDD from the provided JSON string.
+   *
+   * @param sJson
+   *        The JSON string. May not be <code>null</code>.
+   * @return The read TDD. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the content is not a valid JSON TDD
+   */
+  @NonNull
+  public TaxDataType read (@NonNull final String sJson)
+  {
+    ValueEnforcer.notNull (sJson, "Json");
+    try
+    {
+      return read (new StringReader (sJson));
+    }
+    catch (final IOException ex)
+    {
+      // Cannot happen for a StringReader
+      throw new UncheckedIOException (ex);
+    }
+  }
+}
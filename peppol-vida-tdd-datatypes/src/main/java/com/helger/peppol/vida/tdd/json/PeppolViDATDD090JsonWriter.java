@@ -0,0 +1,699 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.datetime.xml.XMLOffsetTime;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDAnyTypeHelper;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.MonetaryTotal;
+import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
+import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
+import com.helger.peppol.vida.tdd.v090.cac.CardAccount;
+import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.CommodityClassification;
+import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
+import com.helger.peppol.vida.tdd.v090.cac.InvoicePeriod;
+import com.helger.peppol.vida.tdd.v090.cac.Item;
+import com.helger.peppol.vida.tdd.v090.cac.Party;
+import com.helger.peppol.vida.tdd.v090.cac.PartyTaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans;
+import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans.PayeeFinancialAccount;
+import com.helger.peppol.vida.tdd.v090.cac.PostalAddress;
+import com.helger.peppol.vida.tdd.v090.cac.TaxRepresentativeParty;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
+import com.helger.peppol.vida.tdd.v090.cbc.EndpointID;
+import com.helger.peppol.vida.tdd.v090.cbc.IdentifierType;
+
+/**
+ * Streaming JSON writer for Peppol ViDA pilot TDD 0.9.0 documents. The JSON is emitted directly
+ * from the JAXB objects without an intermediate DOM or JSON tree.
+ * <p>
+ * Mapping rules (stable across versions of this library):
+ * <ul>
+ * <li>The top-level JSON object is the content of the <code>TaxData</code> element.</li>
+ * <li>Property names are the local XSD element names (e.g. <code>ReportedDocument</code>,
+ * <code>PayableAmount</code>).</li>
+ * <li>Elements that may occur more than once are always JSON arrays.</li>
+ * <li>Absent elements are omitted; empty lists are omitted.</li>
+ * <li>Elements with attributes are objects with a <code>value</code> property plus one property
+ * per attribute, using the XSD attribute name (e.g. <code>currencyID</code>,
+ * <code>schemeID</code>).</li>
+ * <li>Decimals are JSON numbers that keep the original scale.</li>
+ * <li>Dates and times are strings in XSD lexical form, including an optional offset.</li>
+ * <li>Untyped elements are strings containing the serialized XML.</li>
+ * </ul>
+ * Instances are meant to be reused for many documents.
+ *
+ * @author Philip Helger
+ * @see PeppolViDATDD090JsonReader
+ */
+@NotThreadSafe
+public class PeppolViDATDD090JsonWriter
+{
+  private JsonGenerator m_aGen;
+
+  public PeppolViDATDD090JsonWriter ()
+  {}
+
+  @NonNull
+  static String getOffsetSuffix (@Nullable final ZoneOffset aOffset)
+  {
+    // "Z" or "+01:00"
+    return aOffset == null ? "" : aOffset.getId ();
+  }
+
+  @NonNull
+  static String getDateString (@NonNull final XMLOffsetDate a)
+  {
+    return a.toLocalDate ().toString () + getOffsetSuffix (a.getOffset ());
+  }
+
+  @NonNull
+  static String getTimeString (@NonNull final XMLOffsetTime a)
+  {
+    // Always contains the seconds
+    return DateTimeFormatter.ISO_LOCAL_TIME.format (a.toLocalTime ()) + getOffsetSuffix (a.getOffset ());
+  }
+
+  private void _string (@NonNull final String sName, @Nullable final String s) throws IOException
+  {
+    if (s != null)
+    {
+      m_aGen.name (sName);
+      m_aGen.value (s);
+    }
+  }
+
+  private void _decimal (@NonNull final String sName, @Nullable final BigDecimal a) throws IOException
+  {
+    if (a != null)
+    {
+      m_aGen.name (sName);
+      m_aGen.value (a);
+    }
+  }
+
+  private void _bool (@NonNull final String sName, final boolean b) throws IOException
+  {
+    m_aGen.name (sName);
+    m_aGen.value (b);
+  }
+
+  private void _date (@NonNull final String sName, @Nullable final XMLOffsetDate a) throws IOException
+  {
+    if (a != null)
+      _string (sName, getDateString (a));
+  }
+
+  private void _time (@NonNull final String sName, @Nullable final XMLOffsetTime a) throws IOException
+  {
+    if (a != null)
+      _string (sName, getTimeString (a));
+  }
+
+  private void _any (@NonNull final String sName, @Nullable final Object a) throws IOException
+  {
+    _string (sName, PeppolViDATDDAnyTypeHelper.getAsXMLString (a));
+  }
+
+  private void _begin (@NonNull final String sName) throws IOException
+  {
+    m_aGen.name (sName);
+    m_aGen.beginObject ();
+  }
+
+  private void _end () throws IOException
+  {
+    m_aGen.endObject ();
+  }
+
+  private boolean _beginArray (@NonNull final String sName, @NonNull final List <?> aList) throws IOException
+  {
+    if (aList.isEmpty ())
+      return false;
+    m_aGen.name (sName);
+    m_aGen.beginArray ();
+    return true;
+  }
+
+  /**
+   * Simple content with one attribute
+   */
+  private void _valueWithAttr (@NonNull final String sName,
+                               @Nullable final String sValue,
+                               @NonNull final String sAttrName,
+                               @Nullable final String sAttrValue) throws IOException
+  {
+    _begin (sName);
+    _string ("value", sValue);
+    _string (sAttrName, sAttrValue);
+    _end ();
+  }
+
+  private void _amount (@NonNull final String sName,
+                        @Nullable final BigDecimal aValue,
+                        @NonNull final String sAttrName,
+                        @Nullable final String sAttrValue) throws IOException
+  {
+    _begin (sName);
+    _decimal ("value", aValue);
+    _string (sAttrName, sAttrValue);
+    _end ();
+  }
+
+  private void _id (@NonNull final String sName, @Nullable final IdentifierType a) throws IOException
+  {
+    if (a != null)
+      _valueWithAttr (sName, a.getValue (), "schemeID", a.getSchemeID ());
+  }
+
+  private void _endpointID (@Nullable final EndpointID a) throws IOException
+  {
+    if (a != null)
+      _valueWithAttr ("EndpointID", a.getValue (), "schemeID", a.getSchemeID ());
+  }
+
+  private void _taxScheme (@Nullable final TaxScheme a) throws IOException
+  {
+    if (a != null)
+    {
+      _begin ("TaxScheme");
+      _id ("ID", a.getID ());
+      _end ();
+    }
+  }
+
+  private void _postalAddresses (@NonNull final List <PostalAddress> aList) throws IOException
+  {
+    if (_beginArray ("PostalAddress", aList))
+    {
+      for (final PostalAddress a : aList)
+      {
+        m_aGen.beginObject ();
+        if (a.getCountry () != null)
+        {
+          _begin ("Country");
+          _string ("IdentificationCode", a.getCountry ().getIdentificationCode ());
+          _end ();
+        }
+        m_aGen.endObject ();
+      }
+      m_aGen.endArray ();
+    }
+  }
+
+  private void _partyTaxScheme (@Nullable final PartyTaxScheme a) throws IOException
+  {
+    if (a != null)
+    {
+      _begin ("PartyTaxScheme");
+      _string ("CompanyID", a.getCompanyID ());
+      _taxScheme (a.getTaxScheme ());
+      _end ();
+    }
+  }
+
+  private void _party (@Nullable final Party a) throws IOException
+  {
+    if (a != null)
+    {
+      _begin ("Party");
+      _postalAddresses (a.getPostalAddress ());
+      _partyTaxScheme (a.getPartyTaxScheme ());
+      _end ();
+    }
+  }
+
+  private void _invoicePeriod (@Nullable final InvoicePeriod a) throws IOException
+  {
+    if (a != null)
+    {
+      _begin ("InvoicePeriod");
+      _date ("StartDate", a.getStartDate ());
+      _date ("EndDate", a.getEndDate ());
+      _string ("DescriptionCode", a.getDescriptionCode ());
+      _end ();
+    }
+  }
+
+  private void _billingReferences (@NonNull final List <BillingReference> aList) throws IOException
+  {
+    if (_beginArray ("BillingReference", aList))
+    {
+      for (final BillingReference a : aList)
+      {
+        m_aGen.beginObject ();
+        final InvoiceDocumentReference aIDR = a.getInvoiceDocumentReference ();
+        if (aIDR != null)
+        {
+          _begin ("InvoiceDocumentReference");
+          _id ("ID", aIDR.getID ());
+          _date ("IssueDate", aIDR.getIssueDate ());
+          _end ();
+        }
+        m_aGen.endObject ();
+      }
+      m_aGen.endArray ();
+    }
+  }
+
+  private void _paymentMeans (@NonNull final List <PaymentMeans> aList) throws IOException
+  {
+    if (_beginArray ("PaymentMeans", aList))
+    {
+      for (final PaymentMeans a : aList)
+      {
+        m_aGen.beginObject ();
+        if (a.getPaymentMeansCode () != null)
+          _valueWithAttr ("PaymentMeansCode",
+                          a.getPaymentMeansCode ().getValue (),
+                          "name",
+                          a.getPaymentMeansCode ().getName ());
+        _string ("PaymentID", a.getPaymentID ());
+        final CardAccount aCA = a.getCardAccount ();
+        if (aCA != null)
+        {
+          _begin ("CardAccount");
+          _string ("PrimaryAccountNumberID", aCA.getPrimaryAccountNumberID ());
+          _string ("NetworkID", aCA.getNetworkID ());
+          _string ("HolderName", aCA.getHolderName ());
+          _end ();
+        }
+        final PayeeFinancialAccount aPFA = a.getPayeeFinancialAccount ();
+        if (aPFA != null)
+        {
+          _begin ("PayeeFinancialAccount");
+          _id ("ID", aPFA.getID ());
+          if (aPFA.getFinancialInstitutionBranch () != null)
+          {
+            _begin ("FinancialInstitutionBranch");
+            _id ("ID", aPFA.getFinancialInstitutionBranch ().getID ());
+            _end ();
+          }
+          _end ();
+        }
+        _any ("PaymentMandate", a.getPaymentMandate ());
+        m_aGen.endObject ();
+      }
+      m_aGen.endArray ();
+    }
+  }
+
+  private void _allowanceCharges (@NonNull final List <AllowanceCharge> aList) throws IOException
+  {
+    if (_beginArray ("AllowanceCharge", aList))
+    {
+      for (final AllowanceCharge a : aList)
+      {
+        m_aGen.beginObject ();
+        _bool ("ChargeIndicator", a.isChargeIndicator ());
+        _string ("AllowanceChargeReasonCode", a.getAllowanceChargeReasonCode ());
+        _string ("AllowanceChargeReason", a.getAllowanceChargeReason ());
+        _decimal ("MultiplierFactorNumeric", a.getMultiplierFactorNumeric ());
+        if (a.getAmount () != null)
+          _amount ("Amount", a.getAmount ().getValue (), "currencyID", a.getAmount ().getCurrencyID ());
+        if (a.getBaseAmount () != null)
+          _amount ("BaseAmount", a.getBaseAmount ().getValue (), "currencyID", a.getBaseAmount ().getCurrencyID ());
+        _any ("TaxCategory", a.getTaxCategory ());
+        m_aGen.endObject ();
+      }
+      m_aGen.endArray ();
+    }
+  }
+
+  private void _taxTotals (@NonNull final List <TaxTotal> aList) throws IOException
+  {
+    if (_beginArray ("TaxTotal", aList))
+    {
+      for (final TaxTotal a : aList)
+      {
+        m_aGen.beginObject ();
+        if (a.getTaxAmount () != null)
+          _amount ("TaxAmount", a.getTaxAmount ().getValue (), "currencyID", a.getTaxAmount ().getCurrencyID ());
+        if (_beginArray ("TaxSubtotal", a.getTaxSubtotal ()))
+        {
+          for (final TaxSubtotal aTS : a.getTaxSubtotal ())
+          {
+            m_aGen.beginObject ();
+            if (aTS.getTaxableAmount () != null)
+              _amount ("TaxableAmount",
+                       aTS.getTaxableAmount ().getValue (),
+                       "currencyID",
+                       aTS.getTaxableAmount ().getCurrencyID ());
+            if (aTS.getTaxAmount () != null)
+              _amount ("TaxAmount", aTS.getTaxAmount ().getValue (), "currencyID", aTS.getTaxAmount ().getCurrencyID ());
+            final TaxSubtotal.TaxCategory aTC = aTS.getTaxCategory ();
+            if (aTC != null)
+            {
+              _begin ("TaxCategory");
+              _id ("ID", aTC.getID ());
+              _decimal ("Percent", aTC.getPercent ());
+              _string ("TaxExemptionReasonCode", aTC.getTaxExemptionReasonCode ());
+              _string ("TaxExemptionReason", aTC.getTaxExemptionReason ());
+              _taxScheme (aTC.getTaxScheme ());
+              _end ();
+            }
+            m_aGen.endObject ();
+          }
+          m_aGen.endArray ();
+        }
+        m_aGen.endObject ();
+      }
+      m_aGen.endArray ();
+    }
+  }
+
+  private void _monetaryTotal (@Nullable final MonetaryTotal a) throws IOException
+  {
+    if (a != null)
+    {
+      _begin ("MonetaryTotal");
+      if (a.getLineExtensionAmount () != null)
+        _amount ("LineExtensionAmount",
+                 a.getLineExtensionAmount ().getValue (),
+                 "currencyID",
+                 a.getLineExtensionAmount ().getCurrencyID ());
+      if (a.getTaxExclusiveAmount () != null)
+        _amount ("TaxExclusiveAmount",
+                 a.getTaxExclusiveAmount ().getValue (),
+                 "currencyID",
+                 a.getTaxExclusiveAmount ().getCurrencyID ());
+      if (a.getTaxInclusiveAmount () != null)
+        _amount ("TaxInclusiveAmount",
+                 a.getTaxInclusiveAmount ().getValue (),
+                 "currencyID",
+                 a.getTaxInclusiveAmount ().getCurrencyID ());
+      if (a.getAllowanceTotalAmount () != null)
+        _amount ("AllowanceTotalAmount",
+                 a.getAllowanceTotalAmount ().getValue (),
+                 "currencyID",
+                 a.getAllowanceTotalAmount ().getCurrencyID ());
+      if (a.getChargeTotalAmount () != null)
+        _amount ("ChargeTotalAmount",
+                 a.getChargeTotalAmount ().getValue (),
+                 "currencyID",
+                 a.getChargeTotalAmount ().getCurrencyID ());
+      if (a.getPrepaidAmount () != null)
+        _amount ("PrepaidAmount", a.getPrepaidAmount ().getValue (), "currencyID", a.getPrepaidAmount ().getCurrencyID ());
+      if (a.getPayableRoundingAmount () != null)
+        _amount ("PayableRoundingAmount",
+                 a.getPayableRoundingAmount ().getValue (),
+                 "currencyID",
+                 a.getPayableRoundingAmount ().getCurrencyID ());
+      if (a.getPayableAmount () != null)
+        _amount ("PayableAmount", a.getPayableAmount ().getValue (), "currencyID", a.getPayableAmount ().getCurrencyID ());
+      _end ();
+    }
+  }
+
+  private void _item (@Nullable final Item a) throws IOException
+  {
+    if (a != null)
+    {
+      _begin ("Item");
+      _string ("Description", a.getDescription ());
+      _string ("Name", a.getName ());
+      if (_beginArray ("CommodityClassification", a.getCommodityClassification ()))
+      {
+        for (final CommodityClassification aCC : a.getCommodityClassification ())
+        {
+          m_aGen.beginObject ();
+          if (aCC.getItemClassificationCode () != null)
+          {
+            _begin ("ItemClassificationCode");
+            _string ("value", aCC.getItemClassificationCode ().getValue ());
+            _string ("listID", aCC.getItemClassificationCode ().getListID ());
+            _string ("listVersionID", aCC.getItemClassificationCode ().getListVersionID ());
+            _end ();
+          }
+          m_aGen.endObject ();
+        }
+        m_aGen.endArray ();
+      }
+      final ClassifiedTaxCategory aCTC = a.getClassifiedTaxCategory ();
+      if (aCTC != null)
+      {
+        _begin ("ClassifiedTaxCategory");
+        _id ("ID", aCTC.getID ());
+        _decimal ("Percent", aCTC.getPercent ());
+        _taxScheme (aCTC.getTaxScheme ());
+        _end ();
+      }
+      _end ();
+    }
+  }
+
+  private void _documentLine (@NonNull final DocumentLine a) throws IOException
+  {
+    m_aGen.beginObject ();
+    _id ("ID", a.getID ());
+    _string ("Note", a.getNote ());
+    if (a.getInvoicedQuantity () != null)
+      _amount ("InvoicedQuantity",
+               a.getInvoicedQuantity ().getValue (),
+               "unitCode",
+               a.getInvoicedQuantity ().getUnitCode ());
+    if (a.getLineExtensionAmount () != null)
+      _amount ("LineExtensionAmount",
+               a.getLineExtensionAmount ().getValue (),
+               "currencyID",
+               a.getLineExtensionAmount ().getCurrencyID ());
+    _invoicePeriod (a.getInvoicePeriod ());
+    _allowanceCharges (a.getAllowanceCharge ());
+    _item (a.getItem ());
+    if (a.getPrice () != null)
+    {
+      _begin ("Price");
+      if (a.getPrice ().getPriceAmount () != null)
+        _amount ("PriceAmount",
+                 a.getPrice ().getPriceAmount ().getValue (),
+                 "currencyID",
+                 a.getPrice ().getPriceAmount ().getCurrencyID ());
+      _end ();
+    }
+    m_aGen.endObject ();
+  }
+
+  private void _reportedDocument (@NonNull final ReportedDocument a) throws IOException
+  {
+    _begin ("ReportedDocument");
+    _string ("CustomizationID", a.getCustomizationID ());
+    _string ("ProfileID", a.getProfileID ());
+    _id ("ID", a.getID ());
+    _string ("UUID", a.getUUID ());
+    _date ("IssueDate", a.getIssueDate ());
+    _time ("IssueTime", a.getIssueTime ());
+    _string ("DocumentTypeCode", a.getDocumentTypeCode ());
+    _string ("Note", a.getNote ());
+    _date ("TaxPointDate", a.getTaxPointDate ());
+    _string ("DocumentCurrencyCode", a.getDocumentCurrencyCode ());
+    _string ("TaxCurrencyCode", a.getTaxCurrencyCode ());
+    _invoicePeriod (a.getInvoicePeriod ());
+    _billingReferences (a.getBillingReference ());
+
+    if (a.getAccountingSupplierParty () != null)
+    {
+      _begin ("AccountingSupplierParty");
+      _party (a.getAccountingSupplierParty ().getParty ());
+      _end ();
+    }
+    if (a.getAccountingCustomerParty () != null)
+    {
+      _begin ("AccountingCustomerParty");
+      _party (a.getAccountingCustomerParty ().getParty ());
+      _end ();
+    }
+    final TaxRepresentativeParty aTRP = a.getTaxRepresentativeParty ();
+    if (aTRP != null)
+    {
+      _begin ("TaxRepresentativeParty");
+      _postalAddresses (aTRP.getPostalAddress ());
+      _partyTaxScheme (aTRP.getPartyTaxScheme ());
+      _end ();
+    }
+    if (a.getDelivery () != null)
+    {
+      _begin ("Delivery");
+      _date ("ActualDeliveryDate", a.getDelivery ().getActualDeliveryDate ());
+      _end ();
+    }
+
+    _paymentMeans (a.getPaymentMeans ());
+    _allowanceCharges (a.getAllowanceCharge ());
+    _taxTotals (a.getTaxTotal ());
+    _monetaryTotal (a.getMonetaryTotal ());
+
+    if (_beginArray ("DocumentLine", a.getDocumentLine ()))
+    {
+      for (final DocumentLine aDL : a.getDocumentLine ())
+        _documentLine (aDL);
+      m_aGen.endArray ();
+    }
+    _end ();
+  }
+
+  private void _tdd (@NonNull final TaxDataType a) throws IOException
+  {
+    m_aGen.beginObject ();
+    _string ("CustomizationID", a.getCustomizationID ());
+    _string ("ProfileID", a.getProfileID ());
+    _string ("UUID", a.getUUID ());
+    _date ("IssueDate", a.getIssueDate ());
+    _time ("IssueTime", a.getIssueTime ());
+    _string ("DocumentTypeCode", a.getDocumentTypeCode ());
+    _string ("DocumentCurrencyCode", a.getDocumentCurrencyCode ());
+    _string ("DocumentScope", a.getDocumentScope ());
+    _string ("ReporterRole", a.getReporterRole ());
+
+    if (a.getTaxAuthority () != null)
+    {
+      _begin ("TaxAuthority");
+      _id ("ID", a.getTaxAuthority ().getID ());
+      _string ("Name", a.getTaxAuthority ().getName ());
+      _end ();
+    }
+    if (a.getReportingParty () != null)
+    {
+      _begin ("ReportingParty");
+      _endpointID (a.getReportingParty ().getEndpointID ());
+      _end ();
+    }
+    if (a.getReceivingParty () != null)
+    {
+      _begin ("ReceivingParty");
+      _endpointID (a.getReceivingParty ().getEndpointID ());
+      _end ();
+    }
+    if (a.getReportersRepresentative () != null)
+    {
+      _begin ("ReportersRepresentative");
+      if (a.getReportersRepresentative ().getPartyIdentification () != null)
+      {
+        _begin ("PartyIdentification");
+        _id ("ID", a.getReportersRepresentative ().getPartyIdentification ().getID ());
+        _end ();
+      }
+      _end ();
+    }
+
+    if (_beginArray ("ReportedTransaction", a.getReportedTransaction ()))
+    {
+      for (final ReportedTransaction aRT : a.getReportedTransaction ())
+      {
+        m_aGen.beginObject ();
+        if (aRT.getReportedDocument () != null)
+          _reportedDocument (aRT.getReportedDocument ());
+        m_aGen.endObject ();
+      }
+      m_aGen.endArray ();
+    }
+    m_aGen.endObject ();
+  }
+
+  /**
+   * Write the JSON representation of the provided TDD to the provided writer. The writer is
+   * flushed but not closed.
+   *
+   * @param aTDD
+   *        The TDD to write. May not be <code>null</code>.
+   * @param aWriter
+   *        The writer to write to. May not be <code>null</code>.
+   * @throws IOException
+   *         In case writing fails
+   * @throws IllegalArgumentException
+   *         If an untyped element contains something else than a DOM node
+   */
+  public void write (@NonNull final TaxDataType aTDD, @NonNull final Writer aWriter) throws IOException
+  {
+    ValueEnforcer.notNull (aTDD, "TDD");
+    ValueEnforcer.notNull (aWriter, "Writer");
+
+    m_aGen = new JsonGenerator (aWriter);
+    try
+    {
+      _tdd (aTDD);
+      m_aGen.flush ();
+    }
+    finally
+    {
+      m_aGen = null;
+    }
+  }
+
+  /**
+   * Write the UTF-8 encoded JSON representation of the provided TDD to the provided stream. The
+   * stream is flushed but not closed.
+   *
+   * @param aTDD
+   *        The TDD to write. May not be <code>null</code>.
+   * @param aOS
+   *        The stream to write to. May not be <code>null</code>.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void write (@NonNull final TaxDataType aTDD, @NonNull final OutputStream aOS) throws IOException
+  {
+    ValueEnforcer.notNull (aOS, "OutputStream");
+    write (aTDD, new OutputStreamWriter (aOS, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Get the JSON representation of the provided TDD as a string.
+   *
+   * @param aTDD
+   *        The TDD to write. May not be <code>null</code>.
+   * @return The JSON string. Never <code>null</code>.
+   */
+  @NonNull
+  public String getAsString (@NonNull final TaxDataType aTDD)
+  {
+    final StringWriter aSW = new StringWriter (4 * 1024);
+    try
+    {
+      write (aTDD, aSW);
+    }
+    catch (final IOException ex)
+    {
+      // Cannot happen for a StringWriter
+      throw new UncheckedIOException (ex);
+    }
+    return aSW.toString ();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.metrics;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+
+/**
+ * All the metrics that are reported to {@link IPeppolViDATDDMetricsSPI} implementations. The ID is
+ * a dot separated name that can directly be used as a meter name in common metric libraries.
+ *
+ * @author Philip Helger
+ */
+public enum EPeppolViDATDDMetric implements IHasID <String>
+{
+  /** Timer: ReportedTransaction builder initFromInvoice */
+  INIT_FROM_INVOICE ("peppol.vida.tdd.init.invoice"),
+  /** Timer: ReportedTransaction builder initFromCreditNote */
+  INIT_FROM_CREDIT_NOTE ("peppol.vida.tdd.init.creditnote"),
+  /** Timer: TDD builder build */
+  BUILD_TDD ("peppol.vida.tdd.build.tdd"),
+  /** Timer: ReportedTransaction builder build */
+  BUILD_REPORTED_TRANSACTION ("peppol.vida.tdd.build.reportedtransaction"),
+  /** Timer: DocumentLine builder build */
+  BUILD_DOCUMENT_LINE ("peppol.vida.tdd.build.documentline"),
+  /** Timer: Item builder build */
+  BUILD_ITEM ("peppol.vida.tdd.build.item"),
+  /** Timer: AllowanceCharge builder build */
+  BUILD_ALLOWANCE_CHARGE ("peppol.vida.tdd.build.allowancecharge"),
+  /** Timer: BillingReference builder build */
+  BUILD_BILLING_REFERENCE ("peppol.vida.tdd.build.billingreference"),
+  /** Timer: PaymentMeans builder build */
+  BUILD_PAYMENT_MEANS ("peppol.vida.tdd.build.paymentmeans"),
+  /** Timer: TaxTotal builder build */
+  BUILD_TAX_TOTAL ("peppol.vida.tdd.build.taxtotal"),
+  /** Timer: TaxSubtotal builder build */
+  BUILD_TAX_SUBTOTAL ("peppol.vida.tdd.build.taxsubtotal"),
+  /** Timer: TaxCategory builder build */
+  BUILD_TAX_CATEGORY ("peppol.vida.tdd.build.taxcategory"),
+  /** Timer: ClassifiedTaxCategory builder build */
+  BUILD_CLASSIFIED_TAX_CATEGORY ("peppol.vida.tdd.build.classifiedtaxcategory"),
+  /** Timer: CommodityClassification builder build */
+  BUILD_COMMODITY_CLASSIFICATION ("peppol.vida.tdd.build.commodityclassification"),
+  /** Timer: creation of a random or name based UUID */
+  UUID_GENERATION ("peppol.vida.tdd.uuid"),
+  /** Timer: reading a TDD from a buffer */
+  MARSHAL_READ ("peppol.vida.tdd.marshal.read"),
+  /** Counter: number of bytes read from a buffer */
+  MARSHAL_READ_BYTES ("peppol.vida.tdd.marshal.read.bytes"),
+  /** Timer: writing a TDD to a buffer */
+  MARSHAL_WRITE ("peppol.vida.tdd.marshal.write"),
+  /** Counter: number of bytes written to a buffer */
+  MARSHAL_WRITE_BYTES ("peppol.vida.tdd.marshal.write.bytes"),
+  /** Timer: XSD validation */
+  XSD_VALIDATION ("peppol.vida.tdd.validate.xsd"),
+  /** Timer: Schematron validation */
+  SCHEMATRON_VALIDATION ("peppol.vida.tdd.validate.schematron");
+
+  private final String m_sID;
+
+  EPeppolViDATDDMetric (@NonNull @Nonempty final String sID)
+  {
+    m_sID = sID;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  @Nullable
+  public static EPeppolViDATDDMetric getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (EPeppolViDATDDMetric.class, sID);
+  }
+}
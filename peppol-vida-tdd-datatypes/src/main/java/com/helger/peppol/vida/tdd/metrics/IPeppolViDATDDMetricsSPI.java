@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.metrics;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.style.IsSPIInterface;
+
+/**
+ * SPI interface to receive timings and counters from the TDD builders, the marshaller and the
+ * validators. Implementations are found via {@link java.util.ServiceLoader} once, when
+ * {@link PeppolViDATDDMetrics} is initialized, and can bridge to any metrics backend. The methods
+ * are called from the hot paths of many threads in parallel, so implementations must be thread-safe
+ * and should return quickly.
+ *
+ * @author Philip Helger
+ */
+@IsSPIInterface
+public interface IPeppolViDATDDMetricsSPI
+{
+  /**
+   * Record a single timing.
+   *
+   * @param eMetric
+   *        The metric that was measured. Never <code>null</code>.
+   * @param nDurationNanos
+   *        The duration in nano seconds. Always &ge; 0.
+   */
+  void recordDuration (@NonNull EPeppolViDATDDMetric eMetric, @Nonnegative long nDurationNanos);
+
+  /**
+   * Increment a counter.
+   *
+   * @param eMetric
+   *        The metric to increment. Never <code>null</code>.
+   * @param nDelta
+   *        The amount to add. Always &ge; 0.
+   */
+  void recordCount (@NonNull EPeppolViDATDDMetric eMetric, @Nonnegative long nDelta);
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.metrics;
+
+import java.util.ServiceLoader;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Static entry point for recording metrics. All {@link IPeppolViDATDDMetricsSPI} implementations
+ * are loaded once when this class is initialized. If no implementation is registered, all methods
+ * are no-ops that are folded away by the JIT, as the enabled flag is a static final constant.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+ * ...
+ * PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.XSD_VALIDATION, nStartNanos);
+ * </pre>
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDDMetrics
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDDMetrics.class);
+
+  private static final IPeppolViDATDDMetricsSPI [] SPIS;
+  private static final boolean ENABLED;
+
+  static
+  {
+    final ICommonsList <IPeppolViDATDDMetricsSPI> aSPIs = new CommonsArrayList <> ();
+    for (final IPeppolViDATDDMetricsSPI aSPI : ServiceLoader.load (IPeppolViDATDDMetricsSPI.class,
+                                                                    PeppolViDATDDMetrics.class.getClassLoader ()))
+      aSPIs.add (aSPI);
+    SPIS = aSPIs.toArray (new IPeppolViDATDDMetricsSPI [0]);
+    ENABLED = SPIS.length > 0;
+    if (ENABLED)
+      LOGGER.info ("Recording Peppol ViDA TDD metrics to " + SPIS.length + " SPI implementation(s)");
+  }
+
+  private PeppolViDATDDMetrics ()
+  {}
+
+  /**
+   * @return <code>true</code> if at least one {@link IPeppolViDATDDMetricsSPI} implementation is
+   *         registered.
+   */
+  public static boolean isEnabled ()
+  {
+    return ENABLED;
+  }
+
+  /**
+   * @return The current nano time if metrics are enabled, 0 otherwise. Pass the result to
+   *         {@link #stopTimer(EPeppolViDATDDMetric, long)}.
+   */
+  public static long startTimer ()
+  {
+    return ENABLED ? System.nanoTime () : 0L;
+  }
+
+  /**
+   * Record the time elapsed since the provided start time. Does nothing if metrics are disabled.
+   *
+   * @param eMetric
+   *        The metric to record. May not be <code>null</code>.
+   * @param nStartNanos
+   *        The result of {@link #startTimer()}.
+   */
+  public static void stopTimer (@NonNull final EPeppolViDATDDMetric eMetric, final long nStartNanos)
+  {
+    if (ENABLED)
+    {
+      final long nDuration = Math.max (0L, System.nanoTime () - nStartNanos);
+      for (final IPeppolViDATDDMetricsSPI aSPI : SPIS)
+        aSPI.recordDuration (eMetric, nDuration);
+    }
+  }
+
+  /**
+   * Increment a counter. Does nothing if metrics are disabled or the delta is not positive.
+   *
+   * @param eMetric
+   *        The metric to increment. May not be <code>null</code>.
+   * @param nDelta
+   *        The amount to add.
+   */
+  public static void count (@NonNull final EPeppolViDATDDMetric eMetric, @Nonnegative final long nDelta)
+  {
+    if (ENABLED && nDelta > 0)
+      for (final IPeppolViDATDDMetricsSPI aSPI : SPIS)
+        aSPI.recordCount (eMetric, nDelta);
+  }
+}
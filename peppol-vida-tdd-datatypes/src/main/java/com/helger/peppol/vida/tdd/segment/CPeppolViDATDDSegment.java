@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.segment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.PresentForCodeCoverage;
+
+/**
+ * Contains all the constants of the TDD segment file format. A segment file has the following
+ * layout (all numbers in big endian):
+ * <ol>
+ * <li>File header: magic (int), format version (byte), 3 reserved bytes</li>
+ * <li>Any number of records: stored length (int), codec (byte), raw length (int), payload</li>
+ * <li>TDD UUID index: open addressing hash table with entries of UUID MSB (long), UUID LSB (long)
+ * and record offset (long)</li>
+ * <li>ReportedDocument UUID index: same layout as the TDD UUID index</li>
+ * <li>Trailer: TDD index offset (long), TDD index capacity (int), ReportedDocument index offset
+ * (long), ReportedDocument index capacity (int), record count (int), trailer magic (int)</li>
+ * </ol>
+ * Index and trailer are only present after the writer was closed. Segments without a trailer can
+ * still be scanned sequentially.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CPeppolViDATDDSegment
+{
+  /** Magic number at the start of each segment file ("PVDS") */
+  public static final int FILE_MAGIC = 0x50564453;
+  /** Magic number at the very end of each sealed segment file ("PVDI") */
+  public static final int TRAILER_MAGIC = 0x50564449;
+  /** The current format version */
+  public static final byte FORMAT_VERSION = 1;
+
+  public static final int FILE_HEADER_SIZE = 8;
+  public static final int RECORD_HEADER_SIZE = 9;
+  public static final int INDEX_ENTRY_SIZE = 24;
+  public static final int TRAILER_SIZE = 32;
+
+  /** The record payload is plain XML */
+  public static final byte CODEC_NONE = 0;
+  /** The record payload is deflate compressed XML */
+  public static final byte CODEC_DEFLATE = 1;
+
+  /** Marker for an empty index slot */
+  public static final long EMPTY_SLOT = -1;
+
+  @PresentForCodeCoverage
+  private static final CPeppolViDATDDSegment INSTANCE = new CPeppolViDATDDSegment ();
+
+  private CPeppolViDATDDSegment ()
+  {}
+
+  /**
+   * Get the 128 bit index key for the provided UUID string. Real UUIDs are used as they are, all
+   * other values are mapped to a name based UUID.
+   *
+   * @param sUUID
+   *        The UUID string. May not be <code>null</code>.
+   * @return The index key. Never <code>null</code>.
+   */
+  @NonNull
+  public static UUID getIndexKey (@NonNull final String sUUID)
+  {
+    try
+    {
+      return UUID.fromString (sUUID);
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      return UUID.nameUUIDFromBytes (sUUID.getBytes (StandardCharsets.UTF_8));
+    }
+  }
+
+  static int getStartSlot (final long nMSB, final long nLSB, final int nCapacity)
+  {
+    // Murmur3 finalizer to spread the bits
+    long h = nMSB ^ Long.rotateLeft (nLSB, 32);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h & (nCapacity - 1);
+  }
+
+  static int getIndexCapacity (final int nEntries)
+  {
+    // Load factor of at most 0.5
+    return Integer.highestOneBit (Math.max (2, nEntries * 2 - 1)) << 1;
+  }
+}
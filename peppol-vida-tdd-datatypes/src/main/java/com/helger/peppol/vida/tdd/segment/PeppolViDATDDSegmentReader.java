@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.segment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Reader for TDD segment files created by {@link PeppolViDATDDSegmentWriter}. The whole segment
+ * is memory-mapped read-only. Lookups by TDD UUID or ReportedDocument UUID are answered from the
+ * on-disk hash indices in O(1) without loading the index onto the heap. Uncompressed records are
+ * parsed in place from the mapping.
+ * <p>
+ * Segments that were not closed properly (no trailer) can still be read with
+ * {@link #forEachRecord(ObjLongConsumer)} and {@link #forEach(Consumer)}, but not looked up by
+ * UUID.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDDSegmentReader implements Closeable
+{
+  private final FileChannel m_aFC;
+  private final MappedByteBuffer m_aMap;
+  private final boolean m_bSealed;
+  private final long m_nRecordsEnd;
+  private final long m_nTDDIndexOffset;
+  private final int m_nTDDIndexCapacity;
+  private final long m_nDocIndexOffset;
+  private final int m_nDocIndexCapacity;
+  private final int m_nRecordCount;
+  private final PeppolViDATDD090Marshaller m_aMarshaller = new PeppolViDATDD090Marshaller ();
+  private Inflater m_aInflater;
+  private ByteBuffer m_aInflated;
+
+  /**
+   * Open an existing segment file.
+   *
+   * @param aPath
+   *        The path of the segment file. May not be <code>null</code>.
+   * @throws IOException
+   *         If the file cannot be opened, is not a segment file or has a corrupt trailer
+   */
+  public PeppolViDATDDSegmentReader (@NonNull final Path aPath) throws IOException
+  {
+    ValueEnforcer.notNull (aPath, "Path");
+    m_aFC = FileChannel.open (aPath, StandardOpenOption.READ);
+    try
+    {
+      final long nSize = m_aFC.size ();
+      if (nSize > PeppolViDATDDSegmentWriter.MAX_SEGMENT_SIZE)
+        throw new IOException ("The segment file '" + aPath + "' is too large to be mapped");
+      if (nSize < CPeppolViDATDDSegment.FILE_HEADER_SIZE)
+        throw new IOException ("The file '" + aPath + "' is too small to be a segment file");
+      m_aMap = m_aFC.map (FileChannel.MapMode.READ_ONLY, 0, nSize);
+      if (m_aMap.getInt (0) != CPeppolViDATDDSegment.FILE_MAGIC)
+        throw new IOException ("The file '" + aPath + "' is not a TDD segment file");
+      if (m_aMap.get (4) != CPeppolViDATDDSegment.FORMAT_VERSION)
+        throw new IOException ("The segment file '" + aPath + "' uses the unsupported format version " + m_aMap.get (4));
+
+      final int nTrailerPos = (int) nSize - CPeppolViDATDDSegment.TRAILER_SIZE;
+      m_bSealed = nTrailerPos >= CPeppolViDATDDSegment.FILE_HEADER_SIZE &&
+                  m_aMap.getInt (nTrailerPos + 28) == CPeppolViDATDDSegment.TRAILER_MAGIC;
+      if (m_bSealed)
+      {
+        m_nTDDIndexOffset = m_aMap.getLong (nTrailerPos);
+        m_nTDDIndexCapacity = m_aMap.getInt (nTrailerPos + 8);
+        m_nDocIndexOffset = m_aMap.getLong (nTrailerPos + 12);
+        m_nDocIndexCapacity = m_aMap.getInt (nTrailerPos + 20);
+        m_nRecordCount = m_aMap.getInt (nTrailerPos + 24);
+        m_nRecordsEnd = m_nTDDIndexOffset;
+
+        // The indices must be located between the records and the trailer
+        if (!_isValidCapacity (m_nTDDIndexCapacity) ||
+            !_isValidCapacity (m_nDocIndexCapacity) ||
+            m_nRecordCount < 0 ||
+            m_nTDDIndexOffset < CPeppolViDATDDSegment.FILE_HEADER_SIZE ||
+            m_nTDDIndexOffset + (long) m_nTDDIndexCapacity * CPeppolViDATDDSegment.INDEX_ENTRY_SIZE != m_nDocIndexOffset ||
+            m_nDocIndexOffset + (long) m_nDocIndexCapacity * CPeppolViDATDDSegment.INDEX_ENTRY_SIZE != nTrailerPos)
+          throw new IOException ("The segment file '" + aPath + "' has a corrupt trailer");
+      }
+      else
+      {
+        m_nTDDIndexOffset = -1;
+        m_nTDDIndexCapacity = 0;
+        m_nDocIndexOffset = -1;
+        m_nDocIndexCapacity = 0;
+        m_nRecordCount = -1;
+        m_nRecordsEnd = nSize;
+      }
+    }
+    catch (final IOException | RuntimeException ex)
+    {
+      m_aFC.close ();
+      throw ex;
+    }
+  }
+
+  private static boolean _isValidCapacity (final int nCapacity)
+  {
+    // Always a power of 2
+    return nCapacity > 0 && (nCapacity & (nCapacity - 1)) == 0;
+  }
+
+  /**
+   * @return <code>true</code> if the segment was properly closed and contains the UUID indices.
+   */
+  public boolean isSealed ()
+  {
+    return m_bSealed;
+  }
+
+  /**
+   * @return The number of records in the segment or -1 if the segment is not sealed.
+   */
+  public int getRecordCount ()
+  {
+    return m_nRecordCount;
+  }
+
+  private long _lookup (final long nIndexOffset, final int nCapacity, @NonNull final String sUUID)
+  {
+    if (!m_bSealed)
+      throw new IllegalStateException ("The segment is not sealed and has no index");
+    if (nCapacity == 0)
+      return -1;
+
+    final UUID aKey = CPeppolViDATDDSegment.getIndexKey (sUUID);
+    final long nMSB = aKey.getMostSignificantBits ();
+    final long nLSB = aKey.getLeastSignificantBits ();
+    int nSlot = CPeppolViDATDDSegment.getStartSlot (nMSB, nLSB, nCapacity);
+    // The load factor is at most 0.5 so there is always an empty slot
+    while (true)
+    {
+      final int nPos = (int) (nIndexOffset + (long) nSlot * CPeppolViDATDDSegment.INDEX_ENTRY_SIZE);
+      final long nOffset = m_aMap.getLong (nPos + 16);
+      if (nOffset == CPeppolViDATDDSegment.EMPTY_SLOT)
+        return -1;
+      if (m_aMap.getLong (nPos) == nMSB && m_aMap.getLong (nPos + 8) == nLSB)
+        return nOffset;
+      nSlot = (nSlot + 1) & (nCapacity - 1);
+    }
+  }
+
+  /**
+   * Find the record offset of the TDD with the provided UUID.
+   *
+   * @param sTDDUUID
+   *        The TDD UUID to search. May not be <code>null</code>.
+   * @return The record offset or -1 if not found.
+   * @throws IllegalStateException
+   *         If the segment is not sealed
+   */
+  public long findOffsetByTDDUUID (@NonNull final String sTDDUUID)
+  {
+    ValueEnforcer.notNull (sTDDUUID, "TDDUUID");
+    return _lookup (m_nTDDIndexOffset, m_nTDDIndexCapacity, sTDDUUID);
+  }
+
+  /**
+   * Find the record offset of the TDD containing the ReportedDocument with the provided UUID.
+   *
+   * @param sDocUUID
+   *        The ReportedDocument UUID to search. May not be <code>null</code>.
+   * @return The record offset or -1 if not found.
+   * @throws IllegalStateException
+   *         If the segment is not sealed
+   */
+  public long findOffsetByReportedDocumentUUID (@NonNull final String sDocUUID)
+  {
+    ValueEnforcer.notNull (sDocUUID, "DocUUID");
+    return _lookup (m_nDocIndexOffset, m_nDocIndexCapacity, sDocUUID);
+  }
+
+  @NonNull
+  private ByteBuffer _inflate (@NonNull final ByteBuffer aSrc, final int nRawLength) throws IOException
+  {
+    if (m_aInflater == null)
+      m_aInflater = new Inflater ();
+    if (m_aInflated == null || m_aInflated.capacity () < nRawLength)
+      m_aInflated = ByteBuffer.allocateDirect (Math.max (nRawLength, 16 * 1024));
+
+    m_aInflater.reset ();
+    m_aInflater.setInput (aSrc);
+    m_aInflated.clear ().limit (nRawLength);
+    try
+    {
+      while (m_aInflated.hasRemaining () && !m_aInflater.finished ())
+        if (m_aInflater.inflate (m_aInflated) == 0 && m_aInflater.needsInput ())
+          break;
+    }
+    catch (final DataFormatException ex)
+    {
+      throw new IOException ("Corrupt compressed record", ex);
+    }
+    if (m_aInflated.hasRemaining ())
+      throw new IOException ("Compressed record is shorter than the declared length of " + nRawLength + " bytes");
+    m_aInflated.flip ();
+    return m_aInflated;
+  }
+
+  /**
+   * Get the raw XML of the record at the provided offset. For uncompressed records the result is a
+   * read-only view on the mapping, for compressed records it is a reused buffer that is only valid
+   * until the next call.
+   *
+   * @param nOffset
+   *        The record offset as returned by the writer or the lookup methods.
+   * @return The XML bytes. Never <code>null</code>.
+   * @throws IOException
+   *         If the record is corrupt
+   */
+  @NonNull
+  public ByteBuffer getRecordXML (final long nOffset) throws IOException
+  {
+    if (nOffset < CPeppolViDATDDSegment.FILE_HEADER_SIZE ||
+        nOffset + CPeppolViDATDDSegment.RECORD_HEADER_SIZE > m_nRecordsEnd)
+      throw new IOException ("Invalid record offset " + nOffset);
+
+    final int nPos = (int) nOffset;
+    final int nStoredLength = m_aMap.getInt (nPos);
+    final byte nCodec = m_aMap.get (nPos + 4);
+    final int nRawLength = m_aMap.getInt (nPos + 5);
+    final int nPayloadPos = nPos + CPeppolViDATDDSegment.RECORD_HEADER_SIZE;
+    if (nStoredLength < 0 || nPayloadPos + (long) nStoredLength > m_nRecordsEnd)
+      throw new IOException ("Record at offset " + nOffset + " is truncated");
+
+    final ByteBuffer aPayload = m_aMap.duplicate ().limit (nPayloadPos + nStoredLength).position (nPayloadPos);
+    switch (nCodec)
+    {
+      case CPeppolViDATDDSegment.CODEC_NONE:
+        return aPayload.asReadOnlyBuffer ();
+      case CPeppolViDATDDSegment.CODEC_DEFLATE:
+        return _inflate (aPayload, nRawLength);
+      default:
+        throw new IOException ("Record at offset " + nOffset + " uses the unknown codec " + nCodec);
+    }
+  }
+
+  /**
+   * Read the TDD at the provided record offset.
+   *
+   * @param nOffset
+   *        The record offset as returned by the writer or the lookup methods.
+   * @return <code>null</code> if the XML could not be parsed.
+   * @throws IOException
+   *         If the record is corrupt
+   */
+  @Nullable
+  public TaxDataType readAt (final long nOffset) throws IOException
+  {
+    return m_aMarshaller.readFromBuffer (getRecordXML (nOffset));
+  }
+
+  /**
+   * Get the TDD with the provided UUID.
+   *
+   * @param sTDDUUID
+   *        The TDD UUID to search. May not be <code>null</code>.
+   * @return <code>null</code> if no such TDD is contained.
+   * @throws IOException
+   *         If the record is corrupt
+   */
+  @Nullable
+  public TaxDataType getByTDDUUID (@NonNull final String sTDDUUID) throws IOException
+  {
+    final long nOffset = findOffsetByTDDUUID (sTDDUUID);
+    return nOffset < 0 ? null : readAt (nOffset);
+  }
+
+  /**
+   * Get the TDD that contains the ReportedDocument with the provided UUID.
+   *
+   * @param sDocUUID
+   *        The ReportedDocument UUID to search. May not be <code>null</code>.
+   * @return <code>null</code> if no such TDD is contained.
+   * @throws IOException
+   *         If the record is corrupt
+   */
+  @Nullable
+  public TaxDataType getByReportedDocumentUUID (@NonNull final String sDocUUID) throws IOException
+  {
+    final long nOffset = findOffsetByReportedDocumentUUID (sDocUUID);
+    return nOffset < 0 ? null : readAt (nOffset);
+  }
+
+  /**
+   * Sequentially iterate all records in file order. For unsealed segments the iteration stops at
+   * the first incomplete record.
+   *
+   * @param aConsumer
+   *        Consumer that receives the raw XML and the record offset. The buffer is only valid
+   *        within the callback. May not be <code>null</code>.
+   * @throws IOException
+   *         If a record is corrupt
+   */
+  public void forEachRecord (@NonNull final ObjLongConsumer <ByteBuffer> aConsumer) throws IOException
+  {
+    ValueEnforcer.notNull (aConsumer, "Consumer");
+    long nOffset = CPeppolViDATDDSegment.FILE_HEADER_SIZE;
+    while (nOffset + CPeppolViDATDDSegment.RECORD_HEADER_SIZE <= m_nRecordsEnd)
+    {
+      final int nStoredLength = m_aMap.getInt ((int) nOffset);
+      final long nNext = nOffset + CPeppolViDATDDSegment.RECORD_HEADER_SIZE + nStoredLength;
+      if (nStoredLength < 0 || nNext > m_nRecordsEnd)
+      {
+        if (m_bSealed)
+          throw new IOException ("Record at offset " + nOffset + " is truncated");
+        // Partially written record at the end of an unsealed segment
+        break;
+      }
+      aConsumer.accept (getRecordXML (nOffset), nOffset);
+      nOffset = nNext;
+    }
+  }
+
+  /**
+   * Sequentially read all TDDs in file order.
+   *
+   * @param aConsumer
+   *        Consumer that receives each TDD. Records that cannot be parsed are passed as
+   *        <code>null</code>. May not be <code>null</code>.
+   * @throws IOException
+   *         If a record is corrupt
+   */
+  public void forEach (@NonNull final Consumer <? super TaxDataType> aConsumer) throws IOException
+  {
+    ValueEnforcer.notNull (aConsumer, "Consumer");
+    forEachRecord ( (aXML, nOffset) -> aConsumer.accept (m_aMarshaller.readFromBuffer (aXML)));
+  }
+
+  @Override
+  public void close () throws IOException
+  {
+    if (m_aInflater != null)
+      m_aInflater.end ();
+    m_aFC.close ();
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.segment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+
+/**
+ * Writer for TDD segment files. A new segment file is created, all TDDs are appended as records
+ * and upon {@link #close()} the UUID indices and the trailer are written. See
+ * {@link CPeppolViDATDDSegment} for the file layout.
+ * <p>
+ * The serialization and compression buffers are reused for all records, so appending does not
+ * allocate a byte array per document.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDDSegmentWriter implements Closeable
+{
+  /**
+   * Segments are memory-mapped as a whole by the reader and must therefore not exceed this size.
+   */
+  public static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final FileChannel m_aFC;
+  private final boolean m_bCompress;
+  private final PeppolViDATDD090Marshaller m_aMarshaller = new PeppolViDATDD090Marshaller ();
+  private final ByteBufferOutputStream m_aXML = new ByteBufferOutputStream (ByteBufferOutputStream.DEFAULT_INITIAL_CAPACITY,
+                                                                            true);
+  private final ByteBuffer m_aRecordHeader = ByteBuffer.allocate (CPeppolViDATDDSegment.RECORD_HEADER_SIZE);
+  private final Deflater m_aDeflater;
+  private ByteBuffer m_aDeflated;
+  private long m_nPosition;
+  private int m_nRecordCount = 0;
+  private boolean m_bClosed = false;
+
+  // Index entries as (MSB, LSB, offset) triples
+  private long [] m_aTDDIndex = new long [3 * 64];
+  private int m_nTDDIndexCount = 0;
+  private long [] m_aDocIndex = new long [3 * 64];
+  private int m_nDocIndexCount = 0;
+
+  /**
+   * Create a new segment file. An existing file is overwritten.
+   *
+   * @param aPath
+   *        The path of the segment file. May not be <code>null</code>.
+   * @param bCompress
+   *        <code>true</code> to deflate compress all records, <code>false</code> to store plain XML.
+   * @throws IOException
+   *         If the file cannot be created
+   */
+  public PeppolViDATDDSegmentWriter (@NonNull final Path aPath, final boolean bCompress) throws IOException
+  {
+    ValueEnforcer.notNull (aPath, "Path");
+    m_aFC = FileChannel.open (aPath,
+                              StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING,
+                              StandardOpenOption.WRITE);
+    m_bCompress = bCompress;
+    m_aDeflater = bCompress ? new Deflater (Deflater.DEFAULT_COMPRESSION) : null;
+    m_aDeflated = bCompress ? ByteBuffer.allocateDirect (ByteBufferOutputStream.DEFAULT_INITIAL_CAPACITY) : null;
+
+    final ByteBuffer aHeader = ByteBuffer.allocate (CPeppolViDATDDSegment.FILE_HEADER_SIZE);
+    aHeader.putInt (CPeppolViDATDDSegment.FILE_MAGIC).put (CPeppolViDATDDSegment.FORMAT_VERSION);
+    aHeader.put ((byte) 0).put ((byte) 0).put ((byte) 0);
+    aHeader.flip ();
+    _writeFully (aHeader);
+  }
+
+  private void _writeFully (@NonNull final ByteBuffer aBuf) throws IOException
+  {
+    while (aBuf.hasRemaining ())
+      m_nPosition += m_aFC.write (aBuf);
+  }
+
+  @NonNull
+  private static long [] _addIndexEntry (@NonNull final long [] aIndex,
+                                         final int nCount,
+                                         @NonNull final String sUUID,
+                                         final long nOffset)
+  {
+    long [] ret = aIndex;
+    if (3 * (nCount + 1) > ret.length)
+      ret = Arrays.copyOf (ret, ret.length * 2);
+    final UUID aKey = CPeppolViDATDDSegment.getIndexKey (sUUID);
+    ret[3 * nCount] = aKey.getMostSignificantBits ();
+    ret[3 * nCount + 1] = aKey.getLeastSignificantBits ();
+    ret[3 * nCount + 2] = nOffset;
+    return ret;
+  }
+
+  @NonNull
+  private ByteBuffer _deflate (@NonNull final ByteBuffer aSrc)
+  {
+    m_aDeflater.reset ();
+    m_aDeflater.setInput (aSrc);
+    m_aDeflater.finish ();
+    m_aDeflated.clear ();
+    while (!m_aDeflater.finished ())
+    {
+      if (!m_aDeflated.hasRemaining ())
+      {
+        final ByteBuffer aNew = ByteBuffer.allocateDirect (m_aDeflated.capacity () * 2);
+        m_aDeflated.flip ();
+        aNew.put (m_aDeflated);
+        m_aDeflated = aNew;
+      }
+      m_aDeflater.deflate (m_aDeflated);
+    }
+    m_aDeflated.flip ();
+    return m_aDeflated;
+  }
+
+  /**
+   * Append a single TDD to this segment. The TDD UUID and the UUIDs of all contained
+   * ReportedDocuments are added to the indices.
+   *
+   * @param aTDD
+   *        The TDD to append. May not be <code>null</code>.
+   * @return The offset of the record inside the segment file. Always &gt; 0.
+   * @throws IOException
+   *         If writing fails
+   * @throws IllegalArgumentException
+   *         If the TDD cannot be serialized
+   * @throws IllegalStateException
+   *         If the writer was already closed or the maximum segment size would be exceeded
+   */
+  public long append (@NonNull final TaxDataType aTDD) throws IOException
+  {
+    ValueEnforcer.notNull (aTDD, "TDD");
+    if (m_bClosed)
+      throw new IllegalStateException ("The segment writer was already closed");
+
+    m_aXML.reset ();
+    final int nRawLength = m_aMarshaller.writeToBuffer (aTDD, m_aXML);
+    if (nRawLength < 0)
+      throw new IllegalArgumentException ("Failed to serialize the TDD with UUID '" + aTDD.getUUID () + "'");
+
+    final ByteBuffer aRaw = m_aXML.getAsReadOnlyBuffer ();
+    final ByteBuffer aPayload = m_bCompress ? _deflate (aRaw) : aRaw;
+    final int nStoredLength = aPayload.remaining ();
+
+    final long nOffset = m_nPosition;
+    if (nOffset + CPeppolViDATDDSegment.RECORD_HEADER_SIZE + nStoredLength > MAX_SEGMENT_SIZE)
+      throw new IllegalStateException ("The segment would exceed the maximum size of " +
+                                       MAX_SEGMENT_SIZE +
+                                       " bytes - start a new segment");
+
+    m_aRecordHeader.clear ();
+    m_aRecordHeader.putInt (nStoredLength)
+                   .put (m_bCompress ? CPeppolViDATDDSegment.CODEC_DEFLATE : CPeppolViDATDDSegment.CODEC_NONE)
+                   .putInt (nRawLength);
+    m_aRecordHeader.flip ();
+    _writeFully (m_aRecordHeader);
+    _writeFully (aPayload);
+    m_nRecordCount++;
+
+    // TDDs without a UUID are stored but cannot be looked up
+    if (StringHelper.isNotEmpty (aTDD.getUUID ()))
+      m_aTDDIndex = _addIndexEntry (m_aTDDIndex, m_nTDDIndexCount++, aTDD.getUUID (), nOffset);
+    for (final ReportedTransaction aRT : aTDD.getReportedTransaction ())
+      if (aRT.getReportedDocument () != null && StringHelper.isNotEmpty (aRT.getReportedDocument ().getUUID ()))
+        m_aDocIndex = _addIndexEntry (m_aDocIndex,
+                                      m_nDocIndexCount++,
+                                      aRT.getReportedDocument ().getUUID (),
+                                      nOffset);
+    return nOffset;
+  }
+
+  /**
+   * @return The number of records appended so far.
+   */
+  public int getRecordCount ()
+  {
+    return m_nRecordCount;
+  }
+
+  /**
+   * @return The current size of the segment file in bytes.
+   */
+  public long getSize ()
+  {
+    return m_nPosition;
+  }
+
+  private int _writeIndex (@NonNull final long [] aEntries, final int nCount) throws IOException
+  {
+    final int nCapacity = CPeppolViDATDDSegment.getIndexCapacity (nCount);
+    final long [] aTable = new long [3 * nCapacity];
+    for (int i = 0; i < nCapacity; ++i)
+      aTable[3 * i + 2] = CPeppolViDATDDSegment.EMPTY_SLOT;
+
+    for (int i = 0; i < nCount; ++i)
+    {
+      final long nMSB = aEntries[3 * i];
+      final long nLSB = aEntries[3 * i + 1];
+      int nSlot = CPeppolViDATDDSegment.getStartSlot (nMSB, nLSB, nCapacity);
+      // Linear probing - the first entry of a duplicate UUID wins
+      while (aTable[3 * nSlot + 2] != CPeppolViDATDDSegment.EMPTY_SLOT &&
+             !(aTable[3 * nSlot] == nMSB && aTable[3 * nSlot + 1] == nLSB))
+        nSlot = (nSlot + 1) & (nCapacity - 1);
+      if (aTable[3 * nSlot + 2] == CPeppolViDATDDSegment.EMPTY_SLOT)
+      {
+        aTable[3 * nSlot] = nMSB;
+        aTable[3 * nSlot + 1] = nLSB;
+        aTable[3 * nSlot + 2] = aEntries[3 * i + 2];
+      }
+    }
+
+    final ByteBuffer aBuf = ByteBuffer.allocateDirect (64 * 1024);
+    for (final long n : aTable)
+    {
+      if (!aBuf.hasRemaining ())
+      {
+        aBuf.flip ();
+        _writeFully (aBuf);
+        aBuf.clear ();
+      }
+      aBuf.putLong (n);
+    }
+    aBuf.flip ();
+    _writeFully (aBuf);
+    return nCapacity;
+  }
+
+  /**
+   * Write the indices and the trailer and close the file. After closing, no more records can be
+   * appended.
+   */
+  @Override
+  public void close () throws IOException
+  {
+    if (m_bClosed)
+      return;
+    m_bClosed = true;
+    try
+    {
+      final long nTDDIndexOffset = m_nPosition;
+      final int nTDDIndexCapacity = _writeIndex (m_aTDDIndex, m_nTDDIndexCount);
+      final long nDocIndexOffset = m_nPosition;
+      final int nDocIndexCapacity = _writeIndex (m_aDocIndex, m_nDocIndexCount);
+
+      final ByteBuffer aTrailer = ByteBuffer.allocate (CPeppolViDATDDSegment.TRAILER_SIZE);
+      aTrailer.putLong (nTDDIndexOffset)
+              .putInt (nTDDIndexCapacity)
+              .putLong (nDocIndexOffset)
+              .putInt (nDocIndexCapacity)
+              .putInt (m_nRecordCount)
+              .putInt (CPeppolViDATDDSegment.TRAILER_MAGIC);
+      aTrailer.flip ();
+      _writeFully (aTrailer);
+      if (m_nPosition > MAX_SEGMENT_SIZE)
+        throw new IllegalStateException ("The segment index exceeds the maximum segment size - use fewer records per segment");
+      m_aFC.force (true);
+    }
+    finally
+    {
+      if (m_aDeflater != null)
+        m_aDeflater.end ();
+      m_aFC.close ();
+    }
+  }
+}
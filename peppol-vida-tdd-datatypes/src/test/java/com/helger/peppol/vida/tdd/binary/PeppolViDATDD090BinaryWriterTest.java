@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Test class for class {@link PeppolViDATDD090BinaryWriter} and
+ * {@link PeppolViDATDD090BinaryReader}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090BinaryWriterTest
+{
+  private static void _testRoundtrip (final ClassPathResource aRes)
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final TaxDataType aTDD = m.read (aRes);
+    assertNotNull (aRes.getPath (), aTDD);
+
+    final PeppolViDATDD090BinaryWriter aWriter = new PeppolViDATDD090BinaryWriter ();
+    final PeppolViDATDD090BinaryReader aReader = new PeppolViDATDD090BinaryReader ();
+
+    // Byte array
+    final byte [] aBytes = aWriter.getAsBytes (aTDD);
+    assertEquals (aRes.getPath (), aTDD, aReader.read (aBytes));
+
+    // Direct buffer - the writer and reader must be reusable
+    final ByteBufferOutputStream aOS = new ByteBufferOutputStream (128, true);
+    for (int i = 0; i < 3; ++i)
+    {
+      aOS.reset ();
+      assertEquals (aBytes.length, aWriter.write (aTDD, aOS));
+      final ByteBuffer aBuf = aOS.getAsReadOnlyBuffer ();
+      assertEquals (aRes.getPath (), aTDD, aReader.read (aBuf));
+      assertEquals (0, aBuf.position ());
+    }
+
+    // Must be a lot smaller than the XML
+    final ByteBufferOutputStream aXML = new ByteBufferOutputStream ();
+    final int nXMLLen = m.writeToBuffer (aTDD, aXML);
+    assertTrue (aRes.getPath () + ": " + aBytes.length + " vs. " + nXMLLen, aBytes.length < nXMLLen / 2);
+  }
+
+  @Test
+  public void testGoodFiles ()
+  {
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+      _testRoundtrip (aRes);
+  }
+
+  @Test
+  public void testSchematronBadFiles ()
+  {
+    // Not Schematron valid, but still XSD valid and must be lossless
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllSchematronBadTDD090Files ())
+      _testRoundtrip (aRes);
+  }
+
+  @Test
+  public void testEdgeCases ()
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final TaxDataType aTDD = m.read (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+    assertNotNull (aTDD);
+
+    // Huge amount, negative scale and non-ASCII text
+    aTDD.getReportedTransaction ()
+        .get (0)
+        .getReportedDocument ()
+        .getMonetaryTotal ()
+        .getPayableAmount ()
+        .setValue (new BigDecimal ("123456789012345678901234567890.123456789"));
+    aTDD.getReportedTransaction ()
+        .get (0)
+        .getReportedDocument ()
+        .getMonetaryTotal ()
+        .getLineExtensionAmount ()
+        .setValue (new BigDecimal ("1E+3"));
+    aTDD.getTaxAuthority ().setName ("Österreichisches Finanzamt € 😀");
+
+    final byte [] aBytes = new PeppolViDATDD090BinaryWriter ().getAsBytes (aTDD);
+    assertEquals (aTDD, new PeppolViDATDD090BinaryReader ().read (aBytes));
+  }
+
+  @Test
+  public void testMalformed ()
+  {
+    final PeppolViDATDD090BinaryReader aReader = new PeppolViDATDD090BinaryReader ();
+    for (final byte [] aBytes : new byte [] [] { {}, { 'X', 'Y', 1 }, { 'P', 'T', 99 }, { 'P', 'T', 1, 1, 120 } })
+      try
+      {
+        aReader.read (aBytes);
+        fail ();
+      }
+      catch (final IllegalArgumentException ex)
+      {
+        // expected
+      }
+
+    // Truncated real document
+    final TaxDataType aTDD = new PeppolViDATDD090Marshaller ().read (PeppolViDATestFiles.getAllGoodTDD090Files ()
+                                                                                         .getFirstOrNull ());
+    final byte [] aBytes = new PeppolViDATDD090BinaryWriter ().getAsBytes (aTDD);
+    try
+    {
+      aReader.read (ByteBuffer.wrap (aBytes, 0, aBytes.length / 2));
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+  }
+}
@@ -16,12 +16,24 @@
  */
 package com.helger.peppol.vida.tdd.jaxb;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.junit.Test;
 
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
 import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
 
 /**
  * Test class for class {@link PeppolViDATDD090Marshaller}.
@@ -39,4 +51,61 @@ public final class PeppolViDATDD090MarshallerTest
     for (final ClassPathResource aRes : PeppolViDATestFiles.getAllSchematronBadTDD090Files ())
       assertNotNull (m.read (aRes));
   }
+
+  @Test
+  public void testUseSchema ()
+  {
+    // All mandatory elements are missing
+    final TaxDataType aTDD = new TaxDataType ();
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    assertNull (m.getAsBytes (aTDD));
+    m.setUseSchema (false);
+    assertNotNull (m.getAsBytes (aTDD));
+  }
+
+  @Test
+  public void testMemoryMappedSegment () throws Exception
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ICommonsList <TaxDataType> aTDDs = new CommonsArrayList <> ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+      aTDDs.add (m.read (aRes));
+
+    final File aFile = File.createTempFile ("tdd-segment", ".bin");
+    aFile.deleteOnExit ();
+
+    // Write all documents concatenated, reusing one direct buffer
+    final int [] aLengths = new int [aTDDs.size ()];
+    final ByteBufferOutputStream aScratch = new ByteBufferOutputStream (1024, true);
+    try (final FileChannel aFC = FileChannel.open (aFile.toPath (), StandardOpenOption.WRITE))
+    {
+      int i = 0;
+      for (final TaxDataType aTDD : aTDDs)
+      {
+        aLengths[i] = m.writeToChannel (aTDD, aScratch, aFC);
+        assertTrue (aLengths[i] > 0);
+        i++;
+      }
+    }
+    assertTrue (aScratch.isDirect ());
+
+    // Read them back in place
+    try (final FileChannel aFC = FileChannel.open (aFile.toPath (), StandardOpenOption.READ))
+    {
+      final MappedByteBuffer aMapped = aFC.map (FileChannel.MapMode.READ_ONLY, 0, aFC.size ());
+      int nOffset = 0;
+      for (int i = 0; i < aLengths.length; ++i)
+      {
+        assertEquals (aTDDs.get (i), m.readFromBuffer (aMapped, nOffset, aLengths[i]));
+        assertTrue (PeppolViDATDDXSDValidator.tdd090 ()
+                                             .isValid (aMapped.duplicate ()
+                                                              .limit (nOffset + aLengths[i])
+                                                              .position (nOffset)));
+        nOffset += aLengths[i];
+      }
+      assertEquals (aFC.size (), nOffset);
+      // Position was never touched
+      assertEquals (0, aMapped.position ());
+    }
+  }
 }
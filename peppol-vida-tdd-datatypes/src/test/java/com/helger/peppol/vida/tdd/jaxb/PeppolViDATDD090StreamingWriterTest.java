@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+
+/**
+ * Test class for class {@link PeppolViDATDD090StreamingWriter}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090StreamingWriterTest
+{
+  @Test
+  public void testMultipleTransactions () throws Exception
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+    {
+      final TaxDataType aTDD = m.read (aRes);
+      assertNotNull (aRes.getPath (), aTDD);
+      assertTrue (CPeppolViDATDD.isViDA1CustomizationID (aTDD.getCustomizationID ()));
+      final ReportedTransaction aRT = aTDD.getReportedTransaction ().get (0);
+
+      // Non ViDA-1 envelope
+      final TaxDataType aEnvelope = aTDD.clone ();
+      aEnvelope.setCustomizationID ("urn:example:taxdata:bulk");
+
+      final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+      try (final PeppolViDATDD090StreamingWriter aWriter = new PeppolViDATDD090StreamingWriter (aEnvelope,
+                                                                                                Channels.newChannel (aBAOS)))
+      {
+        for (int i = 0; i < 4; ++i)
+          aWriter.write (aRT);
+        // Including the one from the envelope
+        assertEquals (5, aWriter.getTransactionCount ());
+      }
+
+      // The result must be XSD valid
+      final TaxDataType aRead = m.read (aBAOS.toByteArray ());
+      assertNotNull (aRes.getPath (), aRead);
+      assertEquals (5, aRead.getReportedTransaction ().size ());
+      for (final ReportedTransaction aReadRT : aRead.getReportedTransaction ())
+        assertEquals (aRT, aReadRT);
+
+      // Except for the transactions, the header is unchanged
+      aRead.getReportedTransaction ().subList (1, 5).clear ();
+      assertEquals (aEnvelope, aRead);
+    }
+  }
+
+  @Test
+  public void testSingleTransactionViDA1 () throws Exception
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final TaxDataType aTDD = m.read (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+    assertNotNull (aTDD);
+
+    // Streaming a single transaction gives the original TDD
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final PeppolViDATDD090StreamingWriter aWriter = new PeppolViDATDD090StreamingWriter (aTDD,
+                                                                                              Channels.newChannel (aBAOS)))
+    {
+      // ViDA-1 only allows a single transaction
+      try
+      {
+        aWriter.write (aTDD.getReportedTransaction ().get (0));
+        fail ();
+      }
+      catch (final IllegalStateException ex)
+      {
+        // expected
+      }
+    }
+    assertEquals (aTDD, m.read (aBAOS.toByteArray ()));
+  }
+
+  @Test
+  public void testStreamedDocumentLines () throws Exception
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final TaxDataType aTDD = m.read (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+    assertNotNull (aTDD);
+    final ReportedTransaction aRT = aTDD.getReportedTransaction ().get (0);
+    final DocumentLine aTemplateLine = aRT.getReportedDocument ().getDocumentLine ().get (0);
+    final int nOrigLineCount = aRT.getReportedDocument ().getDocumentLine ().size ();
+    final int nExtraLineCount = 1000;
+
+    // Lines are created on the fly
+    final Iterable <DocumentLine> aLines = () -> new Iterator <> ()
+    {
+      private int m_nIndex = 0;
+
+      @Override
+      public boolean hasNext ()
+      {
+        return m_nIndex < nExtraLineCount;
+      }
+
+      @Override
+      public DocumentLine next ()
+      {
+        final DocumentLine ret = aTemplateLine.clone ();
+        ret.setID ("extra-" + m_nIndex++);
+        return ret;
+      }
+    };
+
+    final TaxDataType aEnvelope = aTDD.clone ();
+    aEnvelope.getReportedTransaction ().clear ();
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final PeppolViDATDD090StreamingWriter aWriter = new PeppolViDATDD090StreamingWriter (aEnvelope,
+                                                                                              Channels.newChannel (aBAOS)))
+    {
+      aWriter.write (aRT, aLines);
+      assertEquals (1, aWriter.getTransactionCount ());
+    }
+    // The source transaction is unchanged
+    assertEquals (nOrigLineCount, aRT.getReportedDocument ().getDocumentLine ().size ());
+
+    final TaxDataType aRead = m.read (aBAOS.toByteArray ());
+    assertNotNull (aRead);
+    final List <DocumentLine> aReadLines = aRead.getReportedTransaction ().get (0).getReportedDocument ().getDocumentLine ();
+    assertEquals (nOrigLineCount + nExtraLineCount, aReadLines.size ());
+    for (int i = 0; i < nExtraLineCount; ++i)
+      assertEquals ("extra-" + i, aReadLines.get (nOrigLineCount + i).getID ().getValue ());
+
+    // Apart from the lines, everything is the same
+    aReadLines.subList (nOrigLineCount, aReadLines.size ()).clear ();
+    assertEquals (aTDD, aRead);
+  }
+
+  @Test
+  public void testInvalidTransaction () throws Exception
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final TaxDataType aTDD = m.read (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+    assertNotNull (aTDD);
+    final TaxDataType aEnvelope = aTDD.clone ();
+    aEnvelope.setCustomizationID ("urn:example:taxdata:bulk");
+    final ReportedTransaction aInvalidRT = aTDD.getReportedTransaction ().get (0).clone ();
+    aInvalidRT.getReportedDocument ().setDocumentCurrencyCode (null);
+
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final PeppolViDATDD090StreamingWriter aWriter = new PeppolViDATDD090StreamingWriter (aEnvelope,
+                                                                                              Channels.newChannel (aBAOS)))
+    {
+      try
+      {
+        aWriter.write (aInvalidRT);
+        fail ();
+      }
+      catch (final IllegalArgumentException ex)
+      {
+        // expected
+      }
+      assertEquals (1, aWriter.getTransactionCount ());
+
+      // The output is incomplete
+      try
+      {
+        aWriter.write (aTDD.getReportedTransaction ().get (0));
+        fail ();
+      }
+      catch (final IllegalStateException ex)
+      {
+        // expected
+      }
+    }
+    assertNull (m.read (aBAOS.toByteArray ()));
+  }
+}
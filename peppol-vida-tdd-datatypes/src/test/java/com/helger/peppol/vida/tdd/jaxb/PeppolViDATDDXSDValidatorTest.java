@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.jaxb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import org.xml.sax.SAXParseException;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+
+/**
+ * Test class for class {@link PeppolViDATDDXSDValidator}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDXSDValidatorTest
+{
+  @Test
+  public void testSchemaIsCached ()
+  {
+    assertSame (PeppolViDATDDSchemaCache.getSchema090 (),
+                PeppolViDATDDSchemaCache.getSchema (EViDATDDSpecVersion.V_0_9_0));
+    assertTrue (PeppolViDATDDSchemaCache.isCached (EViDATDDSpecVersion.V_0_9_0));
+    assertFalse (PeppolViDATDDSchemaCache.isCached (null));
+  }
+
+  @Test
+  public void testGoodFiles () throws Exception
+  {
+    final PeppolViDATDDXSDValidator aValidator = PeppolViDATDDXSDValidator.tdd090 ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+    {
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        assertEquals (aRes.getPath (), new CommonsArrayList <> (), aValidator.validate (aIS));
+      }
+
+      final ByteBuffer aBB;
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        aBB = ByteBuffer.wrap (aIS.readAllBytes ());
+      }
+      assertTrue (aRes.getPath (), aValidator.isValid (aBB));
+      // Position must not be touched
+      assertEquals (0, aBB.position ());
+    }
+  }
+
+  @Test
+  public void testBadFiles ()
+  {
+    final PeppolViDATDDXSDValidator aValidator = PeppolViDATDDXSDValidator.tdd090 ();
+    // Not well-formed
+    assertFalse (aValidator.isValid (ByteBuffer.wrap ("<TaxData".getBytes (StandardCharsets.UTF_8))));
+    // Wrong root element
+    assertFalse (aValidator.isValid (ByteBuffer.wrap ("<TaxData xmlns='urn:peppol:schema:taxdata:1.0' />".getBytes (StandardCharsets.UTF_8))));
+  }
+
+  @Test
+  public void testExternalEntitiesAreNotResolved () throws Exception
+  {
+    final String sSecret = "ViDA-XXE-secret";
+    final Path aSecretFile = Files.createTempFile ("xxe", ".txt");
+    try
+    {
+      Files.writeString (aSecretFile, sSecret);
+
+      final String sTDD;
+      try (final InputStream aIS = PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ().getInputStream ())
+      {
+        sTDD = new String (aIS.readAllBytes (), StandardCharsets.UTF_8);
+      }
+      final String sName = sTDD.substring (sTDD.indexOf ("<cbc:Name>"), sTDD.indexOf ("</cbc:Name>"));
+      final String sXXE = sTDD.replace ("?>",
+                                        "?><!DOCTYPE pxs:TaxData [<!ENTITY e SYSTEM \"" +
+                                               aSecretFile.toUri () +
+                                               "\">]>")
+                              .replace (sName, "<cbc:Name>&e;");
+
+      final byte [] aXXE = sXXE.getBytes (StandardCharsets.UTF_8);
+
+      final PeppolViDATDDXSDValidator aValidator = PeppolViDATDDXSDValidator.tdd090 ();
+      final ICommonsList <SAXParseException> aErrors = aValidator.validate (ByteBuffer.wrap (aXXE));
+      assertFalse (aErrors.isEmpty ());
+      for (final SAXParseException ex : aErrors)
+        assertFalse (ex.getMessage (), ex.getMessage ().contains (sSecret));
+      assertFalse (aValidator.isValid (new ByteArrayInputStream (aXXE)));
+    }
+    finally
+    {
+      Files.deleteIfExists (aSecretFile);
+    }
+  }
+}
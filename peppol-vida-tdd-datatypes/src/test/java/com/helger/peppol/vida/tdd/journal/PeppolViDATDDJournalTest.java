@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.segment.CPeppolViDATDDSegment;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Test class for class {@link PeppolViDATDDJournal}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDJournalTest
+{
+  private Path m_aDir;
+
+  @Before
+  public void before () throws Exception
+  {
+    m_aDir = Files.createTempDirectory ("tdd-journal");
+  }
+
+  @After
+  public void after () throws Exception
+  {
+    try (final Stream <Path> aStream = Files.walk (m_aDir))
+    {
+      aStream.sorted (Comparator.reverseOrder ()).forEach (x -> x.toFile ().delete ());
+    }
+  }
+
+  private static ICommonsList <TaxDataType> _readAll ()
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ICommonsList <TaxDataType> ret = new CommonsArrayList <> ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+      ret.add (m.read (aRes));
+    return ret;
+  }
+
+  @Test
+  public void testAppendAndReopen () throws Exception
+  {
+    final ICommonsList <TaxDataType> aTDDs = _readAll ();
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ByteBufferOutputStream aScratch = new ByteBufferOutputStream ();
+    int nUnique = 0;
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir))
+    {
+      assertEquals (1, aJournal.getSegmentCount ());
+      for (final TaxDataType aTDD : aTDDs)
+        if (aJournal.append (aTDD, m, aScratch))
+          nUnique++;
+      assertTrue (nUnique > 0);
+      assertEquals (nUnique, aJournal.getCount ());
+
+      // Duplicates are rejected
+      assertFalse (aJournal.append (aTDDs.getFirstOrNull (), m, aScratch));
+      assertEquals (nUnique, aJournal.getCount ());
+
+      final String sUUID = aTDDs.getFirstOrNull ().getUUID ();
+      assertEquals (EPeppolViDATDDJournalState.BUILT, aJournal.getState (sUUID));
+      assertTrue (aJournal.setState (sUUID, EPeppolViDATDDJournalState.VALIDATED));
+      // Same state is fine
+      assertTrue (aJournal.setState (sUUID, EPeppolViDATDDJournalState.VALIDATED));
+      // States may be skipped
+      assertTrue (aJournal.setState (sUUID, EPeppolViDATDDJournalState.ACKNOWLEDGED));
+      try
+      {
+        aJournal.setState (sUUID, EPeppolViDATDDJournalState.SENT);
+        fail ();
+      }
+      catch (final IllegalStateException ex)
+      {
+        // expected
+      }
+      assertFalse (aJournal.setState ("unknown", EPeppolViDATDDJournalState.SENT));
+      assertNull (aJournal.getState ("unknown"));
+      assertNull (aJournal.getTDDBytes ("unknown"));
+    }
+
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir))
+    {
+      assertEquals (nUnique, aJournal.getCount ());
+      assertEquals (nUnique - 1, aJournal.getAllKeysInState (EPeppolViDATDDJournalState.BUILT).size ());
+      final ICommonsList <UUID> aAcked = aJournal.getAllKeysInState (EPeppolViDATDDJournalState.ACKNOWLEDGED);
+      assertEquals (1, aAcked.size ());
+      assertEquals (CPeppolViDATDDSegment.getIndexKey (aTDDs.getFirstOrNull ().getUUID ()), aAcked.getFirstOrNull ());
+
+      // The stored bytes can be read without copying
+      for (final TaxDataType aTDD : aTDDs)
+      {
+        final ByteBuffer aBytes = aJournal.getTDDBytes (aTDD.getUUID ());
+        assertNotNull (aBytes);
+        assertTrue (aBytes.isReadOnly ());
+        assertEquals (aTDD.getUUID (), m.readFromBuffer (aBytes).getUUID ());
+      }
+    }
+  }
+
+  @Test
+  public void testTornRecord () throws Exception
+  {
+    final ICommonsList <TaxDataType> aTDDs = _readAll ();
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ByteBufferOutputStream aScratch = new ByteBufferOutputStream ();
+    final TaxDataType aFirst = aTDDs.getFirstOrNull ();
+    final TaxDataType aLast = aTDDs.getLastOrNull ();
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir, 256 * 1024))
+    {
+      assertTrue (aJournal.append (aFirst, m, aScratch));
+      assertTrue (aJournal.setState (aFirst.getUUID (), EPeppolViDATDDJournalState.SENT));
+      // Use a different UUID to be independent of the test files
+      final TaxDataType aCopy = aLast.clone ();
+      aCopy.setUUID (UUID.randomUUID ().toString ());
+      assertTrue (aJournal.append (aCopy, m, aScratch));
+    }
+
+    // Simulate a crash while writing the last record: damage its last byte
+    final Path aFile = m_aDir.resolve (CPeppolViDATDDJournal.getSegmentFileName (0));
+    try (final FileChannel aFC = FileChannel.open (aFile, StandardOpenOption.READ, StandardOpenOption.WRITE))
+    {
+      final ByteBuffer aContent = ByteBuffer.allocate ((int) aFC.size ());
+      aFC.read (aContent, 0);
+      int nLastPos = aContent.capacity () - 1;
+      while (aContent.get (nLastPos) == 0)
+        nLastPos--;
+      aFC.write (ByteBuffer.wrap (new byte [] { 'x' }), nLastPos);
+    }
+
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir, 256 * 1024))
+    {
+      assertEquals (1, aJournal.getCount ());
+      assertEquals (EPeppolViDATDDJournalState.SENT, aJournal.getState (aFirst.getUUID ()));
+
+      // Writing continues at the damaged position
+      final TaxDataType aCopy = aLast.clone ();
+      aCopy.setUUID (UUID.randomUUID ().toString ());
+      assertTrue (aJournal.append (aCopy, m, aScratch));
+      assertEquals (2, aJournal.getCount ());
+    }
+
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir, 256 * 1024))
+    {
+      assertEquals (2, aJournal.getCount ());
+    }
+  }
+
+  @Test
+  public void testRolloverAndCompact () throws Exception
+  {
+    final TaxDataType aTemplate = _readAll ().getFirstOrNull ();
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ByteBufferOutputStream aScratch = new ByteBufferOutputStream ();
+    final int nCount = 100;
+    final ICommonsList <String> aUUIDs = new CommonsArrayList <> ();
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir, 64 * 1024))
+    {
+      for (int i = 0; i < nCount; ++i)
+      {
+        final TaxDataType aTDD = aTemplate.clone ();
+        aTDD.setUUID (UUID.randomUUID ().toString ());
+        assertTrue (aJournal.append (aTDD, m, aScratch));
+        aUUIDs.add (aTDD.getUUID ());
+      }
+      assertTrue (aJournal.getSegmentCount () > 1);
+
+      // Acknowledge every second one
+      for (int i = 0; i < nCount; i += 2)
+        assertTrue (aJournal.setState (aUUIDs.get (i), EPeppolViDATDDJournalState.ACKNOWLEDGED));
+      assertTrue (aJournal.setState (aUUIDs.get (1), EPeppolViDATDDJournalState.SENT));
+
+      final int nSegmentsBefore = aJournal.getSegmentCount ();
+      assertEquals (nCount / 2, aJournal.compact ());
+      assertEquals (nCount / 2, aJournal.getCount ());
+      assertTrue (aJournal.getSegmentCount () < nSegmentsBefore);
+      assertEquals (EPeppolViDATDDJournalState.SENT, aJournal.getState (aUUIDs.get (1)));
+      assertNull (aJournal.getState (aUUIDs.get (0)));
+      assertEquals (aUUIDs.get (3), m.readFromBuffer (aJournal.getTDDBytes (aUUIDs.get (3))).getUUID ());
+    }
+
+    try (final Stream <Path> aStream = Files.list (m_aDir))
+    {
+      // Old segments were deleted
+      assertTrue (aStream.allMatch (x -> CPeppolViDATDDJournal.getSegmentNumber (x.getFileName ().toString ()) > 0));
+    }
+
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir, 64 * 1024))
+    {
+      assertEquals (nCount / 2, aJournal.getCount ());
+      assertEquals (EPeppolViDATDDJournalState.SENT, aJournal.getState (aUUIDs.get (1)));
+      assertEquals (EPeppolViDATDDJournalState.BUILT, aJournal.getState (aUUIDs.get (3)));
+      assertNull (aJournal.getState (aUUIDs.get (2)));
+    }
+  }
+
+  @Test
+  public void testConcurrentAppend () throws Exception
+  {
+    final TaxDataType aTemplate = _readAll ().getFirstOrNull ();
+    final int nThreads = 8;
+    final int nPerThread = 50;
+    final ExecutorService aES = Executors.newFixedThreadPool (nThreads);
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir, 1024 * 1024))
+    {
+      final ICommonsList <Future <?>> aFutures = new CommonsArrayList <> ();
+      for (int t = 0; t < nThreads; ++t)
+        aFutures.add (aES.submit ( () -> {
+          final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+          final ByteBufferOutputStream aScratch = new ByteBufferOutputStream ();
+          for (int i = 0; i < nPerThread; ++i)
+          {
+            final TaxDataType aTDD = aTemplate.clone ();
+            aTDD.setUUID (UUID.randomUUID ().toString ());
+            assertTrue (aJournal.append (aTDD, m, aScratch));
+            assertTrue (aJournal.setState (aTDD.getUUID (), EPeppolViDATDDJournalState.VALIDATED));
+          }
+          return null;
+        }));
+      for (final Future <?> aFuture : aFutures)
+        aFuture.get ();
+      assertEquals (nThreads * nPerThread, aJournal.getCount ());
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+
+    try (final PeppolViDATDDJournal aJournal = new PeppolViDATDDJournal (m_aDir))
+    {
+      assertEquals (nThreads * nPerThread, aJournal.getAllKeysInState (EPeppolViDATDDJournalState.VALIDATED).size ());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.json.IJson;
+import com.helger.json.serialize.JsonReader;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Test class for class {@link PeppolViDATDD090JsonWriter} and {@link PeppolViDATDD090JsonReader}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090JsonWriterTest
+{
+  @Test
+  public void testGoodFiles () throws Exception
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final PeppolViDATDD090JsonWriter aWriter = new PeppolViDATDD090JsonWriter ();
+    final PeppolViDATDD090JsonReader aReader = new PeppolViDATDD090JsonReader ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+    {
+      final TaxDataType aTDD = m.read (aRes);
+      assertNotNull (aRes.getPath (), aTDD);
+
+      final String sJson = aWriter.getAsString (aTDD);
+      assertTrue (sJson, sJson.startsWith ("{\"CustomizationID\":\""));
+      assertTrue (sJson, sJson.contains ("\"ReportedTransaction\":[{\"ReportedDocument\":{"));
+      assertEquals (aRes.getPath (), aTDD, aReader.read (sJson));
+      // Valid for other parsers as well
+      assertNotNull (aRes.getPath (), JsonReader.readFromString (sJson));
+
+      // Streams
+      final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+      aWriter.write (aTDD, aBAOS);
+      assertEquals (aRes.getPath (), aTDD, aReader.read (new ByteArrayInputStream (aBAOS.toByteArray ())));
+
+      // The re-read object must be XSD valid again
+      assertTrue (aRes.getPath (), m.writeToBuffer (aReader.read (sJson), new ByteBufferOutputStream ()) > 0);
+    }
+  }
+
+  @Test
+  public void testEdgeCases ()
+  {
+    final TaxDataType aTDD = new PeppolViDATDD090Marshaller ().read (PeppolViDATestFiles.getAllGoodTDD090Files ()
+                                                                                         .getFirstOrNull ());
+    assertNotNull (aTDD);
+    aTDD.getReportedTransaction ()
+        .get (0)
+        .getReportedDocument ()
+        .getMonetaryTotal ()
+        .getPayableAmount ()
+        .setValue (new BigDecimal ("123456789012345678901234567890.123456789"));
+    aTDD.getReportedTransaction ()
+        .get (0)
+        .getReportedDocument ()
+        .getMonetaryTotal ()
+        .getLineExtensionAmount ()
+        .setValue (new BigDecimal ("1E+3"));
+    aTDD.getTaxAuthority ().setName ("Österreich \"Finanz\\amt\"\n\t€ 😀\u0001 ");
+
+    final String sJson = new PeppolViDATDD090JsonWriter ().getAsString (aTDD);
+    assertEquals (aTDD, new PeppolViDATDD090JsonReader ().read (sJson));
+    final IJson aJson = JsonReader.readFromString (sJson);
+    assertNotNull (sJson, aJson);
+    assertEquals (aTDD.getTaxAuthority ().getName (), aJson.getAsObject ().getAsObject ("TaxAuthority").getAsString ("Name"));
+
+    // Whitespace and unknown properties are fine
+    final String sJson2 = " {\n \"Unknown\" : [ 1, { \"a\" : null }, true ] , " + sJson.substring (1) + "\n";
+    assertEquals (aTDD, new PeppolViDATDD090JsonReader ().read (sJson2));
+  }
+
+  @Test
+  public void testDateTime ()
+  {
+    for (final String s : new String [] { "2026-01-30", "2026-01-30Z", "2026-01-30+01:00", "2026-01-30-05:30" })
+      assertEquals (s, PeppolViDATDD090JsonWriter.getDateString (PeppolViDATDD090JsonReader.parseDate (s)));
+    for (final String s : new String [] { "10:15:00", "10:15:30Z", "10:15:30.123+01:00", "23:59:59-05:00" })
+      assertEquals (s, PeppolViDATDD090JsonWriter.getTimeString (PeppolViDATDD090JsonReader.parseTime (s)));
+  }
+
+  @Test
+  public void testMalformed ()
+  {
+    final PeppolViDATDD090JsonReader aReader = new PeppolViDATDD090JsonReader ();
+    for (final String s : new String [] { "",
+                                          "[]",
+                                          "{",
+                                          "{\"UUID\"}",
+                                          "{\"UUID\":\"a\",}",
+                                          "{\"UUID\":\"a\"} x",
+                                          "{\"IssueDate\":\"2026\"}",
+                                          "{\"UUID\":tru}" })
+      try
+      {
+        aReader.read (s);
+        fail (s);
+      }
+      catch (final IllegalArgumentException ex)
+      {
+        // expected
+      }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.style.IsSPIImplementation;
+
+/**
+ * Test implementation of {@link IPeppolViDATDDMetricsSPI} that sums up everything. It is only
+ * registered for the <code>metrics-test</code> Surefire execution of the modules (see
+ * <code>src/test/metrics-spi</code>), so that all other tests run with disabled metrics. Other
+ * modules use it via the test-jar of this module.
+ *
+ * @author Philip Helger
+ */
+@IsSPIImplementation
+public final class MockPeppolViDATDDMetricsSPI implements IPeppolViDATDDMetricsSPI
+{
+  private static final Map <EPeppolViDATDDMetric, AtomicLong> CALLS = new EnumMap <> (EPeppolViDATDDMetric.class);
+  private static final Map <EPeppolViDATDDMetric, AtomicLong> SUMS = new EnumMap <> (EPeppolViDATDDMetric.class);
+
+  static
+  {
+    // Pre-fill so that no synchronization is needed
+    for (final EPeppolViDATDDMetric e : EPeppolViDATDDMetric.values ())
+    {
+      CALLS.put (e, new AtomicLong ());
+      SUMS.put (e, new AtomicLong ());
+    }
+  }
+
+  public void recordDuration (@NonNull final EPeppolViDATDDMetric eMetric, final long nDurationNanos)
+  {
+    CALLS.get (eMetric).incrementAndGet ();
+    SUMS.get (eMetric).addAndGet (nDurationNanos);
+  }
+
+  public void recordCount (@NonNull final EPeppolViDATDDMetric eMetric, final long nDelta)
+  {
+    CALLS.get (eMetric).incrementAndGet ();
+    SUMS.get (eMetric).addAndGet (nDelta);
+  }
+
+  /**
+   * @param eMetric
+   *        Metric to query
+   * @return The number of times the metric was recorded so far
+   */
+  public static long getCallCount (@NonNull final EPeppolViDATDDMetric eMetric)
+  {
+    return CALLS.get (eMetric).get ();
+  }
+
+  /**
+   * @param eMetric
+   *        Metric to query
+   * @return The sum of all nano seconds or deltas recorded so far
+   */
+  public static long getSum (@NonNull final EPeppolViDATDDMetric eMetric)
+  {
+    return SUMS.get (eMetric).get ();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDXSDValidator;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Test class for class {@link PeppolViDATDDMetrics} with the {@link MockPeppolViDATDDMetricsSPI}
+ * registered. Runs in the separate <code>metrics-test</code> Surefire execution only.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDMetricsSPITest
+{
+  @Test
+  public void testMarshallerAndValidator () throws Exception
+  {
+    // Registered via src/test/metrics-spi/META-INF/services
+    assertTrue (PeppolViDATDDMetrics.isEnabled ());
+
+    final ClassPathResource aRes = PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ();
+    final long nReads = MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.MARSHAL_READ);
+    final long nReadBytes = MockPeppolViDATDDMetricsSPI.getSum (EPeppolViDATDDMetric.MARSHAL_READ_BYTES);
+    final long nWrites = MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.MARSHAL_WRITE);
+    final long nWriteBytes = MockPeppolViDATDDMetricsSPI.getSum (EPeppolViDATDDMetric.MARSHAL_WRITE_BYTES);
+    final long nValidations = MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.XSD_VALIDATION);
+
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ByteBuffer aBuf;
+    try (final InputStream aIS = aRes.getInputStream ())
+    {
+      aBuf = ByteBuffer.wrap (aIS.readAllBytes ());
+    }
+    final TaxDataType aTDD = m.readFromBuffer (aBuf);
+    assertNotNull (aTDD);
+    assertEquals (nReads + 1, MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.MARSHAL_READ));
+    assertEquals (nReadBytes + aBuf.remaining (), MockPeppolViDATDDMetricsSPI.getSum (EPeppolViDATDDMetric.MARSHAL_READ_BYTES));
+
+    final ByteBufferOutputStream aBBOS = new ByteBufferOutputStream ();
+    final int nWritten = m.writeToBuffer (aTDD, aBBOS);
+    assertTrue (nWritten > 0);
+    assertEquals (nWrites + 1, MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.MARSHAL_WRITE));
+    assertEquals (nWriteBytes + nWritten, MockPeppolViDATDDMetricsSPI.getSum (EPeppolViDATDDMetric.MARSHAL_WRITE_BYTES));
+
+    assertTrue (PeppolViDATDDXSDValidator.tdd090 ().isValid (aBBOS.getAsReadOnlyBuffer ()));
+    assertEquals (nValidations + 1, MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.XSD_VALIDATION));
+  }
+}
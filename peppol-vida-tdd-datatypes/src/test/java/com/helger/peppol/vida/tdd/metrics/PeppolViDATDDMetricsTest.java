@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Test class for class {@link PeppolViDATDDMetrics}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDMetricsTest
+{
+  @Test
+  public void testDisabled () throws Exception
+  {
+    // No SPI implementation is registered outside of the metrics-test execution
+    assertFalse (PeppolViDATDDMetrics.isEnabled ());
+    assertEquals (0L, PeppolViDATDDMetrics.startTimer ());
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.MARSHAL_READ, 0L);
+    PeppolViDATDDMetrics.count (EPeppolViDATDDMetric.MARSHAL_READ_BYTES, 100);
+
+    // The instrumented methods work the same
+    final ClassPathResource aRes = PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ();
+    final ByteBuffer aBuf;
+    try (final InputStream aIS = aRes.getInputStream ())
+    {
+      aBuf = ByteBuffer.wrap (aIS.readAllBytes ());
+    }
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final TaxDataType aTDD = m.readFromBuffer (aBuf);
+    assertNotNull (aTDD);
+    assertTrue (m.writeToBuffer (aTDD, new ByteBufferOutputStream ()) > 0);
+  }
+
+  @Test
+  public void testIDs ()
+  {
+    for (final EPeppolViDATDDMetric e : EPeppolViDATDDMetric.values ())
+      assertEquals (e, EPeppolViDATDDMetric.getFromIDOrNull (e.getID ()));
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.segment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+import com.helger.base.numeric.mutable.MutableInt;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+
+/**
+ * Test class for class {@link PeppolViDATDDSegmentWriter} and {@link PeppolViDATDDSegmentReader}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDSegmentWriterTest
+{
+  private static ICommonsList <TaxDataType> _readAll ()
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final ICommonsList <TaxDataType> ret = new CommonsArrayList <> ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+      ret.add (m.read (aRes));
+    return ret;
+  }
+
+  private static void _testRoundtrip (final boolean bCompress) throws Exception
+  {
+    final ICommonsList <TaxDataType> aTDDs = _readAll ();
+    final File aFile = File.createTempFile ("tdd-segment", ".pvds");
+    aFile.deleteOnExit ();
+    final Path aPath = aFile.toPath ();
+
+    final long [] aOffsets = new long [aTDDs.size ()];
+    try (final PeppolViDATDDSegmentWriter aWriter = new PeppolViDATDDSegmentWriter (aPath, bCompress))
+    {
+      for (int i = 0; i < aTDDs.size (); ++i)
+        aOffsets[i] = aWriter.append (aTDDs.get (i));
+      assertEquals (aTDDs.size (), aWriter.getRecordCount ());
+    }
+
+    try (final PeppolViDATDDSegmentReader aReader = new PeppolViDATDDSegmentReader (aPath))
+    {
+      assertTrue (aReader.isSealed ());
+      assertEquals (aTDDs.size (), aReader.getRecordCount ());
+
+      // Random access
+      for (int i = 0; i < aTDDs.size (); ++i)
+      {
+        final TaxDataType aTDD = aTDDs.get (i);
+        assertEquals (aTDD, aReader.readAt (aOffsets[i]));
+
+        // Test files may share UUIDs - the first one wins
+        final TaxDataType aFound = aReader.getByTDDUUID (aTDD.getUUID ());
+        assertNotNull (aFound);
+        assertEquals (aTDD.getUUID (), aFound.getUUID ());
+
+        final String sDocUUID = aTDD.getReportedTransaction ().get (0).getReportedDocument ().getUUID ();
+        final TaxDataType aFoundDoc = aReader.getByReportedDocumentUUID (sDocUUID);
+        assertNotNull (aFoundDoc);
+        assertEquals (sDocUUID, aFoundDoc.getReportedTransaction ().get (0).getReportedDocument ().getUUID ());
+      }
+      assertNull (aReader.getByTDDUUID ("00000000-0000-0000-0000-000000000000"));
+      assertNull (aReader.getByReportedDocumentUUID ("no-such-uuid"));
+
+      // Sequential scan
+      final ICommonsList <TaxDataType> aScanned = new CommonsArrayList <> ();
+      aReader.forEach (aScanned::add);
+      assertEquals (aTDDs, aScanned);
+    }
+  }
+
+  @Test
+  public void testUncompressed () throws Exception
+  {
+    _testRoundtrip (false);
+  }
+
+  @Test
+  public void testCompressed () throws Exception
+  {
+    _testRoundtrip (true);
+  }
+
+  @Test
+  public void testUnsealed () throws Exception
+  {
+    final ICommonsList <TaxDataType> aTDDs = _readAll ();
+    final File aFile = File.createTempFile ("tdd-segment", ".pvds");
+    aFile.deleteOnExit ();
+    final Path aPath = aFile.toPath ();
+
+    long nRecordsEnd;
+    try (final PeppolViDATDDSegmentWriter aWriter = new PeppolViDATDDSegmentWriter (aPath, false))
+    {
+      for (final TaxDataType aTDD : aTDDs)
+        aWriter.append (aTDD);
+      nRecordsEnd = aWriter.getSize ();
+    }
+
+    // Simulate a crash while writing the last record: drop the index and a part of the last record
+    try (final FileChannel aFC = FileChannel.open (aPath, StandardOpenOption.WRITE))
+    {
+      aFC.truncate (nRecordsEnd - 10);
+    }
+
+    try (final PeppolViDATDDSegmentReader aReader = new PeppolViDATDDSegmentReader (aPath))
+    {
+      assertFalse (aReader.isSealed ());
+      assertEquals (-1, aReader.getRecordCount ());
+      final MutableInt aCount = new MutableInt (0);
+      aReader.forEach (x -> {
+        assertNotNull (x);
+        aCount.inc ();
+      });
+      assertEquals (aTDDs.size () - 1, aCount.intValue ());
+    }
+  }
+
+  @Test
+  public void testWithoutUUID () throws Exception
+  {
+    final ICommonsList <TaxDataType> aTDDs = _readAll ();
+    aTDDs.getFirstOrNull ().setUUID ("");
+    final File aFile = File.createTempFile ("tdd-segment", ".pvds");
+    aFile.deleteOnExit ();
+    final Path aPath = aFile.toPath ();
+
+    try (final PeppolViDATDDSegmentWriter aWriter = new PeppolViDATDDSegmentWriter (aPath, false))
+    {
+      for (final TaxDataType aTDD : aTDDs)
+        aWriter.append (aTDD);
+      // Records without a UUID are counted as well
+      assertEquals (aTDDs.size (), aWriter.getRecordCount ());
+    }
+
+    try (final PeppolViDATDDSegmentReader aReader = new PeppolViDATDDSegmentReader (aPath))
+    {
+      assertEquals (aTDDs.size (), aReader.getRecordCount ());
+      final MutableInt aCount = new MutableInt (0);
+      aReader.forEach (x -> aCount.inc ());
+      assertEquals (aTDDs.size (), aCount.intValue ());
+    }
+  }
+
+  @Test
+  public void testCorruptTrailer () throws Exception
+  {
+    final File aFile = File.createTempFile ("tdd-segment", ".pvds");
+    aFile.deleteOnExit ();
+    final Path aPath = aFile.toPath ();
+
+    long nSize;
+    try (final PeppolViDATDDSegmentWriter aWriter = new PeppolViDATDDSegmentWriter (aPath, false))
+    {
+      for (final TaxDataType aTDD : _readAll ())
+        aWriter.append (aTDD);
+    }
+    nSize = aFile.length ();
+
+    // Overwrite the TDD index capacity with a value outside of the file
+    try (final FileChannel aFC = FileChannel.open (aPath, StandardOpenOption.WRITE))
+    {
+      aFC.write (ByteBuffer.allocate (4).putInt (0, 1 << 30), nSize - CPeppolViDATDDSegment.TRAILER_SIZE + 8);
+    }
+
+    try (final PeppolViDATDDSegmentReader aReader = new PeppolViDATDDSegmentReader (aPath))
+    {
+      fail ();
+    }
+    catch (final IOException ex)
+    {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * Open addressing hash table with linear probing, that is independent of the storage of the slots.
+ * The all-zero (nil) UUID marks an empty slot, so the nil UUID itself is stored outside of the
+ * table. Removal uses backward shifting, so no tombstones are needed.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public abstract class AbstractUUIDLongHashMap implements IUUIDLongMap
+{
+  public static final long DEFAULT_EXPECTED_ENTRIES = 1024;
+
+  private static final long MIN_CAPACITY = 16;
+
+  private long m_nCapacity;
+  private long m_nMask;
+  private long m_nSize;
+  private boolean m_bContainsNil;
+  private long m_nNilValue;
+
+  protected AbstractUUIDLongHashMap ()
+  {}
+
+  /**
+   * Must be called from the constructor of the implementation.
+   *
+   * @param nExpectedEntries
+   *        The number of expected entries. Must be &gt; 0.
+   */
+  protected final void init (final long nExpectedEntries)
+  {
+    ValueEnforcer.isGT0 (nExpectedEntries, "ExpectedEntries");
+    // Load factor of at most 0.75
+    final long nMinSlots = Math.max (MIN_CAPACITY, (nExpectedEntries * 4 + 2) / 3);
+    if (nMinSlots > getMaxCapacity ())
+      throw new IllegalArgumentException ("This map cannot hold " + nExpectedEntries + " entries");
+    final long nCapacity = Long.highestOneBit (nMinSlots - 1) << 1;
+    allocate (nCapacity);
+    m_nCapacity = nCapacity;
+    m_nMask = nCapacity - 1;
+  }
+
+  /**
+   * @return The maximum number of slots of the implementation. Must be a power of 2.
+   */
+  protected abstract long getMaxCapacity ();
+
+  /**
+   * Allocate new, empty storage for the provided number of slots. The previous storage must be
+   * kept until {@link #rehashFromPrevious()} is called.
+   *
+   * @param nCapacity
+   *        The number of slots. Always a power of 2.
+   */
+  protected abstract void allocate (long nCapacity);
+
+  /**
+   * Call {@link #rehash(long, long, long)} for all occupied slots of the previous storage and
+   * release it afterwards.
+   */
+  protected abstract void rehashFromPrevious ();
+
+  protected abstract long getSlotMSB (long nSlot);
+
+  protected abstract long getSlotLSB (long nSlot);
+
+  protected abstract long getSlotValue (long nSlot);
+
+  protected abstract void setSlot (long nSlot, long nMSB, long nLSB, long nValue);
+
+  protected abstract void setSlotValue (long nSlot, long nValue);
+
+  /**
+   * Set all slots to zero.
+   */
+  protected abstract void clearAllSlots ();
+
+  /**
+   * Must be called by the implementation after the slots were filled directly, e.g. when reading
+   * them from a file. The size is recalculated from the occupied slots and the nil UUID is not
+   * contained afterwards.
+   */
+  protected final void initSizeFromSlots ()
+  {
+    long nSize = 0;
+    for (long nSlot = 0; nSlot < m_nCapacity; ++nSlot)
+      if (getSlotMSB (nSlot) != 0 || getSlotLSB (nSlot) != 0)
+        nSize++;
+    m_nSize = nSize;
+    m_bContainsNil = false;
+  }
+
+  /**
+   * Get the 64 bit hash code of a key.
+   *
+   * @param nMSB
+   *        The most significant bits of the key.
+   * @param nLSB
+   *        The least significant bits of the key.
+   * @return The hash code
+   */
+  public static long getHash (final long nMSB, final long nLSB)
+  {
+    // Murmur3 finalizer to spread the bits
+    long h = nMSB ^ Long.rotateLeft (nLSB, 32);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * @return The slot index if the key was found, or <code>-(slot + 1)</code> of the empty slot
+   *         where it would be inserted.
+   */
+  private long _findSlot (final long nMSB, final long nLSB)
+  {
+    long nSlot = getHash (nMSB, nLSB) & m_nMask;
+    while (true)
+    {
+      final long nSlotMSB = getSlotMSB (nSlot);
+      final long nSlotLSB = getSlotLSB (nSlot);
+      if (nSlotMSB == nMSB && nSlotLSB == nLSB)
+        return nSlot;
+      if (nSlotMSB == 0 && nSlotLSB == 0)
+        return -nSlot - 1;
+      nSlot = (nSlot + 1) & m_nMask;
+    }
+  }
+
+  /**
+   * Insert an entry of the previous storage into the current storage.
+   *
+   * @param nMSB
+   *        The most significant bits of the key.
+   * @param nLSB
+   *        The least significant bits of the key.
+   * @param nValue
+   *        The value.
+   */
+  protected final void rehash (final long nMSB, final long nLSB, final long nValue)
+  {
+    setSlot (-_findSlot (nMSB, nLSB) - 1, nMSB, nLSB, nValue);
+  }
+
+  @Override
+  @Nonnegative
+  public final long size ()
+  {
+    return m_nSize;
+  }
+
+  @Override
+  @Nonnegative
+  public final long getCapacity ()
+  {
+    return m_nCapacity;
+  }
+
+  @Override
+  public final boolean containsKey (final long nMSB, final long nLSB)
+  {
+    if (nMSB == 0 && nLSB == 0)
+      return m_bContainsNil;
+    return _findSlot (nMSB, nLSB) >= 0;
+  }
+
+  @Override
+  public final long get (final long nMSB, final long nLSB, final long nDefault)
+  {
+    if (nMSB == 0 && nLSB == 0)
+      return m_bContainsNil ? m_nNilValue : nDefault;
+    final long nSlot = _findSlot (nMSB, nLSB);
+    return nSlot >= 0 ? getSlotValue (nSlot) : nDefault;
+  }
+
+  @Override
+  public final boolean put (final long nMSB, final long nLSB, final long nValue)
+  {
+    if (nMSB == 0 && nLSB == 0)
+    {
+      m_nNilValue = nValue;
+      if (m_bContainsNil)
+        return false;
+      m_bContainsNil = true;
+      m_nSize++;
+      return true;
+    }
+
+    long nSlot = _findSlot (nMSB, nLSB);
+    if (nSlot >= 0)
+    {
+      setSlotValue (nSlot, nValue);
+      return false;
+    }
+    if (m_nSize >= m_nCapacity / 4 * 3)
+    {
+      if (m_nCapacity == getMaxCapacity ())
+        throw new IllegalStateException ("The map reached its maximum capacity of " + m_nCapacity + " slots");
+      final long nNewCapacity = m_nCapacity << 1;
+      allocate (nNewCapacity);
+      m_nCapacity = nNewCapacity;
+      m_nMask = nNewCapacity - 1;
+      rehashFromPrevious ();
+      nSlot = _findSlot (nMSB, nLSB);
+    }
+    setSlot (-nSlot - 1, nMSB, nLSB, nValue);
+    m_nSize++;
+    return true;
+  }
+
+  @Override
+  public final boolean remove (final long nMSB, final long nLSB)
+  {
+    if (nMSB == 0 && nLSB == 0)
+    {
+      if (!m_bContainsNil)
+        return false;
+      m_bContainsNil = false;
+      m_nSize--;
+      return true;
+    }
+
+    long nHole = _findSlot (nMSB, nLSB);
+    if (nHole < 0)
+      return false;
+
+    // Shift back all following entries of the cluster that may not be behind the hole
+    long nSlot = nHole;
+    while (true)
+    {
+      nSlot = (nSlot + 1) & m_nMask;
+      final long nSlotMSB = getSlotMSB (nSlot);
+      final long nSlotLSB = getSlotLSB (nSlot);
+      if (nSlotMSB == 0 && nSlotLSB == 0)
+        break;
+      final long nIdeal = getHash (nSlotMSB, nSlotLSB) & m_nMask;
+      // Distance from the ideal slot to the current slot vs. to the hole
+      if (((nSlot - nIdeal) & m_nMask) >= ((nSlot - nHole) & m_nMask))
+      {
+        setSlot (nHole, nSlotMSB, nSlotLSB, getSlotValue (nSlot));
+        nHole = nSlot;
+      }
+    }
+    setSlot (nHole, 0, 0, 0);
+    m_nSize--;
+    return true;
+  }
+
+  @Override
+  public final void clear ()
+  {
+    clearAllSlots ();
+    m_bContainsNil = false;
+    m_nSize = 0;
+  }
+
+  @Override
+  public final void forEach (@NonNull final IEntryConsumer aConsumer)
+  {
+    ValueEnforcer.notNull (aConsumer, "Consumer");
+    if (m_bContainsNil)
+      aConsumer.accept (0, 0, m_nNilValue);
+    for (long nSlot = 0; nSlot < m_nCapacity; ++nSlot)
+    {
+      final long nSlotMSB = getSlotMSB (nSlot);
+      final long nSlotLSB = getSlotLSB (nSlot);
+      if (nSlotMSB != 0 || nSlotLSB != 0)
+        aConsumer.accept (nSlotMSB, nSlotLSB, getSlotValue (nSlot));
+    }
+  }
+}
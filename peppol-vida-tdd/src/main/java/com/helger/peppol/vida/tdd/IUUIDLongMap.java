@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd;
+
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+
+/**
+ * Map from 128 bit UUIDs to primitive <code>long</code> values, e.g. record offsets, timestamps or
+ * sequence numbers keyed by TDD UUID or ReportedDocument UUID. The keys are passed as most and
+ * least significant bits, so that no {@link UUID} objects need to be created. <code>int</code>
+ * values are stored as <code>long</code> values.
+ *
+ * @author Philip Helger
+ * @see UUIDLongHashMap
+ * @see UUIDLongDirectHashMap
+ */
+public interface IUUIDLongMap
+{
+  /**
+   * Callback for {@link IUUIDLongMap#forEach(IEntryConsumer)}.
+   *
+   * @author Philip Helger
+   */
+  @FunctionalInterface
+  interface IEntryConsumer
+  {
+    void accept (long nMSB, long nLSB, long nValue);
+  }
+
+  /**
+   * @return The number of contained entries.
+   */
+  @Nonnegative
+  long size ();
+
+  default boolean isEmpty ()
+  {
+    return size () == 0;
+  }
+
+  /**
+   * @return The number of slots of the hash table. Always a power of 2.
+   */
+  @Nonnegative
+  long getCapacity ();
+
+  boolean containsKey (long nMSB, long nLSB);
+
+  default boolean containsKey (@NonNull final UUID aKey)
+  {
+    return containsKey (aKey.getMostSignificantBits (), aKey.getLeastSignificantBits ());
+  }
+
+  /**
+   * Get the value of the provided key.
+   *
+   * @param nMSB
+   *        The most significant bits of the key.
+   * @param nLSB
+   *        The least significant bits of the key.
+   * @param nDefault
+   *        The value to return if the key is not contained.
+   * @return The contained value or the default value.
+   */
+  long get (long nMSB, long nLSB, long nDefault);
+
+  default long get (@NonNull final UUID aKey, final long nDefault)
+  {
+    return get (aKey.getMostSignificantBits (), aKey.getLeastSignificantBits (), nDefault);
+  }
+
+  /**
+   * Set the value of the provided key.
+   *
+   * @param nMSB
+   *        The most significant bits of the key.
+   * @param nLSB
+   *        The least significant bits of the key.
+   * @param nValue
+   *        The value to set.
+   * @return <code>true</code> if the key was added, <code>false</code> if the value of an existing
+   *         key was replaced.
+   */
+  boolean put (long nMSB, long nLSB, long nValue);
+
+  default boolean put (@NonNull final UUID aKey, final long nValue)
+  {
+    return put (aKey.getMostSignificantBits (), aKey.getLeastSignificantBits (), nValue);
+  }
+
+  /**
+   * Remove the provided key.
+   *
+   * @param nMSB
+   *        The most significant bits of the key.
+   * @param nLSB
+   *        The least significant bits of the key.
+   * @return <code>true</code> if the key was removed, <code>false</code> if it was not contained.
+   */
+  boolean remove (long nMSB, long nLSB);
+
+  default boolean remove (@NonNull final UUID aKey)
+  {
+    return remove (aKey.getMostSignificantBits (), aKey.getLeastSignificantBits ());
+  }
+
+  /**
+   * Remove all entries. The capacity is not changed.
+   */
+  void clear ();
+
+  /**
+   * Invoke the consumer for each entry, in no particular order. The map may not be modified from
+   * within the consumer.
+   *
+   * @param aConsumer
+   *        The consumer to invoke. May not be <code>null</code>.
+   */
+  void forEach (@NonNull IEntryConsumer aConsumer);
+}
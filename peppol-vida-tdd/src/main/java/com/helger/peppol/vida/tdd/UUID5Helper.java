@@ -27,6 +27,8 @@ import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 
 /**
  * This class contains static methods that leverage {@link java.util.UUID} and
@@ -106,6 +108,7 @@ public final class UUID5Helper
   {
     ValueEnforcer.notNull (aNameBytes, "Name");
 
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
     try
     {
       final MessageDigest aMD = MessageDigest.getInstance ("SHA-1");
@@ -133,6 +136,7 @@ public final class UUID5Helper
   {
     ValueEnforcer.notNull (aNameBytes, "NameBytes");
 
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
     try
     {
       final MessageDigest aMD = MessageDigest.getInstance ("SHA-1");
@@ -148,7 +152,9 @@ public final class UUID5Helper
         aBB.putLong (aNamespace.getLeastSignificantBits ());
         aMD.update (aBB.array ());
       }
-      return _makeUUID (aMD.digest (aNameBytes));
+      final UUID ret = _makeUUID (aMD.digest (aNameBytes));
+      PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.UUID_GENERATION, nStartNanos);
+      return ret;
     }
     catch (final NoSuchAlgorithmException e)
     {
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * {@link IUUIDLongMap} that stores all slots in direct (off-heap) buffers of up to 96 MiB each, so
+ * that even hundreds of millions of entries neither increase the heap size nor the garbage
+ * collection times. Each entry takes 24 bytes per slot. The direct memory must be big enough (see
+ * <code>-XX:MaxDirectMemorySize</code>). The slots can be written to and read from a channel as they
+ * are, so no rehashing is needed when loading a map.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class UUIDLongDirectHashMap extends AbstractUUIDLongHashMap
+{
+  /** The number of bytes per slot: MSB, LSB and value as big endian longs */
+  public static final int SLOT_SIZE = 24;
+  // 2^22 slots with 24 bytes each = 96 MiB per chunk
+  private static final int CHUNK_SHIFT = 22;
+  private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+  private static final long MAX_CAPACITY = 1L << 40;
+  private static final int CLEAR_SIZE = 64 * 1024;
+
+  private ByteBuffer [] m_aChunks;
+  private ByteBuffer [] m_aPrevChunks;
+
+  public UUIDLongDirectHashMap ()
+  {
+    this (DEFAULT_EXPECTED_ENTRIES);
+  }
+
+  /**
+   * @param nExpectedEntries
+   *        The number of expected entries. The map grows if more entries are added. Must be &gt; 0.
+   */
+  public UUIDLongDirectHashMap (final long nExpectedEntries)
+  {
+    init (nExpectedEntries);
+  }
+
+  @Override
+  protected long getMaxCapacity ()
+  {
+    return MAX_CAPACITY;
+  }
+
+  @Override
+  protected void allocate (final long nCapacity)
+  {
+    m_aPrevChunks = m_aChunks;
+    final int nChunkCount = (int) Math.max (1, nCapacity >>> CHUNK_SHIFT);
+    final int nChunkSize = (int) Math.min (nCapacity, 1L << CHUNK_SHIFT) * SLOT_SIZE;
+    m_aChunks = new ByteBuffer [nChunkCount];
+    for (int i = 0; i < nChunkCount; ++i)
+      m_aChunks[i] = ByteBuffer.allocateDirect (nChunkSize);
+  }
+
+  @Override
+  protected void rehashFromPrevious ()
+  {
+    final ByteBuffer [] aChunks = m_aPrevChunks;
+    m_aPrevChunks = null;
+    for (final ByteBuffer aChunk : aChunks)
+      for (int nOfs = 0; nOfs < aChunk.capacity (); nOfs += SLOT_SIZE)
+      {
+        final long nMSB = aChunk.getLong (nOfs);
+        final long nLSB = aChunk.getLong (nOfs + 8);
+        if (nMSB != 0 || nLSB != 0)
+          rehash (nMSB, nLSB, aChunk.getLong (nOfs + 16));
+      }
+  }
+
+  private ByteBuffer _chunk (final long nSlot)
+  {
+    return m_aChunks[(int) (nSlot >>> CHUNK_SHIFT)];
+  }
+
+  private static int _offset (final long nSlot)
+  {
+    return ((int) nSlot & CHUNK_MASK) * SLOT_SIZE;
+  }
+
+  @Override
+  protected long getSlotMSB (final long nSlot)
+  {
+    return _chunk (nSlot).getLong (_offset (nSlot));
+  }
+
+  @Override
+  protected long getSlotLSB (final long nSlot)
+  {
+    return _chunk (nSlot).getLong (_offset (nSlot) + 8);
+  }
+
+  @Override
+  protected long getSlotValue (final long nSlot)
+  {
+    return _chunk (nSlot).getLong (_offset (nSlot) + 16);
+  }
+
+  @Override
+  protected void setSlot (final long nSlot, final long nMSB, final long nLSB, final long nValue)
+  {
+    final ByteBuffer aChunk = _chunk (nSlot);
+    final int nOfs = _offset (nSlot);
+    aChunk.putLong (nOfs, nMSB);
+    aChunk.putLong (nOfs + 8, nLSB);
+    aChunk.putLong (nOfs + 16, nValue);
+  }
+
+  @Override
+  protected void setSlotValue (final long nSlot, final long nValue)
+  {
+    _chunk (nSlot).putLong (_offset (nSlot) + 16, nValue);
+  }
+
+  @Override
+  protected void clearAllSlots ()
+  {
+    final ByteBuffer aZeros = ByteBuffer.allocate (CLEAR_SIZE);
+    for (final ByteBuffer aChunk : m_aChunks)
+      for (int nOfs = 0; nOfs < aChunk.capacity (); nOfs += CLEAR_SIZE)
+        aChunk.put (nOfs, aZeros, 0, Math.min (CLEAR_SIZE, aChunk.capacity () - nOfs));
+  }
+
+  /**
+   * Write all slots to the provided channel. This writes {@link #getCapacity()} *
+   * {@link #SLOT_SIZE} bytes. The nil UUID is not part of the slots.
+   *
+   * @param aChannel
+   *        The channel to write to. May not be <code>null</code>.
+   * @throws IOException
+   *         If writing fails
+   */
+  public void writeSlotsTo (@NonNull final WritableByteChannel aChannel) throws IOException
+  {
+    ValueEnforcer.notNull (aChannel, "Channel");
+    for (final ByteBuffer aChunk : m_aChunks)
+    {
+      final ByteBuffer aBB = aChunk.duplicate ().clear ();
+      while (aBB.hasRemaining ())
+        aChannel.write (aBB);
+    }
+  }
+
+  /**
+   * Read a map from slots that were written with {@link #writeSlotsTo(WritableByteChannel)}. The
+   * nil UUID is not contained in the returned map.
+   *
+   * @param aChannel
+   *        The channel to read from. May not be <code>null</code>.
+   * @param nCapacity
+   *        The capacity of the written map. Must be a power of 2.
+   * @return The new map. Never <code>null</code>.
+   * @throws IOException
+   *         If reading fails
+   */
+  @NonNull
+  public static UUIDLongDirectHashMap readSlotsFrom (@NonNull final ReadableByteChannel aChannel,
+                                                     final long nCapacity) throws IOException
+  {
+    ValueEnforcer.notNull (aChannel, "Channel");
+    // The expected entries for exactly this capacity
+    final UUIDLongDirectHashMap ret = new UUIDLongDirectHashMap (nCapacity / 4 * 3);
+    if (ret.getCapacity () != nCapacity)
+      throw new IllegalArgumentException ("The capacity " + nCapacity + " is not supported");
+    for (final ByteBuffer aChunk : ret.m_aChunks)
+    {
+      final ByteBuffer aBB = aChunk.duplicate ().clear ();
+      while (aBB.hasRemaining ())
+        if (aChannel.read (aBB) < 0)
+          throw new EOFException ("Unexpected end of the map slots");
+    }
+    ret.initSizeFromSlots ();
+    return ret;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd;
+
+import java.util.Arrays;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+
+/**
+ * {@link IUUIDLongMap} that stores all slots in <code>long</code> arrays on the heap. Each entry
+ * takes 24 bytes per slot, without any object headers. Use {@link UUIDLongDirectHashMap} to keep
+ * the data outside of the heap.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class UUIDLongHashMap extends AbstractUUIDLongHashMap
+{
+  // Limited by the key array with 2 longs per slot
+  private static final long MAX_CAPACITY = 1L << 29;
+
+  // MSB and LSB interleaved
+  private long [] m_aKeys;
+  private long [] m_aValues;
+  private long [] m_aPrevKeys;
+  private long [] m_aPrevValues;
+
+  public UUIDLongHashMap ()
+  {
+    this (DEFAULT_EXPECTED_ENTRIES);
+  }
+
+  /**
+   * @param nExpectedEntries
+   *        The number of expected entries. The map grows if more entries are added. Must be &gt; 0.
+   */
+  public UUIDLongHashMap (final long nExpectedEntries)
+  {
+    init (nExpectedEntries);
+  }
+
+  @Override
+  protected long getMaxCapacity ()
+  {
+    return MAX_CAPACITY;
+  }
+
+  @Override
+  protected void allocate (final long nCapacity)
+  {
+    m_aPrevKeys = m_aKeys;
+    m_aPrevValues = m_aValues;
+    m_aKeys = new long [(int) nCapacity * 2];
+    m_aValues = new long [(int) nCapacity];
+  }
+
+  @Override
+  protected void rehashFromPrevious ()
+  {
+    final long [] aKeys = m_aPrevKeys;
+    final long [] aValues = m_aPrevValues;
+    m_aPrevKeys = null;
+    m_aPrevValues = null;
+    for (int i = 0; i < aValues.length; ++i)
+    {
+      final long nMSB = aKeys[2 * i];
+      final long nLSB = aKeys[2 * i + 1];
+      if (nMSB != 0 || nLSB != 0)
+        rehash (nMSB, nLSB, aValues[i]);
+    }
+  }
+
+  @Override
+  protected long getSlotMSB (final long nSlot)
+  {
+    return m_aKeys[(int) nSlot * 2];
+  }
+
+  @Override
+  protected long getSlotLSB (final long nSlot)
+  {
+    return m_aKeys[(int) nSlot * 2 + 1];
+  }
+
+  @Override
+  protected long getSlotValue (final long nSlot)
+  {
+    return m_aValues[(int) nSlot];
+  }
+
+  @Override
+  protected void setSlot (final long nSlot, final long nMSB, final long nLSB, final long nValue)
+  {
+    final int nIndex = (int) nSlot;
+    m_aKeys[nIndex * 2] = nMSB;
+    m_aKeys[nIndex * 2 + 1] = nLSB;
+    m_aValues[nIndex] = nValue;
+  }
+
+  @Override
+  protected void setSlotValue (final long nSlot, final long nValue)
+  {
+    m_aValues[(int) nSlot] = nValue;
+  }
+
+  @Override
+  protected void clearAllSlots ()
+  {
+    Arrays.fill (m_aKeys, 0);
+    Arrays.fill (m_aValues, 0);
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.correction;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+
+/**
+ * The way a TDD affects a business document.
+ *
+ * @author Philip Helger
+ */
+public enum EPeppolViDATDDCorrectionRelation implements IHasID <String>
+{
+  /**
+   * The TDD reports the business document itself - as initial submission, resubmission or
+   * disregard.
+   */
+  REPORTED ("reported"),
+  /**
+   * The TDD reports another business document (e.g. a credit note or a correction invoice), that
+   * contains a BillingReference to the business document.
+   */
+  REFERENCED ("referenced");
+
+  private final String m_sID;
+
+  EPeppolViDATDDCorrectionRelation (@NonNull @Nonempty final String sID)
+  {
+    m_sID = sID;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  @Nullable
+  public static EPeppolViDATDDCorrectionRelation getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (EPeppolViDATDDCorrectionRelation.class, sID);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.correction;
+
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+
+/**
+ * A single TDD affecting a business document, as returned by {@link PeppolViDATDDCorrectionIndex}.
+ * Use the TDD key to retrieve the TDD itself, e.g. from a TDD segment file.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDDCorrectionEntry
+{
+  private final int m_nSequence;
+  private final UUID m_aTDDKey;
+  private final UUID m_aReportedDocumentKey;
+  private final EViDATDDDocumentTypeCode m_eTDDType;
+  private final int m_nDocumentTypeCode;
+  private final EPeppolViDATDDCorrectionRelation m_eRelation;
+
+  PeppolViDATDDCorrectionEntry (final int nSequence,
+                                @NonNull final UUID aTDDKey,
+                                @NonNull final UUID aReportedDocumentKey,
+                                @Nullable final EViDATDDDocumentTypeCode eTDDType,
+                                final int nDocumentTypeCode,
+                                @NonNull final EPeppolViDATDDCorrectionRelation eRelation)
+  {
+    m_nSequence = nSequence;
+    m_aTDDKey = aTDDKey;
+    m_aReportedDocumentKey = aReportedDocumentKey;
+    m_eTDDType = eTDDType;
+    m_nDocumentTypeCode = nDocumentTypeCode;
+    m_eRelation = eRelation;
+  }
+
+  /**
+   * @return The 0-based position in which the ReportedDocument was added to the index. Query
+   *         results are ordered by this sequence.
+   */
+  @Nonnegative
+  public int getSequence ()
+  {
+    return m_nSequence;
+  }
+
+  /**
+   * @return The index key of the TDD UUID. Never <code>null</code>.
+   */
+  @NonNull
+  public UUID getTDDKey ()
+  {
+    return m_aTDDKey;
+  }
+
+  /**
+   * @return The index key of the ReportedDocument UUID. Never <code>null</code>.
+   */
+  @NonNull
+  public UUID getReportedDocumentKey ()
+  {
+    return m_aReportedDocumentKey;
+  }
+
+  /**
+   * @return The TDD document type code (submit, resubmit or disregard). May be <code>null</code>
+   *         if the TDD contained an unknown code.
+   */
+  @Nullable
+  public EViDATDDDocumentTypeCode getTDDType ()
+  {
+    return m_eTDDType;
+  }
+
+  /**
+   * @return The numeric UBL document type code of the ReportedDocument (e.g. 380 for an invoice or
+   *         381 for a credit note) or -1 if it is not numeric.
+   */
+  public int getDocumentTypeCode ()
+  {
+    return m_nDocumentTypeCode;
+  }
+
+  /**
+   * @return How the TDD affects the queried business document. Never <code>null</code>.
+   */
+  @NonNull
+  public EPeppolViDATDDCorrectionRelation getRelation ()
+  {
+    return m_eRelation;
+  }
+}
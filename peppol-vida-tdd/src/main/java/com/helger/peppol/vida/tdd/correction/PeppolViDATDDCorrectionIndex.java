@@ -0,0 +1,613 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.correction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.IUUIDLongMap;
+import com.helger.peppol.vida.tdd.UUIDLongHashMap;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.segment.CPeppolViDATDDSegment;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
+import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
+import com.helger.peppol.vida.tdd.v090.cbc.IdentifierType;
+
+/**
+ * Incremental index of all TDDs affecting a business document, to answer audit queries without
+ * scanning and parsing the archived TDDs. Each added ReportedDocument is linked
+ * <ul>
+ * <li>to all other ReportedDocuments with the same UUID - a resubmission or disregard of the same
+ * business document has the same ReportedDocument UUID (rule ID-BDID-01)</li>
+ * <li>to all other ReportedDocuments with the same ID</li>
+ * <li>to the business documents it references via BillingReference - e.g. credit notes and
+ * correction invoices</li>
+ * </ul>
+ * UUIDs and IDs are stored as 128 bit keys (see {@link CPeppolViDATDDSegment#getIndexKey(String)})
+ * in primitive arrays and all links are chained by array index, so every lookup is a single hash
+ * map access followed by the chain. BillingReferences only contain the document ID, so document
+ * IDs are expected to be unique within one index (e.g. one index per seller).
+ * <p>
+ * The index can be saved to and loaded from a file with {@link #writeTo(Path)} and
+ * {@link #readFrom(Path)}. Only the added data is stored, the hash maps are rebuilt upon reading.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PeppolViDATDDCorrectionIndex
+{
+  /** Magic number at the start of each index file ("PVDC") */
+  public static final int FILE_MAGIC = 0x50564443;
+  /** The current format version. Version 2 stores the TDD type as its code list ID. */
+  public static final byte FORMAT_VERSION = 2;
+
+  private static final EViDATDDDocumentTypeCode [] TDD_TYPES = EViDATDDDocumentTypeCode.values ();
+  // TDD key, ReportedDocument key, document ID key
+  private static final int KEY_LONGS = 6;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE / KEY_LONGS;
+  private static final int NONE = -1;
+
+  @GuardedBy ("this")
+  private int m_nDocCount;
+  @GuardedBy ("this")
+  private long [] m_aDocKeys = new long [INITIAL_CAPACITY * KEY_LONGS];
+  // Ordinal of the TDD document type code + 1, 0 if unknown - never persisted
+  @GuardedBy ("this")
+  private byte [] m_aDocTDDType = new byte [INITIAL_CAPACITY];
+  @GuardedBy ("this")
+  private int [] m_aDocTypeCode = new int [INITIAL_CAPACITY];
+  @GuardedBy ("this")
+  private int [] m_aNextSameUUID = new int [INITIAL_CAPACITY];
+  @GuardedBy ("this")
+  private int [] m_aNextSameID = new int [INITIAL_CAPACITY];
+
+  @GuardedBy ("this")
+  private int m_nRefCount;
+  @GuardedBy ("this")
+  private int [] m_aRefDoc = new int [INITIAL_CAPACITY];
+  @GuardedBy ("this")
+  private long [] m_aRefTargetKeys = new long [INITIAL_CAPACITY * 2];
+  @GuardedBy ("this")
+  private int [] m_aNextRef = new int [INITIAL_CAPACITY];
+
+  // ReportedDocument key to the last added ReportedDocument
+  @GuardedBy ("this")
+  private final IUUIDLongMap m_aByUUID = new UUIDLongHashMap ();
+  // Document ID key to the last added ReportedDocument (high int) and the last added reference (low
+  // int), both + 1 so that 0 means none
+  @GuardedBy ("this")
+  private final IUUIDLongMap m_aByID = new UUIDLongHashMap ();
+
+  public PeppolViDATDDCorrectionIndex ()
+  {}
+
+  private static int _getDocHead (final long nPacked)
+  {
+    return (int) (nPacked >>> 32) - 1;
+  }
+
+  private static int _getRefHead (final long nPacked)
+  {
+    return (int) nPacked - 1;
+  }
+
+  private static long _pack (final int nDocHead, final int nRefHead)
+  {
+    return ((long) (nDocHead + 1) << 32) | ((nRefHead + 1) & 0xffffffffL);
+  }
+
+  private static int _getNewCapacity (final int nCapacity)
+  {
+    if (nCapacity >= MAX_CAPACITY)
+      throw new IllegalStateException ("The correction index is full");
+    return (int) Math.min ((long) nCapacity * 2, MAX_CAPACITY);
+  }
+
+  @GuardedBy ("this")
+  private int _addDoc (final long nTDDMSB,
+                       final long nTDDLSB,
+                       final long nDocMSB,
+                       final long nDocLSB,
+                       final long nIDMSB,
+                       final long nIDLSB,
+                       final byte nTDDType,
+                       final int nDocTypeCode)
+  {
+    final int n = m_nDocCount;
+    if (n == m_aDocTDDType.length)
+    {
+      final int nNewCapacity = _getNewCapacity (n);
+      m_aDocKeys = Arrays.copyOf (m_aDocKeys, nNewCapacity * KEY_LONGS);
+      m_aDocTDDType = Arrays.copyOf (m_aDocTDDType, nNewCapacity);
+      m_aDocTypeCode = Arrays.copyOf (m_aDocTypeCode, nNewCapacity);
+      m_aNextSameUUID = Arrays.copyOf (m_aNextSameUUID, nNewCapacity);
+      m_aNextSameID = Arrays.copyOf (m_aNextSameID, nNewCapacity);
+    }
+    final int nOfs = n * KEY_LONGS;
+    m_aDocKeys[nOfs] = nTDDMSB;
+    m_aDocKeys[nOfs + 1] = nTDDLSB;
+    m_aDocKeys[nOfs + 2] = nDocMSB;
+    m_aDocKeys[nOfs + 3] = nDocLSB;
+    m_aDocKeys[nOfs + 4] = nIDMSB;
+    m_aDocKeys[nOfs + 5] = nIDLSB;
+    m_aDocTDDType[n] = nTDDType;
+    m_aDocTypeCode[n] = nDocTypeCode;
+
+    // The nil UUID marks a missing value
+    if (nDocMSB != 0 || nDocLSB != 0)
+    {
+      m_aNextSameUUID[n] = (int) m_aByUUID.get (nDocMSB, nDocLSB, NONE);
+      m_aByUUID.put (nDocMSB, nDocLSB, n);
+    }
+    else
+      m_aNextSameUUID[n] = NONE;
+    if (nIDMSB != 0 || nIDLSB != 0)
+    {
+      final long nPacked = m_aByID.get (nIDMSB, nIDLSB, 0);
+      m_aNextSameID[n] = _getDocHead (nPacked);
+      m_aByID.put (nIDMSB, nIDLSB, _pack (n, _getRefHead (nPacked)));
+    }
+    else
+      m_aNextSameID[n] = NONE;
+    m_nDocCount++;
+    return n;
+  }
+
+  @GuardedBy ("this")
+  private void _addRef (final int nDoc, final long nTargetMSB, final long nTargetLSB)
+  {
+    final int n = m_nRefCount;
+    if (n == m_aRefDoc.length)
+    {
+      final int nNewCapacity = _getNewCapacity (n);
+      m_aRefDoc = Arrays.copyOf (m_aRefDoc, nNewCapacity);
+      m_aRefTargetKeys = Arrays.copyOf (m_aRefTargetKeys, nNewCapacity * 2);
+      m_aNextRef = Arrays.copyOf (m_aNextRef, nNewCapacity);
+    }
+    m_aRefDoc[n] = nDoc;
+    m_aRefTargetKeys[n * 2] = nTargetMSB;
+    m_aRefTargetKeys[n * 2 + 1] = nTargetLSB;
+
+    final long nPacked = m_aByID.get (nTargetMSB, nTargetLSB, 0);
+    m_aNextRef[n] = _getRefHead (nPacked);
+    m_aByID.put (nTargetMSB, nTargetLSB, _pack (_getDocHead (nPacked), n));
+    m_nRefCount++;
+  }
+
+  @Nullable
+  private static String _getValue (@Nullable final IdentifierType aID)
+  {
+    return aID == null ? null : aID.getValue ();
+  }
+
+  private static int _getNumericCode (@Nullable final String sCode)
+  {
+    if (sCode == null || sCode.isEmpty () || sCode.length () > 9)
+      return -1;
+    int ret = 0;
+    for (int i = 0; i < sCode.length (); ++i)
+    {
+      final char c = sCode.charAt (i);
+      if (c < '0' || c > '9')
+        return -1;
+      ret = ret * 10 + (c - '0');
+    }
+    return ret;
+  }
+
+  /**
+   * Add all ReportedDocuments of a built or parsed TDD. TDDs should be added in the order they
+   * were reported, as query results are ordered by the time they were added.
+   *
+   * @param aTDD
+   *        The TDD to add. May not be <code>null</code>.
+   * @return The number of added ReportedDocuments. ReportedDocuments without UUID and ID are
+   *         ignored.
+   */
+  @Nonnegative
+  public int add (@NonNull final TaxDataType aTDD)
+  {
+    ValueEnforcer.notNull (aTDD, "TDD");
+
+    final UUID aTDDKey = CPeppolViDATDDSegment.getIndexKey (StringHelper.getNotNull (aTDD.getUUID (), ""));
+    final EViDATDDDocumentTypeCode eTDDType = EViDATDDDocumentTypeCode.getFromIDOrNull (aTDD.getDocumentTypeCode ());
+    final byte nTDDType = (byte) (eTDDType == null ? 0 : eTDDType.ordinal () + 1);
+
+    int ret = 0;
+    synchronized (this)
+    {
+      for (final ReportedTransaction aRT : aTDD.getReportedTransaction ())
+      {
+        final ReportedDocument aRD = aRT.getReportedDocument ();
+        if (aRD == null)
+          continue;
+        final String sUUID = aRD.getUUID ();
+        final String sID = _getValue (aRD.getID ());
+        if (StringHelper.isEmpty (sUUID) && StringHelper.isEmpty (sID))
+          continue;
+
+        final UUID aDocKey = StringHelper.isEmpty (sUUID) ? null : CPeppolViDATDDSegment.getIndexKey (sUUID);
+        final UUID aIDKey = StringHelper.isEmpty (sID) ? null : CPeppolViDATDDSegment.getIndexKey (sID);
+        final int nDoc = _addDoc (aTDDKey.getMostSignificantBits (),
+                                  aTDDKey.getLeastSignificantBits (),
+                                  aDocKey == null ? 0 : aDocKey.getMostSignificantBits (),
+                                  aDocKey == null ? 0 : aDocKey.getLeastSignificantBits (),
+                                  aIDKey == null ? 0 : aIDKey.getMostSignificantBits (),
+                                  aIDKey == null ? 0 : aIDKey.getLeastSignificantBits (),
+                                  nTDDType,
+                                  _getNumericCode (aRD.getDocumentTypeCode ()));
+
+        for (final BillingReference aBR : aRD.getBillingReference ())
+        {
+          final InvoiceDocumentReference aIDR = aBR.getInvoiceDocumentReference ();
+          final String sRefID = aIDR == null ? null : _getValue (aIDR.getID ());
+          if (StringHelper.isNotEmpty (sRefID))
+          {
+            final UUID aRefKey = CPeppolViDATDDSegment.getIndexKey (sRefID);
+            _addRef (nDoc, aRefKey.getMostSignificantBits (), aRefKey.getLeastSignificantBits ());
+          }
+        }
+        ret++;
+      }
+    }
+    return ret;
+  }
+
+  @GuardedBy ("this")
+  private void _addEntry (final int nDoc,
+                          @NonNull final EPeppolViDATDDCorrectionRelation eRelation,
+                          @NonNull final BitSet aSeen,
+                          @NonNull final ICommonsList <PeppolViDATDDCorrectionEntry> aTarget)
+  {
+    if (aSeen.get (nDoc))
+      return;
+    aSeen.set (nDoc);
+    final int nOfs = nDoc * KEY_LONGS;
+    final byte nTDDType = m_aDocTDDType[nDoc];
+    aTarget.add (new PeppolViDATDDCorrectionEntry (nDoc,
+                                                   new UUID (m_aDocKeys[nOfs], m_aDocKeys[nOfs + 1]),
+                                                   new UUID (m_aDocKeys[nOfs + 2], m_aDocKeys[nOfs + 3]),
+                                                   nTDDType == 0 ? null : TDD_TYPES[nTDDType - 1],
+                                                   m_aDocTypeCode[nDoc],
+                                                   eRelation));
+  }
+
+  @NonNull
+  private static ICommonsList <PeppolViDATDDCorrectionEntry> _sorted (@NonNull final ICommonsList <PeppolViDATDDCorrectionEntry> a)
+  {
+    a.sort (Comparator.comparingInt (PeppolViDATDDCorrectionEntry::getSequence));
+    return a;
+  }
+
+  /**
+   * Get all TDDs affecting the business document with the provided ID: all TDDs reporting a
+   * document with this ID and all TDDs reporting a document that references this ID.
+   *
+   * @param sDocumentID
+   *        The business document ID (ReportedDocument ID). May be <code>null</code>.
+   * @return The entries ordered by the time they were added. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <PeppolViDATDDCorrectionEntry> getAllAffectingDocumentID (@Nullable final String sDocumentID)
+  {
+    final ICommonsList <PeppolViDATDDCorrectionEntry> ret = new CommonsArrayList <> ();
+    if (StringHelper.isNotEmpty (sDocumentID))
+    {
+      final UUID aIDKey = CPeppolViDATDDSegment.getIndexKey (sDocumentID);
+      synchronized (this)
+      {
+        final BitSet aSeen = new BitSet ();
+        final long nPacked = m_aByID.get (aIDKey.getMostSignificantBits (), aIDKey.getLeastSignificantBits (), 0);
+        for (int n = _getDocHead (nPacked); n != NONE; n = m_aNextSameID[n])
+          _addEntry (n, EPeppolViDATDDCorrectionRelation.REPORTED, aSeen, ret);
+        for (int n = _getRefHead (nPacked); n != NONE; n = m_aNextRef[n])
+          _addEntry (m_aRefDoc[n], EPeppolViDATDDCorrectionRelation.REFERENCED, aSeen, ret);
+      }
+    }
+    return _sorted (ret);
+  }
+
+  /**
+   * Get all TDDs affecting the business document with the provided ReportedDocument UUID: all TDDs
+   * reporting this document (submission, resubmissions and disregards) and all TDDs reporting a
+   * document that references the ID of this document.
+   *
+   * @param sReportedDocumentUUID
+   *        The ReportedDocument UUID. May be <code>null</code>.
+   * @return The entries ordered by the time they were added. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <PeppolViDATDDCorrectionEntry> getAllAffectingReportedDocumentUUID (@Nullable final String sReportedDocumentUUID)
+  {
+    final ICommonsList <PeppolViDATDDCorrectionEntry> ret = new CommonsArrayList <> ();
+    if (StringHelper.isNotEmpty (sReportedDocumentUUID))
+    {
+      final UUID aDocKey = CPeppolViDATDDSegment.getIndexKey (sReportedDocumentUUID);
+      synchronized (this)
+      {
+        final BitSet aSeen = new BitSet ();
+        final IUUIDLongMap aSeenIDs = new UUIDLongHashMap (4);
+        for (int n = (int) m_aByUUID.get (aDocKey.getMostSignificantBits (), aDocKey.getLeastSignificantBits (), NONE);
+             n != NONE;
+             n = m_aNextSameUUID[n])
+        {
+          _addEntry (n, EPeppolViDATDDCorrectionRelation.REPORTED, aSeen, ret);
+          final long nIDMSB = m_aDocKeys[n * KEY_LONGS + 4];
+          final long nIDLSB = m_aDocKeys[n * KEY_LONGS + 5];
+          if ((nIDMSB != 0 || nIDLSB != 0) && aSeenIDs.put (nIDMSB, nIDLSB, 0))
+            for (int r = _getRefHead (m_aByID.get (nIDMSB, nIDLSB, 0)); r != NONE; r = m_aNextRef[r])
+              _addEntry (m_aRefDoc[r], EPeppolViDATDDCorrectionRelation.REFERENCED, aSeen, ret);
+        }
+      }
+    }
+    return _sorted (ret);
+  }
+
+  /**
+   * Get the complete correction chain of the business document with the provided ID. Like
+   * {@link #getAllAffectingDocumentID(String)} but references are followed transitively, e.g. a
+   * correction invoice that references a credit note that references the original invoice. Each
+   * TDD is contained only once - {@link EPeppolViDATDDCorrectionRelation#REFERENCED} means that it
+   * references any document of the chain.
+   *
+   * @param sDocumentID
+   *        The business document ID of the original document. May be <code>null</code>.
+   * @return The entries ordered by the time they were added. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <PeppolViDATDDCorrectionEntry> getCorrectionChain (@Nullable final String sDocumentID)
+  {
+    final ICommonsList <PeppolViDATDDCorrectionEntry> ret = new CommonsArrayList <> ();
+    if (StringHelper.isNotEmpty (sDocumentID))
+    {
+      final UUID aIDKey = CPeppolViDATDDSegment.getIndexKey (sDocumentID);
+      synchronized (this)
+      {
+        final BitSet aSeen = new BitSet ();
+        final IUUIDLongMap aSeenIDs = new UUIDLongHashMap (16);
+        // Queue of document ID keys
+        long [] aQueue = new long [32];
+        int nQueueHead = 0;
+        int nQueueTail = 0;
+        aQueue[nQueueTail++] = aIDKey.getMostSignificantBits ();
+        aQueue[nQueueTail++] = aIDKey.getLeastSignificantBits ();
+        aSeenIDs.put (aIDKey, 0);
+        while (nQueueHead < nQueueTail)
+        {
+          final long nPacked = m_aByID.get (aQueue[nQueueHead], aQueue[nQueueHead + 1], 0);
+          nQueueHead += 2;
+          for (int n = _getDocHead (nPacked); n != NONE; n = m_aNextSameID[n])
+            _addEntry (n, EPeppolViDATDDCorrectionRelation.REPORTED, aSeen, ret);
+          for (int r = _getRefHead (nPacked); r != NONE; r = m_aNextRef[r])
+          {
+            final int nDoc = m_aRefDoc[r];
+            _addEntry (nDoc, EPeppolViDATDDCorrectionRelation.REFERENCED, aSeen, ret);
+            final long nIDMSB = m_aDocKeys[nDoc * KEY_LONGS + 4];
+            final long nIDLSB = m_aDocKeys[nDoc * KEY_LONGS + 5];
+            if ((nIDMSB != 0 || nIDLSB != 0) && aSeenIDs.put (nIDMSB, nIDLSB, 0))
+            {
+              if (nQueueTail + 2 > aQueue.length)
+                aQueue = Arrays.copyOf (aQueue, aQueue.length * 2);
+              aQueue[nQueueTail++] = nIDMSB;
+              aQueue[nQueueTail++] = nIDLSB;
+            }
+          }
+        }
+      }
+    }
+    return _sorted (ret);
+  }
+
+  /**
+   * Get the TDD document type code of the last added TDD reporting the provided ReportedDocument
+   * UUID, e.g. to check whether a document was disregarded.
+   *
+   * @param sReportedDocumentUUID
+   *        The ReportedDocument UUID. May be <code>null</code>.
+   * @return <code>null</code> if the document is unknown or the TDD contained an unknown code.
+   */
+  @Nullable
+  public EViDATDDDocumentTypeCode getLatestTDDType (@Nullable final String sReportedDocumentUUID)
+  {
+    if (StringHelper.isEmpty (sReportedDocumentUUID))
+      return null;
+    final UUID aDocKey = CPeppolViDATDDSegment.getIndexKey (sReportedDocumentUUID);
+    synchronized (this)
+    {
+      final int n = (int) m_aByUUID.get (aDocKey.getMostSignificantBits (), aDocKey.getLeastSignificantBits (), NONE);
+      if (n == NONE || m_aDocTDDType[n] == 0)
+        return null;
+      return TDD_TYPES[m_aDocTDDType[n] - 1];
+    }
+  }
+
+  /**
+   * @return The number of added ReportedDocuments.
+   */
+  @Nonnegative
+  public synchronized int getReportedDocumentCount ()
+  {
+    return m_nDocCount;
+  }
+
+  /**
+   * @return The number of added BillingReferences.
+   */
+  @Nonnegative
+  public synchronized int getReferenceCount ()
+  {
+    return m_nRefCount;
+  }
+
+  /**
+   * Write the index to the provided file. Each ReportedDocument takes 53 bytes and each
+   * BillingReference 20 bytes. The data is written to a temporary file first, that atomically
+   * replaces the target file afterwards.
+   *
+   * @param aFile
+   *        The file to write to. May not be <code>null</code>.
+   * @throws IOException
+   *         If writing fails
+   */
+  public synchronized void writeTo (@NonNull final Path aFile) throws IOException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+
+    final Path aTmpFile = aFile.resolveSibling (aFile.getFileName () + ".tmp");
+    try (final FileChannel aFC = FileChannel.open (aTmpFile,
+                                                   StandardOpenOption.CREATE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING,
+                                                   StandardOpenOption.WRITE))
+    {
+      final DataOutputStream aDOS = new DataOutputStream (new BufferedOutputStream (Channels.newOutputStream (aFC),
+                                                                                    64 * 1024));
+      aDOS.writeInt (FILE_MAGIC);
+      aDOS.writeByte (FORMAT_VERSION);
+      aDOS.writeInt (m_nDocCount);
+      aDOS.writeInt (m_nRefCount);
+      for (int n = 0; n < m_nDocCount; ++n)
+      {
+        for (int i = 0; i < KEY_LONGS; ++i)
+          aDOS.writeLong (m_aDocKeys[n * KEY_LONGS + i]);
+        aDOS.writeByte (_getPersistentTDDType (m_aDocTDDType[n]));
+        aDOS.writeInt (m_aDocTypeCode[n]);
+      }
+      for (int n = 0; n < m_nRefCount; ++n)
+      {
+        aDOS.writeInt (m_aRefDoc[n]);
+        aDOS.writeLong (m_aRefTargetKeys[n * 2]);
+        aDOS.writeLong (m_aRefTargetKeys[n * 2 + 1]);
+      }
+      // Closing the channel is done by the outer try
+      aDOS.flush ();
+      aFC.force (true);
+    }
+    Files.move (aTmpFile, aFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * The TDD type is persisted as the single character code list ID (e.g. <code>S</code>) and not as
+   * the ordinal, so that the enum constants can be reordered or extended.
+   *
+   * @param nTDDType
+   *        The in-memory TDD type.
+   * @return The persistent TDD type or 0 if unknown.
+   */
+  private static byte _getPersistentTDDType (final byte nTDDType)
+  {
+    return nTDDType == 0 ? 0 : (byte) TDD_TYPES[nTDDType - 1].getID ().charAt (0);
+  }
+
+  /**
+   * @param nPersistentTDDType
+   *        The persistent TDD type as created by {@link #_getPersistentTDDType(byte)}.
+   * @return The in-memory TDD type, 0 if unknown or -1 if the persistent TDD type is invalid.
+   */
+  private static byte _getTDDTypeFromPersistent (final byte nPersistentTDDType)
+  {
+    if (nPersistentTDDType == 0)
+      return 0;
+    final EViDATDDDocumentTypeCode eTDDType = EViDATDDDocumentTypeCode.getFromIDOrNull (Character.toString ((char) nPersistentTDDType));
+    return (byte) (eTDDType == null ? -1 : eTDDType.ordinal () + 1);
+  }
+
+  /**
+   * Read an index that was written with {@link #writeTo(Path)}.
+   *
+   * @param aFile
+   *        The file to read. May not be <code>null</code>.
+   * @return The index. Never <code>null</code>.
+   * @throws IOException
+   *         If reading fails or the file is not a valid index file
+   */
+  @NonNull
+  public static PeppolViDATDDCorrectionIndex readFrom (@NonNull final Path aFile) throws IOException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+
+    try (final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (Files.newInputStream (aFile),
+                                                                                    64 * 1024)))
+    {
+      if (aDIS.readInt () != FILE_MAGIC || aDIS.readByte () != FORMAT_VERSION)
+        throw new IOException ("The file '" + aFile + "' is not a supported correction index file");
+      final int nDocCount = aDIS.readInt ();
+      final int nRefCount = aDIS.readInt ();
+      if (nDocCount < 0 || nDocCount > MAX_CAPACITY || nRefCount < 0 || nRefCount > MAX_CAPACITY)
+        throw new IOException ("The correction index file '" + aFile + "' has an invalid header");
+
+      final PeppolViDATDDCorrectionIndex ret = new PeppolViDATDDCorrectionIndex ();
+      synchronized (ret)
+      {
+        // Replaying in the original order results in the same chains
+        for (int n = 0; n < nDocCount; ++n)
+        {
+          final long nTDDMSB = aDIS.readLong ();
+          final long nTDDLSB = aDIS.readLong ();
+          final long nDocMSB = aDIS.readLong ();
+          final long nDocLSB = aDIS.readLong ();
+          final long nIDMSB = aDIS.readLong ();
+          final long nIDLSB = aDIS.readLong ();
+          final byte nTDDType = _getTDDTypeFromPersistent (aDIS.readByte ());
+          if (nTDDType < 0)
+            throw new IOException ("The correction index file '" + aFile + "' contains an invalid TDD type");
+          ret._addDoc (nTDDMSB, nTDDLSB, nDocMSB, nDocLSB, nIDMSB, nIDLSB, nTDDType, aDIS.readInt ());
+        }
+        for (int n = 0; n < nRefCount; ++n)
+        {
+          final int nDoc = aDIS.readInt ();
+          if (nDoc < 0 || nDoc >= nDocCount)
+            throw new IOException ("The correction index file '" + aFile + "' contains an invalid reference");
+          ret._addRef (nDoc, aDIS.readLong (), aDIS.readLong ());
+        }
+      }
+      if (aDIS.read () >= 0)
+        throw new IOException ("The correction index file '" + aFile + "' contains trailing data");
+      return ret;
+    }
+  }
+}
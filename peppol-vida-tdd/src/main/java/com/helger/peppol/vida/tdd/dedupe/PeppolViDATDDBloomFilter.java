@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.dedupe;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Cache line blocked Bloom filter for 64 bit hash values. All bits of one key are in the same block
+ * of 512 bits, so a lookup touches a single cache line.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+final class PeppolViDATDDBloomFilter
+{
+  /** 8 longs = 512 bits = one cache line */
+  static final int BLOCK_LONGS = 8;
+  /** Number of bits set per key */
+  static final int HASH_COUNT = 6;
+
+  private final long [] m_aBits;
+  private final int m_nBlockMask;
+
+  /**
+   * @param aBits
+   *        The bits to use. The length must be a power of 2 and at least {@link #BLOCK_LONGS}.
+   */
+  PeppolViDATDDBloomFilter (final long [] aBits)
+  {
+    m_aBits = aBits;
+    m_nBlockMask = aBits.length / BLOCK_LONGS - 1;
+  }
+
+  private static long _blockHash (final long nHash)
+  {
+    // Different bits than the hash table slot
+    long h = nHash + 0x9e3779b97f4a7c15L;
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+
+  void add (final long nHash)
+  {
+    final long h = _blockHash (nHash);
+    final int nBase = ((int) (h >>> 32) & m_nBlockMask) * BLOCK_LONGS;
+    final long g = h * 0x9e3779b97f4a7c15L;
+    for (int i = 0; i < HASH_COUNT; ++i)
+    {
+      final int nBit = (int) (g >>> (10 + 9 * i)) & 511;
+      m_aBits[nBase + (nBit >>> 6)] |= 1L << nBit;
+    }
+  }
+
+  boolean mightContain (final long nHash)
+  {
+    final long h = _blockHash (nHash);
+    final int nBase = ((int) (h >>> 32) & m_nBlockMask) * BLOCK_LONGS;
+    final long g = h * 0x9e3779b97f4a7c15L;
+    for (int i = 0; i < HASH_COUNT; ++i)
+    {
+      final int nBit = (int) (g >>> (10 + 9 * i)) & 511;
+      if ((m_aBits[nBase + (nBit >>> 6)] & (1L << nBit)) == 0)
+        return false;
+    }
+    return true;
+  }
+
+  long [] getBits ()
+  {
+    return m_aBits;
+  }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.dedupe;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.peppol.vida.tdd.AbstractUUIDLongHashMap;
+import com.helger.peppol.vida.tdd.UUIDLongDirectHashMap;
+import com.helger.peppol.vida.tdd.segment.CPeppolViDATDDSegment;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+
+/**
+ * Set of 128 bit UUIDs to detect ReportedDocuments that were already reported. The ReportedDocument
+ * UUID is derived from the business document according to rule ID-BDID-01 (see
+ * {@link PeppolViDATDD090ReportedTransactionBuilder#createReportedDocumentUUID(String, String, java.time.LocalDate, String)}),
+ * so an accidental second SUBMIT of the same invoice results in the same UUID.
+ * <ul>
+ * <li>The UUIDs are stored in a {@link UUIDLongDirectHashMap}, so in direct (off-heap) memory with 24
+ * bytes per slot. The value of the map is not used. No {@link UUID} objects are kept. The direct
+ * memory must be big enough (see <code>-XX:MaxDirectMemorySize</code>).</li>
+ * <li>A cache line blocked Bloom filter in front of the table answers most negative lookups
+ * without touching the table.</li>
+ * <li>The table grows automatically when it is 75% full.</li>
+ * <li>The index can be saved to and loaded from a file with {@link #writeTo(Path)} and
+ * {@link #readFrom(Path)}.</li>
+ * </ul>
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PeppolViDATDDDuplicateIndex
+{
+  /** Magic number at the start of each index file ("PVDX") */
+  public static final int FILE_MAGIC = 0x50564458;
+  /** The current format version */
+  public static final byte FORMAT_VERSION = 2;
+  /**
+   * File header: magic (int), format version (byte), nil UUID contained (byte), 2 reserved bytes,
+   * capacity (long), count (long), 8 reserved bytes. Followed by the Bloom filter (capacity bytes)
+   * and the slots of the table (capacity * {@link UUIDLongDirectHashMap#SLOT_SIZE} bytes).
+   */
+  public static final int FILE_HEADER_SIZE = 32;
+  public static final long DEFAULT_EXPECTED_ENTRIES = 1 << 20;
+
+  private static final long MIN_CAPACITY = 1024;
+  // Limited by the Bloom filter array with 8 bits per slot
+  private static final long MAX_CAPACITY = 1L << 33;
+
+  @GuardedBy ("this")
+  private final UUIDLongDirectHashMap m_aTable;
+  @GuardedBy ("this")
+  private PeppolViDATDDBloomFilter m_aBloom;
+
+  /**
+   * Create an empty index for {@link #DEFAULT_EXPECTED_ENTRIES} entries.
+   */
+  public PeppolViDATDDDuplicateIndex ()
+  {
+    this (DEFAULT_EXPECTED_ENTRIES);
+  }
+
+  /**
+   * Create an empty index.
+   *
+   * @param nExpectedEntries
+   *        The number of expected entries. The index grows if more entries are added. Must be &gt;
+   *        0.
+   */
+  public PeppolViDATDDDuplicateIndex (final long nExpectedEntries)
+  {
+    this (_createTable (nExpectedEntries));
+  }
+
+  private PeppolViDATDDDuplicateIndex (@NonNull final UUIDLongDirectHashMap aTable)
+  {
+    m_aTable = aTable;
+    m_aBloom = _createBloom (aTable.getCapacity ());
+  }
+
+  @NonNull
+  private static UUIDLongDirectHashMap _createTable (final long nExpectedEntries)
+  {
+    ValueEnforcer.isGT0 (nExpectedEntries, "ExpectedEntries");
+    // Load factor of at most 0.75
+    if (nExpectedEntries > MAX_CAPACITY / 4 * 3)
+      throw new IllegalStateException ("The duplicate index cannot hold " + nExpectedEntries + " entries");
+    return new UUIDLongDirectHashMap (Math.max (nExpectedEntries, MIN_CAPACITY / 4 * 3));
+  }
+
+  @NonNull
+  private static PeppolViDATDDBloomFilter _createBloom (final long nCapacity)
+  {
+    // 8 bits per slot
+    return new PeppolViDATDDBloomFilter (new long [(int) (nCapacity / 8)]);
+  }
+
+  @GuardedBy ("this")
+  private void _rebuildBloom ()
+  {
+    final PeppolViDATDDBloomFilter aBloom = _createBloom (m_aTable.getCapacity ());
+    m_aTable.forEach ( (nMSB, nLSB, nValue) -> aBloom.add (AbstractUUIDLongHashMap.getHash (nMSB, nLSB)));
+    m_aBloom = aBloom;
+  }
+
+  /**
+   * Check if the provided UUID was added before.
+   *
+   * @param nMSB
+   *        The most significant bits of the UUID.
+   * @param nLSB
+   *        The least significant bits of the UUID.
+   * @return <code>true</code> if it is contained.
+   */
+  public synchronized boolean contains (final long nMSB, final long nLSB)
+  {
+    if (nMSB == 0 && nLSB == 0)
+      return m_aTable.containsKey (0, 0);
+    if (!m_aBloom.mightContain (AbstractUUIDLongHashMap.getHash (nMSB, nLSB)))
+      return false;
+    return m_aTable.containsKey (nMSB, nLSB);
+  }
+
+  /**
+   * Check if the provided UUID was added before.
+   *
+   * @param aUUID
+   *        The UUID to check. May not be <code>null</code>.
+   * @return <code>true</code> if it is contained.
+   */
+  public boolean contains (@NonNull final UUID aUUID)
+  {
+    ValueEnforcer.notNull (aUUID, "UUID");
+    return contains (aUUID.getMostSignificantBits (), aUUID.getLeastSignificantBits ());
+  }
+
+  /**
+   * Check if the provided UUID was added before.
+   *
+   * @param sUUID
+   *        The UUID to check, e.g. the ReportedDocument UUID. Values that are no UUIDs are mapped
+   *        to a name based UUID. May not be <code>null</code>.
+   * @return <code>true</code> if it is contained.
+   */
+  public boolean contains (@NonNull final String sUUID)
+  {
+    ValueEnforcer.notNull (sUUID, "UUID");
+    return contains (CPeppolViDATDDSegment.getIndexKey (sUUID));
+  }
+
+  /**
+   * Add the provided UUID. Checking and adding is atomic, so this is the method to use if the
+   * same document may be reported from multiple threads.
+   *
+   * @param nMSB
+   *        The most significant bits of the UUID.
+   * @param nLSB
+   *        The least significant bits of the UUID.
+   * @return <code>true</code> if it was added, <code>false</code> if it was already contained
+   *         (duplicate).
+   */
+  public synchronized boolean add (final long nMSB, final long nLSB)
+  {
+    // The nil UUID is stored outside of the slots and never checked with the Bloom filter
+    if (nMSB == 0 && nLSB == 0)
+      return m_aTable.put (0, 0, 0);
+
+    final long nCapacity = m_aTable.getCapacity ();
+    if (nCapacity == MAX_CAPACITY && m_aTable.size () >= MAX_CAPACITY / 4 * 3 && !m_aTable.containsKey (nMSB, nLSB))
+      throw new IllegalStateException ("The duplicate index reached its maximum capacity of " + MAX_CAPACITY + " slots");
+    if (!m_aTable.put (nMSB, nLSB, 0))
+      return false;
+    if (m_aTable.getCapacity () == nCapacity)
+      m_aBloom.add (AbstractUUIDLongHashMap.getHash (nMSB, nLSB));
+    else
+      _rebuildBloom ();
+    return true;
+  }
+
+  /**
+   * Add the provided UUID.
+   *
+   * @param aUUID
+   *        The UUID to add. May not be <code>null</code>.
+   * @return <code>true</code> if it was added, <code>false</code> if it was already contained
+   *         (duplicate).
+   */
+  public boolean add (@NonNull final UUID aUUID)
+  {
+    ValueEnforcer.notNull (aUUID, "UUID");
+    return add (aUUID.getMostSignificantBits (), aUUID.getLeastSignificantBits ());
+  }
+
+  /**
+   * Add the provided UUID.
+   *
+   * @param sUUID
+   *        The UUID to add, e.g. the ReportedDocument UUID. Values that are no UUIDs are mapped to
+   *        a name based UUID. May not be <code>null</code>.
+   * @return <code>true</code> if it was added, <code>false</code> if it was already contained
+   *         (duplicate).
+   */
+  public boolean add (@NonNull final String sUUID)
+  {
+    ValueEnforcer.notNull (sUUID, "UUID");
+    return add (CPeppolViDATDDSegment.getIndexKey (sUUID));
+  }
+
+  /**
+   * @return The number of contained UUIDs.
+   */
+  @Nonnegative
+  public synchronized long getCount ()
+  {
+    return m_aTable.size ();
+  }
+
+  /**
+   * @return The number of slots of the hash table. Always a power of 2.
+   */
+  @Nonnegative
+  public synchronized long getCapacity ()
+  {
+    return m_aTable.getCapacity ();
+  }
+
+  private static void _readFully (@NonNull final ReadableByteChannel aChannel, @NonNull final ByteBuffer aBB)
+                                                                                                           throws IOException
+  {
+    while (aBB.hasRemaining ())
+      if (aChannel.read (aBB) < 0)
+        throw new EOFException ("Unexpected end of duplicate index file");
+  }
+
+  private static void _writeFully (@NonNull final FileChannel aFC, @NonNull final ByteBuffer aBB) throws IOException
+  {
+    while (aBB.hasRemaining ())
+      aFC.write (aBB);
+  }
+
+  /**
+   * Write the index to the provided file. The data is written to a temporary file first, that
+   * atomically replaces the target file afterwards, so the target file is never incomplete.
+   *
+   * @param aFile
+   *        The file to write to. May not be <code>null</code>.
+   * @throws IOException
+   *         If writing fails
+   */
+  public synchronized void writeTo (@NonNull final Path aFile) throws IOException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+
+    final Path aTmpFile = aFile.resolveSibling (aFile.getFileName () + ".tmp");
+    try (final FileChannel aFC = FileChannel.open (aTmpFile,
+                                                   StandardOpenOption.CREATE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING,
+                                                   StandardOpenOption.WRITE))
+    {
+      final ByteBuffer aHeader = ByteBuffer.allocate (FILE_HEADER_SIZE);
+      aHeader.putInt (FILE_MAGIC)
+             .put (FORMAT_VERSION)
+             .put ((byte) (m_aTable.containsKey (0, 0) ? 1 : 0))
+             .putShort ((short) 0)
+             .putLong (m_aTable.getCapacity ())
+             .putLong (m_aTable.size ())
+             .putLong (0)
+             .flip ();
+      _writeFully (aFC, aHeader);
+
+      final long [] aBits = m_aBloom.getBits ();
+      final ByteBuffer aBloomBuf = ByteBuffer.allocate (Math.min (aBits.length, 1 << 17) * Long.BYTES);
+      for (int i = 0; i < aBits.length;)
+      {
+        final int nCount = Math.min (aBits.length - i, aBloomBuf.capacity () / Long.BYTES);
+        aBloomBuf.clear ();
+        aBloomBuf.asLongBuffer ().put (aBits, i, nCount);
+        aBloomBuf.limit (nCount * Long.BYTES);
+        _writeFully (aFC, aBloomBuf);
+        i += nCount;
+      }
+
+      m_aTable.writeSlotsTo (aFC);
+      aFC.force (true);
+    }
+    Files.move (aTmpFile, aFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Read an index that was written with {@link #writeTo(Path)}.
+   *
+   * @param aFile
+   *        The file to read. May not be <code>null</code>.
+   * @return The index. Never <code>null</code>.
+   * @throws IOException
+   *         If reading fails or the file is not a valid index file
+   */
+  @NonNull
+  public static PeppolViDATDDDuplicateIndex readFrom (@NonNull final Path aFile) throws IOException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+
+    try (final FileChannel aFC = FileChannel.open (aFile, StandardOpenOption.READ))
+    {
+      final ByteBuffer aHeader = ByteBuffer.allocate (FILE_HEADER_SIZE);
+      _readFully (aFC, aHeader);
+      aHeader.flip ();
+      if (aHeader.getInt () != FILE_MAGIC || aHeader.get () != FORMAT_VERSION)
+        throw new IOException ("The file '" + aFile + "' is not a supported duplicate index file");
+      final boolean bContainsNil = aHeader.get () != 0;
+      aHeader.getShort ();
+      final long nCapacity = aHeader.getLong ();
+      final long nCount = aHeader.getLong ();
+      if (nCapacity < MIN_CAPACITY ||
+          nCapacity > MAX_CAPACITY ||
+          Long.bitCount (nCapacity) != 1 ||
+          nCount < 0 ||
+          nCount > nCapacity)
+        throw new IOException ("The duplicate index file '" + aFile + "' has an invalid header");
+      if (aFC.size () != FILE_HEADER_SIZE + nCapacity + nCapacity * UUIDLongDirectHashMap.SLOT_SIZE)
+        throw new IOException ("The duplicate index file '" + aFile + "' has an invalid size");
+
+      // 8 bits per slot
+      final long [] aBits = new long [(int) (nCapacity / 8)];
+      final ByteBuffer aBloomBuf = ByteBuffer.allocate (Math.min (aBits.length, 1 << 17) * Long.BYTES);
+      for (int i = 0; i < aBits.length;)
+      {
+        final int nLongs = Math.min (aBits.length - i, aBloomBuf.capacity () / Long.BYTES);
+        aBloomBuf.clear ().limit (nLongs * Long.BYTES);
+        _readFully (aFC, aBloomBuf);
+        aBloomBuf.flip ();
+        aBloomBuf.asLongBuffer ().get (aBits, i, nLongs);
+        i += nLongs;
+      }
+
+      final UUIDLongDirectHashMap aTable = UUIDLongDirectHashMap.readSlotsFrom (aFC, nCapacity);
+      if (bContainsNil)
+        aTable.put (0, 0, 0);
+      if (aTable.size () != nCount)
+        throw new IOException ("The duplicate index file '" + aFile + "' has an invalid content");
+
+      final PeppolViDATDDDuplicateIndex ret = new PeppolViDATDDDuplicateIndex (aTable);
+      synchronized (ret)
+      {
+        ret.m_aBloom = new PeppolViDATDDBloomFilter (aBits);
+      }
+      return ret;
+    }
+  }
+}
@@ -17,11 +17,21 @@
 package com.helger.peppol.vida.tdd.validate;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.w3c.dom.Node;
 
 import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.exception.InitializationException;
+import com.helger.base.functional.IThrowingSupplier;
+import com.helger.io.resource.IReadableResource;
+import com.helger.peppol.vida.tdd.jfr.PeppolViDATDDSchematronValidateEvent;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.schematron.ISchematronResource;
 import com.helger.schematron.sch.SchematronResourceSCH;
+import com.helger.schematron.svrl.SVRLHelper;
+import com.helger.schematron.svrl.jaxb.SchematronOutputType;
 
 /**
  * This class contains the Schematron resources for validating Peppol ViDA pilot TDD documents.
@@ -53,4 +63,81 @@ public final class PeppolViDATDDValidator
   {
     return VIDA_TDD_090;
   }
+
+  /**
+   * Validate the provided TDD v0.9.0 with {@link #getSchematronViDA_TDD_090()}. The duration is
+   * reported to {@link PeppolViDATDDMetrics}.
+   *
+   * @param aRes
+   *        The TDD to validate. May not be <code>null</code>.
+   * @return The SVRL or <code>null</code> if the resource could not be validated.
+   * @throws Exception
+   *         In case of a Schematron processing error
+   */
+  @Nullable
+  public static SchematronOutputType validateViDA_TDD_090 (@NonNull final IReadableResource aRes) throws Exception
+  {
+    return validateViDA_TDD_090 (aRes, null);
+  }
+
+  /**
+   * Validate the provided TDD v0.9.0 with {@link #getSchematronViDA_TDD_090()}. The duration is
+   * reported to {@link PeppolViDATDDMetrics} and a {@link PeppolViDATDDSchematronValidateEvent} is
+   * emitted if enabled in JFR.
+   *
+   * @param aRes
+   *        The TDD to validate. May not be <code>null</code>.
+   * @param sTDDUUID
+   *        The UUID of the TDD to validate. Only used for the JFR event. May be <code>null</code>.
+   * @return The SVRL or <code>null</code> if the resource could not be validated.
+   * @throws Exception
+   *         In case of a Schematron processing error
+   */
+  @Nullable
+  public static SchematronOutputType validateViDA_TDD_090 (@NonNull final IReadableResource aRes,
+                                                           @Nullable final String sTDDUUID) throws Exception
+  {
+    ValueEnforcer.notNull (aRes, "Resource");
+    return _validate ( () -> VIDA_TDD_090.applySchematronValidationToSVRL (aRes), sTDDUUID);
+  }
+
+  /**
+   * Validate the provided, already parsed TDD v0.9.0 with {@link #getSchematronViDA_TDD_090()}. The
+   * duration is reported to {@link PeppolViDATDDMetrics} and a
+   * {@link PeppolViDATDDSchematronValidateEvent} is emitted if enabled in JFR.
+   *
+   * @param aNode
+   *        The TDD document or element to validate. May not be <code>null</code>.
+   * @param sTDDUUID
+   *        The UUID of the TDD to validate. Only used for the JFR event. May be <code>null</code>.
+   * @return The SVRL or <code>null</code> if the node could not be validated.
+   * @throws Exception
+   *         In case of a Schematron processing error
+   */
+  @Nullable
+  public static SchematronOutputType validateViDA_TDD_090 (@NonNull final Node aNode,
+                                                           @Nullable final String sTDDUUID) throws Exception
+  {
+    ValueEnforcer.notNull (aNode, "Node");
+    return _validate ( () -> VIDA_TDD_090.applySchematronValidationToSVRL (aNode, null), sTDDUUID);
+  }
+
+  @Nullable
+  private static SchematronOutputType _validate (@NonNull final IThrowingSupplier <SchematronOutputType, Exception> aValidation,
+                                                 @Nullable final String sTDDUUID) throws Exception
+  {
+    final PeppolViDATDDSchematronValidateEvent aEvent = new PeppolViDATDDSchematronValidateEvent ();
+    aEvent.begin ();
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final SchematronOutputType ret = aValidation.get ();
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.SCHEMATRON_VALIDATION, nStartNanos);
+    if (aEvent.shouldCommit ())
+    {
+      aEvent.setTDDUUID (sTDDUUID);
+      aEvent.setFailedAssertCount (ret == null ? 0 : SVRLHelper.getAllFailedAssertions (ret).size ());
+      aEvent.setSuccess (ret != null);
+      aEvent.commit ();
+    }
+    return ret;
+  }
 }
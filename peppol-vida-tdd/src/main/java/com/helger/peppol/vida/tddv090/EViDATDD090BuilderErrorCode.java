@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+/**
+ * The error codes reported by the Peppol ViDA pilot TDD 0.9.0 builders via
+ * {@link PeppolViDATDD090BuilderErrorList}.
+ *
+ * @author Philip Helger
+ */
+public enum EViDATDD090BuilderErrorCode
+{
+  /** A mandatory field is not set. */
+  MISSING_FIELD,
+  /** A mandatory list is empty. */
+  EMPTY_LIST,
+  /**
+   * A field that is required, because another field is set, is missing. Argument 0 is the name of
+   * the other field.
+   */
+  MISSING_DEPENDENT_FIELD,
+  /**
+   * The scheme of a participant identifier is invalid. Argument 0 is the scheme name, argument 1
+   * the scheme.
+   */
+  INVALID_IDENTIFIER_SCHEME,
+  /**
+   * The value of a participant identifier is invalid for its scheme. Argument 0 is the scheme name,
+   * argument 1 the value and argument 2 the scheme.
+   */
+  INVALID_IDENTIFIER_VALUE,
+  /** A participant identifier does not use the 0242 scheme. Argument 0 is the value. */
+  IDENTIFIER_SCHEME_NOT_0242,
+  /**
+   * More than one element is present, but the CustomizationID only allows one. Argument 0 is the
+   * number of elements, argument 1 the CustomizationID.
+   */
+  TOO_MANY_FOR_CUSTOMIZATION_ID,
+  /**
+   * The value of an element differs from the value of the first element of the same kind, but all
+   * must be equal. Argument 0 is the value of the first element, argument 1 the value of this one.
+   */
+  DIFFERENT_FROM_FIRST_ELEMENT;
+}
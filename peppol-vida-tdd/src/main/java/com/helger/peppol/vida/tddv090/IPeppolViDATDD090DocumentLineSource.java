@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+
+/**
+ * A row based source of simple DocumentLines, to be added in bulk via
+ * {@link PeppolViDATDD090ReportedTransactionBuilder#addDocumentLines(IPeppolViDATDD090DocumentLineSource)}.
+ * All methods take the 0-based row index. Lines that need more than the fields provided here (e.g.
+ * AllowanceCharges or an InvoicePeriod) must be added one by one.
+ *
+ * @author Philip Helger
+ * @see PeppolViDATDD090DocumentLineColumns
+ */
+public interface IPeppolViDATDD090DocumentLineSource
+{
+  /**
+   * @return The number of rows. Must be &ge; 0.
+   */
+  @Nonnegative
+  int getLineCount ();
+
+  @Nullable
+  String getID (int nIndex);
+
+  @Nullable
+  default String getNote (final int nIndex)
+  {
+    return null;
+  }
+
+  @Nullable
+  BigDecimal getQuantity (int nIndex);
+
+  @Nullable
+  String getQuantityUnit (int nIndex);
+
+  @Nullable
+  BigDecimal getLineExtensionAmount (int nIndex);
+
+  @Nullable
+  BigDecimal getPriceAmount (int nIndex);
+
+  @Nullable
+  String getItemName (int nIndex);
+
+  @Nullable
+  String getTaxCategoryID (int nIndex);
+
+  @Nullable
+  BigDecimal getTaxCategoryPercentage (int nIndex);
+
+  @NonNull
+  default String getTaxSchemeID (final int nIndex)
+  {
+    return PeppolViDATDD090TotalsAggregator.DEFAULT_TAX_SCHEME_ID;
+  }
+}
@@ -26,8 +26,8 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
 import com.helger.peppol.vida.tdd.v090.cac.TaxCategory;
 
@@ -41,21 +41,49 @@ import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.All
 public class PeppolViDATDD090AllowanceChargeBuilder implements IBuilder <AllowanceCharge>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090AllowanceChargeBuilder.class);
+  private static final String BUILDER_NAME = "AllowanceCharge";
 
-  private final String m_sDocumentCurrencyCode;
+  private String m_sDocumentCurrencyCode;
   private boolean m_bCharge;
   private String m_sReasonCode;
   private String m_sReason;
-  private BigDecimal m_aMultFactor;
-  private BigDecimal m_aAmount;
-  private BigDecimal m_aBaseAmount;
+  private final PeppolViDATDD090ScaledAmount m_aMultFactor = new PeppolViDATDD090ScaledAmount ();
+  private final PeppolViDATDD090ScaledAmount m_aAmount = new PeppolViDATDD090ScaledAmount ();
+  private final PeppolViDATDD090ScaledAmount m_aBaseAmount = new PeppolViDATDD090ScaledAmount ();
   private TaxCategory m_aTaxCategory;
+  // Reused for all Consumer based calls - only valid during the callback
+  private PeppolViDATDD090TaxCategoryBuilder m_aTaxCategoryBuilder;
+  // The errors of nested element builders that failed
+  private final PeppolViDATDD090BuilderErrorList m_aNestedErrors = new PeppolViDATDD090BuilderErrorList ();
 
   public PeppolViDATDD090AllowanceChargeBuilder (@Nullable final String sDocumentCurrencyCode)
   {
     m_sDocumentCurrencyCode = sDocumentCurrencyCode;
   }
 
+  /**
+   * Reset all fields to their initial state and set a new currency code, so that this builder can
+   * be reused.
+   *
+   * @param sDocumentCurrencyCode
+   *        The currency code to use. May be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090AllowanceChargeBuilder reset (@Nullable final String sDocumentCurrencyCode)
+  {
+    m_sDocumentCurrencyCode = sDocumentCurrencyCode;
+    m_bCharge = false;
+    m_sReasonCode = null;
+    m_sReason = null;
+    m_aMultFactor.clear ();
+    m_aAmount.clear ();
+    m_aBaseAmount.clear ();
+    m_aTaxCategory = null;
+    m_aNestedErrors.clear ();
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -123,39 +151,96 @@ public class PeppolViDATDD090AllowanceChargeBuilder implements IBuilder <Allowan
   @Nullable
   public BigDecimal multiplicationFactor ()
   {
-    return m_aMultFactor;
+    return m_aMultFactor.get ();
   }
 
   @NonNull
   public PeppolViDATDD090AllowanceChargeBuilder multiplicationFactor (@Nullable final BigDecimal a)
   {
-    m_aMultFactor = a;
+    m_aMultFactor.set (a);
+    return this;
+  }
+
+  /**
+   * Set the multiplication factor as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090AllowanceChargeBuilder multiplicationFactor (final long nUnscaledValue, final int nScale)
+  {
+    m_aMultFactor.set (nUnscaledValue, nScale);
     return this;
   }
 
   @Nullable
   public BigDecimal amount ()
   {
-    return m_aAmount;
+    return m_aAmount.get ();
   }
 
   @NonNull
   public PeppolViDATDD090AllowanceChargeBuilder amount (@Nullable final BigDecimal a)
   {
-    m_aAmount = a;
+    m_aAmount.set (a);
+    return this;
+  }
+
+  /**
+   * Set the amount as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090AllowanceChargeBuilder amount (final long nUnscaledValue, final int nScale)
+  {
+    m_aAmount.set (nUnscaledValue, nScale);
     return this;
   }
 
+  @NonNull
+  PeppolViDATDD090ScaledAmount getAmountValue ()
+  {
+    return m_aAmount;
+  }
+
   @Nullable
   public BigDecimal baseAmount ()
   {
-    return m_aBaseAmount;
+    return m_aBaseAmount.get ();
   }
 
   @NonNull
   public PeppolViDATDD090AllowanceChargeBuilder baseAmount (@Nullable final BigDecimal a)
   {
-    m_aBaseAmount = a;
+    m_aBaseAmount.set (a);
+    return this;
+  }
+
+  /**
+   * Set the base amount as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090AllowanceChargeBuilder baseAmount (final long nUnscaledValue, final int nScale)
+  {
+    m_aBaseAmount.set (nUnscaledValue, nScale);
     return this;
   }
 
@@ -175,63 +260,104 @@ public class PeppolViDATDD090AllowanceChargeBuilder implements IBuilder <Allowan
   @NonNull
   public PeppolViDATDD090AllowanceChargeBuilder taxCategory (@Nullable final PeppolViDATDD090TaxCategoryBuilder a)
   {
-    return taxCategory (a == null ? null : a.build ());
+    if (a == null)
+      return taxCategory ((TaxCategory) null);
+    final TaxCategory aTC = m_aNestedErrors.buildNested (BUILDER_NAME, a::build);
+    return taxCategory (aTC);
   }
 
   @NonNull
   public PeppolViDATDD090AllowanceChargeBuilder taxCategory (@NonNull final Consumer <PeppolViDATDD090TaxCategoryBuilder> aBuilderConsumer)
   {
-    final PeppolViDATDD090TaxCategoryBuilder aBuilder = new PeppolViDATDD090TaxCategoryBuilder ();
+    if (m_aTaxCategoryBuilder == null)
+      m_aTaxCategoryBuilder = new PeppolViDATDD090TaxCategoryBuilder ();
+    final PeppolViDATDD090TaxCategoryBuilder aBuilder = m_aTaxCategoryBuilder.reset ();
     aBuilderConsumer.accept (aBuilder);
     return taxCategory (aBuilder);
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 AllowanceCharge builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
+
+    // Include the reasons why nested elements could not be built
+    aErrorList.addAll (m_aNestedErrors);
 
     // m_sReasonCode is optional
     // m_sReason is optional
     // m_aMultFactor is optional
-    if (m_aAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "Amount is missing");
-      aReportedDocsErrs.inc ();
-    }
+    if (m_aAmount.isNotSet ())
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "Amount");
     // m_aBaseAmount is optional
     // m_aTaxCategory is optional
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public AllowanceCharge build ()
+  private AllowanceCharge _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD AllowanceCharge cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final AllowanceCharge ret = new AllowanceCharge ();
     ret.setChargeIndicator (m_bCharge);
     ret.setAllowanceChargeReasonCode (m_sReasonCode);
     ret.setAllowanceChargeReason (m_sReason);
-    ret.setMultiplierFactorNumeric (m_aMultFactor);
-    ret.setAmount (m_aAmount).setCurrencyID (m_sDocumentCurrencyCode);
-    if (m_aBaseAmount != null)
-      ret.setBaseAmount (m_aBaseAmount).setCurrencyID (m_sDocumentCurrencyCode);
+    ret.setMultiplierFactorNumeric (m_aMultFactor.get ());
+    ret.setAmount (m_aAmount.get ()).setCurrencyID (m_sDocumentCurrencyCode);
+    if (m_aBaseAmount.isSet ())
+      ret.setBaseAmount (m_aBaseAmount.get ()).setCurrencyID (m_sDocumentCurrencyCode);
     // XXX the TaxCategory element has no type in XSD
     // ret.setTaxCategory (m_aTaxCategory);
 
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public AllowanceCharge build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final AllowanceCharge ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_ALLOWANCE_CHARGE, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public AllowanceCharge build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final AllowanceCharge ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD AllowanceCharge cannot be build.");
+    }
+    return ret;
+  }
 }
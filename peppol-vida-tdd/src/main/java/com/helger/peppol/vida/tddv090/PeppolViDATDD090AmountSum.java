@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A mutable sum of decimal amounts. Amounts provided as unscaled <code>long</code> with a scale
+ * are summed up as <code>long</code>, so that adding them does not create intermediate
+ * {@link BigDecimal} objects. Amounts provided as {@link BigDecimal}, amounts with unusual scales
+ * and amounts that would overflow the <code>long</code> sum are summed up separately as
+ * {@link BigDecimal}. Both parts are only combined in {@link #get()}.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+final class PeppolViDATDD090AmountSum
+{
+  /** The maximum scale supported by the unscaled long fast path */
+  static final int MAX_FAST_SCALE = 18;
+
+  private static final long [] POW10 = new long [MAX_FAST_SCALE + 1];
+  static
+  {
+    POW10[0] = 1;
+    for (int i = 1; i < POW10.length; ++i)
+      POW10[i] = POW10[i - 1] * 10;
+  }
+
+  private long m_nUnscaled;
+  private int m_nScale;
+  private boolean m_bUnscaledUsed = false;
+  // Only set if an amount could not be added to the long sum
+  private BigDecimal m_aBig;
+
+  PeppolViDATDD090AmountSum ()
+  {}
+
+  /**
+   * Add an amount provided as an unscaled value and a scale.
+   *
+   * @param nUnscaled
+   *        The unscaled value.
+   * @param nScale
+   *        The scale. Values &lt; 0 or &gt; {@link #MAX_FAST_SCALE} use the slow path.
+   */
+  void add (final long nUnscaled, final int nScale)
+  {
+    if (nScale >= 0 && nScale <= MAX_FAST_SCALE)
+    {
+      try
+      {
+        if (nScale == m_nScale)
+          m_nUnscaled = Math.addExact (m_nUnscaled, nUnscaled);
+        else
+          if (nScale > m_nScale)
+          {
+            final long nRescaled = Math.multiplyExact (m_nUnscaled, POW10[nScale - m_nScale]);
+            m_nUnscaled = Math.addExact (nRescaled, nUnscaled);
+            m_nScale = nScale;
+          }
+          else
+            m_nUnscaled = Math.addExact (m_nUnscaled, Math.multiplyExact (nUnscaled, POW10[m_nScale - nScale]));
+        m_bUnscaledUsed = true;
+        return;
+      }
+      catch (final ArithmeticException ex)
+      {
+        // Overflow - the long sum is unchanged, add this amount to the BigDecimal sum
+      }
+    }
+    add (BigDecimal.valueOf (nUnscaled, nScale));
+  }
+
+  /**
+   * Add an amount.
+   *
+   * @param a
+   *        The amount to add. May not be <code>null</code>.
+   */
+  void add (@NonNull final BigDecimal a)
+  {
+    // There is no way to get the unscaled long of a BigDecimal without creating a BigInteger
+    m_aBig = m_aBig == null ? a : m_aBig.add (a);
+  }
+
+  /**
+   * @return <code>true</code> if nothing was added since the last {@link #clear()}.
+   */
+  boolean isEmpty ()
+  {
+    return !m_bUnscaledUsed && m_aBig == null;
+  }
+
+  /**
+   * @return The current sum. Never <code>null</code>.
+   */
+  @NonNull
+  BigDecimal get ()
+  {
+    if (m_aBig == null)
+      return BigDecimal.valueOf (m_nUnscaled, m_nScale);
+    if (!m_bUnscaledUsed)
+      return m_aBig;
+    return m_aBig.add (BigDecimal.valueOf (m_nUnscaled, m_nScale));
+  }
+
+  void clear ()
+  {
+    m_nUnscaled = 0;
+    m_nScale = 0;
+    m_bUnscaledUsed = false;
+    m_aBig = null;
+  }
+}
@@ -0,0 +1,745 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.IReadableResource;
+import com.helger.io.resource.inmemory.ReadableResourceByteArray;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.jfr.PeppolViDAUBLToTDDConvertEvent;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.validate.PeppolViDATDDValidator;
+import com.helger.peppolid.IParticipantIdentifier;
+import com.helger.schematron.svrl.SVRLFailedAssert;
+import com.helger.schematron.svrl.SVRLHelper;
+import com.helger.schematron.svrl.jaxb.SchematronOutputType;
+import com.helger.ubl21.UBL21Marshaller;
+import com.helger.ubl21.UBL21Marshaller.UBL21JAXBMarshaller;
+
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Batch converter from UBL 2.1 Invoices and CreditNotes to Peppol ViDA pilot TDD 0.9.0 documents,
+ * using the same fixed TDD header parameters for all documents.
+ * <p>
+ * The conversion is pipelined:
+ * <ol>
+ * <li>The calling thread reads the source documents</li>
+ * <li>A pool of worker threads parses, converts, optionally Schematron validates and serializes
+ * them (the serialization includes the XSD validation)</li>
+ * <li>The results are handed to the sink in the order of the input</li>
+ * </ol>
+ * The number of documents between reading and delivery to the sink is limited by
+ * {@link #maxInFlight(int)}, so a slow sink or slow workers throttle the reading. Failures of a
+ * single document are reported as part of the {@link PeppolViDATDD090BatchResult} and don't abort
+ * the batch. The sink is never invoked concurrently.
+ * <p>
+ * Thread safety: the configuration methods are not thread-safe, so configure the converter
+ * completely before sharing it. Afterwards {@link #convertSingle(String, InputStream)},
+ * {@link #convertSingle(String, byte[])} and {@link #convert(Iterable, Consumer)} may be called
+ * concurrently from any number of threads, as long as the configuration is not modified at the same
+ * time.
+ *
+ * @author Philip Helger
+ */
+public class PeppolViDATDD090BatchConverter
+{
+  /**
+   * Statistics of a single batch run.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Summary
+  {
+    private final long m_nTotalCount;
+    private final long m_nFailureCount;
+    private final long m_nDurationNanos;
+
+    Summary (final long nTotalCount, final long nFailureCount, final long nDurationNanos)
+    {
+      m_nTotalCount = nTotalCount;
+      m_nFailureCount = nFailureCount;
+      m_nDurationNanos = nDurationNanos;
+    }
+
+    /**
+     * @return The number of source documents processed.
+     */
+    public long getTotalCount ()
+    {
+      return m_nTotalCount;
+    }
+
+    /**
+     * @return The number of results that were not successful.
+     */
+    public long getFailureCount ()
+    {
+      return m_nFailureCount;
+    }
+
+    /**
+     * @return The wall clock duration of the batch in nanoseconds.
+     */
+    public long getDurationNanos ()
+    {
+      return m_nDurationNanos;
+    }
+
+    /**
+     * @return The number of documents per second.
+     */
+    public double getThroughputPerSecond ()
+    {
+      return m_nDurationNanos <= 0 ? 0 : m_nTotalCount * 1_000_000_000d / m_nDurationNanos;
+    }
+  }
+
+  /**
+   * Per worker thread state that is reused across documents
+   */
+  private static final class WorkerState
+  {
+    private final PeppolViDATDD090Builder m_aBuilder = new PeppolViDATDD090Builder ();
+    private final PeppolViDATDD090Marshaller m_aMarshaller = new PeppolViDATDD090Marshaller ();
+    private final ByteBufferOutputStream m_aOS = new ByteBufferOutputStream ();
+    private final PeppolViDATDD090BuilderErrorList m_aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    private final UBL21JAXBMarshaller <InvoiceType> m_aInvoiceMarshaller = UBL21Marshaller.invoice ();
+    private final UBL21JAXBMarshaller <CreditNoteType> m_aCreditNoteMarshaller = UBL21Marshaller.creditNote ();
+    private final XMLInputFactory m_aXIF;
+
+    WorkerState ()
+    {
+      m_aXIF = createXMLInputFactory ();
+    }
+  }
+
+  /**
+   * State of a single batch run
+   */
+  private static final class Run
+  {
+    private final Consumer <? super PeppolViDATDD090BatchResult> m_aSink;
+    private final Semaphore m_aInFlight;
+    private final PeppolViDATDD090BatchResult [] m_aReorder;
+    private long m_nNextToDeliver = 0;
+    private long m_nFailureCount = 0;
+    private RuntimeException m_aSinkException;
+
+    Run (@NonNull final Consumer <? super PeppolViDATDD090BatchResult> aSink, final int nMaxInFlight)
+    {
+      m_aSink = aSink;
+      m_aInFlight = new Semaphore (nMaxInFlight);
+      m_aReorder = new PeppolViDATDD090BatchResult [nMaxInFlight];
+    }
+
+    /**
+     * Called by the workers - deliver all consecutive results to the sink
+     */
+    void complete (@NonNull final PeppolViDATDD090BatchResult aResult)
+    {
+      int nReleased = 0;
+      synchronized (this)
+      {
+        // At most nMaxInFlight results can be pending, so the slot is free
+        m_aReorder[(int) (aResult.getIndex () % m_aReorder.length)] = aResult;
+        while (true)
+        {
+          final int nSlot = (int) (m_nNextToDeliver % m_aReorder.length);
+          final PeppolViDATDD090BatchResult aNext = m_aReorder[nSlot];
+          if (aNext == null || aNext.getIndex () != m_nNextToDeliver)
+            break;
+          m_aReorder[nSlot] = null;
+          m_nNextToDeliver++;
+          if (!aNext.isSuccess ())
+            m_nFailureCount++;
+          if (m_aSinkException == null)
+            try
+            {
+              m_aSink.accept (aNext);
+            }
+            catch (final RuntimeException ex)
+            {
+              // Stop feeding the batch
+              m_aSinkException = ex;
+            }
+          nReleased++;
+        }
+      }
+      if (nReleased > 0)
+        m_aInFlight.release (nReleased);
+    }
+
+    synchronized boolean isSinkFailed ()
+    {
+      return m_aSinkException != null;
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090BatchConverter.class);
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger (0);
+
+  private EViDATDDDocumentTypeCode m_eDocumentTypeCode = EViDATDDDocumentTypeCode.SUBMIT;
+  private EViDATDDDocumentScope m_eDocumentScope;
+  private EViDATDDReporterRole m_eReporterRole;
+  private String m_sTaxAuthorityID;
+  private String m_sTaxAuthorityName;
+  private IParticipantIdentifier m_aReportingParty;
+  private IParticipantIdentifier m_aReceivingParty;
+  private IParticipantIdentifier m_aReportersRepresentative;
+  private int m_nWorkerCount = Runtime.getRuntime ().availableProcessors ();
+  private int m_nMaxInFlight = 4 * Runtime.getRuntime ().availableProcessors ();
+  private boolean m_bSchematronValidation = false;
+  // Lazily created header template - empty if the header is invalid, null if not yet created
+  private final AtomicReference <Optional <PeppolViDATDD090HeaderTemplate>> m_aHeaderTemplate = new AtomicReference <> ();
+  // Worker states for convertSingle - at most one per concurrent caller
+  private final ConcurrentLinkedQueue <WorkerState> m_aSingleStates = new ConcurrentLinkedQueue <> ();
+
+  public PeppolViDATDD090BatchConverter ()
+  {}
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter documentTypeCode (@NonNull final EViDATDDDocumentTypeCode e)
+  {
+    ValueEnforcer.notNull (e, "DocumentTypeCode");
+    m_eDocumentTypeCode = e;
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter documentScope (@Nullable final EViDATDDDocumentScope e)
+  {
+    m_eDocumentScope = e;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter reporterRole (@Nullable final EViDATDDReporterRole e)
+  {
+    m_eReporterRole = e;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter taxAuthorityID (@Nullable final String s)
+  {
+    m_sTaxAuthorityID = s;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter taxAuthorityName (@Nullable final String s)
+  {
+    m_sTaxAuthorityName = s;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter reportingParty (@Nullable final IParticipantIdentifier a)
+  {
+    m_aReportingParty = a;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter receivingParty (@Nullable final IParticipantIdentifier a)
+  {
+    m_aReceivingParty = a;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090BatchConverter reportersRepresentative (@Nullable final IParticipantIdentifier a)
+  {
+    m_aReportersRepresentative = a;
+    m_aHeaderTemplate.set (null);
+    return this;
+  }
+
+  /**
+   * @param n
+   *        The number of worker threads. Must be &gt; 0. Defaults to the number of available
+   *        processors.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090BatchConverter workerCount (final int n)
+  {
+    ValueEnforcer.isGT0 (n, "WorkerCount");
+    m_nWorkerCount = n;
+    return this;
+  }
+
+  /**
+   * @param n
+   *        The maximum number of documents that were read but not yet delivered to the sink. Must
+   *        be &gt; 0. Defaults to four times the number of available processors.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090BatchConverter maxInFlight (final int n)
+  {
+    ValueEnforcer.isGT0 (n, "MaxInFlight");
+    m_nMaxInFlight = n;
+    return this;
+  }
+
+  /**
+   * @param b
+   *        <code>true</code> to Schematron validate each created TDD. Defaults to
+   *        <code>false</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090BatchConverter schematronValidation (final boolean b)
+  {
+    m_bSchematronValidation = b;
+    return this;
+  }
+
+  @Nullable
+  private PeppolViDATDD090HeaderTemplate _createHeaderTemplate ()
+  {
+    final PeppolViDATDD090HeaderTemplate.Builder aBuilder = PeppolViDATDD090HeaderTemplate.builder ()
+                                                                                          .documentScope (m_eDocumentScope)
+                                                                                          .reporterRole (m_eReporterRole)
+                                                                                          .taxAuthorityID (m_sTaxAuthorityID)
+                                                                                          .taxAuthorityName (m_sTaxAuthorityName)
+                                                                                          .reportingParty (m_aReportingParty)
+                                                                                          .receivingParty (m_aReceivingParty)
+                                                                                          .reportersRepresentative (m_aReportersRepresentative);
+    // The per document builder reports the details, if the header is invalid
+    return aBuilder.build (PeppolViDATDD090BuilderErrorList.createCountingOnly ());
+  }
+
+  /**
+   * @return The header template of the current configuration, created on first use and cached until
+   *         a header field is modified. May be <code>null</code> if the header is invalid.
+   */
+  @Nullable
+  private PeppolViDATDD090HeaderTemplate _getHeaderTemplate ()
+  {
+    Optional <PeppolViDATDD090HeaderTemplate> ret = m_aHeaderTemplate.get ();
+    if (ret == null)
+    {
+      // Concurrent callers may create it twice, but only the first one is kept
+      ret = Optional.ofNullable (_createHeaderTemplate ());
+      if (!m_aHeaderTemplate.compareAndSet (null, ret))
+        ret = m_aHeaderTemplate.get ();
+    }
+    return ret.orElse (null);
+  }
+
+  @NonNull
+  private PeppolViDATDD090Builder _createHeaderBuilder (@NonNull final WorkerState aState,
+                                                        @Nullable final PeppolViDATDD090HeaderTemplate aTemplate)
+  {
+    if (aTemplate != null)
+      return aState.m_aBuilder.reset (aTemplate).documentTypeCode (m_eDocumentTypeCode);
+    return aState.m_aBuilder.reset ()
+                            .documentTypeCode (m_eDocumentTypeCode)
+                            .documentScope (m_eDocumentScope)
+                            .reporterRole (m_eReporterRole)
+                            .taxAuthorityID (m_sTaxAuthorityID)
+                            .taxAuthorityName (m_sTaxAuthorityName)
+                            .reportingParty (m_aReportingParty)
+                            .receivingParty (m_aReceivingParty)
+                            .reportersRepresentative (m_aReportersRepresentative);
+  }
+
+  @NonNull
+  static XMLInputFactory createXMLInputFactory ()
+  {
+    final XMLInputFactory ret = XMLInputFactory.newInstance ();
+    ret.setProperty (XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    ret.setProperty (XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    return ret;
+  }
+
+  @Nullable
+  static String getRootElementLocalName (@NonNull final XMLInputFactory aXIF, final byte @NonNull [] aBytes)
+                                                                                                           throws XMLStreamException
+  {
+    final XMLStreamReader aReader = aXIF.createXMLStreamReader (new ByteArrayInputStream (aBytes));
+    try
+    {
+      while (aReader.hasNext ())
+        if (aReader.next () == XMLStreamConstants.START_ELEMENT)
+          return aReader.getLocalName ();
+      return null;
+    }
+    finally
+    {
+      aReader.close ();
+    }
+  }
+
+  @NonNull
+  private PeppolViDATDD090BatchResult _convert (@NonNull final WorkerState aState,
+                                                @Nullable final PeppolViDATDD090HeaderTemplate aTemplate,
+                                                final long nIndex,
+                                                @NonNull final String sSourceName,
+                                                @NonNull final InputStream aIS)
+  {
+    final PeppolViDAUBLToTDDConvertEvent aEvent = new PeppolViDAUBLToTDDConvertEvent ();
+    aEvent.begin ();
+    final PeppolViDATDD090BatchResult ret = _convertDocument (aState, aTemplate, nIndex, sSourceName, aIS);
+    if (aEvent.shouldCommit ())
+    {
+      aEvent.setTDDUUID (ret.getTDD () == null ? null : ret.getTDD ().getUUID ());
+      aEvent.setSourceName (sSourceName);
+      aEvent.setSuccess (ret.isSuccess ());
+      aEvent.commit ();
+    }
+    return ret;
+  }
+
+  /**
+   * Convert a document on a worker thread and hand the result to the run. Every index must be
+   * completed exactly once, otherwise the in-flight permit is never released and the reorder buffer
+   * stalls. Exceptions are already turned into failure results by {@link #_convertDocument}, so only
+   * an {@link Error} (e.g. a {@link StackOverflowError} from XSLT) needs to be handled here: it is
+   * completed as a failure and rethrown afterwards.
+   */
+  private void _convertAndComplete (@NonNull final Run aRun,
+                                    @NonNull final WorkerState aState,
+                                    @Nullable final PeppolViDATDD090HeaderTemplate aTemplate,
+                                    final long nIndex,
+                                    @NonNull final String sSourceName,
+                                    final byte @NonNull [] aBytes)
+  {
+    final PeppolViDATDD090BatchResult aResult;
+    try
+    {
+      aResult = _convert (aState, aTemplate, nIndex, sSourceName, new ByteArrayInputStream (aBytes));
+    }
+    catch (final Error ex)
+    {
+      aRun.complete (PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                                sSourceName,
+                                                                "Failed to convert: " + ex,
+                                                                null));
+      throw ex;
+    }
+    aRun.complete (aResult);
+  }
+
+  @NonNull
+  private PeppolViDATDD090BatchResult _convertDocument (@NonNull final WorkerState aState,
+                                                        @Nullable final PeppolViDATDD090HeaderTemplate aTemplate,
+                                                        final long nIndex,
+                                                        @NonNull final String sSourceName,
+                                                        @NonNull final InputStream aIS)
+  {
+    XMLStreamReader aReader = null;
+    try
+    {
+      // Parse only once: determine the root element and unmarshal from the same reader
+      aReader = aState.m_aXIF.createXMLStreamReader (aIS);
+      while (aReader.hasNext () && aReader.getEventType () != XMLStreamConstants.START_ELEMENT)
+        aReader.next ();
+      final String sRootElement = aReader.isStartElement () ? aReader.getLocalName () : null;
+      final PeppolViDATDD090Builder aBuilder = _createHeaderBuilder (aState, aTemplate);
+      if ("Invoice".equals (sRootElement))
+      {
+        final InvoiceType aInvoice = aState.m_aInvoiceMarshaller.read (aReader);
+        if (aInvoice == null)
+          return PeppolViDATDD090BatchResult.createFailure (nIndex, sSourceName, "Failed to read UBL Invoice", null);
+        aBuilder.reportedTransaction (rt -> rt.initFromInvoice (aInvoice));
+      }
+      else
+        if ("CreditNote".equals (sRootElement))
+        {
+          final CreditNoteType aCreditNote = aState.m_aCreditNoteMarshaller.read (aReader);
+          if (aCreditNote == null)
+            return PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                              sSourceName,
+                                                              "Failed to read UBL CreditNote",
+                                                              null);
+          aBuilder.reportedTransaction (rt -> rt.initFromCreditNote (aCreditNote));
+        }
+        else
+          return PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                            sSourceName,
+                                                            "Unsupported root element '" + sRootElement + "'",
+                                                            null);
+
+      aState.m_aErrorList.clear ();
+      final TaxDataType aTDD = aBuilder.build (aState.m_aErrorList);
+      if (aTDD == null)
+        return PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                          sSourceName,
+                                                          "Failed to build the TDD - mandatory fields are missing: " +
+                                                                       String.join ("; ",
+                                                                                    aState.m_aErrorList.getAllMessages ()),
+                                                          null);
+
+      aState.m_aOS.reset ();
+      if (aState.m_aMarshaller.writeToBuffer (aTDD, aState.m_aOS) < 0)
+        return PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                          sSourceName,
+                                                          "Failed to serialize the TDD - it is not XSD compliant",
+                                                          null);
+      final ByteBuffer aBuf = aState.m_aOS.getAsReadOnlyBuffer ();
+      final byte [] aTDDBytes = new byte [aBuf.remaining ()];
+      aBuf.get (aTDDBytes);
+
+      final ICommonsList <SVRLFailedAssert> aFailedAsserts;
+      if (m_bSchematronValidation)
+      {
+        final SchematronOutputType aSVRL = PeppolViDATDDValidator.validateViDA_TDD_090 (new ReadableResourceByteArray (aTDDBytes),
+                                                                                        aTDD.getUUID ());
+        if (aSVRL == null)
+          return PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                            sSourceName,
+                                                            "Failed to Schematron validate the TDD",
+                                                            null);
+        aFailedAsserts = SVRLHelper.getAllFailedAssertions (aSVRL);
+      }
+      else
+        aFailedAsserts = new CommonsArrayList <> ();
+
+      return PeppolViDATDD090BatchResult.createSuccess (nIndex, sSourceName, aTDD, aTDDBytes, aFailedAsserts);
+    }
+    catch (final Exception ex)
+    {
+      return PeppolViDATDD090BatchResult.createFailure (nIndex,
+                                                        sSourceName,
+                                                        "Failed to convert: " + ex.getMessage (),
+                                                        ex);
+    }
+    finally
+    {
+      if (aReader != null)
+        try
+        {
+          aReader.close ();
+        }
+        catch (final XMLStreamException ex)
+        {
+          // Does not close the underlying stream anyway
+        }
+    }
+  }
+
+  /**
+   * Convert a single UBL document to a TDD on the calling thread.
+   *
+   * @param sSourceName
+   *        The name of the source document, used in the result. May not be <code>null</code>.
+   * @param aBytes
+   *        The UBL Invoice or CreditNote to convert. May not be <code>null</code>.
+   * @return The conversion result with index 0. Never <code>null</code>.
+   * @see #convertSingle(String, InputStream)
+   */
+  @NonNull
+  public PeppolViDATDD090BatchResult convertSingle (@NonNull final String sSourceName, final byte @NonNull [] aBytes)
+  {
+    ValueEnforcer.notNull (aBytes, "Bytes");
+    return convertSingle (sSourceName, new ByteArrayInputStream (aBytes));
+  }
+
+  /**
+   * Convert a single UBL document to a TDD on the calling thread. The document is parsed directly
+   * from the stream, without buffering it first. The reusable per document state (builder,
+   * marshaller, output buffer) is taken from a pool of this converter instead of a thread local, so
+   * this method also works efficiently on short-lived (e.g. virtual) threads. It is thread-safe, as
+   * long as the configuration of this converter is not modified at the same time.
+   *
+   * @param sSourceName
+   *        The name of the source document, used in the result. May not be <code>null</code>.
+   * @param aIS
+   *        The UBL Invoice or CreditNote to convert. May not be <code>null</code>. The stream is not
+   *        closed. Read errors are reported as failure results.
+   * @return The conversion result with index 0. Never <code>null</code>.
+   */
+  @NonNull
+  public PeppolViDATDD090BatchResult convertSingle (@NonNull final String sSourceName, @NonNull final InputStream aIS)
+  {
+    ValueEnforcer.notNull (sSourceName, "SourceName");
+    ValueEnforcer.notNull (aIS, "InputStream");
+
+    WorkerState aState = m_aSingleStates.poll ();
+    if (aState == null)
+      aState = new WorkerState ();
+    try
+    {
+      return _convert (aState, _getHeaderTemplate (), 0, sSourceName, aIS);
+    }
+    finally
+    {
+      m_aSingleStates.offer (aState);
+    }
+  }
+
+  /**
+   * Convert all provided UBL documents to TDDs. This method blocks until all results were handed to
+   * the sink.
+   *
+   * @param aSources
+   *        The UBL Invoices and CreditNotes to convert. May not be <code>null</code>.
+   * @param aSink
+   *        The consumer of the results. Called in input order and never concurrently. May not be
+   *        <code>null</code>. If the sink throws an exception, no further documents are read and
+   *        the exception is rethrown from this method.
+   * @return The batch summary. Never <code>null</code>.
+   * @throws InterruptedException
+   *         If the calling thread is interrupted while waiting
+   */
+  @NonNull
+  public Summary convert (@NonNull final Iterable <? extends IReadableResource> aSources,
+                          @NonNull final Consumer <? super PeppolViDATDD090BatchResult> aSink) throws InterruptedException
+  {
+    ValueEnforcer.notNull (aSources, "Sources");
+    ValueEnforcer.notNull (aSink, "Sink");
+
+    final long nStart = System.nanoTime ();
+    final Run aRun = new Run (aSink, m_nMaxInFlight);
+    // Validate the header fields only once
+    final PeppolViDATDD090HeaderTemplate aTemplate = _getHeaderTemplate ();
+    final ThreadLocal <WorkerState> aWorkerState = ThreadLocal.withInitial (WorkerState::new);
+    final ThreadPoolExecutor aExecutor = new ThreadPoolExecutor (m_nWorkerCount,
+                                                                 m_nWorkerCount,
+                                                                 0,
+                                                                 TimeUnit.MILLISECONDS,
+                                                                 new ArrayBlockingQueue <> (m_nMaxInFlight),
+                                                                 r -> {
+                                                                   final Thread t = new Thread (r,
+                                                                                                "tdd-batch-" +
+                                                                                                   THREAD_COUNTER.incrementAndGet ());
+                                                                   t.setDaemon (true);
+                                                                   return t;
+                                                                 });
+    long nIndex = 0;
+    try
+    {
+      for (final IReadableResource aSource : aSources)
+      {
+        // Backpressure
+        aRun.m_aInFlight.acquire ();
+        if (aRun.isSinkFailed ())
+        {
+          aRun.m_aInFlight.release ();
+          break;
+        }
+
+        final long nThisIndex = nIndex++;
+        final String sSourceName = aSource.getPath ();
+        final byte [] aBytes;
+        try (final InputStream aIS = aSource.getInputStream ())
+        {
+          if (aIS == null)
+          {
+            aRun.complete (PeppolViDATDD090BatchResult.createFailure (nThisIndex,
+                                                                      sSourceName,
+                                                                      "Failed to open source",
+                                                                      null));
+            continue;
+          }
+          aBytes = aIS.readAllBytes ();
+        }
+        catch (final IOException ex)
+        {
+          aRun.complete (PeppolViDATDD090BatchResult.createFailure (nThisIndex,
+                                                                    sSourceName,
+                                                                    "Failed to read source: " + ex.getMessage (),
+                                                                    ex));
+          continue;
+        }
+
+        try
+        {
+          aExecutor.execute ( () -> _convertAndComplete (aRun,
+                                                         aWorkerState.get (),
+                                                         aTemplate,
+                                                         nThisIndex,
+                                                         sSourceName,
+                                                         aBytes));
+        }
+        catch (final RejectedExecutionException ex)
+        {
+          // Cannot happen, because the queue is at least as large as the number of permits
+          aRun.complete (PeppolViDATDD090BatchResult.createFailure (nThisIndex,
+                                                                    sSourceName,
+                                                                    "Failed to schedule conversion",
+                                                                    ex));
+        }
+      }
+
+      // Wait until everything was delivered
+      aRun.m_aInFlight.acquire (m_nMaxInFlight);
+    }
+    finally
+    {
+      aExecutor.shutdownNow ();
+    }
+
+    if (aRun.m_aSinkException != null)
+      throw aRun.m_aSinkException;
+
+    final Summary ret = new Summary (nIndex, aRun.m_nFailureCount, System.nanoTime () - nStart);
+    if (LOGGER.isDebugEnabled ())
+      LOGGER.debug ("Converted " +
+                    ret.getTotalCount () +
+                    " documents with " +
+                    ret.getFailureCount () +
+                    " failures in " +
+                    TimeUnit.NANOSECONDS.toMillis (ret.getDurationNanos ()) +
+                    " ms");
+    return ret;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableObject;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.schematron.svrl.SVRLFailedAssert;
+
+/**
+ * The result of converting a single UBL document with {@link PeppolViDATDD090BatchConverter}.
+ * Either the conversion succeeded and the TDD and its serialized bytes are present, or an error
+ * message describes what went wrong.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDD090BatchResult
+{
+  private final long m_nIndex;
+  private final String m_sSourceName;
+  private final TaxDataType m_aTDD;
+  private final byte [] m_aTDDBytes;
+  private final ICommonsList <SVRLFailedAssert> m_aFailedAsserts;
+  private final String m_sErrorMsg;
+  private final Exception m_aException;
+
+  private PeppolViDATDD090BatchResult (final long nIndex,
+                                       @NonNull final String sSourceName,
+                                       @Nullable final TaxDataType aTDD,
+                                       final byte @Nullable [] aTDDBytes,
+                                       @NonNull final ICommonsList <SVRLFailedAssert> aFailedAsserts,
+                                       @Nullable final String sErrorMsg,
+                                       @Nullable final Exception aException)
+  {
+    m_nIndex = nIndex;
+    m_sSourceName = sSourceName;
+    m_aTDD = aTDD;
+    m_aTDDBytes = aTDDBytes;
+    m_aFailedAsserts = aFailedAsserts;
+    m_sErrorMsg = sErrorMsg;
+    m_aException = aException;
+  }
+
+  /**
+   * @return The 0-based index of the source document in the input. Results are delivered in
+   *         ascending index order.
+   */
+  public long getIndex ()
+  {
+    return m_nIndex;
+  }
+
+  /**
+   * @return The name (path) of the source document. Never <code>null</code>.
+   */
+  @NonNull
+  public String getSourceName ()
+  {
+    return m_sSourceName;
+  }
+
+  /**
+   * @return <code>true</code> if the TDD was created and serialized and no Schematron assertion
+   *         failed.
+   */
+  public boolean isSuccess ()
+  {
+    return m_sErrorMsg == null && m_aFailedAsserts.isEmpty ();
+  }
+
+  /**
+   * @return The created TDD or <code>null</code> if the conversion failed.
+   */
+  @Nullable
+  public TaxDataType getTDD ()
+  {
+    return m_aTDD;
+  }
+
+  /**
+   * @return The serialized (and XSD valid) TDD or <code>null</code> if the conversion failed.
+   */
+  @ReturnsMutableObject
+  public byte @Nullable [] getTDDBytes ()
+  {
+    return m_aTDDBytes;
+  }
+
+  /**
+   * @return The failed Schematron assertions. Always empty if Schematron validation is disabled.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableObject
+  public ICommonsList <SVRLFailedAssert> getAllFailedAssertions ()
+  {
+    return m_aFailedAsserts;
+  }
+
+  /**
+   * @return The error message if the conversion failed, <code>null</code> otherwise.
+   */
+  @Nullable
+  public String getErrorMessage ()
+  {
+    return m_sErrorMsg;
+  }
+
+  /**
+   * @return The exception that made the conversion fail. May be <code>null</code> also in case of
+   *         failure.
+   */
+  @Nullable
+  public Exception getException ()
+  {
+    return m_aException;
+  }
+
+  @NonNull
+  static PeppolViDATDD090BatchResult createSuccess (final long nIndex,
+                                                    @NonNull final String sSourceName,
+                                                    @NonNull final TaxDataType aTDD,
+                                                    final byte @NonNull [] aTDDBytes,
+                                                    @NonNull final ICommonsList <SVRLFailedAssert> aFailedAsserts)
+  {
+    return new PeppolViDATDD090BatchResult (nIndex, sSourceName, aTDD, aTDDBytes, aFailedAsserts, null, null);
+  }
+
+  @NonNull
+  static PeppolViDATDD090BatchResult createFailure (final long nIndex,
+                                                    @NonNull final String sSourceName,
+                                                    @NonNull final String sErrorMsg,
+                                                    @Nullable final Exception aException)
+  {
+    return new PeppolViDATDD090BatchResult (nIndex,
+                                            sSourceName,
+                                            null,
+                                            null,
+                                            new CommonsArrayList <> (),
+                                            sErrorMsg,
+                                            aException);
+  }
+}
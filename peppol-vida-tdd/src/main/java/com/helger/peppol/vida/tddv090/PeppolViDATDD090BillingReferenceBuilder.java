@@ -25,10 +25,10 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
 import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
 import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
 
@@ -44,6 +44,7 @@ import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
 public class PeppolViDATDD090BillingReferenceBuilder implements IBuilder <BillingReference>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090BillingReferenceBuilder.class);
+  private static final String BUILDER_NAME = "BillingReference";
 
   private String m_sID;
   private String m_sIDScheme;
@@ -52,6 +53,20 @@ public class PeppolViDATDD090BillingReferenceBuilder implements IBuilder <Billin
   public PeppolViDATDD090BillingReferenceBuilder ()
   {}
 
+  /**
+   * Reset all fields to their initial state, so that this builder can be reused.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090BillingReferenceBuilder reset ()
+  {
+    m_sID = null;
+    m_sIDScheme = null;
+    m_aIssueDate = null;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -117,37 +132,41 @@ public class PeppolViDATDD090BillingReferenceBuilder implements IBuilder <Billin
     return this;
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 BillingReference builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
 
     if (StringHelper.isEmpty (m_sID))
-    {
-      aCondLog.error (sErrorPrefix + "ID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ID");
     // m_sIDScheme is optional
     // m_aIssueDate is optional
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public BillingReference build ()
+  private BillingReference _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD BillingReference cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final BillingReference ret = new BillingReference ();
     {
@@ -159,4 +178,33 @@ public class PeppolViDATDD090BillingReferenceBuilder implements IBuilder <Billin
     }
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public BillingReference build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final BillingReference ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_BILLING_REFERENCE, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public BillingReference build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final BillingReference ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD BillingReference cannot be build.");
+    }
+    return ret;
+  }
 }
@@ -27,15 +27,23 @@ import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.builder.IBuilder;
-import com.helger.base.log.ConditionalLogger;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.equals.EqualsHelper;
 import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.datetime.helper.PDTFactory;
 import com.helger.datetime.xml.XMLOffsetDate;
 import com.helger.datetime.xml.XMLOffsetTime;
 import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
 import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
 import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.jaxb.CPeppolViDATDD;
+import com.helger.peppol.vida.tdd.jfr.PeppolViDATDDBuildEvent;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.TaxDataType;
 import com.helger.peppol.vida.tdd.v090.TaxDataType.ReceivingParty;
 import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
@@ -74,14 +82,99 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   private IParticipantIdentifier m_aReportingParty;
   private IParticipantIdentifier m_aReceivingParty;
   private IParticipantIdentifier m_aReportersRepresentative;
-  private ReportedTransaction m_aReportedTransaction;
+  private final ICommonsList <ReportedTransaction> m_aReportedTransactions = new CommonsArrayList <> ();
+  private boolean m_bMultipleReportedTransactions;
+  // Only set as long as the header fields are unchanged
+  private PeppolViDATDD090HeaderTemplate m_aHeaderTemplate;
+  // Reused for all Consumer based calls - only valid during the callback
+  private PeppolViDATDD090ReportedTransactionBuilder m_aReportedTransactionBuilder;
+  // The errors of the ReportedTransaction builders that failed
+  private final PeppolViDATDD090BuilderErrorList m_aReportedTransactionErrors = new PeppolViDATDD090BuilderErrorList ();
+  private int m_nFailedReportedTransactions;
 
   public PeppolViDATDD090Builder ()
   {
+    reset ();
+  }
+
+  /**
+   * Create a new builder with all header fields taken from the provided template. As long as none
+   * of the tax authority or party fields is modified, they are not validated again and the
+   * pre-built JAXB elements of the template are used.
+   *
+   * @param aHeaderTemplate
+   *        The pre-validated header template to use. May not be <code>null</code>.
+   * @see PeppolViDATDD090HeaderTemplate#createBuilder()
+   */
+  public PeppolViDATDD090Builder (@NonNull final PeppolViDATDD090HeaderTemplate aHeaderTemplate)
+  {
+    reset (aHeaderTemplate);
+  }
+
+  /**
+   * Reset all fields to the state of a newly created builder, so that this builder can be reused
+   * for another TDD. A new random UUID and the current issue date and time are set.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090Builder reset ()
+  {
+    m_eDocumentTypeCode = null;
+    m_eDocumentScope = null;
+    m_eReporterRole = null;
+    m_sTaxAuthorityID = null;
+    m_sTaxAuthorityName = null;
+    m_aReportingParty = null;
+    m_aReceivingParty = null;
+    m_aReportersRepresentative = null;
+    m_aReportedTransactions.clear ();
+    m_bMultipleReportedTransactions = false;
+    m_aReportedTransactionErrors.clear ();
+    m_nFailedReportedTransactions = 0;
+    m_aHeaderTemplate = null;
     customizationID (DEFAULT_CUSTOMIZATION_ID);
     profileID (DEFAULT_PROFILE_ID);
     randomUUID ();
     issueDateTimeNow ();
+    return this;
+  }
+
+  /**
+   * Reset all fields and take the header fields from the provided template, so that this builder
+   * can be reused for another TDD. A new random UUID and the current issue date and time are set.
+   *
+   * @param aHeaderTemplate
+   *        The pre-validated header template to use. May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090Builder reset (@NonNull final PeppolViDATDD090HeaderTemplate aHeaderTemplate)
+  {
+    ValueEnforcer.notNull (aHeaderTemplate, "HeaderTemplate");
+    reset ();
+    customizationID (aHeaderTemplate.getCustomizationID ());
+    profileID (aHeaderTemplate.getProfileID ());
+    documentScope (aHeaderTemplate.getDocumentScope ());
+    reporterRole (aHeaderTemplate.getReporterRole ());
+    taxAuthorityID (aHeaderTemplate.getTaxAuthorityID ());
+    taxAuthorityName (aHeaderTemplate.getTaxAuthorityName ());
+    reportingParty (aHeaderTemplate.getReportingParty ());
+    receivingParty (aHeaderTemplate.getReceivingParty ());
+    reportersRepresentative (aHeaderTemplate.getReportersRepresentative ());
+    // Must be last, because the setters reset it
+    m_aHeaderTemplate = aHeaderTemplate;
+    return this;
+  }
+
+  /**
+   * @return The header template in use, or <code>null</code> if none was used or if one of the
+   *         tax authority or party fields was modified afterwards.
+   */
+  @Nullable
+  public PeppolViDATDD090HeaderTemplate headerTemplate ()
+  {
+    return m_aHeaderTemplate;
   }
 
   @Nullable
@@ -126,7 +219,10 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   @NonNull
   public PeppolViDATDD090Builder randomUUID ()
   {
-    return uuid (UUID.randomUUID ().toString ());
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final String sUUID = UUID.randomUUID ().toString ();
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.UUID_GENERATION, nStartNanos);
+    return uuid (sUUID);
   }
 
   @Nullable
@@ -231,6 +327,7 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   public PeppolViDATDD090Builder taxAuthorityID (@Nullable final String s)
   {
     m_sTaxAuthorityID = s;
+    m_aHeaderTemplate = null;
     return this;
   }
 
@@ -244,6 +341,7 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   public PeppolViDATDD090Builder taxAuthorityName (@Nullable final String s)
   {
     m_sTaxAuthorityName = s;
+    m_aHeaderTemplate = null;
     return this;
   }
 
@@ -262,6 +360,7 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   public PeppolViDATDD090Builder reportingParty (@Nullable final IParticipantIdentifier a)
   {
     m_aReportingParty = a;
+    m_aHeaderTemplate = null;
     return this;
   }
 
@@ -280,6 +379,7 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   public PeppolViDATDD090Builder receivingParty (@Nullable final IParticipantIdentifier a)
   {
     m_aReceivingParty = a;
+    m_aHeaderTemplate = null;
     return this;
   }
 
@@ -298,214 +398,367 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
   public PeppolViDATDD090Builder reportersRepresentative (@Nullable final IParticipantIdentifier a)
   {
     m_aReportersRepresentative = a;
+    m_aHeaderTemplate = null;
     return this;
   }
 
+  /**
+   * @return The first ReportedTransaction or <code>null</code> if none is present.
+   */
   @Nullable
   public ReportedTransaction reportedTransaction ()
   {
-    return m_aReportedTransaction;
+    return m_aReportedTransactions.getFirstOrNull ();
   }
 
+  /**
+   * Set the one and only ReportedTransaction. All previously added ReportedTransactions are
+   * removed.
+   *
+   * @param a
+   *        The ReportedTransaction to use. May be <code>null</code>.
+   * @return this for chaining
+   */
   @NonNull
   public PeppolViDATDD090Builder reportedTransaction (@Nullable final ReportedTransaction a)
   {
-    m_aReportedTransaction = a;
+    m_aReportedTransactions.clear ();
+    if (a != null)
+      m_aReportedTransactions.add (a);
+    m_aReportedTransactionErrors.clear ();
+    m_nFailedReportedTransactions = 0;
     return this;
   }
 
+  /**
+   * Build the ReportedTransaction from the provided builder. If it cannot be built, the errors are
+   * remembered and reported by {@link #isEveryRequiredFieldSet(PeppolViDATDD090BuilderErrorList)}
+   * and {@link #build()}.
+   *
+   * @param a
+   *        The builder to use. May be <code>null</code>.
+   * @return this for chaining
+   */
   @NonNull
   public PeppolViDATDD090Builder reportedTransaction (@Nullable final PeppolViDATDD090ReportedTransactionBuilder a)
   {
-    return reportedTransaction (a == null ? null : a.build ());
+    m_aReportedTransactionErrors.clear ();
+    m_nFailedReportedTransactions = 0;
+    m_aReportedTransactions.clear ();
+    if (a != null)
+    {
+      final ReportedTransaction aRT = a.build (m_aReportedTransactionErrors);
+      if (aRT != null)
+        m_aReportedTransactions.add (aRT);
+    }
+    return this;
   }
 
   @NonNull
-  public PeppolViDATDD090Builder reportedTransaction (@NonNull final Consumer <PeppolViDATDD090ReportedTransactionBuilder> aBuilderConsumer)
+  private PeppolViDATDD090ReportedTransactionBuilder _getReportedTransactionBuilder ()
   {
     if (m_eDocumentTypeCode == null)
       throw new IllegalStateException ("The ReportedTransaction can only be built, after the DocumentTypeCode is set!");
-    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = new PeppolViDATDD090ReportedTransactionBuilder (m_eDocumentTypeCode);
+    if (m_aReportedTransactionBuilder == null)
+      m_aReportedTransactionBuilder = new PeppolViDATDD090ReportedTransactionBuilder (m_eDocumentTypeCode);
+    return m_aReportedTransactionBuilder.reset (m_eDocumentTypeCode);
+  }
+
+  @NonNull
+  public PeppolViDATDD090Builder reportedTransaction (@NonNull final Consumer <PeppolViDATDD090ReportedTransactionBuilder> aBuilderConsumer)
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _getReportedTransactionBuilder ();
     aBuilderConsumer.accept (aBuilder);
     return reportedTransaction (aBuilder);
   }
 
-  public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
+  /**
+   * @return <code>true</code> if multiple ReportedTransactions may be added, <code>false</code> if
+   *         only a single one is supported. Default is <code>false</code>.
+   */
+  public boolean multipleReportedTransactions ()
   {
-    int nErrs = 0;
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 builder: ";
+    return m_bMultipleReportedTransactions;
+  }
 
-    if (StringHelper.isEmpty (m_sCustomizationID))
+  /**
+   * Enable or disable the support for multiple ReportedTransactions in a single TDD. This is not
+   * allowed by ViDA-1 and therefore a different CustomizationID must be used, if more than one
+   * ReportedTransaction is added. This is meant for aggregated bulk reporting outside of ViDA-1
+   * only.
+   *
+   * @param b
+   *        <code>true</code> to enable it, <code>false</code> to disable it.
+   * @return this for chaining
+   * @see #addReportedTransaction(ReportedTransaction)
+   */
+  @NonNull
+  public PeppolViDATDD090Builder multipleReportedTransactions (final boolean b)
+  {
+    m_bMultipleReportedTransactions = b;
+    return this;
+  }
+
+  private void _checkMultipleReportedTransactions ()
+  {
+    if (!m_bMultipleReportedTransactions)
+      throw new IllegalStateException ("Multiple ReportedTransactions need to be enabled explicitly");
+  }
+
+  /**
+   * @return A copy of all ReportedTransactions. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <ReportedTransaction> reportedTransactions ()
+  {
+    return m_aReportedTransactions.getClone ();
+  }
+
+  /**
+   * @return The number of ReportedTransactions. Always &ge; 0.
+   */
+  public int getReportedTransactionCount ()
+  {
+    return m_aReportedTransactions.size ();
+  }
+
+  /**
+   * Add another ReportedTransaction. Requires {@link #multipleReportedTransactions(boolean)} to be
+   * enabled.
+   *
+   * @param a
+   *        The ReportedTransaction to add. May be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090Builder addReportedTransaction (@Nullable final ReportedTransaction a)
+  {
+    _checkMultipleReportedTransactions ();
+    if (a != null)
+      m_aReportedTransactions.add (a);
+    return this;
+  }
+
+  /**
+   * Build and add another ReportedTransaction. Requires
+   * {@link #multipleReportedTransactions(boolean)} to be enabled. If it cannot be built, the errors
+   * are remembered and reported by {@link #isEveryRequiredFieldSet(PeppolViDATDD090BuilderErrorList)}
+   * and {@link #build()}.
+   *
+   * @param a
+   *        The builder to use. May be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090Builder addReportedTransaction (@Nullable final PeppolViDATDD090ReportedTransactionBuilder a)
+  {
+    _checkMultipleReportedTransactions ();
+    if (a != null)
     {
-      aCondLog.error (sErrorPrefix + "CustomizationID is missing");
-      nErrs++;
+      // The error paths contain the index of the ReportedTransaction
+      final ReportedTransaction aRT = m_aReportedTransactionErrors.buildNested (null,
+                                                                                m_aReportedTransactions.size () +
+                                                                                      m_nFailedReportedTransactions,
+                                                                                a::build);
+      if (aRT != null)
+        m_aReportedTransactions.add (aRT);
+      else
+        m_nFailedReportedTransactions++;
     }
+    return this;
+  }
+
+  @NonNull
+  public PeppolViDATDD090Builder addReportedTransaction (@NonNull final Consumer <PeppolViDATDD090ReportedTransactionBuilder> aBuilderConsumer)
+  {
+    _checkMultipleReportedTransactions ();
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _getReportedTransactionBuilder ();
+    aBuilderConsumer.accept (aBuilder);
+    return addReportedTransaction (aBuilder);
+  }
+
+  /**
+   * Check a single participant identifier of the TDD header.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @param sBuilderName
+   *        The builder name to use in the errors. May be <code>null</code>.
+   * @param sName
+   *        The field name.
+   * @param sSchemeName
+   *        The name of the scheme for the error message.
+   * @param aID
+   *        The identifier to check. May be <code>null</code>.
+   * @param bRequire0242
+   *        <code>true</code> if the identifier value must use the 0242 scheme.
+   */
+  static void checkParticipant (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList,
+                                @Nullable final String sBuilderName,
+                                @NonNull final String sName,
+                                @NonNull final String sSchemeName,
+                                @Nullable final IParticipantIdentifier aID,
+                                final boolean bRequire0242)
+  {
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    if (aID == null)
+      aErrorList.add (sBuilderName, EViDATDD090BuilderErrorCode.MISSING_FIELD, sName);
+    else
+      if (!aIF.isParticipantIdentifierSchemeValid (aID.getScheme ()))
+        aErrorList.add (sBuilderName,
+                        EViDATDD090BuilderErrorCode.INVALID_IDENTIFIER_SCHEME,
+                        sName,
+                        sSchemeName,
+                        aID.getScheme ());
+      else
+        if (!aIF.isParticipantIdentifierValueValid (aID.getScheme (), aID.getValue ()))
+          aErrorList.add (sBuilderName,
+                          EViDATDD090BuilderErrorCode.INVALID_IDENTIFIER_VALUE,
+                          sName,
+                          sSchemeName,
+                          aID.getValue (),
+                          aID.getScheme ());
+        else
+          if (bRequire0242)
+          {
+            final String [] aParts = StringHelper.getExplodedArray (':', aID.getValue (), 2);
+            if (!"0242".equals (aParts[0]))
+              aErrorList.add (sBuilderName,
+                              EViDATDD090BuilderErrorCode.IDENTIFIER_SCHEME_NOT_0242,
+                              sName,
+                              aID.getValue ());
+          }
+  }
+
+  @NonNull
+  static TaxAuthority createTaxAuthority (@NonNull final String sID, @Nullable final String sName)
+  {
+    final TaxAuthority ret = new TaxAuthority ();
+    ret.setID (sID);
+    ret.setName (sName);
+    return ret;
+  }
+
+  @NonNull
+  static ReportingParty createReportingParty (@NonNull final IParticipantIdentifier aID)
+  {
+    final String [] aParts = StringHelper.getExplodedArray (':', aID.getValue (), 2);
+    final ReportingParty ret = new ReportingParty ();
+    ret.setEndpointID (aParts[1]).setSchemeID (aParts[0]);
+    return ret;
+  }
+
+  @NonNull
+  static ReceivingParty createReceivingParty (@NonNull final IParticipantIdentifier aID)
+  {
+    final String [] aParts = StringHelper.getExplodedArray (':', aID.getValue (), 2);
+    final ReceivingParty ret = new ReceivingParty ();
+    ret.setEndpointID (aParts[1]).setSchemeID (aParts[0]);
+    return ret;
+  }
+
+  @NonNull
+  static ReportersRepresentative createReportersRepresentative (@NonNull final IParticipantIdentifier aID)
+  {
+    final String [] aParts = StringHelper.getExplodedArray (':', aID.getValue (), 2);
+    final ReportersRepresentative ret = new ReportersRepresentative ();
+    final PartyIdentification aPID = new PartyIdentification ();
+    aPID.setID (aParts[1]).setSchemeID (aParts[0]);
+    ret.setPartyIdentification (aPID);
+    return ret;
+  }
+
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final int nErrsBefore = aErrorList.getErrorCount ();
+
+    if (StringHelper.isEmpty (m_sCustomizationID))
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "CustomizationID");
     if (StringHelper.isEmpty (m_sProfileID))
-    {
-      aCondLog.error (sErrorPrefix + "ProfileID is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ProfileID");
     if (StringHelper.isEmpty (m_sUUID))
-    {
-      aCondLog.error (sErrorPrefix + "UUID is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "UUID");
     if (m_aIssueDate == null)
-    {
-      aCondLog.error (sErrorPrefix + "IssueDate is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "IssueDate");
     if (m_aIssueTime == null)
-    {
-      aCondLog.error (sErrorPrefix + "IssueTime is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "IssueTime");
     if (m_eDocumentTypeCode == null)
-    {
-      aCondLog.error (sErrorPrefix + "DocumentTypeCode is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "DocumentTypeCode");
     if (m_eDocumentScope == null)
-    {
-      aCondLog.error (sErrorPrefix + "DocumentScope is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "DocumentScope");
     if (m_eReporterRole == null)
-    {
-      aCondLog.error (sErrorPrefix + "ReporterRole is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ReporterRole");
 
     if (StringHelper.isEmpty (m_sTaxAuthorityID))
-    {
-      aCondLog.error (sErrorPrefix + "TaxAuthority ID is missing");
-      nErrs++;
-    }
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxAuthority/ID");
     // m_sTaxAuthorityName is optional
 
-    if (m_aReportingParty == null)
+    if (m_aHeaderTemplate == null)
     {
-      aCondLog.error (sErrorPrefix + "ReportingParty is missing");
-      nErrs++;
+      // Only needed if no pre-validated header template is used
+      checkParticipant (aErrorList, null, "ReportingParty", "scheme", m_aReportingParty, false);
+      checkParticipant (aErrorList, null, "ReceivingParty", "scheme", m_aReceivingParty, true);
+      checkParticipant (aErrorList, null, "ReportersRepresentative", "meta scheme", m_aReportersRepresentative, true);
     }
-    else
-      if (!aIF.isParticipantIdentifierSchemeValid (m_aReportingParty.getScheme ()))
-      {
-        aCondLog.error (sErrorPrefix +
-                        "ReportingParty identifier scheme '" +
-                        m_aReportingParty.getScheme () +
-                        "' is invalid");
-        nErrs++;
-      }
-      else
-        if (!aIF.isParticipantIdentifierValueValid (m_aReportingParty.getScheme (), m_aReportingParty.getValue ()))
-        {
-          aCondLog.error (sErrorPrefix +
-                          "ReportingParty identifier value '" +
-                          m_aReportingParty.getValue () +
-                          "' is invalid for scheme '" +
-                          m_aReportingParty.getScheme () +
-                          "'");
-          nErrs++;
-        }
 
-    if (m_aReceivingParty == null)
-    {
-      aCondLog.error (sErrorPrefix + "ReceivingParty is missing");
-      nErrs++;
-    }
+    // Include the reasons why a ReportedTransaction could not be built
+    aErrorList.addAll (m_aReportedTransactionErrors);
+    if (m_aReportedTransactions.isEmpty ())
+      aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ReportedTransaction");
     else
-      if (!aIF.isParticipantIdentifierSchemeValid (m_aReceivingParty.getScheme ()))
+      if (m_aReportedTransactions.size () > 1)
       {
-        aCondLog.error (sErrorPrefix +
-                        "ReceivingParty identifier scheme '" +
-                        m_aReceivingParty.getScheme () +
-                        "' is invalid");
-        nErrs++;
-      }
-      else
-        if (!aIF.isParticipantIdentifierValueValid (m_aReceivingParty.getScheme (), m_aReceivingParty.getValue ()))
-        {
-          aCondLog.error (sErrorPrefix +
-                          "ReceivingParty identifier value '" +
-                          m_aReceivingParty.getValue () +
-                          "' is invalid for scheme '" +
-                          m_aReceivingParty.getScheme () +
-                          "'");
-          nErrs++;
-        }
-        else
+        if (CPeppolViDATDD.isViDA1CustomizationID (m_sCustomizationID))
         {
-          final String [] aParts = StringHelper.getExplodedArray (':', m_aReceivingParty.getValue (), 2);
-          if (!"0242".equals (aParts[0]))
-          {
-            aCondLog.error (sErrorPrefix +
-                            "ReceivingParty identifier value '" +
-                            m_aReceivingParty.getValue () +
-                            "' must use the 0242 identifier scheme");
-            nErrs++;
-          }
+          // ViDA-1 must have exactly one reported transaction
+          aErrorList.add (null,
+                          EViDATDD090BuilderErrorCode.TOO_MANY_FOR_CUSTOMIZATION_ID,
+                          "ReportedTransaction",
+                          Integer.valueOf (m_aReportedTransactions.size ()),
+                          m_sCustomizationID);
         }
 
-    if (m_aReportersRepresentative == null)
-    {
-      aCondLog.error (sErrorPrefix + "ReportersRepresentative is missing");
-      nErrs++;
-    }
-    else
-      if (!aIF.isParticipantIdentifierSchemeValid (m_aReportersRepresentative.getScheme ()))
-      {
-        aCondLog.error (sErrorPrefix +
-                        "ReportersRepresentative identifier meta scheme '" +
-                        m_aReportersRepresentative.getScheme () +
-                        "' is invalid");
-        nErrs++;
-      }
-      else
-        if (!aIF.isParticipantIdentifierValueValid (m_aReportersRepresentative.getScheme (),
-                                                    m_aReportersRepresentative.getValue ()))
+        // The DocumentCurrencyCode of the TDD is taken from the first transaction
+        final String sCurrency = m_aReportedTransactions.getFirstOrNull ().getReportedDocument ().getDocumentCurrencyCode ();
+        for (int i = 1; i < m_aReportedTransactions.size (); ++i)
         {
-          aCondLog.error (sErrorPrefix +
-                          "ReportersRepresentative identifier value '" +
-                          m_aReportersRepresentative.getValue () +
-                          "' is invalid for meta scheme '" +
-                          m_aReportersRepresentative.getScheme () +
-                          "'");
-          nErrs++;
-        }
-        else
-        {
-          final String [] aParts = StringHelper.getExplodedArray (':', m_aReportersRepresentative.getValue (), 2);
-          if (!"0242".equals (aParts[0]))
-          {
-            aCondLog.error (sErrorPrefix +
-                            "ReportersRepresentative identifier value '" +
-                            m_aReportersRepresentative.getValue () +
-                            "' must use the 0242 identifier scheme");
-            nErrs++;
-          }
+          final String sOtherCurrency = m_aReportedTransactions.get (i).getReportedDocument ().getDocumentCurrencyCode ();
+          if (!EqualsHelper.equals (sCurrency, sOtherCurrency))
+            aErrorList.add ("ReportedTransaction[" + i + "]",
+                            EViDATDD090BuilderErrorCode.DIFFERENT_FROM_FIRST_ELEMENT,
+                            "DocumentCurrencyCode",
+                            sCurrency,
+                            sOtherCurrency);
         }
+      }
 
-    // ViDA must have exactly one reported transaction
-    if (m_aReportedTransaction == null)
-    {
-      aCondLog.error (sErrorPrefix + "ReportedTransaction is missing");
-      nErrs++;
-    }
+    return aErrorList.getErrorCount () == nErrsBefore;
+  }
 
-    return nErrs == 0;
+  public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public TaxDataType build ()
+  private TaxDataType _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    if (!isEveryRequiredFieldSet (true))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final TaxDataType ret = new TaxDataType ();
     ret.setCustomizationID (m_sCustomizationID);
@@ -514,37 +767,68 @@ public class PeppolViDATDD090Builder implements IBuilder <TaxDataType>
     ret.setIssueDate (XMLOffsetDate.of (m_aIssueDate));
     ret.setIssueTime (XMLOffsetTime.of (m_aIssueTime));
     ret.setDocumentTypeCode (m_eDocumentTypeCode.getID ());
-    // Duplicate element
-    ret.setDocumentCurrencyCode (m_aReportedTransaction.getReportedDocument ().getDocumentCurrencyCode ());
+    // Duplicate element - taken from the first transaction
+    ret.setDocumentCurrencyCode (m_aReportedTransactions.getFirstOrNull ().getReportedDocument ().getDocumentCurrencyCode ());
     ret.setDocumentScope (m_eDocumentScope.getID ());
     ret.setReporterRole (m_eReporterRole.getID ());
+    if (m_aHeaderTemplate != null)
     {
-      final TaxAuthority a = new TaxAuthority ();
-      a.setID (m_sTaxAuthorityID);
-      a.setName (m_sTaxAuthorityName);
-      ret.setTaxAuthority (a);
+      // Use the pre-built elements
+      ret.setTaxAuthority (m_aHeaderTemplate.getTaxAuthorityElement ().clone ());
+      ret.setReportingParty (m_aHeaderTemplate.getReportingPartyElement ().clone ());
+      ret.setReceivingParty (m_aHeaderTemplate.getReceivingPartyElement ().clone ());
+      ret.setReportersRepresentative (m_aHeaderTemplate.getReportersRepresentativeElement ().clone ());
     }
+    else
     {
-      final String [] aParts = StringHelper.getExplodedArray (':', m_aReportingParty.getValue (), 2);
-      final ReportingParty aParty = new ReportingParty ();
-      aParty.setEndpointID (aParts[1]).setSchemeID (aParts[0]);
-      ret.setReportingParty (aParty);
+      ret.setTaxAuthority (createTaxAuthority (m_sTaxAuthorityID, m_sTaxAuthorityName));
+      ret.setReportingParty (createReportingParty (m_aReportingParty));
+      ret.setReceivingParty (createReceivingParty (m_aReceivingParty));
+      ret.setReportersRepresentative (createReportersRepresentative (m_aReportersRepresentative));
     }
+    ret.setReportedTransaction (m_aReportedTransactions.getClone ());
+    return ret;
+  }
+
+  /**
+   * Build the TDD and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public TaxDataType build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final PeppolViDATDDBuildEvent aEvent = new PeppolViDATDDBuildEvent ();
+    aEvent.begin ();
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final TaxDataType ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_TDD, nStartNanos);
+    if (aEvent.shouldCommit ())
     {
-      final String [] aParts = StringHelper.getExplodedArray (':', m_aReceivingParty.getValue (), 2);
-      final ReceivingParty aParty = new ReceivingParty ();
-      aParty.setEndpointID (aParts[1]).setSchemeID (aParts[0]);
-      ret.setReceivingParty (aParty);
+      int nLineCount = 0;
+      if (ret != null)
+        for (final ReportedTransaction aRT : ret.getReportedTransaction ())
+          nLineCount += aRT.getReportedDocument ().getDocumentLine ().size ();
+      aEvent.setTDDUUID (m_sUUID);
+      aEvent.setDocumentLineCount (nLineCount);
+      aEvent.setSuccess (ret != null);
+      aEvent.commit ();
     }
+    return ret;
+  }
+
+  @Nullable
+  public TaxDataType build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final TaxDataType ret = build (aErrorList);
+    if (ret == null)
     {
-      final String [] aParts = StringHelper.getExplodedArray (':', m_aReportersRepresentative.getValue (), 2);
-      final ReportersRepresentative aParty = new ReportersRepresentative ();
-      final PartyIdentification aPID = new PartyIdentification ();
-      aPID.setID (aParts[1]).setSchemeID (aParts[0]);
-      aParty.setPartyIdentification (aPID);
-      ret.setReportersRepresentative (aParty);
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD cannot be build.");
     }
-    ret.addReportedTransaction (m_aReportedTransaction);
     return ret;
   }
 }
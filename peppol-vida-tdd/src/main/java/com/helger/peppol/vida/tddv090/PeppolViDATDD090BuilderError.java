@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.string.StringHelper;
+
+/**
+ * A single error found by one of the Peppol ViDA pilot TDD 0.9.0 builders. The human readable
+ * message is only created on request. Errors of nested element builders carry the path of the
+ * parent builders (e.g. <code>ReportedTransaction/DocumentLine[3]/Item</code>).
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDD090BuilderError
+{
+  private static final Object [] NO_ARGS = new Object [0];
+
+  private final String m_sBuilderPath;
+  private final EViDATDD090BuilderErrorCode m_eErrorCode;
+  private final String m_sFieldName;
+  private final Object [] m_aArgs;
+
+  PeppolViDATDD090BuilderError (@Nullable final String sBuilderPath,
+                                @NonNull final EViDATDD090BuilderErrorCode eErrorCode,
+                                @NonNull final String sFieldName,
+                                @Nullable final Object [] aArgs)
+  {
+    m_sBuilderPath = sBuilderPath;
+    m_eErrorCode = eErrorCode;
+    m_sFieldName = sFieldName;
+    m_aArgs = aArgs == null ? NO_ARGS : aArgs;
+  }
+
+  /**
+   * Get a copy of this error as seen from the parent builder.
+   *
+   * @param sParentBuilderName
+   *        The name of the parent element builder. May be <code>null</code> for the TDD builder
+   *        itself.
+   * @param nIndex
+   *        The index of the nested element, if it is part of a list. Use a value &lt; 0 if it is a
+   *        single element.
+   * @return A new error object. Never <code>null</code>.
+   */
+  @NonNull
+  PeppolViDATDD090BuilderError getNested (@Nullable final String sParentBuilderName, final int nIndex)
+  {
+    String sPath = m_sBuilderPath;
+    if (nIndex >= 0 && sPath != null)
+    {
+      // Index the outermost element, which was added by the parent
+      final int nSep = sPath.indexOf ('/');
+      if (nSep < 0)
+        sPath = sPath + "[" + nIndex + "]";
+      else
+        sPath = sPath.substring (0, nSep) + "[" + nIndex + "]" + sPath.substring (nSep);
+    }
+    if (sParentBuilderName != null)
+      sPath = sPath == null ? sParentBuilderName : sParentBuilderName + "/" + sPath;
+    return new PeppolViDATDD090BuilderError (sPath, m_eErrorCode, m_sFieldName, m_aArgs);
+  }
+
+  /**
+   * @return The name of the element builder that reported the error (e.g. <code>Item</code>) or
+   *         <code>null</code> for the TDD builder itself. This is the last part of the builder path
+   *         without an index.
+   * @see #getBuilderPath()
+   */
+  @Nullable
+  public String getBuilderName ()
+  {
+    if (m_sBuilderPath == null)
+      return null;
+    final String ret = m_sBuilderPath.substring (m_sBuilderPath.lastIndexOf ('/') + 1);
+    final int nBracket = ret.indexOf ('[');
+    return nBracket < 0 ? ret : ret.substring (0, nBracket);
+  }
+
+  /**
+   * @return The path of the element builder that reported the error, including all parent
+   *         builders and the indices of list elements (e.g.
+   *         <code>ReportedTransaction/DocumentLine[3]/Item</code>). <code>null</code> for the TDD
+   *         builder itself.
+   */
+  @Nullable
+  public String getBuilderPath ()
+  {
+    return m_sBuilderPath;
+  }
+
+  /**
+   * @return The error code. Never <code>null</code>.
+   */
+  @NonNull
+  public EViDATDD090BuilderErrorCode getErrorCode ()
+  {
+    return m_eErrorCode;
+  }
+
+  /**
+   * @return The name of the erroneous field inside the builder. Never <code>null</code>.
+   */
+  @NonNull
+  public String getFieldName ()
+  {
+    return m_sFieldName;
+  }
+
+  /**
+   * @return The path of the erroneous field, in the form <code>BuilderPath/FieldName</code> (e.g.
+   *         <code>ReportedTransaction/DocumentLine[3]/Item/Name</code>). For the TDD builder itself
+   *         this is only the field name. Never <code>null</code>.
+   */
+  @NonNull
+  public String getFieldPath ()
+  {
+    return m_sBuilderPath == null ? m_sFieldName : m_sBuilderPath + "/" + m_sFieldName;
+  }
+  @Nullable
+  private String _getArg (final int nIndex)
+  {
+    return nIndex < m_aArgs.length ? String.valueOf (m_aArgs[nIndex]) : null;
+  }
+
+  /**
+   * @return The human readable error message without the builder prefix. Created on every call.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  public String getMessage ()
+  {
+    switch (m_eErrorCode)
+    {
+      case MISSING_FIELD:
+        return m_sFieldName + " is missing";
+      case EMPTY_LIST:
+        return "At least one " + m_sFieldName + " is needed";
+      case MISSING_DEPENDENT_FIELD:
+        return "If " + _getArg (0) + " is provided, " + m_sFieldName + " must also be provided";
+      case INVALID_IDENTIFIER_SCHEME:
+        return m_sFieldName + " identifier " + _getArg (0) + " '" + _getArg (1) + "' is invalid";
+      case INVALID_IDENTIFIER_VALUE:
+        return m_sFieldName +
+               " identifier value '" +
+               _getArg (1) +
+               "' is invalid for " +
+               _getArg (0) +
+               " '" +
+               _getArg (2) +
+               "'";
+      case IDENTIFIER_SCHEME_NOT_0242:
+        return m_sFieldName + " identifier value '" + _getArg (0) + "' must use the 0242 identifier scheme";
+      case TOO_MANY_FOR_CUSTOMIZATION_ID:
+        return "Only one " +
+               m_sFieldName +
+               " is allowed for CustomizationID '" +
+               _getArg (1) +
+               "' but " +
+               _getArg (0) +
+               " are present";
+      case DIFFERENT_FROM_FIRST_ELEMENT:
+        return m_sFieldName + " '" + _getArg (1) + "' differs from '" + _getArg (0) + "' of the first element";
+      default:
+        throw new IllegalStateException ("Unsupported error code " + m_eErrorCode);
+    }
+  }
+
+  /**
+   * @return The error message including the builder prefix, as used for logging. Created on every
+   *         call. Never <code>null</code>.
+   */
+  @NonNull
+  public String getLogMessage ()
+  {
+    return "Error in Peppol ViDA pilot TDD 0.9.0 " +
+           (StringHelper.isEmpty (m_sBuilderPath) ? "" : m_sBuilderPath + " ") +
+           "builder: " +
+           getMessage ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return getFieldPath () + " [" + m_eErrorCode + "]: " + getMessage ();
+  }
+}
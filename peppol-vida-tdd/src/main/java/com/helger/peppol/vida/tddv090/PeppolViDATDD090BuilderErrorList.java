@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Collects the errors of the Peppol ViDA pilot TDD 0.9.0 builders. A list created with
+ * {@link #createCountingOnly()} only counts the errors and never creates error objects. This is
+ * meant for high volume scenarios, where only the success matters. An error list can be reused
+ * after {@link #clear()}.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class PeppolViDATDD090BuilderErrorList implements Iterable <PeppolViDATDD090BuilderError>
+{
+  private final boolean m_bCollect;
+  private int m_nErrorCount;
+  // Lazily created, as most lists stay empty
+  private ICommonsList <PeppolViDATDD090BuilderError> m_aErrors;
+  // Reused for building nested elements
+  private PeppolViDATDD090BuilderErrorList m_aNestedErrors;
+
+  /**
+   * Create a new error list that collects all errors.
+   */
+  public PeppolViDATDD090BuilderErrorList ()
+  {
+    this (true);
+  }
+
+  private PeppolViDATDD090BuilderErrorList (final boolean bCollect)
+  {
+    m_bCollect = bCollect;
+  }
+
+  /**
+   * @return <code>true</code> if this list collects the errors, <code>false</code> if it only
+   *         counts them.
+   */
+  public boolean isCollecting ()
+  {
+    return m_bCollect;
+  }
+
+  private void _add (@Nullable final String sBuilderPath,
+                     @NonNull final EViDATDD090BuilderErrorCode eErrorCode,
+                     @NonNull final String sFieldName,
+                     @Nullable final Object [] aArgs)
+  {
+    m_nErrorCount++;
+    if (m_bCollect)
+    {
+      if (m_aErrors == null)
+        m_aErrors = new CommonsArrayList <> ();
+      m_aErrors.add (new PeppolViDATDD090BuilderError (sBuilderPath, eErrorCode, sFieldName, aArgs));
+    }
+  }
+
+  /**
+   * Add a new error without arguments.
+   *
+   * @param sBuilderPath
+   *        The element builder name or path (e.g. <code>DocumentLine[3]/Item</code>). May be
+   *        <code>null</code> for the TDD builder itself.
+   * @param eErrorCode
+   *        The error code. May not be <code>null</code>.
+   * @param sFieldName
+   *        The erroneous field name. May not be <code>null</code>.
+   */
+  public void add (@Nullable final String sBuilderPath,
+                   @NonNull final EViDATDD090BuilderErrorCode eErrorCode,
+                   @NonNull final String sFieldName)
+  {
+    _add (sBuilderPath, eErrorCode, sFieldName, null);
+  }
+
+  /**
+   * Add a new error with arguments for the message.
+   *
+   * @param sBuilderPath
+   *        The element builder name or path (e.g. <code>DocumentLine[3]/Item</code>). May be
+   *        <code>null</code> for the TDD builder itself.
+   * @param eErrorCode
+   *        The error code. May not be <code>null</code>.
+   * @param sFieldName
+   *        The erroneous field name. May not be <code>null</code>.
+   * @param aArgs
+   *        The message arguments, as defined by the error code.
+   */
+  public void add (@Nullable final String sBuilderPath,
+                   @NonNull final EViDATDD090BuilderErrorCode eErrorCode,
+                   @NonNull final String sFieldName,
+                   @NonNull final Object... aArgs)
+  {
+    _add (sBuilderPath, eErrorCode, sFieldName, aArgs);
+  }
+
+  /**
+   * Add all errors of the provided list.
+   *
+   * @param aOther
+   *        The list to take the errors from. May not be <code>null</code>.
+   */
+  public void addAll (@NonNull final PeppolViDATDD090BuilderErrorList aOther)
+  {
+    ValueEnforcer.notNull (aOther, "Other");
+    if (m_bCollect && aOther.m_aErrors != null)
+    {
+      if (m_aErrors == null)
+        m_aErrors = new CommonsArrayList <> ();
+      m_aErrors.addAll (aOther.m_aErrors);
+    }
+    m_nErrorCount += aOther.m_nErrorCount;
+  }
+
+  /**
+   * Add all errors of a nested element builder. The path of each error is prefixed with the name of
+   * the parent builder, and the nested element is indexed if it is part of a list.
+   *
+   * @param sParentBuilderName
+   *        The name of the parent element builder. May be <code>null</code> for the TDD builder
+   *        itself.
+   * @param nIndex
+   *        The index of the nested element inside the parent list or a value &lt; 0 if the nested
+   *        element is not part of a list.
+   * @param aOther
+   *        The errors of the nested element builder. May not be <code>null</code>.
+   */
+  public void addAllNested (@Nullable final String sParentBuilderName,
+                            final int nIndex,
+                            @NonNull final PeppolViDATDD090BuilderErrorList aOther)
+  {
+    ValueEnforcer.notNull (aOther, "Other");
+    if (m_bCollect && aOther.m_aErrors != null)
+    {
+      if (m_aErrors == null)
+        m_aErrors = new CommonsArrayList <> ();
+      for (final PeppolViDATDD090BuilderError aError : aOther.m_aErrors)
+        m_aErrors.add (aError.getNested (sParentBuilderName, nIndex));
+    }
+    m_nErrorCount += aOther.m_nErrorCount;
+  }
+
+  /**
+   * Build a nested element, that is not part of a list, and add all its errors via
+   * {@link #addAllNested(String, int, PeppolViDATDD090BuilderErrorList)}.
+   *
+   * @param sParentBuilderName
+   *        The name of the parent element builder. May be <code>null</code> for the TDD builder
+   *        itself.
+   * @param aBuildFunc
+   *        The build function of the nested element builder. May not be <code>null</code>. The
+   *        error list passed to it collects or only counts the errors, like this list.
+   * @return The result of the build function.
+   */
+  @Nullable
+  public <T> T buildNested (@Nullable final String sParentBuilderName,
+                            @NonNull final Function <? super PeppolViDATDD090BuilderErrorList, ? extends T> aBuildFunc)
+  {
+    return buildNested (sParentBuilderName, -1, aBuildFunc);
+  }
+
+  /**
+   * Build a nested element and add all its errors via
+   * {@link #addAllNested(String, int, PeppolViDATDD090BuilderErrorList)}.
+   *
+   * @param sParentBuilderName
+   *        The name of the parent element builder. May be <code>null</code> for the TDD builder
+   *        itself.
+   * @param nIndex
+   *        The index of the nested element inside the parent list or a value &lt; 0 if the nested
+   *        element is not part of a list.
+   * @param aBuildFunc
+   *        The build function of the nested element builder. May not be <code>null</code>. The
+   *        error list passed to it collects or only counts the errors, like this list.
+   * @return The result of the build function.
+   */
+  @Nullable
+  public <T> T buildNested (@Nullable final String sParentBuilderName,
+                            final int nIndex,
+                            @NonNull final Function <? super PeppolViDATDD090BuilderErrorList, ? extends T> aBuildFunc)
+  {
+    if (m_aNestedErrors == null)
+      m_aNestedErrors = new PeppolViDATDD090BuilderErrorList (m_bCollect);
+    else
+      m_aNestedErrors.clear ();
+    final T ret = aBuildFunc.apply (m_aNestedErrors);
+    if (m_aNestedErrors.hasErrors ())
+      addAllNested (sParentBuilderName, nIndex, m_aNestedErrors);
+    return ret;
+  }
+
+  /**
+   * @return The number of errors added. Also maintained for counting only lists.
+   */
+  public int getErrorCount ()
+  {
+    return m_nErrorCount;
+  }
+
+  public boolean hasErrors ()
+  {
+    return m_nErrorCount > 0;
+  }
+
+  public boolean hasNoErrors ()
+  {
+    return m_nErrorCount == 0;
+  }
+
+  /**
+   * @return A copy of all collected errors. Always empty for counting only lists. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <PeppolViDATDD090BuilderError> getAllErrors ()
+  {
+    return m_aErrors == null ? new CommonsArrayList <> () : m_aErrors.getClone ();
+  }
+
+  /**
+   * @return The messages of all collected errors. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <String> getAllMessages ()
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    if (m_aErrors != null)
+      for (final PeppolViDATDD090BuilderError aError : m_aErrors)
+        ret.add (aError.getMessage ());
+    return ret;
+  }
+
+  @Override
+  @NonNull
+  public Iterator <PeppolViDATDD090BuilderError> iterator ()
+  {
+    return m_aErrors == null ? Collections.emptyIterator () : m_aErrors.iterator ();
+  }
+
+  /**
+   * Log all collected errors with level error.
+   *
+   * @param aLogger
+   *        The logger to use. May not be <code>null</code>.
+   */
+  public void logErrors (@NonNull final Logger aLogger)
+  {
+    if (m_aErrors != null)
+      for (final PeppolViDATDD090BuilderError aError : m_aErrors)
+        aLogger.error (aError.getLogMessage ());
+  }
+
+  /**
+   * Remove all errors, so that this list can be reused.
+   */
+  public void clear ()
+  {
+    m_nErrorCount = 0;
+    if (m_aErrors != null)
+      m_aErrors.clear ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return "PeppolViDATDD090BuilderErrorList [" + m_nErrorCount + (m_aErrors == null ? "]" : ": " + m_aErrors + "]");
+  }
+
+  /**
+   * @return A new error list, that only counts the errors. Never <code>null</code>.
+   */
+  @NonNull
+  public static PeppolViDATDD090BuilderErrorList createCountingOnly ()
+  {
+    return new PeppolViDATDD090BuilderErrorList (false);
+  }
+}
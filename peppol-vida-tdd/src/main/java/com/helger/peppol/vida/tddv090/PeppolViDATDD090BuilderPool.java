@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.PresentForCodeCoverage;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+
+/**
+ * Per-thread pool of reusable TDD 0.9.0 builders. Each thread gets its own builder graph, that is
+ * reset on every call. The builders of the nested elements are reused by their parent builders, so
+ * in the steady state no builder and no builder collection needs to be allocated.<br>
+ * Note: the returned builder must only be used by the calling thread, and only until the next call
+ * to the same method on that thread.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class PeppolViDATDD090BuilderPool
+{
+  private static final ThreadLocal <PeppolViDATDD090Builder> BUILDER = ThreadLocal.withInitial (PeppolViDATDD090Builder::new);
+  private static final ThreadLocal <PeppolViDATDD090ReportedTransactionBuilder> RT_BUILDER = ThreadLocal.withInitial ( () -> new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT));
+
+  @PresentForCodeCoverage
+  private static final PeppolViDATDD090BuilderPool INSTANCE = new PeppolViDATDD090BuilderPool ();
+
+  private PeppolViDATDD090BuilderPool ()
+  {}
+
+  /**
+   * @return The reset TDD builder of the current thread. Never <code>null</code>.
+   * @see PeppolViDATDD090Builder#reset()
+   */
+  @NonNull
+  public static PeppolViDATDD090Builder getBuilder ()
+  {
+    return BUILDER.get ().reset ();
+  }
+
+  /**
+   * @param aHeaderTemplate
+   *        The pre-validated header template to use. May not be <code>null</code>.
+   * @return The TDD builder of the current thread, reset to the provided header template. Never
+   *         <code>null</code>.
+   * @see PeppolViDATDD090Builder#reset(PeppolViDATDD090HeaderTemplate)
+   */
+  @NonNull
+  public static PeppolViDATDD090Builder getBuilder (@NonNull final PeppolViDATDD090HeaderTemplate aHeaderTemplate)
+  {
+    return BUILDER.get ().reset (aHeaderTemplate);
+  }
+
+  /**
+   * @param eDocumentTypeCode
+   *        The DocumentTypeCode of the TDD to use. May not be <code>null</code>.
+   * @return The reset ReportedTransaction builder of the current thread. Never <code>null</code>.
+   * @see PeppolViDATDD090ReportedTransactionBuilder#reset(EViDATDDDocumentTypeCode)
+   */
+  @NonNull
+  public static PeppolViDATDD090ReportedTransactionBuilder getReportedTransactionBuilder (@NonNull final EViDATDDDocumentTypeCode eDocumentTypeCode)
+  {
+    return RT_BUILDER.get ().reset (eDocumentTypeCode);
+  }
+
+  /**
+   * Remove all pooled builders of the current thread. Should be called by threads of foreign thread
+   * pools when they are done with TDD creation.
+   */
+  public static void removeForCurrentThread ()
+  {
+    BUILDER.remove ();
+    RT_BUILDER.remove ();
+  }
+}
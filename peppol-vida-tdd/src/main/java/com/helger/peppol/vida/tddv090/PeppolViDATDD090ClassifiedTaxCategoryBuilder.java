@@ -25,9 +25,9 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
 import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
 
@@ -42,6 +42,7 @@ import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.Tax
 public class PeppolViDATDD090ClassifiedTaxCategoryBuilder implements IBuilder <ClassifiedTaxCategory>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090ClassifiedTaxCategoryBuilder.class);
+  private static final String BUILDER_NAME = "ClassifiedTaxCategory";
 
   private String m_sID;
   private BigDecimal m_aPerc;
@@ -50,6 +51,20 @@ public class PeppolViDATDD090ClassifiedTaxCategoryBuilder implements IBuilder <C
   public PeppolViDATDD090ClassifiedTaxCategoryBuilder ()
   {}
 
+  /**
+   * Reset all fields to their initial state, so that this builder can be reused.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ClassifiedTaxCategoryBuilder reset ()
+  {
+    m_sID = null;
+    m_aPerc = null;
+    m_sTaxSchemeID = null;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -110,41 +125,42 @@ public class PeppolViDATDD090ClassifiedTaxCategoryBuilder implements IBuilder <C
     return this;
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 ClassifiedTaxCategory builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
 
     if (StringHelper.isEmpty (m_sID))
-    {
-      aCondLog.error (sErrorPrefix + "ID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ID");
     // m_aPercentage is optional
     if (StringHelper.isEmpty (m_sTaxSchemeID))
-    {
-      aCondLog.error (sErrorPrefix + "TaxSchemeID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxSchemeID");
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public ClassifiedTaxCategory build ()
+  private ClassifiedTaxCategory _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD ClassifiedTaxCategory cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final ClassifiedTaxCategory ret = new ClassifiedTaxCategory ();
     ret.setID (m_sID);
@@ -156,4 +172,33 @@ public class PeppolViDATDD090ClassifiedTaxCategoryBuilder implements IBuilder <C
     }
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public ClassifiedTaxCategory build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final ClassifiedTaxCategory ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_CLASSIFIED_TAX_CATEGORY, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public ClassifiedTaxCategory build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final ClassifiedTaxCategory ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD ClassifiedTaxCategory cannot be build.");
+    }
+    return ret;
+  }
 }
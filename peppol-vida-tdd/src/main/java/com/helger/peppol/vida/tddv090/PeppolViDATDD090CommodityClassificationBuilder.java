@@ -23,9 +23,9 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.CommodityClassification;
 import com.helger.peppol.vida.tdd.v090.cbc.ItemClassificationCode;
 
@@ -40,6 +40,7 @@ import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.ItemCla
 public class PeppolViDATDD090CommodityClassificationBuilder implements IBuilder <CommodityClassification>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090CommodityClassificationBuilder.class);
+  private static final String BUILDER_NAME = "CommodityClassification";
 
   private String m_sItemClassification;
   private String m_sItemClassificationListID;
@@ -48,6 +49,20 @@ public class PeppolViDATDD090CommodityClassificationBuilder implements IBuilder
   public PeppolViDATDD090CommodityClassificationBuilder ()
   {}
 
+  /**
+   * Reset all fields to their initial state, so that this builder can be reused.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090CommodityClassificationBuilder reset ()
+  {
+    m_sItemClassification = null;
+    m_sItemClassificationListID = null;
+    m_sItemClassificationListVersionID = null;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -109,41 +124,42 @@ public class PeppolViDATDD090CommodityClassificationBuilder implements IBuilder
     return this;
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 CommodityClassification builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
 
     if (StringHelper.isEmpty (m_sItemClassification))
-    {
-      aCondLog.error (sErrorPrefix + "ItemClassification is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ItemClassification");
     if (StringHelper.isEmpty (m_sItemClassificationListID))
-    {
-      aCondLog.error (sErrorPrefix + "ItemClassificationListID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ItemClassificationListID");
     // m_sItemClassificationListVersionID is optional
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public CommodityClassification build ()
+  private CommodityClassification _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD CommodityClassification cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final CommodityClassification ret = new CommodityClassification ();
     {
@@ -155,4 +171,33 @@ public class PeppolViDATDD090CommodityClassificationBuilder implements IBuilder
     }
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public CommodityClassification build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final CommodityClassification ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_COMMODITY_CLASSIFICATION, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public CommodityClassification build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final CommodityClassification ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD CommodityClassification cannot be build.");
+    }
+    return ret;
+  }
 }
@@ -28,12 +28,12 @@ import org.slf4j.LoggerFactory;
 import com.helger.annotation.style.ReturnsMutableObject;
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
 import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
 import com.helger.peppol.vida.tdd.v090.cac.InvoicePeriod;
@@ -55,25 +55,60 @@ import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.Invoice
 public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLine>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090DocumentLineBuilder.class);
+  private static final String BUILDER_NAME = "DocumentLine";
 
-  private final String m_sDocumentCurrencyCode;
+  private String m_sDocumentCurrencyCode;
   private String m_sID;
   private String m_sNote;
-  private BigDecimal m_aQuantity;
+  private final PeppolViDATDD090ScaledAmount m_aQuantity = new PeppolViDATDD090ScaledAmount ();
   private String m_sQuantityUnit;
-  private BigDecimal m_aLineExtensionAmount;
+  private final PeppolViDATDD090ScaledAmount m_aLineExtensionAmount = new PeppolViDATDD090ScaledAmount ();
   private LocalDate m_aInvoicePeriodStart;
   private LocalDate m_aInvoicePeriodEnd;
   private String m_sInvoicePeriodDescriptionCode;
   private final ICommonsList <AllowanceCharge> m_aAllowanceCharges = new CommonsArrayList <> ();
   private Item m_aItem;
-  private BigDecimal m_aPriceAmount;
+  private final PeppolViDATDD090ScaledAmount m_aPriceAmount = new PeppolViDATDD090ScaledAmount ();
+  // Reused for all Consumer based calls - only valid during the callback
+  private PeppolViDATDD090AllowanceChargeBuilder m_aAllowanceChargeBuilder;
+  private PeppolViDATDD090ItemBuilder m_aItemBuilder;
+  // The errors of nested element builders that failed
+  private final PeppolViDATDD090BuilderErrorList m_aNestedErrors = new PeppolViDATDD090BuilderErrorList ();
+  private int m_nFailedAllowanceCharges;
 
   public PeppolViDATDD090DocumentLineBuilder (@Nullable final String sDocumentCurrencyCode)
   {
     m_sDocumentCurrencyCode = sDocumentCurrencyCode;
   }
 
+  /**
+   * Reset all fields to their initial state and set a new currency code, so that this builder can
+   * be reused.
+   *
+   * @param sDocumentCurrencyCode
+   *        The currency code to use. May be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090DocumentLineBuilder reset (@Nullable final String sDocumentCurrencyCode)
+  {
+    m_sDocumentCurrencyCode = sDocumentCurrencyCode;
+    m_sID = null;
+    m_sNote = null;
+    m_aQuantity.clear ();
+    m_sQuantityUnit = null;
+    m_aLineExtensionAmount.clear ();
+    m_aInvoicePeriodStart = null;
+    m_aInvoicePeriodEnd = null;
+    m_sInvoicePeriodDescriptionCode = null;
+    m_aAllowanceCharges.clear ();
+    m_aItem = null;
+    m_aPriceAmount.clear ();
+    m_aNestedErrors.clear ();
+    m_nFailedAllowanceCharges = 0;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 Invoice line
    *
@@ -195,13 +230,30 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
   @Nullable
   public BigDecimal quantity ()
   {
-    return m_aQuantity;
+    return m_aQuantity.get ();
   }
 
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder quantity (@Nullable final BigDecimal a)
   {
-    m_aQuantity = a;
+    m_aQuantity.set (a);
+    return this;
+  }
+
+  /**
+   * Set the quantity as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090DocumentLineBuilder quantity (final long nUnscaledValue, final int nScale)
+  {
+    m_aQuantity.set (nUnscaledValue, nScale);
     return this;
   }
 
@@ -221,16 +273,39 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
   @Nullable
   public BigDecimal lineExtensionAmount ()
   {
-    return m_aLineExtensionAmount;
+    return m_aLineExtensionAmount.get ();
   }
 
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder lineExtensionAmount (@Nullable final BigDecimal a)
   {
-    m_aLineExtensionAmount = a;
+    m_aLineExtensionAmount.set (a);
     return this;
   }
 
+  /**
+   * Set the line extension amount as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090DocumentLineBuilder lineExtensionAmount (final long nUnscaledValue, final int nScale)
+  {
+    m_aLineExtensionAmount.set (nUnscaledValue, nScale);
+    return this;
+  }
+
+  @NonNull
+  PeppolViDATDD090ScaledAmount getLineExtensionAmountValue ()
+  {
+    return m_aLineExtensionAmount;
+  }
+
   @Nullable
   public LocalDate invoicePeriodStart ()
   {
@@ -295,13 +370,22 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder addAllowanceCharge (@Nullable final PeppolViDATDD090AllowanceChargeBuilder a)
   {
-    return addAllowanceCharge (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final AllowanceCharge aAC = m_aNestedErrors.buildNested (BUILDER_NAME,
+                                                             m_aAllowanceCharges.size () + m_nFailedAllowanceCharges,
+                                                             a::build);
+    if (aAC == null)
+      m_nFailedAllowanceCharges++;
+    return addAllowanceCharge (aAC);
   }
 
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder addAllowanceCharge (@NonNull final Consumer <PeppolViDATDD090AllowanceChargeBuilder> aBuilderConsumer)
   {
-    final PeppolViDATDD090AllowanceChargeBuilder aBuilder = new PeppolViDATDD090AllowanceChargeBuilder (m_sDocumentCurrencyCode);
+    if (m_aAllowanceChargeBuilder == null)
+      m_aAllowanceChargeBuilder = new PeppolViDATDD090AllowanceChargeBuilder (m_sDocumentCurrencyCode);
+    final PeppolViDATDD090AllowanceChargeBuilder aBuilder = m_aAllowanceChargeBuilder.reset (m_sDocumentCurrencyCode);
     aBuilderConsumer.accept (aBuilder);
     return addAllowanceCharge (aBuilder);
   }
@@ -322,13 +406,18 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder item (@Nullable final PeppolViDATDD090ItemBuilder a)
   {
-    return item (a == null ? null : a.build ());
+    if (a == null)
+      return item ((Item) null);
+    final Item aItem = m_aNestedErrors.buildNested (BUILDER_NAME, a::build);
+    return item (aItem);
   }
 
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder item (@NonNull final Consumer <PeppolViDATDD090ItemBuilder> aBuilderConsumer)
   {
-    final PeppolViDATDD090ItemBuilder aBuilder = new PeppolViDATDD090ItemBuilder ();
+    if (m_aItemBuilder == null)
+      m_aItemBuilder = new PeppolViDATDD090ItemBuilder ();
+    final PeppolViDATDD090ItemBuilder aBuilder = m_aItemBuilder.reset ();
     aBuilderConsumer.accept (aBuilder);
     return item (aBuilder);
   }
@@ -336,75 +425,84 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
   @Nullable
   public BigDecimal priceAmount ()
   {
-    return m_aPriceAmount;
+    return m_aPriceAmount.get ();
   }
 
   @NonNull
   public PeppolViDATDD090DocumentLineBuilder priceAmount (@Nullable final BigDecimal a)
   {
-    m_aPriceAmount = a;
+    m_aPriceAmount.set (a);
     return this;
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Set the price amount as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090DocumentLineBuilder priceAmount (final long nUnscaledValue, final int nScale)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 DocumentLine builder: ";
+    m_aPriceAmount.set (nUnscaledValue, nScale);
+    return this;
+  }
+
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final int nErrsBefore = aErrorList.getErrorCount ();
+
+    // Include the reasons why nested elements could not be built
+    aErrorList.addAll (m_aNestedErrors);
 
     if (StringHelper.isEmpty (m_sID))
-    {
-      aCondLog.error (sErrorPrefix + "ID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ID");
     // m_sNote is optional
-    if (m_aQuantity == null)
-    {
-      aCondLog.error (sErrorPrefix + "Quantity is missing");
-      aReportedDocsErrs.inc ();
-    }
+    if (m_aQuantity.isNotSet ())
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "Quantity");
     if (StringHelper.isEmpty (m_sQuantityUnit))
-    {
-      aCondLog.error (sErrorPrefix + "QuantityUnit is missing");
-      aReportedDocsErrs.inc ();
-    }
-    if (m_aLineExtensionAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "LineExtensionAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "QuantityUnit");
+    if (m_aLineExtensionAmount.isNotSet ())
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "LineExtensionAmount");
     // m_aInvoicePeriodStart is optional
     // m_aInvoicePeriodEnd is optional
     // m_sInvoicePeriodDescriptionCode is optional
     // m_aAllowanceCharges may be empty
     if (m_aItem == null)
-    {
-      aCondLog.error (sErrorPrefix + "Item is missing");
-      aReportedDocsErrs.inc ();
-    }
-    if (m_aPriceAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "PriceAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "Item");
+    if (m_aPriceAmount.isNotSet ())
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "PriceAmount");
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public DocumentLine build ()
+  private DocumentLine _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD DocumentLine cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final DocumentLine ret = new DocumentLine ();
     ret.setID (m_sID);
@@ -412,11 +510,11 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
       ret.setNote (m_sNote);
     {
       final InvoicedQuantity a = new InvoicedQuantity ();
-      a.setValue (m_aQuantity);
+      a.setValue (m_aQuantity.get ());
       a.setUnitCode (m_sQuantityUnit);
       ret.setInvoicedQuantity (a);
     }
-    ret.setLineExtensionAmount (m_aLineExtensionAmount).setCurrencyID (m_sDocumentCurrencyCode);
+    ret.setLineExtensionAmount (m_aLineExtensionAmount.get ()).setCurrencyID (m_sDocumentCurrencyCode);
 
     if (m_aInvoicePeriodStart != null ||
         m_aInvoicePeriodEnd != null ||
@@ -432,14 +530,43 @@ public class PeppolViDATDD090DocumentLineBuilder implements IBuilder <DocumentLi
       ret.setInvoicePeriod (aIP);
     }
 
-    ret.setAllowanceCharge (m_aAllowanceCharges);
+    ret.setAllowanceCharge (m_aAllowanceCharges.getClone ());
     ret.setItem (m_aItem);
     {
       final Price a = new Price ();
-      a.setPriceAmount (m_aPriceAmount).setCurrencyID (m_sDocumentCurrencyCode);
+      a.setPriceAmount (m_aPriceAmount.get ()).setCurrencyID (m_sDocumentCurrencyCode);
       ret.setPrice (a);
     }
 
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public DocumentLine build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final DocumentLine ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_DOCUMENT_LINE, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public DocumentLine build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final DocumentLine ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD DocumentLine cannot be build.");
+    }
+    return ret;
+  }
 }
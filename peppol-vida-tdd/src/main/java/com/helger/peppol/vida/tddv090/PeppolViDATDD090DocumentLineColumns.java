@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * A column based {@link IPeppolViDATDD090DocumentLineSource}, where each field is provided as an
+ * array with one entry per line. All arrays must have the same length. The arrays are not copied,
+ * so they must not be modified while this object is used.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDD090DocumentLineColumns implements IPeppolViDATDD090DocumentLineSource
+{
+  private final String [] m_aIDs;
+  private final BigDecimal [] m_aQuantities;
+  private final String [] m_aQuantityUnits;
+  private final BigDecimal [] m_aLineExtensionAmounts;
+  private final BigDecimal [] m_aPriceAmounts;
+  private final String [] m_aItemNames;
+  private final String [] m_aTaxCategoryIDs;
+  private final BigDecimal [] m_aTaxCategoryPercentages;
+
+  /**
+   * Constructor
+   *
+   * @param aIDs
+   *        Line IDs. May not be <code>null</code>.
+   * @param aQuantities
+   *        Invoiced quantities. May not be <code>null</code>.
+   * @param aQuantityUnits
+   *        Quantity unit codes. May not be <code>null</code>.
+   * @param aLineExtensionAmounts
+   *        Line extension amounts. May not be <code>null</code>.
+   * @param aPriceAmounts
+   *        Net prices. May not be <code>null</code>.
+   * @param aItemNames
+   *        Item names. May not be <code>null</code>.
+   * @param aTaxCategoryIDs
+   *        Tax category IDs (like "S"). May not be <code>null</code>.
+   * @param aTaxCategoryPercentages
+   *        Tax category percentages. May not be <code>null</code> but may contain <code>null</code>
+   *        entries.
+   */
+  public PeppolViDATDD090DocumentLineColumns (@NonNull final String [] aIDs,
+                                              @NonNull final BigDecimal [] aQuantities,
+                                              @NonNull final String [] aQuantityUnits,
+                                              @NonNull final BigDecimal [] aLineExtensionAmounts,
+                                              @NonNull final BigDecimal [] aPriceAmounts,
+                                              @NonNull final String [] aItemNames,
+                                              @NonNull final String [] aTaxCategoryIDs,
+                                              @NonNull final BigDecimal [] aTaxCategoryPercentages)
+  {
+    ValueEnforcer.notNull (aIDs, "IDs");
+    ValueEnforcer.notNull (aQuantities, "Quantities");
+    ValueEnforcer.notNull (aQuantityUnits, "QuantityUnits");
+    ValueEnforcer.notNull (aLineExtensionAmounts, "LineExtensionAmounts");
+    ValueEnforcer.notNull (aPriceAmounts, "PriceAmounts");
+    ValueEnforcer.notNull (aItemNames, "ItemNames");
+    ValueEnforcer.notNull (aTaxCategoryIDs, "TaxCategoryIDs");
+    ValueEnforcer.notNull (aTaxCategoryPercentages, "TaxCategoryPercentages");
+    final int nCount = aIDs.length;
+    ValueEnforcer.isEqual (aQuantities.length, nCount, "Quantities length");
+    ValueEnforcer.isEqual (aQuantityUnits.length, nCount, "QuantityUnits length");
+    ValueEnforcer.isEqual (aLineExtensionAmounts.length, nCount, "LineExtensionAmounts length");
+    ValueEnforcer.isEqual (aPriceAmounts.length, nCount, "PriceAmounts length");
+    ValueEnforcer.isEqual (aItemNames.length, nCount, "ItemNames length");
+    ValueEnforcer.isEqual (aTaxCategoryIDs.length, nCount, "TaxCategoryIDs length");
+    ValueEnforcer.isEqual (aTaxCategoryPercentages.length, nCount, "TaxCategoryPercentages length");
+    m_aIDs = aIDs;
+    m_aQuantities = aQuantities;
+    m_aQuantityUnits = aQuantityUnits;
+    m_aLineExtensionAmounts = aLineExtensionAmounts;
+    m_aPriceAmounts = aPriceAmounts;
+    m_aItemNames = aItemNames;
+    m_aTaxCategoryIDs = aTaxCategoryIDs;
+    m_aTaxCategoryPercentages = aTaxCategoryPercentages;
+  }
+
+  @Nonnegative
+  public int getLineCount ()
+  {
+    return m_aIDs.length;
+  }
+
+  @Nullable
+  public String getID (final int nIndex)
+  {
+    return m_aIDs[nIndex];
+  }
+
+  @Nullable
+  public BigDecimal getQuantity (final int nIndex)
+  {
+    return m_aQuantities[nIndex];
+  }
+
+  @Nullable
+  public String getQuantityUnit (final int nIndex)
+  {
+    return m_aQuantityUnits[nIndex];
+  }
+
+  @Nullable
+  public BigDecimal getLineExtensionAmount (final int nIndex)
+  {
+    return m_aLineExtensionAmounts[nIndex];
+  }
+
+  @Nullable
+  public BigDecimal getPriceAmount (final int nIndex)
+  {
+    return m_aPriceAmounts[nIndex];
+  }
+
+  @Nullable
+  public String getItemName (final int nIndex)
+  {
+    return m_aItemNames[nIndex];
+  }
+
+  @Nullable
+  public String getTaxCategoryID (final int nIndex)
+  {
+    return m_aTaxCategoryIDs[nIndex];
+  }
+
+  @Nullable
+  public BigDecimal getTaxCategoryPercentage (final int nIndex)
+  {
+    return m_aTaxCategoryPercentages[nIndex];
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.Item;
+import com.helger.peppol.vida.tdd.v090.cac.Price;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+import com.helger.peppol.vida.tdd.v090.cbc.InvoicedQuantity;
+
+/**
+ * Creates DocumentLine elements from the rows of an {@link IPeppolViDATDD090DocumentLineSource}.
+ * Consecutive rows with the same tax category share the same ClassifiedTaxCategory element, so
+ * the rows should be processed in order.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+final class PeppolViDATDD090DocumentLineMaterializer
+{
+  private final IPeppolViDATDD090DocumentLineSource m_aSource;
+  private final String m_sCurrencyCode;
+  private final PeppolViDATDD090SharedElementCache m_aSharedElementCache;
+  private ClassifiedTaxCategory m_aLastTC;
+
+  PeppolViDATDD090DocumentLineMaterializer (@NonNull final IPeppolViDATDD090DocumentLineSource aSource,
+                                            @Nullable final String sCurrencyCode,
+                                            @Nullable final PeppolViDATDD090SharedElementCache aSharedElementCache)
+  {
+    m_aSource = aSource;
+    m_sCurrencyCode = sCurrencyCode;
+    m_aSharedElementCache = aSharedElementCache;
+  }
+
+  @NonNull
+  private static String _getPath (final int nLineIndex)
+  {
+    // The lines are always part of a ReportedTransaction
+    return "ReportedTransaction/DocumentLine[" + nLineIndex + "]";
+  }
+
+  static boolean isRowValid (@NonNull final IPeppolViDATDD090DocumentLineSource aSource,
+                             final int nIndex,
+                             final int nLineIndex,
+                             @NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final int nErrsBefore = aErrorList.getErrorCount ();
+    if (StringHelper.isEmpty (aSource.getID (nIndex)))
+      aErrorList.add (_getPath (nLineIndex), EViDATDD090BuilderErrorCode.MISSING_FIELD, "ID");
+    if (aSource.getQuantity (nIndex) == null)
+      aErrorList.add (_getPath (nLineIndex), EViDATDD090BuilderErrorCode.MISSING_FIELD, "Quantity");
+    if (StringHelper.isEmpty (aSource.getQuantityUnit (nIndex)))
+      aErrorList.add (_getPath (nLineIndex), EViDATDD090BuilderErrorCode.MISSING_FIELD, "QuantityUnit");
+    if (aSource.getLineExtensionAmount (nIndex) == null)
+      aErrorList.add (_getPath (nLineIndex), EViDATDD090BuilderErrorCode.MISSING_FIELD, "LineExtensionAmount");
+    if (aSource.getPriceAmount (nIndex) == null)
+      aErrorList.add (_getPath (nLineIndex), EViDATDD090BuilderErrorCode.MISSING_FIELD, "PriceAmount");
+    if (StringHelper.isEmpty (aSource.getItemName (nIndex)))
+      aErrorList.add (_getPath (nLineIndex) + "/Item", EViDATDD090BuilderErrorCode.MISSING_FIELD, "Name");
+    if (StringHelper.isEmpty (aSource.getTaxCategoryID (nIndex)))
+      aErrorList.add (_getPath (nLineIndex) + "/Item/ClassifiedTaxCategory",
+                      EViDATDD090BuilderErrorCode.MISSING_FIELD,
+                      "ID");
+    return aErrorList.getErrorCount () == nErrsBefore;
+  }
+
+  @NonNull
+  private ClassifiedTaxCategory _getClassifiedTaxCategory (final int nIndex)
+  {
+    final String sTaxCategoryID = m_aSource.getTaxCategoryID (nIndex);
+    final BigDecimal aPercentage = m_aSource.getTaxCategoryPercentage (nIndex);
+    final String sTaxSchemeID = m_aSource.getTaxSchemeID (nIndex);
+    if (m_aLastTC == null ||
+        !m_aLastTC.getID ().getValue ().equals (sTaxCategoryID) ||
+        !Objects.equals (m_aLastTC.getPercent (), aPercentage) ||
+        !m_aLastTC.getTaxScheme ().getID ().getValue ().equals (sTaxSchemeID))
+    {
+      final TaxScheme aTS;
+      if (m_aSharedElementCache != null)
+        aTS = m_aSharedElementCache.getTaxScheme (sTaxSchemeID);
+      else
+      {
+        aTS = new TaxScheme ();
+        aTS.setID (sTaxSchemeID);
+      }
+      m_aLastTC = new ClassifiedTaxCategory ();
+      m_aLastTC.setID (sTaxCategoryID);
+      m_aLastTC.setPercent (aPercentage);
+      m_aLastTC.setTaxScheme (aTS);
+    }
+    return m_aLastTC;
+  }
+
+  /**
+   * Create the DocumentLine for a single row.
+   *
+   * @param nIndex
+   *        The 0-based row index.
+   * @param nLineIndex
+   *        The 0-based index of the DocumentLine inside the ReportedTransaction. Only used for the
+   *        error path.
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field of the row is not set.
+   */
+  @Nullable
+  DocumentLine create (final int nIndex,
+                       final int nLineIndex,
+                       @NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    if (!isRowValid (m_aSource, nIndex, nLineIndex, aErrorList))
+      return null;
+
+    final DocumentLine ret = new DocumentLine ();
+    ret.setID (m_aSource.getID (nIndex));
+    final String sNote = m_aSource.getNote (nIndex);
+    if (StringHelper.isNotEmpty (sNote))
+      ret.setNote (sNote);
+    {
+      final InvoicedQuantity a = new InvoicedQuantity ();
+      a.setValue (m_aSource.getQuantity (nIndex));
+      a.setUnitCode (m_aSource.getQuantityUnit (nIndex));
+      ret.setInvoicedQuantity (a);
+    }
+    ret.setLineExtensionAmount (m_aSource.getLineExtensionAmount (nIndex)).setCurrencyID (m_sCurrencyCode);
+    {
+      final Item aItem = new Item ();
+      aItem.setName (m_aSource.getItemName (nIndex));
+      aItem.setClassifiedTaxCategory (_getClassifiedTaxCategory (nIndex));
+      ret.setItem (aItem);
+    }
+    {
+      final Price a = new Price ();
+      a.setPriceAmount (m_aSource.getPriceAmount (nIndex)).setCurrencyID (m_sCurrencyCode);
+      ret.setPrice (a);
+    }
+    return ret;
+  }
+}
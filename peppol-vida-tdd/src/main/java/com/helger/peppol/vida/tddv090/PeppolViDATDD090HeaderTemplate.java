@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.builder.IBuilder;
+import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReceivingParty;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportersRepresentative;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportingParty;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.TaxAuthority;
+import com.helger.peppolid.IParticipantIdentifier;
+
+/**
+ * Immutable and pre-validated TDD header fields that are constant across many documents. The
+ * party identifiers are validated only once, when the template is built, and the respective JAXB
+ * elements are pre-built. Use {@link #createBuilder()} to create a builder for each document, that
+ * only needs the document specific fields.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PeppolViDATDD090HeaderTemplate
+{
+  /**
+   * Builder for {@link PeppolViDATDD090HeaderTemplate}.
+   *
+   * @author Philip Helger
+   */
+  public static final class Builder implements IBuilder <PeppolViDATDD090HeaderTemplate>
+  {
+    private String m_sCustomizationID = PeppolViDATDD090Builder.DEFAULT_CUSTOMIZATION_ID;
+    private String m_sProfileID = PeppolViDATDD090Builder.DEFAULT_PROFILE_ID;
+    private EViDATDDDocumentScope m_eDocumentScope;
+    private EViDATDDReporterRole m_eReporterRole;
+    private String m_sTaxAuthorityID;
+    private String m_sTaxAuthorityName;
+    private IParticipantIdentifier m_aReportingParty;
+    private IParticipantIdentifier m_aReceivingParty;
+    private IParticipantIdentifier m_aReportersRepresentative;
+
+    public Builder ()
+    {}
+
+    @NonNull
+    public Builder customizationID (@Nullable final String s)
+    {
+      m_sCustomizationID = s;
+      return this;
+    }
+
+    @NonNull
+    public Builder profileID (@Nullable final String s)
+    {
+      m_sProfileID = s;
+      return this;
+    }
+
+    @NonNull
+    public Builder documentScope (@Nullable final EViDATDDDocumentScope e)
+    {
+      m_eDocumentScope = e;
+      return this;
+    }
+
+    @NonNull
+    public Builder reporterRole (@Nullable final EViDATDDReporterRole e)
+    {
+      m_eReporterRole = e;
+      return this;
+    }
+
+    @NonNull
+    public Builder taxAuthorityID (@Nullable final String s)
+    {
+      m_sTaxAuthorityID = s;
+      return this;
+    }
+
+    @NonNull
+    public Builder taxAuthorityName (@Nullable final String s)
+    {
+      m_sTaxAuthorityName = s;
+      return this;
+    }
+
+    /**
+     * @param a
+     *        Peppol Participant ID of C1/C4 of the business document.
+     * @return this for chaining
+     */
+    @NonNull
+    public Builder reportingParty (@Nullable final IParticipantIdentifier a)
+    {
+      m_aReportingParty = a;
+      return this;
+    }
+
+    /**
+     * @param a
+     *        Peppol Participant ID of C5 of the TDD.
+     * @return this for chaining
+     */
+    @NonNull
+    public Builder receivingParty (@Nullable final IParticipantIdentifier a)
+    {
+      m_aReceivingParty = a;
+      return this;
+    }
+
+    /**
+     * @param a
+     *        Peppol Participant ID of C2/C3 of the business document. Must use the SPIS scheme.
+     * @return this for chaining
+     */
+    @NonNull
+    public Builder reportersRepresentative (@Nullable final IParticipantIdentifier a)
+    {
+      m_aReportersRepresentative = a;
+      return this;
+    }
+
+    /**
+     * Check if all mandatory fields are set and add all problems to the provided error list.
+     * Nothing is logged.
+     *
+     * @param aErrorList
+     *        The error list to fill. May not be <code>null</code>.
+     * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+     */
+    public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+    {
+      final int nErrsBefore = aErrorList.getErrorCount ();
+
+      if (StringHelper.isEmpty (m_sCustomizationID))
+        aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "CustomizationID");
+      if (StringHelper.isEmpty (m_sProfileID))
+        aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ProfileID");
+      if (m_eDocumentScope == null)
+        aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "DocumentScope");
+      if (m_eReporterRole == null)
+        aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ReporterRole");
+      if (StringHelper.isEmpty (m_sTaxAuthorityID))
+        aErrorList.add (null, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxAuthority/ID");
+      // m_sTaxAuthorityName is optional
+
+      PeppolViDATDD090Builder.checkParticipant (aErrorList, null, "ReportingParty", "scheme", m_aReportingParty, false);
+      PeppolViDATDD090Builder.checkParticipant (aErrorList, null, "ReceivingParty", "scheme", m_aReceivingParty, true);
+      PeppolViDATDD090Builder.checkParticipant (aErrorList,
+                                                null,
+                                                "ReportersRepresentative",
+                                                "meta scheme",
+                                                m_aReportersRepresentative,
+                                                true);
+      return aErrorList.getErrorCount () == nErrsBefore;
+    }
+
+    public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
+    {
+      final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                        : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+      final boolean ret = isEveryRequiredFieldSet (aErrorList);
+      if (bDoLogOnError)
+        aErrorList.logErrors (LOGGER);
+      return ret;
+    }
+
+    /**
+     * Build the template and add all problems to the provided error list. Nothing is logged.
+     *
+     * @param aErrorList
+     *        The error list to fill. May not be <code>null</code>.
+     * @return <code>null</code> if at least one mandatory field is not set.
+     */
+    @Nullable
+    public PeppolViDATDD090HeaderTemplate build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+    {
+      if (!isEveryRequiredFieldSet (aErrorList))
+        return null;
+      return new PeppolViDATDD090HeaderTemplate (this);
+    }
+
+    @Nullable
+    public PeppolViDATDD090HeaderTemplate build ()
+    {
+      final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+      final PeppolViDATDD090HeaderTemplate ret = build (aErrorList);
+      if (ret == null)
+      {
+        aErrorList.logErrors (LOGGER);
+        LOGGER.error ("At least one mandatory field is not set and therefore the TDD header template cannot be build.");
+      }
+      return ret;
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090HeaderTemplate.class);
+
+  private final String m_sCustomizationID;
+  private final String m_sProfileID;
+  private final EViDATDDDocumentScope m_eDocumentScope;
+  private final EViDATDDReporterRole m_eReporterRole;
+  private final String m_sTaxAuthorityID;
+  private final String m_sTaxAuthorityName;
+  private final IParticipantIdentifier m_aReportingParty;
+  private final IParticipantIdentifier m_aReceivingParty;
+  private final IParticipantIdentifier m_aReportersRepresentative;
+  // Pre-built elements - never modified
+  private final TaxAuthority m_aTaxAuthorityElement;
+  private final ReportingParty m_aReportingPartyElement;
+  private final ReceivingParty m_aReceivingPartyElement;
+  private final ReportersRepresentative m_aReportersRepresentativeElement;
+
+  private PeppolViDATDD090HeaderTemplate (@NonNull final Builder aBuilder)
+  {
+    m_sCustomizationID = aBuilder.m_sCustomizationID;
+    m_sProfileID = aBuilder.m_sProfileID;
+    m_eDocumentScope = aBuilder.m_eDocumentScope;
+    m_eReporterRole = aBuilder.m_eReporterRole;
+    m_sTaxAuthorityID = aBuilder.m_sTaxAuthorityID;
+    m_sTaxAuthorityName = aBuilder.m_sTaxAuthorityName;
+    m_aReportingParty = aBuilder.m_aReportingParty;
+    m_aReceivingParty = aBuilder.m_aReceivingParty;
+    m_aReportersRepresentative = aBuilder.m_aReportersRepresentative;
+    m_aTaxAuthorityElement = PeppolViDATDD090Builder.createTaxAuthority (m_sTaxAuthorityID, m_sTaxAuthorityName);
+    m_aReportingPartyElement = PeppolViDATDD090Builder.createReportingParty (m_aReportingParty);
+    m_aReceivingPartyElement = PeppolViDATDD090Builder.createReceivingParty (m_aReceivingParty);
+    m_aReportersRepresentativeElement = PeppolViDATDD090Builder.createReportersRepresentative (m_aReportersRepresentative);
+  }
+
+  @NonNull
+  public String getCustomizationID ()
+  {
+    return m_sCustomizationID;
+  }
+
+  @NonNull
+  public String getProfileID ()
+  {
+    return m_sProfileID;
+  }
+
+  @NonNull
+  public EViDATDDDocumentScope getDocumentScope ()
+  {
+    return m_eDocumentScope;
+  }
+
+  @NonNull
+  public EViDATDDReporterRole getReporterRole ()
+  {
+    return m_eReporterRole;
+  }
+
+  @NonNull
+  public String getTaxAuthorityID ()
+  {
+    return m_sTaxAuthorityID;
+  }
+
+  @Nullable
+  public String getTaxAuthorityName ()
+  {
+    return m_sTaxAuthorityName;
+  }
+
+  @NonNull
+  public IParticipantIdentifier getReportingParty ()
+  {
+    return m_aReportingParty;
+  }
+
+  @NonNull
+  public IParticipantIdentifier getReceivingParty ()
+  {
+    return m_aReceivingParty;
+  }
+
+  @NonNull
+  public IParticipantIdentifier getReportersRepresentative ()
+  {
+    return m_aReportersRepresentative;
+  }
+
+  @NonNull
+  TaxAuthority getTaxAuthorityElement ()
+  {
+    return m_aTaxAuthorityElement;
+  }
+
+  @NonNull
+  ReportingParty getReportingPartyElement ()
+  {
+    return m_aReportingPartyElement;
+  }
+
+  @NonNull
+  ReceivingParty getReceivingPartyElement ()
+  {
+    return m_aReceivingPartyElement;
+  }
+
+  @NonNull
+  ReportersRepresentative getReportersRepresentativeElement ()
+  {
+    return m_aReportersRepresentativeElement;
+  }
+
+  /**
+   * Create a new TDD builder for a single document, with all header fields pre-filled. Only the
+   * document specific fields (DocumentTypeCode, ReportedTransaction and optionally UUID and issue
+   * date and time) need to be set.
+   *
+   * @return A new builder. Never <code>null</code>.
+   */
+  @NonNull
+  public PeppolViDATDD090Builder createBuilder ()
+  {
+    return new PeppolViDATDD090Builder (this);
+  }
+
+  @NonNull
+  public static Builder builder ()
+  {
+    return new Builder ();
+  }
+}
@@ -26,11 +26,11 @@ import org.slf4j.LoggerFactory;
 import com.helger.annotation.style.ReturnsMutableObject;
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
 import com.helger.peppol.vida.tdd.v090.cac.CommodityClassification;
 import com.helger.peppol.vida.tdd.v090.cac.Item;
@@ -45,15 +45,39 @@ import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.Ite
 public class PeppolViDATDD090ItemBuilder implements IBuilder <Item>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090ItemBuilder.class);
+  private static final String BUILDER_NAME = "Item";
 
   private String m_sDescription;
   private String m_sName;
   private final ICommonsList <CommodityClassification> m_aCommodityClassifications = new CommonsArrayList <> ();
   private ClassifiedTaxCategory m_aClassifiedTaxCategory;
+  // Reused for all Consumer based calls - only valid during the callback
+  private PeppolViDATDD090ClassifiedTaxCategoryBuilder m_aClassifiedTaxCategoryBuilder;
+  private PeppolViDATDD090CommodityClassificationBuilder m_aCommodityClassificationBuilder;
+  // The errors of nested element builders that failed
+  private final PeppolViDATDD090BuilderErrorList m_aNestedErrors = new PeppolViDATDD090BuilderErrorList ();
+  private int m_nFailedCommodityClassifications;
 
   public PeppolViDATDD090ItemBuilder ()
   {}
 
+  /**
+   * Reset all fields to their initial state, so that this builder can be reused.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ItemBuilder reset ()
+  {
+    m_sDescription = null;
+    m_sName = null;
+    m_aCommodityClassifications.clear ();
+    m_aClassifiedTaxCategory = null;
+    m_aNestedErrors.clear ();
+    m_nFailedCommodityClassifications = 0;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -130,13 +154,23 @@ public class PeppolViDATDD090ItemBuilder implements IBuilder <Item>
   @NonNull
   public PeppolViDATDD090ItemBuilder addCommodityClassification (@Nullable final PeppolViDATDD090CommodityClassificationBuilder a)
   {
-    return addCommodityClassification (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final CommodityClassification aCC = m_aNestedErrors.buildNested (BUILDER_NAME,
+                                                                     m_aCommodityClassifications.size () +
+                                                                                   m_nFailedCommodityClassifications,
+                                                                     a::build);
+    if (aCC == null)
+      m_nFailedCommodityClassifications++;
+    return addCommodityClassification (aCC);
   }
 
   @NonNull
   public PeppolViDATDD090ItemBuilder addCommodityClassification (@NonNull final Consumer <PeppolViDATDD090CommodityClassificationBuilder> aBuilderConsumer)
   {
-    final PeppolViDATDD090CommodityClassificationBuilder aBuilder = new PeppolViDATDD090CommodityClassificationBuilder ();
+    if (m_aCommodityClassificationBuilder == null)
+      m_aCommodityClassificationBuilder = new PeppolViDATDD090CommodityClassificationBuilder ();
+    final PeppolViDATDD090CommodityClassificationBuilder aBuilder = m_aCommodityClassificationBuilder.reset ();
     aBuilderConsumer.accept (aBuilder);
     return addCommodityClassification (aBuilder);
   }
@@ -157,59 +191,97 @@ public class PeppolViDATDD090ItemBuilder implements IBuilder <Item>
   @NonNull
   public PeppolViDATDD090ItemBuilder classifiedTaxCategory (@Nullable final PeppolViDATDD090ClassifiedTaxCategoryBuilder a)
   {
-    return classifiedTaxCategory (a == null ? null : a.build ());
+    if (a == null)
+      return classifiedTaxCategory ((ClassifiedTaxCategory) null);
+    final ClassifiedTaxCategory aCTC = m_aNestedErrors.buildNested (BUILDER_NAME, a::build);
+    return classifiedTaxCategory (aCTC);
   }
 
   @NonNull
   public PeppolViDATDD090ItemBuilder classifiedTaxCategory (@NonNull final Consumer <PeppolViDATDD090ClassifiedTaxCategoryBuilder> aBuilderConsumer)
   {
-    final PeppolViDATDD090ClassifiedTaxCategoryBuilder aBuilder = new PeppolViDATDD090ClassifiedTaxCategoryBuilder ();
+    if (m_aClassifiedTaxCategoryBuilder == null)
+      m_aClassifiedTaxCategoryBuilder = new PeppolViDATDD090ClassifiedTaxCategoryBuilder ();
+    final PeppolViDATDD090ClassifiedTaxCategoryBuilder aBuilder = m_aClassifiedTaxCategoryBuilder.reset ();
     aBuilderConsumer.accept (aBuilder);
     return classifiedTaxCategory (aBuilder);
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 Item builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
+
+    // Include the reasons why nested elements could not be built
+    aErrorList.addAll (m_aNestedErrors);
 
     // m_sDescription is optional
     if (StringHelper.isEmpty (m_sName))
-    {
-      aCondLog.error (sErrorPrefix + "Name is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "Name");
     // m_aCommodityClassifications may be empty
     if (m_aClassifiedTaxCategory == null)
-    {
-      aCondLog.error (sErrorPrefix + "ClassifiedTaxCategory is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ClassifiedTaxCategory");
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public Item build ()
+  private Item _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD Item cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final Item ret = new Item ();
     ret.setDescription (m_sDescription);
     ret.setName (m_sName);
-    ret.setCommodityClassification (m_aCommodityClassifications);
+    ret.setCommodityClassification (m_aCommodityClassifications.getClone ());
     ret.setClassifiedTaxCategory (m_aClassifiedTaxCategory);
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public Item build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final Item ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_ITEM, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public Item build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final Item ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD Item cannot be build.");
+    }
+    return ret;
+  }
 }
@@ -23,9 +23,9 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.CardAccount;
 import com.helger.peppol.vida.tdd.v090.cac.FinancialInstitutionBranch;
 import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans;
@@ -47,6 +47,7 @@ import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.Payment
 public class PeppolViDATDD090PaymentMeansBuilder implements IBuilder <PaymentMeans>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090PaymentMeansBuilder.class);
+  private static final String BUILDER_NAME = "PaymentMeans";
 
   private String m_sPaymentMeansCode;
   private String m_sPaymentMeansCodeName;
@@ -63,6 +64,27 @@ public class PeppolViDATDD090PaymentMeansBuilder implements IBuilder <PaymentMea
   public PeppolViDATDD090PaymentMeansBuilder ()
   {}
 
+  /**
+   * Reset all fields to their initial state, so that this builder can be reused.
+   *
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090PaymentMeansBuilder reset ()
+  {
+    m_sPaymentMeansCode = null;
+    m_sPaymentMeansCodeName = null;
+    m_sPaymentID = null;
+    m_sCardPrimaryAccountNumberID = null;
+    m_sCardNetworkID = null;
+    m_sCardHolderName = null;
+    m_sPayeeFinancialAccountID = null;
+    m_sPayeeFinancialAccountIDScheme = null;
+    m_sPayeeFinancialInstitutionBranchID = null;
+    m_sPayeeFinancialInstitutionBranchIDScheme = null;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -248,16 +270,20 @@ public class PeppolViDATDD090PaymentMeansBuilder implements IBuilder <PaymentMea
     return this;
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 PaymentMeans builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
 
     if (StringHelper.isEmpty (m_sPaymentMeansCode))
-    {
-      aCondLog.error (sErrorPrefix + "PaymentMeansCode is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "PaymentMeansCode");
     // m_sPaymentMeansCodeName is optional
     // m_sPaymentID is optional
     // m_sCardPrimaryAccountNumberID is optional
@@ -268,24 +294,24 @@ public class PeppolViDATDD090PaymentMeansBuilder implements IBuilder <PaymentMea
     // m_sPayeeFinancialInstitutionBranchID is optional
     // m_sPayeeFinancialInstitutionBranchIDScheme is optional
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public PaymentMeans build ()
+  private PaymentMeans _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD PaymentMeans cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final PaymentMeans ret = new PaymentMeans ();
     {
@@ -317,4 +343,33 @@ public class PeppolViDATDD090PaymentMeansBuilder implements IBuilder <PaymentMea
     }
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public PaymentMeans build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final PaymentMeans ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_PAYMENT_MEANS, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public PaymentMeans build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final PaymentMeans ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD PaymentMeans cannot be build.");
+    }
+    return ret;
+  }
 }
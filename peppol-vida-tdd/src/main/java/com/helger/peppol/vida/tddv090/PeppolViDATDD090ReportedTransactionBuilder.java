@@ -20,6 +20,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -31,8 +33,6 @@ import org.slf4j.LoggerFactory;
 import com.helger.annotation.style.ReturnsMutableObject;
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
@@ -42,6 +42,8 @@ import com.helger.datetime.xml.XMLOffsetDate;
 import com.helger.datetime.xml.XMLOffsetTime;
 import com.helger.peppol.vida.tdd.UUID5Helper;
 import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
 import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
 import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
@@ -57,6 +59,7 @@ import com.helger.peppol.vida.tdd.v090.cac.Party;
 import com.helger.peppol.vida.tdd.v090.cac.PartyTaxScheme;
 import com.helger.peppol.vida.tdd.v090.cac.PaymentMeans;
 import com.helger.peppol.vida.tdd.v090.cac.PostalAddress;
+import com.helger.peppol.vida.tdd.v090.cac.TaxCategory;
 import com.helger.peppol.vida.tdd.v090.cac.TaxRepresentativeParty;
 import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
 import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
@@ -89,8 +92,9 @@ import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
 public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <ReportedTransaction>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090ReportedTransactionBuilder.class);
+  private static final String BUILDER_NAME = "ReportedTransaction";
 
-  private final EViDATDDDocumentTypeCode m_eDocumentTypeCode;
+  private EViDATDDDocumentTypeCode m_eDocumentTypeCode;
   private String m_sCustomizationID;
   private String m_sProfileID;
   private String m_sID;
@@ -126,7 +130,55 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   private BigDecimal m_aPayableRoundingAmount;
   private BigDecimal m_aPayableAmount;
 
-  private final ICommonsList <DocumentLine> m_aDocumentLines = new CommonsArrayList <> ();
+  private final CommonsArrayList <DocumentLine> m_aDocumentLines = new CommonsArrayList <> ();
+  private IPeppolViDATDD090DocumentLineSource m_aDocumentLineSource;
+  // Reused for all Consumer based calls - only valid during the callback
+  private PeppolViDATDD090AllowanceChargeBuilder m_aAllowanceChargeBuilder;
+  private PeppolViDATDD090BillingReferenceBuilder m_aBillingReferenceBuilder;
+  private PeppolViDATDD090DocumentLineBuilder m_aDocumentLineBuilder;
+  private PeppolViDATDD090PaymentMeansBuilder m_aPaymentMeansBuilder;
+  private PeppolViDATDD090TaxTotalBuilder m_aTaxTotalBuilder;
+  // The errors of nested element builders that failed
+  private final PeppolViDATDD090BuilderErrorList m_aNestedErrors = new PeppolViDATDD090BuilderErrorList ();
+  private int m_nFailedBillingReferences;
+  private int m_nFailedPaymentMeans;
+  private int m_nFailedAllowanceCharges;
+  private int m_nFailedDocumentLines;
+  // Optional cache for shared leaf elements
+  private PeppolViDATDD090SharedElementCache m_aSharedElementCache;
+  // Aggregation mode - the aggregator is kept for reuse
+  private boolean m_bAggregateTotals;
+  private PeppolViDATDD090TotalsAggregator m_aTotalsAggregator;
+
+  /**
+   * Create the ReportedDocument UUID according to rule ID-BDID-01. The same business document
+   * always results in the same UUID, so it can e.g. be used to detect documents that were already
+   * reported, before the TDD is built.
+   *
+   * @param sDocumentTypeCode
+   *        The UBL document type code. May be <code>null</code>.
+   * @param sID
+   *        The business document ID. May be <code>null</code>.
+   * @param aIssueDate
+   *        The business document issue date. May be <code>null</code>.
+   * @param sSellerTaxID
+   *        The seller tax ID. May be <code>null</code>.
+   * @return The version 5 UUID. Never <code>null</code>.
+   */
+  @NonNull
+  public static UUID createReportedDocumentUUID (@Nullable final String sDocumentTypeCode,
+                                                 @Nullable final String sID,
+                                                 @Nullable final LocalDate aIssueDate,
+                                                 @Nullable final String sSellerTaxID)
+  {
+    // TODO check if the concatenation is correct
+    return UUID5Helper.fromUTF8 (UUID5Helper.PEPPOL_VIDA_NAMESPACE,
+                                 StringHelper.getNotNull (sDocumentTypeCode, "") +
+                                                                    StringHelper.getNotNull (sID, "") +
+                                                                    StringHelper.getNotNull (PDTWebDateHelper.getAsStringXSD (aIssueDate),
+                                                                                             "") +
+                                                                    StringHelper.getNotNull (sSellerTaxID, ""));
+  }
 
   public PeppolViDATDD090ReportedTransactionBuilder (@NonNull final EViDATDDDocumentTypeCode eDocumentTypeCode)
   {
@@ -134,6 +186,67 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
     m_eDocumentTypeCode = eDocumentTypeCode;
   }
 
+  /**
+   * Reset all fields to their initial state and set a new DocumentTypeCode, so that this builder
+   * can be reused for another ReportedTransaction. All collections are cleared and not
+   * reallocated.
+   *
+   * @param eDocumentTypeCode
+   *        The DocumentTypeCode of the TDD to use. May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder reset (@NonNull final EViDATDDDocumentTypeCode eDocumentTypeCode)
+  {
+    ValueEnforcer.notNull (eDocumentTypeCode, "DocumentTypeCode");
+    m_eDocumentTypeCode = eDocumentTypeCode;
+    m_sCustomizationID = null;
+    m_sProfileID = null;
+    m_sID = null;
+    m_aIssueDate = null;
+    m_aIssueTime = null;
+    m_sDocumentTypeCode = null;
+    m_sNote = null;
+    m_aTaxPointDate = null;
+    m_sDocumentCurrencyCode = null;
+    m_sTaxCurrencyCode = null;
+    m_aInvoicePeriodStart = null;
+    m_aInvoicePeriodEnd = null;
+    m_sInvoicePeriodDescriptionCode = null;
+    m_aBillingReferences.clear ();
+    m_sSellerTaxID = null;
+    m_sSellerCountryCode = null;
+    m_sBuyerTaxID = null;
+    m_sBuyerCountryCode = null;
+    m_sTaxRepresentativeID = null;
+    m_sTaxRepresentativeCountryCode = null;
+    m_aDeliveryDate = null;
+    m_aPaymentMeans.clear ();
+    m_aAllowanceCharges.clear ();
+    m_aTaxTotalDocumentCurrency = null;
+    m_aTaxTotalTaxCurrency = null;
+    m_aLineExtensionAmount = null;
+    m_aTaxExclusiveTotalAmount = null;
+    m_aTaxInclusiveTotalAmount = null;
+    m_aAllowanceTotalAmount = null;
+    m_aChargeTotalAmount = null;
+    m_aPrepaidAmount = null;
+    m_aPayableRoundingAmount = null;
+    m_aPayableAmount = null;
+    m_aDocumentLines.clear ();
+    m_aDocumentLineSource = null;
+    m_aSharedElementCache = null;
+    m_bAggregateTotals = false;
+    if (m_aTotalsAggregator != null)
+      m_aTotalsAggregator.clear ();
+    m_aNestedErrors.clear ();
+    m_nFailedBillingReferences = 0;
+    m_nFailedPaymentMeans = 0;
+    m_nFailedAllowanceCharges = 0;
+    m_nFailedDocumentLines = 0;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 Invoice
    *
@@ -146,6 +259,7 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   {
     ValueEnforcer.notNull (aInv, "Invoice");
 
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
     customizationID (aInv.getCustomizationIDValue ());
     profileID (aInv.getProfileIDValue ());
     id (aInv.getIDValue ());
@@ -275,6 +389,7 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
     for (final var aLine : aInv.getInvoiceLine ())
       addDocumentLine (x -> x.initFromInvoice (aLine));
 
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.INIT_FROM_INVOICE, nStartNanos);
     return this;
   }
 
@@ -290,6 +405,7 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   {
     ValueEnforcer.notNull (aCN, "Invoice");
 
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
     customizationID (aCN.getCustomizationIDValue ());
     profileID (aCN.getProfileIDValue ());
     id (aCN.getIDValue ());
@@ -419,6 +535,7 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
     for (final var aLine : aCN.getCreditNoteLine ())
       addDocumentLine (x -> x.initFromCreditNote (aLine));
 
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.INIT_FROM_CREDIT_NOTE, nStartNanos);
     return this;
   }
 
@@ -631,13 +748,22 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addBillingReference (@Nullable final PeppolViDATDD090BillingReferenceBuilder a)
   {
-    return addBillingReference (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final BillingReference aBR = m_aNestedErrors.buildNested (BUILDER_NAME,
+                                                              m_aBillingReferences.size () + m_nFailedBillingReferences,
+                                                              a::build);
+    if (aBR == null)
+      m_nFailedBillingReferences++;
+    return addBillingReference (aBR);
   }
 
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addBillingReference (@NonNull final Consumer <PeppolViDATDD090BillingReferenceBuilder> a)
   {
-    final PeppolViDATDD090BillingReferenceBuilder aBuilder = new PeppolViDATDD090BillingReferenceBuilder ();
+    if (m_aBillingReferenceBuilder == null)
+      m_aBillingReferenceBuilder = new PeppolViDATDD090BillingReferenceBuilder ();
+    final PeppolViDATDD090BillingReferenceBuilder aBuilder = m_aBillingReferenceBuilder.reset ();
     a.accept (aBuilder);
     return addBillingReference (aBuilder);
   }
@@ -720,6 +846,74 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
     return this;
   }
 
+  /**
+   * @return <code>true</code> if the aggregation mode is enabled, <code>false</code> if not.
+   *         Default is <code>false</code>.
+   */
+  public boolean aggregateTotals ()
+  {
+    return m_bAggregateTotals;
+  }
+
+  /**
+   * Enable or disable the aggregation mode. If enabled, the monetary totals (line extension,
+   * allowance, charge, tax exclusive, tax inclusive and payable amount) and the document currency
+   * TaxTotal with one TaxSubtotal per tax category ID and percentage are accumulated, while
+   * DocumentLines and AllowanceCharges are added. Totals that are set explicitly take precedence
+   * over the aggregated ones.<br>
+   * Should be enabled before the first AllowanceCharge is added, as the AllowanceCharges already
+   * contained are aggregated without a tax category. Modifications of the lists returned by
+   * {@link #documentLines()} and {@link #allowanceCharges()} are not considered.
+   *
+   * @param b
+   *        <code>true</code> to enable it, <code>false</code> to disable it.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder aggregateTotals (final boolean b)
+  {
+    if (b && !m_bAggregateTotals)
+    {
+      if (m_aTotalsAggregator == null)
+        m_aTotalsAggregator = new PeppolViDATDD090TotalsAggregator ();
+      else
+        m_aTotalsAggregator.clear ();
+      for (final DocumentLine aLine : m_aDocumentLines)
+        m_aTotalsAggregator.addDocumentLine (aLine);
+      if (m_aDocumentLineSource != null)
+        m_aTotalsAggregator.addDocumentLines (m_aDocumentLineSource);
+      for (final AllowanceCharge aAC : m_aAllowanceCharges)
+        m_aTotalsAggregator.addAllowanceCharge (aAC, null);
+    }
+    m_bAggregateTotals = b;
+    return this;
+  }
+
+  @Nullable
+  public PeppolViDATDD090SharedElementCache sharedElementCache ()
+  {
+    return m_aSharedElementCache;
+  }
+
+  /**
+   * Enable or disable the usage of shared leaf elements (like the "VAT" TaxScheme or the
+   * PostalAddress with the Country of a party). If a cache is provided, the same JAXB objects are
+   * used in all ReportedTransactions built with the same cache, which reduces the retained heap when
+   * many TDDs are kept in memory. The caller must NOT modify the resulting object tree in that case.
+   * Disabled by default.
+   *
+   * @param a
+   *        The cache to use. May be <code>null</code> to create new objects for every build.
+   * @return this for chaining
+   * @see PeppolViDATDD090SharedElementCache#getDefaultInstance()
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder sharedElementCache (@Nullable final PeppolViDATDD090SharedElementCache a)
+  {
+    m_aSharedElementCache = a;
+    return this;
+  }
+
   @Nullable
   public LocalDate deliveryDate ()
   {
@@ -758,13 +952,22 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addPaymentMeans (@Nullable final PeppolViDATDD090PaymentMeansBuilder a)
   {
-    return addPaymentMeans (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final PaymentMeans aPM = m_aNestedErrors.buildNested (BUILDER_NAME,
+                                                          m_aPaymentMeans.size () + m_nFailedPaymentMeans,
+                                                          a::build);
+    if (aPM == null)
+      m_nFailedPaymentMeans++;
+    return addPaymentMeans (aPM);
   }
 
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addPaymentMeans (@NonNull final Consumer <PeppolViDATDD090PaymentMeansBuilder> a)
   {
-    final PeppolViDATDD090PaymentMeansBuilder aBuilder = new PeppolViDATDD090PaymentMeansBuilder ();
+    if (m_aPaymentMeansBuilder == null)
+      m_aPaymentMeansBuilder = new PeppolViDATDD090PaymentMeansBuilder ();
+    final PeppolViDATDD090PaymentMeansBuilder aBuilder = m_aPaymentMeansBuilder.reset ();
     a.accept (aBuilder);
     return addPaymentMeans (aBuilder);
   }
@@ -780,27 +983,65 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   public PeppolViDATDD090ReportedTransactionBuilder allowanceCharges (@Nullable final ICommonsList <AllowanceCharge> a)
   {
     m_aAllowanceCharges.setAll (a);
+    if (m_bAggregateTotals)
+    {
+      m_aTotalsAggregator.clearAllowanceCharges ();
+      for (final AllowanceCharge aAC : m_aAllowanceCharges)
+        m_aTotalsAggregator.addAllowanceCharge (aAC, null);
+    }
     return this;
   }
 
   @NonNull
-  public PeppolViDATDD090ReportedTransactionBuilder addAllowanceCharge (@Nullable final AllowanceCharge a)
+  private PeppolViDATDD090ReportedTransactionBuilder _addAllowanceCharge (@Nullable final AllowanceCharge a,
+                                                                         @Nullable final TaxCategory aTaxCategory,
+                                                                         @Nullable final PeppolViDATDD090ScaledAmount aScaledAmount)
   {
     if (a != null)
+    {
       m_aAllowanceCharges.add (a);
+      if (m_bAggregateTotals)
+        m_aTotalsAggregator.addAllowanceCharge (a, aTaxCategory, aScaledAmount);
+    }
     return this;
   }
 
+  /**
+   * Add a new AllowanceCharge. Note: in aggregation mode, the AllowanceCharge elements don't carry
+   * the tax category, so use the builder based methods instead.
+   *
+   * @param a
+   *        The AllowanceCharge to add. May be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder addAllowanceCharge (@Nullable final AllowanceCharge a)
+  {
+    return _addAllowanceCharge (a, null, null);
+  }
+
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addAllowanceCharge (@Nullable final PeppolViDATDD090AllowanceChargeBuilder a)
   {
-    return addAllowanceCharge (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final AllowanceCharge aAC = m_aNestedErrors.buildNested (BUILDER_NAME,
+                                                             m_aAllowanceCharges.size () + m_nFailedAllowanceCharges,
+                                                             a::build);
+    if (aAC == null)
+    {
+      m_nFailedAllowanceCharges++;
+      return this;
+    }
+    return _addAllowanceCharge (aAC, a.taxCategory (), a.getAmountValue ());
   }
 
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addAllowanceCharge (@NonNull final Consumer <PeppolViDATDD090AllowanceChargeBuilder> a)
   {
-    final PeppolViDATDD090AllowanceChargeBuilder aBuilder = new PeppolViDATDD090AllowanceChargeBuilder (m_sDocumentCurrencyCode);
+    if (m_aAllowanceChargeBuilder == null)
+      m_aAllowanceChargeBuilder = new PeppolViDATDD090AllowanceChargeBuilder (m_sDocumentCurrencyCode);
+    final PeppolViDATDD090AllowanceChargeBuilder aBuilder = m_aAllowanceChargeBuilder.reset (m_sDocumentCurrencyCode);
     a.accept (aBuilder);
     return addAllowanceCharge (aBuilder);
   }
@@ -821,7 +1062,11 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder taxTotalDocumentCurrency (@Nullable final PeppolViDATDD090TaxTotalBuilder a)
   {
-    return taxTotalDocumentCurrency (a == null ? null : a.build ());
+    if (a == null)
+      return taxTotalDocumentCurrency ((TaxTotal) null);
+    // The TaxTotal in document currency is the first one
+    final TaxTotal aTT = m_aNestedErrors.buildNested (BUILDER_NAME, 0, a::build);
+    return taxTotalDocumentCurrency (aTT);
   }
 
   @NonNull
@@ -829,7 +1074,9 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   {
     if (StringHelper.isEmpty (m_sDocumentCurrencyCode))
       throw new IllegalStateException ("The TaxTotal can only be built, after the DocumentCurrencyCode is set!");
-    final PeppolViDATDD090TaxTotalBuilder aBuilder = new PeppolViDATDD090TaxTotalBuilder (m_sDocumentCurrencyCode);
+    if (m_aTaxTotalBuilder == null)
+      m_aTaxTotalBuilder = new PeppolViDATDD090TaxTotalBuilder (m_sDocumentCurrencyCode);
+    final PeppolViDATDD090TaxTotalBuilder aBuilder = m_aTaxTotalBuilder.reset (m_sDocumentCurrencyCode);
     a.accept (aBuilder);
     return taxTotalDocumentCurrency (aBuilder);
   }
@@ -850,7 +1097,11 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder taxTotalTaxCurrency (@Nullable final PeppolViDATDD090TaxTotalBuilder a)
   {
-    return taxTotalTaxCurrency (a == null ? null : a.build ());
+    if (a == null)
+      return taxTotalTaxCurrency ((TaxTotal) null);
+    // The TaxTotal in tax currency is the second one
+    final TaxTotal aTT = m_aNestedErrors.buildNested (BUILDER_NAME, 1, a::build);
+    return taxTotalTaxCurrency (aTT);
   }
 
   @NonNull
@@ -858,7 +1109,9 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   {
     if (StringHelper.isEmpty (m_sTaxCurrencyCode))
       throw new IllegalStateException ("The TaxTotal can only be built, after the TaxCurrencyCode is set!");
-    final PeppolViDATDD090TaxTotalBuilder aBuilder = new PeppolViDATDD090TaxTotalBuilder (m_sTaxCurrencyCode);
+    if (m_aTaxTotalBuilder == null)
+      m_aTaxTotalBuilder = new PeppolViDATDD090TaxTotalBuilder (m_sTaxCurrencyCode);
+    final PeppolViDATDD090TaxTotalBuilder aBuilder = m_aTaxTotalBuilder.reset (m_sTaxCurrencyCode);
     a.accept (aBuilder);
     return taxTotalTaxCurrency (aBuilder);
   }
@@ -978,21 +1231,62 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   public PeppolViDATDD090ReportedTransactionBuilder documentLines (@Nullable final ICommonsList <DocumentLine> a)
   {
     m_aDocumentLines.setAll (a);
+    _reaggregateDocumentLines ();
     return this;
   }
 
+  private void _reaggregateDocumentLines ()
+  {
+    if (m_bAggregateTotals)
+    {
+      m_aTotalsAggregator.clearDocumentLines ();
+      for (final DocumentLine aLine : m_aDocumentLines)
+        m_aTotalsAggregator.addDocumentLine (aLine);
+      if (m_aDocumentLineSource != null)
+        m_aTotalsAggregator.addDocumentLines (m_aDocumentLineSource);
+    }
+  }
+
+  /**
+   * @return The index of the next DocumentLine inside this ReportedTransaction, as used in the
+   *         error paths. DocumentLines that could not be built are also counted.
+   */
+  private int _getNextDocumentLineIndex ()
+  {
+    return m_aDocumentLines.size () + m_nFailedDocumentLines;
+  }
+
   @NonNull
-  public PeppolViDATDD090ReportedTransactionBuilder addDocumentLine (@Nullable final DocumentLine a)
+  private PeppolViDATDD090ReportedTransactionBuilder _addDocumentLine (@Nullable final DocumentLine a,
+                                                                      @Nullable final PeppolViDATDD090ScaledAmount aScaledAmount)
   {
     if (a != null)
+    {
       m_aDocumentLines.add (a);
+      if (m_bAggregateTotals)
+        m_aTotalsAggregator.addDocumentLine (a, aScaledAmount);
+    }
     return this;
   }
 
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder addDocumentLine (@Nullable final DocumentLine a)
+  {
+    return _addDocumentLine (a, null);
+  }
+
   @NonNull
   public PeppolViDATDD090ReportedTransactionBuilder addDocumentLine (@Nullable final PeppolViDATDD090DocumentLineBuilder a)
   {
-    return addDocumentLine (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final DocumentLine aLine = m_aNestedErrors.buildNested (BUILDER_NAME, _getNextDocumentLineIndex (), a::build);
+    if (aLine == null)
+    {
+      m_nFailedDocumentLines++;
+      return this;
+    }
+    return _addDocumentLine (aLine, a.getLineExtensionAmountValue ());
   }
 
   @NonNull
@@ -1000,53 +1294,213 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
   {
     if (StringHelper.isEmpty (m_sDocumentCurrencyCode))
       throw new IllegalStateException ("The DocumentLine can only be built, after the DocumentCurrencyCode is set!");
-    final PeppolViDATDD090DocumentLineBuilder aBuilder = new PeppolViDATDD090DocumentLineBuilder (m_sDocumentCurrencyCode);
+    if (m_aDocumentLineBuilder == null)
+      m_aDocumentLineBuilder = new PeppolViDATDD090DocumentLineBuilder (m_sDocumentCurrencyCode);
+    final PeppolViDATDD090DocumentLineBuilder aBuilder = m_aDocumentLineBuilder.reset (m_sDocumentCurrencyCode);
     a.accept (aBuilder);
     return addDocumentLine (aBuilder);
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Add many simple DocumentLines in one pass. Compared to adding each line via a
+   * {@link PeppolViDATDD090DocumentLineBuilder}, no builder objects are involved, the line list is
+   * presized and consecutive lines with the same tax category share the same
+   * ClassifiedTaxCategory element. Rows with missing mandatory fields are skipped and reported in
+   * the provided error list.
+   *
+   * @param aSource
+   *        The line source to read from. May not be <code>null</code>.
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder addDocumentLines (@NonNull final IPeppolViDATDD090DocumentLineSource aSource,
+                                                                     @NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aSource, "Source");
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+
+    final int nCount = aSource.getLineCount ();
+    m_aDocumentLines.ensureCapacity (m_aDocumentLines.size () + nCount);
+
+    final PeppolViDATDD090DocumentLineMaterializer aMaterializer = new PeppolViDATDD090DocumentLineMaterializer (aSource,
+                                                                                                              m_sDocumentCurrencyCode,
+                                                                                                              m_aSharedElementCache);
+    for (int i = 0; i < nCount; ++i)
+    {
+      final DocumentLine aLine = aMaterializer.create (i, _getNextDocumentLineIndex (), aErrorList);
+      if (aLine != null)
+      {
+        m_aDocumentLines.add (aLine);
+        if (m_bAggregateTotals)
+          m_aTotalsAggregator.addDocumentLine (aLine);
+      }
+      else
+        m_nFailedDocumentLines++;
+    }
+    return this;
+  }
+
+  /**
+   * Add many simple DocumentLines in one pass. Rows with missing mandatory fields are skipped and
+   * logged.
+   *
+   * @param aSource
+   *        The line source to read from. May not be <code>null</code>.
+   * @return this for chaining
+   * @see #addDocumentLines(IPeppolViDATDD090DocumentLineSource, PeppolViDATDD090BuilderErrorList)
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder addDocumentLines (@NonNull final IPeppolViDATDD090DocumentLineSource aSource)
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    addDocumentLines (aSource, aErrorList);
+    aErrorList.logErrors (LOGGER);
+    return this;
+  }
+
+  @Nullable
+  public IPeppolViDATDD090DocumentLineSource documentLineSource ()
+  {
+    return m_aDocumentLineSource;
+  }
+
+  /**
+   * Set a source for additional DocumentLines that are only materialized when needed. The source
+   * must return the same rows every time it is read. The rows are appended after the DocumentLines
+   * added explicitly. {@link #build(PeppolViDATDD090BuilderErrorList)} creates all DocumentLine
+   * elements, whereas {@link #buildWithoutSourceLines(PeppolViDATDD090BuilderErrorList)} together
+   * with {@link #getSourceDocumentLines()} allows to stream them (e.g. via
+   * <code>PeppolViDATDD090StreamingWriter</code>) without keeping them in memory. In aggregation
+   * mode, the totals are aggregated from the rows directly.
+   *
+   * @param a
+   *        The line source. May be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090ReportedTransactionBuilder documentLineSource (@Nullable final IPeppolViDATDD090DocumentLineSource a)
+  {
+    m_aDocumentLineSource = a;
+    _reaggregateDocumentLines ();
+    return this;
+  }
+
+  /**
+   * @return The number of DocumentLines added explicitly plus the number of rows of the
+   *         DocumentLine source. Nothing is materialized.
+   */
+  public int getDocumentLineCount ()
+  {
+    return m_aDocumentLines.size () + (m_aDocumentLineSource == null ? 0 : m_aDocumentLineSource.getLineCount ());
+  }
+
+  /**
+   * Get the rows of the DocumentLine source as lazily created DocumentLine elements. Every iteration
+   * creates new elements, one row at a time.
+   *
+   * @return An empty iterable if no source is set. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         During iteration, if a row misses a mandatory field
+   */
+  @NonNull
+  public Iterable <DocumentLine> getSourceDocumentLines ()
+  {
+    final IPeppolViDATDD090DocumentLineSource aSource = m_aDocumentLineSource;
+    if (aSource == null)
+      return new CommonsArrayList <> ();
+
+    final String sCurrencyCode = m_sDocumentCurrencyCode;
+    final PeppolViDATDD090SharedElementCache aSharedElementCache = m_aSharedElementCache;
+    // The rows are appended after the explicitly added lines
+    final int nFirstLineIndex = _getNextDocumentLineIndex ();
+    return () -> new Iterator <> ()
+    {
+      private final PeppolViDATDD090DocumentLineMaterializer m_aMaterializer = new PeppolViDATDD090DocumentLineMaterializer (aSource,
+                                                                                                                           sCurrencyCode,
+                                                                                                                           aSharedElementCache);
+      private final int m_nCount = aSource.getLineCount ();
+      private int m_nIndex = 0;
+
+      @Override
+      public boolean hasNext ()
+      {
+        return m_nIndex < m_nCount;
+      }
+
+      @Override
+      public DocumentLine next ()
+      {
+        if (m_nIndex >= m_nCount)
+          throw new NoSuchElementException ();
+        final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+        final DocumentLine ret = m_aMaterializer.create (m_nIndex, nFirstLineIndex + m_nIndex, aErrorList);
+        if (ret == null)
+          throw new IllegalArgumentException ("Invalid DocumentLine row " + m_nIndex + ": " + aErrorList.getAllErrors ());
+        m_nIndex++;
+        return ret;
+      }
+    };
+  }
+
+  @NonNull
+  private PostalAddress _createPostalAddress (@NonNull final String sCountryCode)
   {
-    int nErrs = 0;
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 ReportedTransaction builder: ";
+    if (m_aSharedElementCache != null)
+      return m_aSharedElementCache.getPostalAddress (sCountryCode);
+
+    final PostalAddress ret = new PostalAddress ();
+    final Country aC = new Country ();
+    aC.setIdentificationCode (sCountryCode);
+    ret.setCountry (aC);
+    return ret;
+  }
+
+  @NonNull
+  private TaxScheme _createTaxScheme (@NonNull final String sID)
+  {
+    if (m_aSharedElementCache != null)
+      return m_aSharedElementCache.getTaxScheme (sID);
+
+    final TaxScheme ret = new TaxScheme ();
+    ret.setID (sID);
+    return ret;
+  }
+
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final int nErrsBefore = aErrorList.getErrorCount ();
+
+    // Include the reasons why nested elements could not be built
+    aErrorList.addAll (m_aNestedErrors);
 
     // TransportHeaderID is optional
 
     // Check all ReportedDocument fields
     if (StringHelper.isEmpty (m_sCustomizationID))
-    {
-      aCondLog.error (sErrorPrefix + "CustomizationID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "CustomizationID");
     if (StringHelper.isEmpty (m_sProfileID))
-    {
-      aCondLog.error (sErrorPrefix + "ProfileID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ProfileID");
     if (StringHelper.isEmpty (m_sID))
-    {
-      aCondLog.error (sErrorPrefix + "ID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "ID");
     if (m_aIssueDate == null)
-    {
-      aCondLog.error (sErrorPrefix + "IssueDate is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "IssueDate");
     // IssueTime is optional
     if (StringHelper.isEmpty (m_sDocumentTypeCode))
-    {
-      aCondLog.error (sErrorPrefix + "DocumentTypeCode is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "DocumentTypeCode");
     // Note is optional
     // TaxPointDate is optional
     if (StringHelper.isEmpty (m_sDocumentCurrencyCode))
-    {
-      aCondLog.error (sErrorPrefix + "DocumentCurrencyCode is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "DocumentCurrencyCode");
     // InvoicePeriod is optional
 
     // m_aBillingReferences may be empty
@@ -1064,97 +1518,119 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
 
     // m_aAllowanceCharges may be empty
 
-    if (m_aTaxTotalDocumentCurrency == null)
+    if (m_bAggregateTotals)
     {
-      aCondLog.error (sErrorPrefix + "TaxTotalDocumentCurrency is missing");
-      aReportedDocsErrs.inc ();
+      // All totals can be calculated
+      m_aTotalsAggregator.checkCompleteness (aErrorList, BUILDER_NAME);
     }
+    else
+      if (m_aTaxTotalDocumentCurrency == null)
+        aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxTotalDocumentCurrency");
     if (m_aTaxTotalTaxCurrency != null)
     {
       if (StringHelper.isEmpty (m_sTaxCurrencyCode))
       {
-        aCondLog.error (sErrorPrefix +
-                        "If TaxTotalAmountTaxCurrency is provided, TaxCurrencyCode must also be provided");
-        aReportedDocsErrs.inc ();
+        aErrorList.add (BUILDER_NAME,
+                        EViDATDD090BuilderErrorCode.MISSING_DEPENDENT_FIELD,
+                        "TaxCurrencyCode",
+                        "TaxTotalAmountTaxCurrency");
       }
     }
     else
     {
       if (StringHelper.isNotEmpty (m_sTaxCurrencyCode))
       {
-        aCondLog.error (sErrorPrefix +
-                        "If TaxCurrencyCode is provided, TaxTotalAmountTaxCurrency must also be provided");
-        aReportedDocsErrs.inc ();
+        aErrorList.add (BUILDER_NAME,
+                        EViDATDD090BuilderErrorCode.MISSING_DEPENDENT_FIELD,
+                        "TaxTotalAmountTaxCurrency",
+                        "TaxCurrencyCode");
       }
     }
-    if (m_aLineExtensionAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "LineExtensionAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
-    if (m_aTaxExclusiveTotalAmount == null)
+    if (!m_bAggregateTotals)
     {
-      aCondLog.error (sErrorPrefix + "TaxExclusiveTotalAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
-    if (m_aTaxInclusiveTotalAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "TaxInclusiveTotalAmount is missing");
-      aReportedDocsErrs.inc ();
+      if (m_aLineExtensionAmount == null)
+        aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "LineExtensionAmount");
+      if (m_aTaxExclusiveTotalAmount == null)
+        aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxExclusiveTotalAmount");
+      if (m_aTaxInclusiveTotalAmount == null)
+        aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxInclusiveTotalAmount");
+      if (m_aPayableAmount == null)
+        aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "PayableAmount");
     }
     // m_aAllowanceTotalAmount is optional
     // m_aChargeTotalAmount is optional
     // m_aPrepaidAmount is optional
     // m_aPayableRoundingAmount is optional
-    if (m_aPayableAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "PayableAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
-    if (m_aDocumentLines.isEmpty ())
-    {
-      aCondLog.error (sErrorPrefix + "At least one DocumentLine is needed");
-      aReportedDocsErrs.inc ();
-    }
+    if (getDocumentLineCount () == 0)
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.EMPTY_LIST, "DocumentLine");
 
     // Failed TDDs don't need this
     // TODO missing in 0.9.0
     // if (m_eDocumentTypeCode != EViDATDDDocumentTypeCode.DISREGARD)
-    nErrs += aReportedDocsErrs.intValue ();
 
-    return nErrs == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
   public ReportedTransaction build ()
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final ReportedTransaction ret = build (aErrorList);
+    if (ret == null)
     {
+      aErrorList.logErrors (LOGGER);
       LOGGER.error ("At least one mandatory field is not set and therefore the TDD ReportedTransaction cannot be build.");
+    }
+    return ret;
+  }
+
+  @Nullable
+  private ReportedTransaction _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList,
+                                      final boolean bIncludeSourceLines)
+  {
+    final int nErrsBefore = aErrorList.getErrorCount ();
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
+
+    final ICommonsList <DocumentLine> aDocumentLines;
+    if (bIncludeSourceLines && m_aDocumentLineSource != null)
+    {
+      // Materialize the rows
+      final int nCount = m_aDocumentLineSource.getLineCount ();
+      aDocumentLines = new CommonsArrayList <> (m_aDocumentLines.size () + nCount);
+      aDocumentLines.addAll (m_aDocumentLines);
+      final PeppolViDATDD090DocumentLineMaterializer aMaterializer = new PeppolViDATDD090DocumentLineMaterializer (m_aDocumentLineSource,
+                                                                                                                m_sDocumentCurrencyCode,
+                                                                                                                m_aSharedElementCache);
+      final int nFirstLineIndex = _getNextDocumentLineIndex ();
+      for (int i = 0; i < nCount; ++i)
+      {
+        final DocumentLine aLine = aMaterializer.create (i, nFirstLineIndex + i, aErrorList);
+        if (aLine != null)
+          aDocumentLines.add (aLine);
+      }
+      if (aErrorList.getErrorCount () != nErrsBefore)
+        return null;
     }
+    else
+      aDocumentLines = m_aDocumentLines.getClone ();
 
     final ReportedTransaction ret = new ReportedTransaction ();
 
     // ReportedDocument - optional for FAILED state
-    if (m_eDocumentTypeCode != EViDATDDDocumentTypeCode.DISREGARD || aReportedDocErrs.is0 ())
+    if (m_eDocumentTypeCode != EViDATDDDocumentTypeCode.DISREGARD || aErrorList.getErrorCount () == nErrsBefore)
     {
-      // The UUID is calculated based on rule ID-BDID-01
-      // TODO check if the concatenation is correct
-      final UUID aUUID = UUID5Helper.fromUTF8 (UUID5Helper.PEPPOL_VIDA_NAMESPACE,
-                                               StringHelper.getNotNull (m_sDocumentTypeCode, "") +
-                                                                                  StringHelper.getNotNull (m_sID, "") +
-                                                                                  StringHelper.getNotNull (PDTWebDateHelper.getAsStringXSD (m_aIssueDate),
-                                                                                                           "") +
-                                                                                  StringHelper.getNotNull (m_sSellerTaxID,
-                                                                                                           ""));
+      final UUID aUUID = createReportedDocumentUUID (m_sDocumentTypeCode, m_sID, m_aIssueDate, m_sSellerTaxID);
 
       final ReportedDocument a = new ReportedDocument ();
       if (StringHelper.isNotEmpty (m_sCustomizationID))
@@ -1192,7 +1668,7 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
         a.setInvoicePeriod (aIP);
       }
 
-      a.setBillingReference (m_aBillingReferences);
+      a.setBillingReference (m_aBillingReferences.getClone ());
 
       {
         final AccountingSupplierParty a2 = new AccountingSupplierParty ();
@@ -1201,20 +1677,14 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
           {
             if (StringHelper.isNotEmpty (m_sSellerCountryCode))
             {
-              final PostalAddress aPA = new PostalAddress ();
-              final Country aC = new Country ();
-              aC.setIdentificationCode (m_sSellerCountryCode);
-              aPA.setCountry (aC);
-              aParty.addPostalAddress (aPA);
+              aParty.addPostalAddress (_createPostalAddress (m_sSellerCountryCode));
             }
 
             if (StringHelper.isNotEmpty (m_sSellerTaxID))
             {
               final PartyTaxScheme aPTS = new PartyTaxScheme ();
               aPTS.setCompanyID (m_sSellerTaxID);
-              final TaxScheme aTS = new TaxScheme ();
-              aTS.setID ("VAT");
-              aPTS.setTaxScheme (aTS);
+              aPTS.setTaxScheme (_createTaxScheme ("VAT"));
               aParty.setPartyTaxScheme (aPTS);
             }
           }
@@ -1229,20 +1699,14 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
           final Party aParty = new Party ();
           if (StringHelper.isNotEmpty (m_sBuyerCountryCode))
           {
-            final PostalAddress aPA = new PostalAddress ();
-            final Country aC = new Country ();
-            aC.setIdentificationCode (m_sBuyerCountryCode);
-            aPA.setCountry (aC);
-            aParty.addPostalAddress (aPA);
+            aParty.addPostalAddress (_createPostalAddress (m_sBuyerCountryCode));
           }
 
           if (StringHelper.isNotEmpty (m_sBuyerTaxID))
           {
             final PartyTaxScheme aPTS = new PartyTaxScheme ();
             aPTS.setCompanyID (m_sBuyerTaxID);
-            final TaxScheme aTS = new TaxScheme ();
-            aTS.setID ("VAT");
-            aPTS.setTaxScheme (aTS);
+            aPTS.setTaxScheme (_createTaxScheme ("VAT"));
             aParty.setPartyTaxScheme (aPTS);
           }
           aAccountingCustomer.setParty (aParty);
@@ -1255,20 +1719,14 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
         final TaxRepresentativeParty aTaxRep = new TaxRepresentativeParty ();
         if (StringHelper.isNotEmpty (m_sTaxRepresentativeCountryCode))
         {
-          final PostalAddress aPA = new PostalAddress ();
-          final Country aC = new Country ();
-          aC.setIdentificationCode (m_sTaxRepresentativeCountryCode);
-          aPA.setCountry (aC);
-          aTaxRep.addPostalAddress (aPA);
+          aTaxRep.addPostalAddress (_createPostalAddress (m_sTaxRepresentativeCountryCode));
         }
 
         if (StringHelper.isNotEmpty (m_sTaxRepresentativeID))
         {
           final PartyTaxScheme aPTS = new PartyTaxScheme ();
           aPTS.setCompanyID (m_sTaxRepresentativeID);
-          final TaxScheme aTS = new TaxScheme ();
-          aTS.setID ("VAT");
-          aPTS.setTaxScheme (aTS);
+          aPTS.setTaxScheme (_createTaxScheme ("VAT"));
           aTaxRep.setPartyTaxScheme (aPTS);
         }
         a.setTaxRepresentativeParty (aTaxRep);
@@ -1281,38 +1739,78 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
         a.setDelivery (aDel);
       }
 
-      a.setAllowanceCharge (m_aAllowanceCharges);
+      a.setAllowanceCharge (m_aAllowanceCharges.getClone ());
+
+      // Explicitly set values take precedence over aggregated ones
+      final TaxTotal aTaxTotal;
+      BigDecimal aLineExtensionAmount = m_aLineExtensionAmount;
+      BigDecimal aTaxExclusiveTotalAmount = m_aTaxExclusiveTotalAmount;
+      BigDecimal aTaxInclusiveTotalAmount = m_aTaxInclusiveTotalAmount;
+      BigDecimal aAllowanceTotalAmount = m_aAllowanceTotalAmount;
+      BigDecimal aChargeTotalAmount = m_aChargeTotalAmount;
+      BigDecimal aPayableAmount = m_aPayableAmount;
+      if (m_bAggregateTotals)
+      {
+        aTaxTotal = m_aTaxTotalDocumentCurrency != null ? m_aTaxTotalDocumentCurrency
+                                                        : m_aTotalsAggregator.createTaxTotal (m_sDocumentCurrencyCode);
+        if (aLineExtensionAmount == null)
+          aLineExtensionAmount = m_aTotalsAggregator.getLineExtensionAmount ();
+        if (aAllowanceTotalAmount == null)
+          aAllowanceTotalAmount = m_aTotalsAggregator.getAllowanceTotalAmount ();
+        if (aChargeTotalAmount == null)
+          aChargeTotalAmount = m_aTotalsAggregator.getChargeTotalAmount ();
+        if (aTaxExclusiveTotalAmount == null)
+        {
+          aTaxExclusiveTotalAmount = aLineExtensionAmount;
+          if (aAllowanceTotalAmount != null)
+            aTaxExclusiveTotalAmount = aTaxExclusiveTotalAmount.subtract (aAllowanceTotalAmount);
+          if (aChargeTotalAmount != null)
+            aTaxExclusiveTotalAmount = aTaxExclusiveTotalAmount.add (aChargeTotalAmount);
+        }
+        if (aTaxInclusiveTotalAmount == null)
+          aTaxInclusiveTotalAmount = aTaxExclusiveTotalAmount.add (aTaxTotal.getTaxAmount ().getValue ());
+        if (aPayableAmount == null)
+        {
+          aPayableAmount = aTaxInclusiveTotalAmount;
+          if (m_aPrepaidAmount != null)
+            aPayableAmount = aPayableAmount.subtract (m_aPrepaidAmount);
+          if (m_aPayableRoundingAmount != null)
+            aPayableAmount = aPayableAmount.add (m_aPayableRoundingAmount);
+        }
+      }
+      else
+        aTaxTotal = m_aTaxTotalDocumentCurrency;
 
-      a.addTaxTotal (m_aTaxTotalDocumentCurrency);
+      a.addTaxTotal (aTaxTotal);
       if (m_aTaxTotalTaxCurrency != null)
         a.addTaxTotal (m_aTaxTotalTaxCurrency);
 
       {
         final MonetaryTotal aMonetaryTotal = new MonetaryTotal ();
         {
-          final LineExtensionAmount aAmount = new LineExtensionAmount (m_aLineExtensionAmount);
+          final LineExtensionAmount aAmount = new LineExtensionAmount (aLineExtensionAmount);
           aAmount.setCurrencyID (m_sDocumentCurrencyCode);
           aMonetaryTotal.setLineExtensionAmount (aAmount);
         }
         {
-          final TaxExclusiveAmount aAmount = new TaxExclusiveAmount (m_aTaxExclusiveTotalAmount);
+          final TaxExclusiveAmount aAmount = new TaxExclusiveAmount (aTaxExclusiveTotalAmount);
           aAmount.setCurrencyID (m_sDocumentCurrencyCode);
           aMonetaryTotal.setTaxExclusiveAmount (aAmount);
         }
         {
-          final TaxInclusiveAmount aAmount = new TaxInclusiveAmount (m_aTaxInclusiveTotalAmount);
+          final TaxInclusiveAmount aAmount = new TaxInclusiveAmount (aTaxInclusiveTotalAmount);
           aAmount.setCurrencyID (m_sDocumentCurrencyCode);
           aMonetaryTotal.setTaxInclusiveAmount (aAmount);
         }
-        if (m_aAllowanceTotalAmount != null)
+        if (aAllowanceTotalAmount != null)
         {
-          final AllowanceTotalAmount aAmount = new AllowanceTotalAmount (m_aAllowanceTotalAmount);
+          final AllowanceTotalAmount aAmount = new AllowanceTotalAmount (aAllowanceTotalAmount);
           aAmount.setCurrencyID (m_sDocumentCurrencyCode);
           aMonetaryTotal.setAllowanceTotalAmount (aAmount);
         }
-        if (m_aChargeTotalAmount != null)
+        if (aChargeTotalAmount != null)
         {
-          final ChargeTotalAmount aAmount = new ChargeTotalAmount (m_aChargeTotalAmount);
+          final ChargeTotalAmount aAmount = new ChargeTotalAmount (aChargeTotalAmount);
           aAmount.setCurrencyID (m_sDocumentCurrencyCode);
           aMonetaryTotal.setChargeTotalAmount (aAmount);
         }
@@ -1329,17 +1827,53 @@ public class PeppolViDATDD090ReportedTransactionBuilder implements IBuilder <Rep
           aMonetaryTotal.setPayableRoundingAmount (aAmount);
         }
         {
-          final PayableAmount aAmount = new PayableAmount (m_aPayableAmount);
+          final PayableAmount aAmount = new PayableAmount (aPayableAmount);
           aAmount.setCurrencyID (m_sDocumentCurrencyCode);
           aMonetaryTotal.setPayableAmount (aAmount);
         }
         a.setMonetaryTotal (aMonetaryTotal);
       }
       // Set all lines
-      a.setDocumentLine (m_aDocumentLines);
+      a.setDocumentLine (aDocumentLines);
       ret.setReportedDocument (a);
     }
 
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged. The rows
+   * of the DocumentLine source (if any) are materialized.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public ReportedTransaction build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final ReportedTransaction ret = _build (aErrorList, true);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_REPORTED_TRANSACTION, nStartNanos);
+    return ret;
+  }
+
+  /**
+   * Build the element without the rows of the DocumentLine source, that can be obtained lazily via
+   * {@link #getSourceDocumentLines()}. If a DocumentLine source is set, the result on its own is not
+   * XSD valid, if no other DocumentLine was added. The aggregated totals contain all rows. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public ReportedTransaction buildWithoutSourceLines (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final ReportedTransaction ret = _build (aErrorList, false);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_REPORTED_TRANSACTION, nStartNanos);
+    return ret;
+  }
 }
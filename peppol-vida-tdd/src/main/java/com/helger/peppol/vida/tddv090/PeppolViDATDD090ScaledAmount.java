@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A single optional amount of a builder. It is either set as a {@link BigDecimal} or as an
+ * unscaled <code>long</code> with a scale. In the latter case the {@link BigDecimal} is created
+ * once, when the JAXB element is built, and the totals aggregation works on the primitive values
+ * directly, so that no intermediate sums are allocated.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+final class PeppolViDATDD090ScaledAmount
+{
+  private BigDecimal m_aValue;
+  private long m_nUnscaled;
+  private int m_nScale;
+  private boolean m_bScaled;
+
+  PeppolViDATDD090ScaledAmount ()
+  {}
+
+  void set (@Nullable final BigDecimal a)
+  {
+    m_aValue = a;
+    m_bScaled = false;
+  }
+
+  void set (final long nUnscaled, final int nScale)
+  {
+    m_aValue = null;
+    m_nUnscaled = nUnscaled;
+    m_nScale = nScale;
+    m_bScaled = true;
+  }
+
+  void clear ()
+  {
+    m_aValue = null;
+    m_bScaled = false;
+  }
+
+  boolean isSet ()
+  {
+    return m_bScaled || m_aValue != null;
+  }
+
+  boolean isNotSet ()
+  {
+    return !isSet ();
+  }
+
+  /**
+   * @return <code>true</code> if the amount was set as an unscaled <code>long</code> with a scale.
+   */
+  boolean isScaled ()
+  {
+    return m_bScaled;
+  }
+
+  /**
+   * @return The amount as {@link BigDecimal}. Created on first access and cached afterwards. May be
+   *         <code>null</code> if not set.
+   */
+  @Nullable
+  BigDecimal get ()
+  {
+    if (m_aValue == null && m_bScaled)
+      m_aValue = BigDecimal.valueOf (m_nUnscaled, m_nScale);
+    return m_aValue;
+  }
+
+  /**
+   * Add this amount to the provided sum, using the primitive values if possible. Nothing happens if
+   * this amount is not set.
+   *
+   * @param aSum
+   *        The sum to add to. May not be <code>null</code>.
+   */
+  void addTo (@NonNull final PeppolViDATDD090AmountSum aSum)
+  {
+    if (m_bScaled)
+      aSum.add (m_nUnscaled, m_nScale);
+    else
+      if (m_aValue != null)
+        aSum.add (m_aValue);
+  }
+}
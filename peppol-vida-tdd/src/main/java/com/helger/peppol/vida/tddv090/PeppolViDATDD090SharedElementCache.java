@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.peppol.vida.tdd.v090.cac.Country;
+import com.helger.peppol.vida.tdd.v090.cac.PostalAddress;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+
+/**
+ * A bounded cache for small leaf JAXB elements, that repeat in many TDDs (like the "VAT" tax scheme
+ * or the country of a party). The same element instance is shared between all TDDs built with this
+ * cache, so the resulting objects must NOT be modified. Once a cache is full, new elements are
+ * created but not cached anymore.
+ *
+ * @author Philip Helger
+ * @see PeppolViDATDD090ReportedTransactionBuilder#sharedElementCache(PeppolViDATDD090SharedElementCache)
+ */
+@ThreadSafe
+public final class PeppolViDATDD090SharedElementCache
+{
+  /** The default maximum number of entries per element type */
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private static final PeppolViDATDD090SharedElementCache DEFAULT_INSTANCE = new PeppolViDATDD090SharedElementCache (DEFAULT_MAX_SIZE);
+
+  private final int m_nMaxSize;
+  private final ConcurrentHashMap <String, TaxScheme> m_aTaxSchemes = new ConcurrentHashMap <> ();
+  private final ConcurrentHashMap <String, Country> m_aCountries = new ConcurrentHashMap <> ();
+  private final ConcurrentHashMap <String, PostalAddress> m_aPostalAddresses = new ConcurrentHashMap <> ();
+
+  /**
+   * @param nMaxSize
+   *        The maximum number of entries per element type. Must be &gt; 0.
+   */
+  public PeppolViDATDD090SharedElementCache (final int nMaxSize)
+  {
+    ValueEnforcer.isGT0 (nMaxSize, "MaxSize");
+    m_nMaxSize = nMaxSize;
+  }
+
+  /**
+   * @return The maximum number of entries per element type. Always &gt; 0.
+   */
+  public int getMaxSize ()
+  {
+    return m_nMaxSize;
+  }
+
+  @NonNull
+  private <T> T _get (@NonNull final ConcurrentHashMap <String, T> aMap,
+                      @NonNull final String sKey,
+                      @NonNull final Function <String, T> aFactory)
+  {
+    final T ret = aMap.get (sKey);
+    if (ret != null)
+      return ret;
+
+    final T aNew = aFactory.apply (sKey);
+    if (aMap.size () >= m_nMaxSize)
+    {
+      // Cache is full - size check is not atomic, so the limit may be exceeded slightly
+      return aNew;
+    }
+    final T aOld = aMap.putIfAbsent (sKey, aNew);
+    return aOld != null ? aOld : aNew;
+  }
+
+  /**
+   * @param sID
+   *        The tax scheme ID. May not be <code>null</code>.
+   * @return The shared tax scheme with the provided ID. Must not be modified.
+   */
+  @NonNull
+  public TaxScheme getTaxScheme (@NonNull final String sID)
+  {
+    ValueEnforcer.notNull (sID, "ID");
+    return _get (m_aTaxSchemes, sID, x -> {
+      final TaxScheme ret = new TaxScheme ();
+      ret.setID (x);
+      return ret;
+    });
+  }
+
+  /**
+   * @param sIdentificationCode
+   *        The country code. May not be <code>null</code>.
+   * @return The shared country with the provided code. Must not be modified.
+   */
+  @NonNull
+  public Country getCountry (@NonNull final String sIdentificationCode)
+  {
+    ValueEnforcer.notNull (sIdentificationCode, "IdentificationCode");
+    return _get (m_aCountries, sIdentificationCode, x -> {
+      final Country ret = new Country ();
+      ret.setIdentificationCode (x);
+      return ret;
+    });
+  }
+
+  /**
+   * @param sCountryCode
+   *        The country code. May not be <code>null</code>.
+   * @return The shared postal address, that only contains the country with the provided code. Must
+   *         not be modified.
+   */
+  @NonNull
+  public PostalAddress getPostalAddress (@NonNull final String sCountryCode)
+  {
+    ValueEnforcer.notNull (sCountryCode, "CountryCode");
+    return _get (m_aPostalAddresses, sCountryCode, x -> {
+      final PostalAddress ret = new PostalAddress ();
+      ret.setCountry (getCountry (x));
+      return ret;
+    });
+  }
+
+  /**
+   * @return The total number of cached elements of all types.
+   */
+  public int getCachedElementCount ()
+  {
+    return m_aTaxSchemes.size () + m_aCountries.size () + m_aPostalAddresses.size ();
+  }
+
+  /**
+   * Remove all cached elements. Elements that were already handed out stay valid.
+   */
+  public void clear ()
+  {
+    m_aTaxSchemes.clear ();
+    m_aCountries.clear ();
+    m_aPostalAddresses.clear ();
+  }
+
+  /**
+   * @return The global default instance with {@link #DEFAULT_MAX_SIZE} entries per element type.
+   */
+  @NonNull
+  public static PeppolViDATDD090SharedElementCache getDefaultInstance ()
+  {
+    return DEFAULT_INSTANCE;
+  }
+}
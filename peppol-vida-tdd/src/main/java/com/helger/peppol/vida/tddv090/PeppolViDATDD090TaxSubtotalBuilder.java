@@ -25,9 +25,9 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.base.string.StringHelper;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
 import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
 
@@ -44,10 +44,11 @@ import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
 public class PeppolViDATDD090TaxSubtotalBuilder implements IBuilder <TaxSubtotal>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090TaxSubtotalBuilder.class);
+  private static final String BUILDER_NAME = "TaxSubtotal";
 
-  private final String m_sCurrencyCode;
-  private BigDecimal m_aTaxableAmount;
-  private BigDecimal m_aTaxAmount;
+  private String m_sCurrencyCode;
+  private final PeppolViDATDD090ScaledAmount m_aTaxableAmount = new PeppolViDATDD090ScaledAmount ();
+  private final PeppolViDATDD090ScaledAmount m_aTaxAmount = new PeppolViDATDD090ScaledAmount ();
   private String m_sTaxCategoryID;
   private String m_sTaxCategoryIDScheme;
   private BigDecimal m_aPercentage;
@@ -60,6 +61,29 @@ public class PeppolViDATDD090TaxSubtotalBuilder implements IBuilder <TaxSubtotal
     m_sCurrencyCode = sCurrencyCode;
   }
 
+  /**
+   * Reset all fields to their initial state and set a new currency code, so that this builder can
+   * be reused.
+   *
+   * @param sCurrencyCode
+   *        The currency code to use. May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090TaxSubtotalBuilder reset (@NonNull final String sCurrencyCode)
+  {
+    m_sCurrencyCode = sCurrencyCode;
+    m_aTaxableAmount.clear ();
+    m_aTaxAmount.clear ();
+    m_sTaxCategoryID = null;
+    m_sTaxCategoryIDScheme = null;
+    m_aPercentage = null;
+    m_sTaxExemptionReasonCode = null;
+    m_sTaxExemptionReason = null;
+    m_sTaxSchemeID = null;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -100,26 +124,60 @@ public class PeppolViDATDD090TaxSubtotalBuilder implements IBuilder <TaxSubtotal
   @Nullable
   public BigDecimal taxableAmount ()
   {
-    return m_aTaxableAmount;
+    return m_aTaxableAmount.get ();
   }
 
   @NonNull
   public PeppolViDATDD090TaxSubtotalBuilder taxableAmount (@Nullable final BigDecimal a)
   {
-    m_aTaxableAmount = a;
+    m_aTaxableAmount.set (a);
+    return this;
+  }
+
+  /**
+   * Set the taxable amount as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090TaxSubtotalBuilder taxableAmount (final long nUnscaledValue, final int nScale)
+  {
+    m_aTaxableAmount.set (nUnscaledValue, nScale);
     return this;
   }
 
   @Nullable
   public BigDecimal taxAmount ()
   {
-    return m_aTaxAmount;
+    return m_aTaxAmount.get ();
   }
 
   @NonNull
   public PeppolViDATDD090TaxSubtotalBuilder taxAmount (@Nullable final BigDecimal a)
   {
-    m_aTaxAmount = a;
+    m_aTaxAmount.set (a);
+    return this;
+  }
+
+  /**
+   * Set the tax amount as an unscaled value and a scale, e.g. <code>(12345, 2)</code> for
+   * <code>123.45</code>. No {@link BigDecimal} is created until it is needed.
+   *
+   * @param nUnscaledValue
+   *        The unscaled value.
+   * @param nScale
+   *        The scale (number of fraction digits).
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090TaxSubtotalBuilder taxAmount (final long nUnscaledValue, final int nScale)
+  {
+    m_aTaxAmount.set (nUnscaledValue, nScale);
     return this;
   }
 
@@ -201,58 +259,53 @@ public class PeppolViDATDD090TaxSubtotalBuilder implements IBuilder <TaxSubtotal
     return this;
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 TaxSubtotal builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
 
-    if (m_aTaxableAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "TaxableAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
-    if (m_aTaxAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "TaxAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
+    if (m_aTaxableAmount.isNotSet ())
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxableAmount");
+    if (m_aTaxAmount.isNotSet ())
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxAmount");
     if (StringHelper.isEmpty (m_sTaxCategoryID))
-    {
-      aCondLog.error (sErrorPrefix + "TaxCategoryID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxCategoryID");
     // m_sTaxCategoryIDScheme is optional
     // m_aPercentage is optional
     // m_sTaxExemptionReasonCode is optional
     // m_sTaxExemptionReason is optional
     if (StringHelper.isEmpty (m_sTaxSchemeID))
-    {
-      aCondLog.error (sErrorPrefix + "TaxSchemeID is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxSchemeID");
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public TaxSubtotal build ()
+  private TaxSubtotal _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD TaxSubtotal cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final TaxSubtotal ret = new TaxSubtotal ();
-    ret.setTaxableAmount (m_aTaxableAmount).setCurrencyID (m_sCurrencyCode);
-    ret.setTaxAmount (m_aTaxAmount).setCurrencyID (m_sCurrencyCode);
+    ret.setTaxableAmount (m_aTaxableAmount.get ()).setCurrencyID (m_sCurrencyCode);
+    ret.setTaxAmount (m_aTaxAmount.get ()).setCurrencyID (m_sCurrencyCode);
     {
       final var aTC = new TaxSubtotal.TaxCategory ();
       aTC.setID (m_sTaxCategoryID).setSchemeID (m_sTaxCategoryIDScheme);
@@ -268,4 +321,33 @@ public class PeppolViDATDD090TaxSubtotalBuilder implements IBuilder <TaxSubtotal
     }
     return ret;
   }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public TaxSubtotal build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final TaxSubtotal ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_TAX_SUBTOTAL, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public TaxSubtotal build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final TaxSubtotal ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD TaxSubtotal cannot be build.");
+    }
+    return ret;
+  }
 }
@@ -27,10 +27,10 @@ import org.slf4j.LoggerFactory;
 import com.helger.annotation.style.ReturnsMutableObject;
 import com.helger.base.builder.IBuilder;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.log.ConditionalLogger;
-import com.helger.base.numeric.mutable.MutableInt;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
 import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
 import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
 
@@ -44,16 +44,41 @@ import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.Tax
 public class PeppolViDATDD090TaxTotalBuilder implements IBuilder <TaxTotal>
 {
   private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090TaxTotalBuilder.class);
+  private static final String BUILDER_NAME = "TaxTotal";
 
-  private final String m_sCurrencyCode;
+  private String m_sCurrencyCode;
   private BigDecimal m_aTaxAmount;
   private final ICommonsList <TaxSubtotal> m_aSubtotals = new CommonsArrayList <> ();
+  // Reused for all Consumer based calls - only valid during the callback
+  private PeppolViDATDD090TaxSubtotalBuilder m_aTaxSubtotalBuilder;
+  // The errors of nested element builders that failed
+  private final PeppolViDATDD090BuilderErrorList m_aNestedErrors = new PeppolViDATDD090BuilderErrorList ();
+  private int m_nFailedSubtotals;
 
   public PeppolViDATDD090TaxTotalBuilder (@NonNull final String sCurrencyCode)
   {
     m_sCurrencyCode = sCurrencyCode;
   }
 
+  /**
+   * Reset all fields to their initial state and set a new currency code, so that this builder can
+   * be reused.
+   *
+   * @param sCurrencyCode
+   *        The currency code to use. May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PeppolViDATDD090TaxTotalBuilder reset (@NonNull final String sCurrencyCode)
+  {
+    m_sCurrencyCode = sCurrencyCode;
+    m_aTaxAmount = null;
+    m_aSubtotals.clear ();
+    m_aNestedErrors.clear ();
+    m_nFailedSubtotals = 0;
+    return this;
+  }
+
   /**
    * Set all fields from the provided UBL 2.1 object
    *
@@ -111,51 +136,96 @@ public class PeppolViDATDD090TaxTotalBuilder implements IBuilder <TaxTotal>
   @NonNull
   public PeppolViDATDD090TaxTotalBuilder addTaxSubtotal (@Nullable final PeppolViDATDD090TaxSubtotalBuilder a)
   {
-    return addTaxSubtotal (a == null ? null : a.build ());
+    if (a == null)
+      return this;
+    final TaxSubtotal aTS = m_aNestedErrors.buildNested (BUILDER_NAME,
+                                                         m_aSubtotals.size () + m_nFailedSubtotals,
+                                                         a::build);
+    if (aTS == null)
+      m_nFailedSubtotals++;
+    return addTaxSubtotal (aTS);
   }
 
   @NonNull
   public PeppolViDATDD090TaxTotalBuilder addTaxSubtotal (@NonNull final Consumer <PeppolViDATDD090TaxSubtotalBuilder> aBuilderConsumer)
   {
-    final PeppolViDATDD090TaxSubtotalBuilder aBuilder = new PeppolViDATDD090TaxSubtotalBuilder (m_sCurrencyCode);
+    if (m_aTaxSubtotalBuilder == null)
+      m_aTaxSubtotalBuilder = new PeppolViDATDD090TaxSubtotalBuilder (m_sCurrencyCode);
+    final PeppolViDATDD090TaxSubtotalBuilder aBuilder = m_aTaxSubtotalBuilder.reset (m_sCurrencyCode);
     aBuilderConsumer.accept (aBuilder);
     return addTaxSubtotal (aBuilder);
   }
 
-  private boolean _isEveryRequiredFieldSet (final boolean bDoLogOnError, @NonNull final MutableInt aReportedDocsErrs)
+  /**
+   * Check if all mandatory fields are set and add all problems to the provided error list. Nothing
+   * is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>true</code> if no error was found, <code>false</code> otherwise.
+   */
+  public boolean isEveryRequiredFieldSet (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final ConditionalLogger aCondLog = new ConditionalLogger (LOGGER, bDoLogOnError);
-    final String sErrorPrefix = "Error in Peppol ViDA pilot TDD 0.9.0 TaxTotal builder: ";
+    final int nErrsBefore = aErrorList.getErrorCount ();
+
+    // Include the reasons why nested elements could not be built
+    aErrorList.addAll (m_aNestedErrors);
 
     if (m_aTaxAmount == null)
-    {
-      aCondLog.error (sErrorPrefix + "TaxAmount is missing");
-      aReportedDocsErrs.inc ();
-    }
+      aErrorList.add (BUILDER_NAME, EViDATDD090BuilderErrorCode.MISSING_FIELD, "TaxAmount");
     // m_aSubtotals may be empty
 
-    return aReportedDocsErrs.intValue () == 0;
+    return aErrorList.getErrorCount () == nErrsBefore;
   }
 
   public boolean isEveryRequiredFieldSet (final boolean bDoLogOnError)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    return _isEveryRequiredFieldSet (bDoLogOnError, aReportedDocErrs);
+    final PeppolViDATDD090BuilderErrorList aErrorList = bDoLogOnError ? new PeppolViDATDD090BuilderErrorList ()
+                                                                      : PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final boolean ret = isEveryRequiredFieldSet (aErrorList);
+    if (bDoLogOnError)
+      aErrorList.logErrors (LOGGER);
+    return ret;
   }
 
   @Nullable
-  public TaxTotal build ()
+  private TaxTotal _build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
   {
-    final MutableInt aReportedDocErrs = new MutableInt (0);
-    if (!_isEveryRequiredFieldSet (true, aReportedDocErrs))
-    {
-      LOGGER.error ("At least one mandatory field is not set and therefore the TDD TaxTotal cannot be build.");
+    if (!isEveryRequiredFieldSet (aErrorList))
       return null;
-    }
 
     final TaxTotal ret = new TaxTotal ();
     ret.setTaxAmount (m_aTaxAmount).setCurrencyID (m_sCurrencyCode);
-    ret.setTaxSubtotal (m_aSubtotals);
+    ret.setTaxSubtotal (m_aSubtotals.getClone ());
+    return ret;
+  }
+
+  /**
+   * Build the element and add all problems to the provided error list. Nothing is logged.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @return <code>null</code> if at least one mandatory field is not set.
+   */
+  @Nullable
+  public TaxTotal build (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList)
+  {
+    final long nStartNanos = PeppolViDATDDMetrics.startTimer ();
+    final TaxTotal ret = _build (aErrorList);
+    PeppolViDATDDMetrics.stopTimer (EPeppolViDATDDMetric.BUILD_TAX_TOTAL, nStartNanos);
+    return ret;
+  }
+
+  @Nullable
+  public TaxTotal build ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final TaxTotal ret = build (aErrorList);
+    if (ret == null)
+    {
+      aErrorList.logErrors (LOGGER);
+      LOGGER.error ("At least one mandatory field is not set and therefore the TDD TaxTotal cannot be build.");
+    }
     return ret;
   }
 }
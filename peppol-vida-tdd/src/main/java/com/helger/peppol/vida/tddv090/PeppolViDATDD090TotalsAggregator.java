@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.cac.AllowanceCharge;
+import com.helger.peppol.vida.tdd.v090.cac.ClassifiedTaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.TaxCategory;
+import com.helger.peppol.vida.tdd.v090.cac.TaxScheme;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
+
+/**
+ * Incrementally aggregates the monetary totals and the tax subtotals of a ReportedTransaction, while
+ * DocumentLines and AllowanceCharges are added. The tax subtotals are grouped by tax category ID
+ * and percentage. Used by {@link PeppolViDATDD090ReportedTransactionBuilder} in aggregation mode.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+final class PeppolViDATDD090TotalsAggregator
+{
+  /** The scale of the calculated tax amounts, if the currency has no default fraction digits */
+  static final int DEFAULT_TAX_AMOUNT_SCALE = 2;
+
+  /** The tax scheme ID to use, if the tax category has none */
+  static final String DEFAULT_TAX_SCHEME_ID = "VAT";
+
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf (100);
+
+  private static final class Category
+  {
+    private final String m_sID;
+    private final BigDecimal m_aPercentage;
+    private final String m_sTaxSchemeID;
+    private final PeppolViDATDD090AmountSum m_aLines = new PeppolViDATDD090AmountSum ();
+    private final PeppolViDATDD090AmountSum m_aAllowances = new PeppolViDATDD090AmountSum ();
+    private final PeppolViDATDD090AmountSum m_aCharges = new PeppolViDATDD090AmountSum ();
+
+    Category (@NonNull final String sID, @Nullable final BigDecimal aPercentage, @NonNull final String sTaxSchemeID)
+    {
+      m_sID = sID;
+      m_aPercentage = aPercentage;
+      m_sTaxSchemeID = sTaxSchemeID;
+    }
+
+    boolean matches (@NonNull final String sID, @Nullable final BigDecimal aPercentage)
+    {
+      // "20" and "20.00" are the same percentage
+      if (!m_sID.equals (sID))
+        return false;
+      if (m_aPercentage == null)
+        return aPercentage == null;
+      return aPercentage != null && m_aPercentage.compareTo (aPercentage) == 0;
+    }
+
+    boolean isEmpty ()
+    {
+      return m_aLines.isEmpty () && m_aAllowances.isEmpty () && m_aCharges.isEmpty ();
+    }
+
+    @NonNull
+    BigDecimal getTaxableAmount ()
+    {
+      return m_aLines.get ().subtract (m_aAllowances.get ()).add (m_aCharges.get ());
+    }
+  }
+
+  private final ICommonsList <Category> m_aCategories = new CommonsArrayList <> ();
+  private final PeppolViDATDD090AmountSum m_aLineExtensionAmount = new PeppolViDATDD090AmountSum ();
+  private final PeppolViDATDD090AmountSum m_aAllowanceTotalAmount = new PeppolViDATDD090AmountSum ();
+  private final PeppolViDATDD090AmountSum m_aChargeTotalAmount = new PeppolViDATDD090AmountSum ();
+  private int m_nLinesWithoutTaxCategory;
+  private int m_nAllowanceChargesWithoutTaxCategory;
+
+  PeppolViDATDD090TotalsAggregator ()
+  {}
+
+  @NonNull
+  private Category _getCategory (@NonNull final String sID,
+                                 @Nullable final BigDecimal aPercentage,
+                                 @NonNull final String sTaxSchemeID)
+  {
+    // Usually only very few categories - a linear scan avoids creating keys
+    for (final Category aCategory : m_aCategories)
+      if (aCategory.matches (sID, aPercentage))
+        return aCategory;
+    final Category ret = new Category (sID, aPercentage, sTaxSchemeID);
+    m_aCategories.add (ret);
+    return ret;
+  }
+
+  @NonNull
+  private static String _getTaxSchemeID (@Nullable final TaxScheme a)
+  {
+    return a == null || a.getID () == null || a.getID ().getValue () == null ? DEFAULT_TAX_SCHEME_ID
+                                                                             : a.getID ().getValue ();
+  }
+
+  private static void _add (@NonNull final PeppolViDATDD090AmountSum aSum,
+                            @NonNull final BigDecimal aAmount,
+                            @Nullable final PeppolViDATDD090ScaledAmount aScaledAmount)
+  {
+    if (aScaledAmount != null && aScaledAmount.isScaled ())
+      aScaledAmount.addTo (aSum);
+    else
+      aSum.add (aAmount);
+  }
+
+  void addDocumentLine (@NonNull final DocumentLine aLine)
+  {
+    addDocumentLine (aLine, null);
+  }
+
+  /**
+   * Add a DocumentLine.
+   *
+   * @param aLine
+   *        The line to add. May not be <code>null</code>.
+   * @param aScaledAmount
+   *        The line extension amount as set in the line builder. If it was set as unscaled value
+   *        and scale, these primitive values are summed up instead of the {@link BigDecimal}. May
+   *        be <code>null</code>.
+   */
+  void addDocumentLine (@NonNull final DocumentLine aLine, @Nullable final PeppolViDATDD090ScaledAmount aScaledAmount)
+  {
+    if (aLine.getLineExtensionAmount () == null || aLine.getLineExtensionAmount ().getValue () == null)
+      return;
+
+    final ClassifiedTaxCategory aCTC = aLine.getItem () == null ? null : aLine.getItem ().getClassifiedTaxCategory ();
+    if (aCTC == null || aCTC.getID () == null || aCTC.getID ().getValue () == null)
+      _addLine (aLine.getLineExtensionAmount ().getValue (), aScaledAmount, null, null, null);
+    else
+      _addLine (aLine.getLineExtensionAmount ().getValue (),
+                aScaledAmount,
+                aCTC.getID ().getValue (),
+                aCTC.getPercent (),
+                _getTaxSchemeID (aCTC.getTaxScheme ()));
+  }
+
+  /**
+   * Add all rows of the provided line source, without creating DocumentLine elements. Rows without
+   * a line extension amount are ignored.
+   *
+   * @param aSource
+   *        The line source. May not be <code>null</code>.
+   */
+  void addDocumentLines (@NonNull final IPeppolViDATDD090DocumentLineSource aSource)
+  {
+    final int nCount = aSource.getLineCount ();
+    for (int i = 0; i < nCount; ++i)
+    {
+      final BigDecimal aAmount = aSource.getLineExtensionAmount (i);
+      if (aAmount != null)
+      {
+        final String sTaxCategoryID = aSource.getTaxCategoryID (i);
+        final String sTaxSchemeID = aSource.getTaxSchemeID (i);
+        _addLine (aAmount,
+                  null,
+                  StringHelper.isEmpty (sTaxCategoryID) ? null : sTaxCategoryID,
+                  aSource.getTaxCategoryPercentage (i),
+                  sTaxSchemeID == null ? DEFAULT_TAX_SCHEME_ID : sTaxSchemeID);
+      }
+    }
+  }
+
+  private void _addLine (@NonNull final BigDecimal aAmount,
+                         @Nullable final PeppolViDATDD090ScaledAmount aScaledAmount,
+                         @Nullable final String sTaxCategoryID,
+                         @Nullable final BigDecimal aPercentage,
+                         @Nullable final String sTaxSchemeID)
+  {
+    _add (m_aLineExtensionAmount, aAmount, aScaledAmount);
+    if (sTaxCategoryID == null)
+      m_nLinesWithoutTaxCategory++;
+    else
+      _add (_getCategory (sTaxCategoryID, aPercentage, sTaxSchemeID).m_aLines, aAmount, aScaledAmount);
+  }
+
+  void addAllowanceCharge (@NonNull final AllowanceCharge aAC, @Nullable final TaxCategory aTaxCategory)
+  {
+    addAllowanceCharge (aAC, aTaxCategory, null);
+  }
+
+  void addAllowanceCharge (@NonNull final AllowanceCharge aAC,
+                           @Nullable final TaxCategory aTaxCategory,
+                           @Nullable final PeppolViDATDD090ScaledAmount aScaledAmount)
+  {
+    if (aAC.getAmount () == null || aAC.getAmount ().getValue () == null)
+      return;
+
+    final BigDecimal aAmount = aAC.getAmount ().getValue ();
+    final boolean bCharge = aAC.isChargeIndicator ();
+    _add (bCharge ? m_aChargeTotalAmount : m_aAllowanceTotalAmount, aAmount, aScaledAmount);
+
+    if (aTaxCategory == null || aTaxCategory.getID () == null || aTaxCategory.getID ().getValue () == null)
+      m_nAllowanceChargesWithoutTaxCategory++;
+    else
+    {
+      final Category aCategory = _getCategory (aTaxCategory.getID ().getValue (),
+                                               aTaxCategory.getPercent (),
+                                               _getTaxSchemeID (aTaxCategory.getTaxScheme ()));
+      _add (bCharge ? aCategory.m_aCharges : aCategory.m_aAllowances, aAmount, aScaledAmount);
+    }
+  }
+
+  void clearDocumentLines ()
+  {
+    m_aLineExtensionAmount.clear ();
+    for (final Category aCategory : m_aCategories)
+      aCategory.m_aLines.clear ();
+    m_nLinesWithoutTaxCategory = 0;
+  }
+
+  void clearAllowanceCharges ()
+  {
+    m_aAllowanceTotalAmount.clear ();
+    m_aChargeTotalAmount.clear ();
+    for (final Category aCategory : m_aCategories)
+    {
+      aCategory.m_aAllowances.clear ();
+      aCategory.m_aCharges.clear ();
+    }
+    m_nAllowanceChargesWithoutTaxCategory = 0;
+  }
+
+  void clear ()
+  {
+    m_aCategories.clear ();
+    clearDocumentLines ();
+    clearAllowanceCharges ();
+  }
+
+  /**
+   * Check if the tax subtotals can be calculated.
+   *
+   * @param aErrorList
+   *        The error list to fill. May not be <code>null</code>.
+   * @param sBuilderName
+   *        The builder name to use in the errors. May not be <code>null</code>.
+   */
+  void checkCompleteness (@NonNull final PeppolViDATDD090BuilderErrorList aErrorList, @NonNull final String sBuilderName)
+  {
+    if (m_nLinesWithoutTaxCategory > 0)
+      aErrorList.add (sBuilderName, EViDATDD090BuilderErrorCode.MISSING_FIELD, "DocumentLine/Item/ClassifiedTaxCategory");
+    if (m_nAllowanceChargesWithoutTaxCategory > 0)
+      aErrorList.add (sBuilderName, EViDATDD090BuilderErrorCode.MISSING_FIELD, "AllowanceCharge/TaxCategory");
+  }
+
+  @NonNull
+  BigDecimal getLineExtensionAmount ()
+  {
+    return m_aLineExtensionAmount.get ();
+  }
+
+  @Nullable
+  BigDecimal getAllowanceTotalAmount ()
+  {
+    return m_aAllowanceTotalAmount.isEmpty () ? null : m_aAllowanceTotalAmount.get ();
+  }
+
+  @Nullable
+  BigDecimal getChargeTotalAmount ()
+  {
+    return m_aChargeTotalAmount.isEmpty () ? null : m_aChargeTotalAmount.get ();
+  }
+
+  /**
+   * @param sCurrencyCode
+   *        The ISO 4217 currency code. May not be <code>null</code>.
+   * @return The default fraction digits of the currency (e.g. 0 for JPY, 3 for BHD) or
+   *         {@link #DEFAULT_TAX_AMOUNT_SCALE} if the currency is unknown or has none.
+   */
+  static int getTaxAmountScale (@NonNull final String sCurrencyCode)
+  {
+    try
+    {
+      final int ret = Currency.getInstance (sCurrencyCode).getDefaultFractionDigits ();
+      return ret < 0 ? DEFAULT_TAX_AMOUNT_SCALE : ret;
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      return DEFAULT_TAX_AMOUNT_SCALE;
+    }
+  }
+
+  /**
+   * Create the TaxTotal with one TaxSubtotal per tax category. The tax amount of each category is
+   * calculated from the taxable amount and the percentage and rounded half up to the fraction
+   * digits of the currency, as determined by {@link #getTaxAmountScale(String)}.
+   *
+   * @param sCurrencyCode
+   *        The currency code to use. May not be <code>null</code>.
+   * @return The new TaxTotal. Never <code>null</code>.
+   */
+  @NonNull
+  TaxTotal createTaxTotal (@NonNull final String sCurrencyCode)
+  {
+    final PeppolViDATDD090TaxTotalBuilder aTaxTotal = new PeppolViDATDD090TaxTotalBuilder (sCurrencyCode);
+    final PeppolViDATDD090TaxSubtotalBuilder aSubtotal = new PeppolViDATDD090TaxSubtotalBuilder (sCurrencyCode);
+    final int nScale = getTaxAmountScale (sCurrencyCode);
+    BigDecimal aTotalTaxAmount = BigDecimal.ZERO.setScale (nScale);
+    for (final Category aCategory : m_aCategories)
+      if (!aCategory.isEmpty ())
+      {
+        final BigDecimal aTaxableAmount = aCategory.getTaxableAmount ();
+        final BigDecimal aTaxAmount = aCategory.m_aPercentage == null ? BigDecimal.ZERO.setScale (nScale)
+                                                                      : aTaxableAmount.multiply (aCategory.m_aPercentage)
+                                                                                      .divide (HUNDRED,
+                                                                                               nScale,
+                                                                                               RoundingMode.HALF_UP);
+        aTotalTaxAmount = aTotalTaxAmount.add (aTaxAmount);
+        aTaxTotal.addTaxSubtotal (aSubtotal.reset (sCurrencyCode)
+                                           .taxableAmount (aTaxableAmount)
+                                           .taxAmount (aTaxAmount)
+                                           .taxCategoryID (aCategory.m_sID)
+                                           .percentage (aCategory.m_aPercentage)
+                                           .taxSchemeID (aCategory.m_sTaxSchemeID));
+      }
+    return aTaxTotal.taxAmount (aTotalTaxAmount).build ();
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tddv090;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.io.resource.IReadableResource;
+import com.helger.io.resource.inmemory.ReadableResourceByteArray;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.io.ByteBufferOutputStream;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDDXSDValidator;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.validate.PeppolViDATDDValidator;
+import com.helger.peppolid.factory.IIdentifierFactory;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+
+/**
+ * A training run that loads and exercises all the relevant code paths (UBL reading, the builders,
+ * the marshaller, XSD and Schematron validation) once. It is meant to be used with
+ * <code>-XX:ArchiveClassesAtExit</code> to create an AppCDS archive, so that the class loading of
+ * JAXB, ph-commons and the Schematron engine is taken from the archive in production:
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=tdd.jsa -cp ... com.helger.peppol.vida.tddv090.PeppolViDATDD090TrainingRun dir-or-file...
+ * java -XX:SharedArchiveFile=tdd.jsa -cp ... your.Main
+ * </pre>
+ *
+ * The archive is only valid for the same JVM and the same class path. UBL Invoices and CreditNotes
+ * are converted to TDDs with dummy header data, TDDs are read, validated and written again. Other
+ * XML files are skipped.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class PeppolViDATDD090TrainingRun
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (PeppolViDATDD090TrainingRun.class);
+
+  private int m_nUBLCount;
+  private int m_nTDDCount;
+  private int m_nSkippedCount;
+  private int m_nFailureCount;
+
+  public PeppolViDATDD090TrainingRun ()
+  {}
+
+  /**
+   * @return The number of UBL documents converted so far.
+   */
+  public int getUBLCount ()
+  {
+    return m_nUBLCount;
+  }
+
+  /**
+   * @return The number of TDDs read and validated so far.
+   */
+  public int getTDDCount ()
+  {
+    return m_nTDDCount;
+  }
+
+  /**
+   * @return The number of resources that are neither UBL nor TDD.
+   */
+  public int getSkippedCount ()
+  {
+    return m_nSkippedCount;
+  }
+
+  /**
+   * @return The number of documents that could not be converted or that are not valid.
+   */
+  public int getFailureCount ()
+  {
+    return m_nFailureCount;
+  }
+
+  @NonNull
+  private static PeppolViDATDD090BatchConverter _createConverter ()
+  {
+    // Dummy header data - only the code paths matter
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    return new PeppolViDATDD090BatchConverter ().documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                                .reporterRole (EViDATDDReporterRole.SENDER)
+                                                .reportingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:training"))
+                                                .receivingParty (aIF.createParticipantIdentifierWithDefaultScheme ("0242:training"))
+                                                .reportersRepresentative (aIF.createParticipantIdentifierWithDefaultScheme ("0242:000000"))
+                                                .taxAuthorityID ("XX")
+                                                .schematronValidation (true);
+  }
+
+  private void _runTDD (@NonNull final PeppolViDATDD090Marshaller aMarshaller,
+                        @NonNull final ByteBufferOutputStream aOS,
+                        final byte @NonNull [] aBytes) throws Exception
+  {
+    final ByteBuffer aBuf = ByteBuffer.wrap (aBytes);
+    final boolean bXSDValid = PeppolViDATDDXSDValidator.tdd090 ().isValid (aBuf);
+    final TaxDataType aTDD = aMarshaller.readFromBuffer (aBuf);
+    if (!bXSDValid || aTDD == null)
+    {
+      m_nFailureCount++;
+      return;
+    }
+    if (PeppolViDATDDValidator.validateViDA_TDD_090 (new ReadableResourceByteArray (aBytes), aTDD.getUUID ()) == null)
+      m_nFailureCount++;
+    aOS.reset ();
+    if (aMarshaller.writeToBuffer (aTDD, aOS) < 0)
+      m_nFailureCount++;
+  }
+
+  /**
+   * Run the training on the provided resources. This method may be called more than once and the
+   * counts are accumulated.
+   *
+   * @param aResources
+   *        The UBL and TDD resources to use. May not be <code>null</code>.
+   * @throws Exception
+   *         In case of an unexpected error
+   */
+  public void run (@NonNull final Iterable <? extends IReadableResource> aResources) throws Exception
+  {
+    ValueEnforcer.notNull (aResources, "Resources");
+
+    final XMLInputFactory aXIF = PeppolViDATDD090BatchConverter.createXMLInputFactory ();
+    final PeppolViDATDD090Marshaller aMarshaller = new PeppolViDATDD090Marshaller ();
+    final ByteBufferOutputStream aOS = new ByteBufferOutputStream ();
+    final ICommonsList <IReadableResource> aUBLs = new CommonsArrayList <> ();
+    for (final IReadableResource aRes : aResources)
+    {
+      final byte [] aBytes;
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        if (aIS == null)
+        {
+          m_nSkippedCount++;
+          continue;
+        }
+        aBytes = aIS.readAllBytes ();
+      }
+
+      final String sRootElement;
+      try
+      {
+        sRootElement = PeppolViDATDD090BatchConverter.getRootElementLocalName (aXIF, aBytes);
+      }
+      catch (final Exception ex)
+      {
+        m_nSkippedCount++;
+        continue;
+      }
+      if ("Invoice".equals (sRootElement) || "CreditNote".equals (sRootElement))
+        aUBLs.add (new ReadableResourceByteArray (aRes.getPath (), aBytes));
+      else
+        if ("TaxData".equals (sRootElement))
+        {
+          _runTDD (aMarshaller, aOS, aBytes);
+          m_nTDDCount++;
+        }
+        else
+          m_nSkippedCount++;
+    }
+
+    if (aUBLs.isNotEmpty ())
+    {
+      final PeppolViDATDD090BatchConverter.Summary aSummary = _createConverter ().convert (aUBLs, x -> {});
+      m_nUBLCount += (int) aSummary.getTotalCount ();
+      m_nFailureCount += (int) aSummary.getFailureCount ();
+    }
+  }
+
+  @NonNull
+  private static ICommonsList <IReadableResource> _collectFiles (@NonNull final String [] aArgs) throws IOException
+  {
+    final ICommonsList <IReadableResource> ret = new CommonsArrayList <> ();
+    for (final String sArg : aArgs)
+    {
+      final Path aPath = Paths.get (sArg);
+      if (Files.isDirectory (aPath))
+      {
+        try (final Stream <Path> aStream = Files.walk (aPath))
+        {
+          aStream.filter (Files::isRegularFile)
+                 .filter (x -> x.getFileName ().toString ().endsWith (".xml"))
+                 .sorted ()
+                 .forEach (x -> ret.add (new FileSystemResource (x.toFile ())));
+        }
+      }
+      else
+        ret.add (new FileSystemResource (aPath.toFile ()));
+    }
+    return ret;
+  }
+
+  /**
+   * Main entry point.
+   *
+   * @param aArgs
+   *        XML files or directories that are recursively searched for <code>.xml</code> files.
+   * @throws Exception
+   *         In case of an unexpected error
+   */
+  public static void main (final String [] aArgs) throws Exception
+  {
+    if (aArgs.length == 0)
+    {
+      LOGGER.error ("Usage: " + PeppolViDATDD090TrainingRun.class.getName () + " <file-or-directory>...");
+      System.exit (1);
+      return;
+    }
+
+    final long nStart = System.nanoTime ();
+    final PeppolViDATDD090TrainingRun aRun = new PeppolViDATDD090TrainingRun ();
+    aRun.run (_collectFiles (aArgs));
+    LOGGER.info ("Training run finished after " +
+                 (System.nanoTime () - nStart) / 1_000_000L +
+                 " ms: " +
+                 aRun.getUBLCount () +
+                 " UBL documents, " +
+                 aRun.getTDDCount () +
+                 " TDDs, " +
+                 aRun.getSkippedCount () +
+                 " skipped, " +
+                 aRun.getFailureCount () +
+                 " failures");
+    if (aRun.getUBLCount () + aRun.getTDDCount () == 0)
+      System.exit (2);
+  }
+}
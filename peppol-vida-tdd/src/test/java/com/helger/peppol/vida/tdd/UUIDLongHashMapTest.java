@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+/**
+ * Test class for class {@link UUIDLongHashMap} and {@link UUIDLongDirectHashMap}.
+ *
+ * @author Philip Helger
+ */
+public final class UUIDLongHashMapTest
+{
+  private static void _testBasic (@NonNull final IUUIDLongMap aMap)
+  {
+    assertTrue (aMap.isEmpty ());
+    final UUID aKey = UUID.randomUUID ();
+    assertFalse (aMap.containsKey (aKey));
+    assertEquals (-1, aMap.get (aKey, -1));
+    assertTrue (aMap.put (aKey, 17));
+    assertFalse (aMap.put (aKey, 18));
+    assertEquals (18, aMap.get (aKey, -1));
+    assertEquals (1, aMap.size ());
+
+    // The nil UUID
+    assertFalse (aMap.containsKey (0, 0));
+    assertTrue (aMap.put (0, 0, 4711));
+    assertEquals (4711, aMap.get (0, 0, -1));
+    assertEquals (2, aMap.size ());
+    assertFalse (aMap.containsKey (0, 1));
+
+    final long [] aSum = { 0 };
+    aMap.forEach ( (m, l, v) -> aSum[0] += v);
+    assertEquals (18 + 4711, aSum[0]);
+
+    assertTrue (aMap.remove (0, 0));
+    assertFalse (aMap.remove (0, 0));
+    assertTrue (aMap.remove (aKey));
+    assertFalse (aMap.remove (aKey));
+    assertTrue (aMap.isEmpty ());
+
+    aMap.put (1, 2, 3);
+    aMap.clear ();
+    assertTrue (aMap.isEmpty ());
+    assertFalse (aMap.containsKey (1, 2));
+  }
+
+  private static void _testRandom (@NonNull final IUUIDLongMap aMap)
+  {
+    // Compare with a HashMap, including growing and removing
+    final Map <UUID, Long> aExpected = new HashMap <> ();
+    final SplittableRandom aRandom = new SplittableRandom (42);
+    for (int i = 0; i < 200_000; ++i)
+    {
+      // Few distinct keys so that there are many updates and removals
+      final UUID aKey = new UUID (aRandom.nextInt (50_000), aRandom.nextLong (4));
+      final int nOp = aRandom.nextInt (10);
+      if (nOp < 6)
+      {
+        final long nValue = aRandom.nextLong ();
+        assertEquals (aExpected.put (aKey, Long.valueOf (nValue)) == null, aMap.put (aKey, nValue));
+      }
+      else
+        if (nOp < 9)
+          assertEquals (aExpected.remove (aKey) != null, aMap.remove (aKey));
+        else
+        {
+          final Long aValue = aExpected.get (aKey);
+          assertEquals (aValue != null, aMap.containsKey (aKey));
+          if (aValue != null)
+            assertEquals (aValue.longValue (), aMap.get (aKey, 0));
+        }
+    }
+    assertEquals (aExpected.size (), aMap.size ());
+    for (final Map.Entry <UUID, Long> aEntry : aExpected.entrySet ())
+      assertEquals (aEntry.getValue ().longValue (), aMap.get (aEntry.getKey (), 0));
+
+    final int [] aCount = { 0 };
+    aMap.forEach ( (m, l, v) -> {
+      assertEquals (aExpected.get (new UUID (m, l)).longValue (), v);
+      aCount[0]++;
+    });
+    assertEquals (aExpected.size (), aCount[0]);
+  }
+
+  @Test
+  public void testHeap ()
+  {
+    _testBasic (new UUIDLongHashMap ());
+    final UUIDLongHashMap aMap = new UUIDLongHashMap (1);
+    assertEquals (16, aMap.getCapacity ());
+    _testRandom (aMap);
+  }
+
+  @Test
+  public void testDirect ()
+  {
+    _testBasic (new UUIDLongDirectHashMap ());
+    final UUIDLongDirectHashMap aMap = new UUIDLongDirectHashMap (1);
+    assertEquals (16, aMap.getCapacity ());
+    _testRandom (aMap);
+  }
+
+  @Test
+  public void testDirectSlots () throws Exception
+  {
+    final UUIDLongDirectHashMap aMap = new UUIDLongDirectHashMap (100);
+    final SplittableRandom aRandom = new SplittableRandom (7);
+    for (int i = 0; i < 1000; ++i)
+      aMap.put (aRandom.nextLong (), aRandom.nextLong (), i);
+    aMap.put (0, 0, 4711);
+
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    aMap.writeSlotsTo (Channels.newChannel (aBAOS));
+    assertEquals (aMap.getCapacity () * UUIDLongDirectHashMap.SLOT_SIZE, aBAOS.size ());
+
+    final UUIDLongDirectHashMap aMap2 = UUIDLongDirectHashMap.readSlotsFrom (Channels.newChannel (new ByteArrayInputStream (aBAOS.toByteArray ())),
+                                                                             aMap.getCapacity ());
+    assertEquals (aMap.getCapacity (), aMap2.getCapacity ());
+    // The nil UUID is not part of the slots
+    assertEquals (aMap.size () - 1, aMap2.size ());
+    assertFalse (aMap2.containsKey (0, 0));
+    final SplittableRandom aRandom2 = new SplittableRandom (7);
+    for (int i = 0; i < 1000; ++i)
+      assertEquals (i, aMap2.get (aRandom2.nextLong (), aRandom2.nextLong (), -1));
+  }
+
+  @Test
+  public void testCapacity ()
+  {
+    assertEquals (16, new UUIDLongHashMap (12).getCapacity ());
+    assertEquals (32, new UUIDLongHashMap (13).getCapacity ());
+    assertEquals (1 << 23, new UUIDLongDirectHashMap (5_000_000).getCapacity ());
+  }
+}
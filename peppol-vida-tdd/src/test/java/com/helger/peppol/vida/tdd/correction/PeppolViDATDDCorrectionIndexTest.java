@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.correction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.segment.CPeppolViDATDDSegment;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.cac.BillingReference;
+import com.helger.peppol.vida.tdd.v090.cac.InvoiceDocumentReference;
+
+/**
+ * Test class for class {@link PeppolViDATDDCorrectionIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDCorrectionIndexTest
+{
+  private static final TaxDataType BASE = new PeppolViDATDD090Marshaller ().read (PeppolViDATestFiles.getAllGoodTDD090Files ()
+                                                                                                     .getFirstOrNull ());
+
+  @NonNull
+  private static TaxDataType _create (@NonNull final EViDATDDDocumentTypeCode eTDDType,
+                                      @NonNull final String sID,
+                                      @NonNull final String sUUID,
+                                      @NonNull final String sDocumentTypeCode,
+                                      @NonNull final String... aRefIDs)
+  {
+    final TaxDataType ret = BASE.clone ();
+    ret.setUUID (UUID.randomUUID ().toString ());
+    ret.setDocumentTypeCode (eTDDType.getID ());
+    final ReportedDocument aRD = ret.getReportedTransaction ().get (0).getReportedDocument ();
+    aRD.setID (sID);
+    aRD.setUUID (sUUID);
+    aRD.setDocumentTypeCode (sDocumentTypeCode);
+    aRD.getBillingReference ().clear ();
+    for (final String sRefID : aRefIDs)
+    {
+      final InvoiceDocumentReference aIDR = new InvoiceDocumentReference ();
+      aIDR.setID (sRefID);
+      final BillingReference aBR = new BillingReference ();
+      aBR.setInvoiceDocumentReference (aIDR);
+      aRD.addBillingReference (aBR);
+    }
+    return ret;
+  }
+
+  private static void _assertSequences (@NonNull final ICommonsList <PeppolViDATDDCorrectionEntry> aEntries,
+                                        final int... aExpected)
+  {
+    assertEquals (aEntries.toString (), aExpected.length, aEntries.size ());
+    for (int i = 0; i < aExpected.length; ++i)
+      assertEquals (aExpected[i], aEntries.get (i).getSequence ());
+  }
+
+  private static void _assertChain (@NonNull final PeppolViDATDDCorrectionIndex aIndex,
+                                    @NonNull final String sUUID1,
+                                    @NonNull final ICommonsList <TaxDataType> aTDDs)
+  {
+    final ICommonsList <PeppolViDATDDCorrectionEntry> aDirect = aIndex.getAllAffectingDocumentID ("INV-1");
+    _assertSequences (aDirect, 0, 1, 2, 5);
+    assertEquals (EPeppolViDATDDCorrectionRelation.REPORTED, aDirect.get (0).getRelation ());
+    assertEquals (EViDATDDDocumentTypeCode.SUBMIT, aDirect.get (0).getTDDType ());
+    assertEquals (CPeppolViDATDDSegment.getIndexKey (aTDDs.get (0).getUUID ()), aDirect.get (0).getTDDKey ());
+    assertEquals (UUID.fromString (sUUID1), aDirect.get (0).getReportedDocumentKey ());
+    assertEquals (380, aDirect.get (0).getDocumentTypeCode ());
+    assertEquals (EViDATDDDocumentTypeCode.RESUBMIT, aDirect.get (1).getTDDType ());
+    assertEquals (EPeppolViDATDDCorrectionRelation.REFERENCED, aDirect.get (2).getRelation ());
+    assertEquals (381, aDirect.get (2).getDocumentTypeCode ());
+    assertEquals (EViDATDDDocumentTypeCode.DISREGARD, aDirect.get (3).getTDDType ());
+
+    _assertSequences (aIndex.getAllAffectingReportedDocumentUUID (sUUID1), 0, 1, 2, 5);
+    _assertSequences (aIndex.getAllAffectingDocumentID ("CN-1"), 2, 3);
+
+    // Transitive: the correction references the credit note
+    final ICommonsList <PeppolViDATDDCorrectionEntry> aChain = aIndex.getCorrectionChain ("INV-1");
+    _assertSequences (aChain, 0, 1, 2, 3, 5);
+    assertEquals (EPeppolViDATDDCorrectionRelation.REFERENCED, aChain.get (3).getRelation ());
+
+    _assertSequences (aIndex.getCorrectionChain ("INV-2"), 4);
+    assertTrue (aIndex.getAllAffectingDocumentID ("unknown").isEmpty ());
+    assertTrue (aIndex.getAllAffectingDocumentID (null).isEmpty ());
+    assertTrue (aIndex.getAllAffectingReportedDocumentUUID (UUID.randomUUID ().toString ()).isEmpty ());
+
+    assertEquals (EViDATDDDocumentTypeCode.DISREGARD, aIndex.getLatestTDDType (sUUID1));
+    assertNull (aIndex.getLatestTDDType ("unknown"));
+    assertEquals (6, aIndex.getReportedDocumentCount ());
+    assertEquals (2, aIndex.getReferenceCount ());
+  }
+
+  @Test
+  public void testChain () throws Exception
+  {
+    assertNotNull (BASE);
+    final String sUUID1 = UUID.randomUUID ().toString ();
+    final ICommonsList <TaxDataType> aTDDs = new CommonsArrayList <> ();
+    aTDDs.add (_create (EViDATDDDocumentTypeCode.SUBMIT, "INV-1", sUUID1, "380"));
+    aTDDs.add (_create (EViDATDDDocumentTypeCode.RESUBMIT, "INV-1", sUUID1, "380"));
+    // Credit note for the invoice
+    aTDDs.add (_create (EViDATDDDocumentTypeCode.SUBMIT, "CN-1", UUID.randomUUID ().toString (), "381", "INV-1"));
+    // Corrected invoice for the credit note
+    aTDDs.add (_create (EViDATDDDocumentTypeCode.SUBMIT, "COR-1", UUID.randomUUID ().toString (), "384", "CN-1"));
+    aTDDs.add (_create (EViDATDDDocumentTypeCode.SUBMIT, "INV-2", UUID.randomUUID ().toString (), "380"));
+    aTDDs.add (_create (EViDATDDDocumentTypeCode.DISREGARD, "INV-1", sUUID1, "380"));
+
+    final PeppolViDATDDCorrectionIndex aIndex = new PeppolViDATDDCorrectionIndex ();
+    for (final TaxDataType aTDD : aTDDs)
+      assertEquals (1, aIndex.add (aTDD));
+    _assertChain (aIndex, sUUID1, aTDDs);
+
+    final Path aFile = Files.createTempFile ("tdd-corrections", ".pvdc");
+    try
+    {
+      aIndex.writeTo (aFile);
+      assertEquals (13 + 6 * 53 + 2 * 20, Files.size (aFile));
+      _assertChain (PeppolViDATDDCorrectionIndex.readFrom (aFile), sUUID1, aTDDs);
+
+      // The TDD type of the first document is stored as its ID
+      final byte [] aBytes = Files.readAllBytes (aFile);
+      assertEquals ('S', aBytes[13 + 48]);
+      // Unknown TDD type
+      aBytes[13 + 48] = 'X';
+      Files.write (aFile, aBytes);
+      try
+      {
+        PeppolViDATDDCorrectionIndex.readFrom (aFile);
+        fail ();
+      }
+      catch (final IOException ex)
+      {
+        // expected
+      }
+
+      // Truncated file
+      Files.write (aFile, new byte [] { 0x50, 0x56, 0x44, 0x43, PeppolViDATDDCorrectionIndex.FORMAT_VERSION, 0, 0, 0, 1 });
+      try
+      {
+        PeppolViDATDDCorrectionIndex.readFrom (aFile);
+        fail ();
+      }
+      catch (final IOException ex)
+      {
+        // expected
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists (aFile);
+    }
+  }
+
+  @Test
+  public void testGoodFiles ()
+  {
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final PeppolViDATDDCorrectionIndex aIndex = new PeppolViDATDDCorrectionIndex ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodTDD090Files ())
+      assertEquals (aRes.getPath (), 1, aIndex.add (m.read (aRes)));
+
+    // The negative invoice correction references "Snippet1"
+    boolean bFound = false;
+    for (final PeppolViDATDDCorrectionEntry aEntry : aIndex.getAllAffectingDocumentID ("Snippet1"))
+      if (aEntry.getRelation () == EPeppolViDATDDCorrectionRelation.REFERENCED)
+      {
+        assertEquals (380, aEntry.getDocumentTypeCode ());
+        bFound = true;
+      }
+    assertTrue (bFound);
+    assertEquals (1, aIndex.getAllAffectingDocumentID ("INV-2025-001").size ());
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.dedupe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsHashSet;
+import com.helger.collection.commons.ICommonsSet;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.UUIDLongDirectHashMap;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+import com.helger.ubl21.UBL21Marshaller;
+
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link PeppolViDATDDDuplicateIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDDDuplicateIndexTest
+{
+  @Test
+  public void testAddAndGrow ()
+  {
+    final PeppolViDATDDDuplicateIndex aIndex = new PeppolViDATDDDuplicateIndex (10);
+    assertEquals (1024, aIndex.getCapacity ());
+    final int nCount = 100_000;
+    final SplittableRandom aRandom = new SplittableRandom (42);
+    for (int i = 0; i < nCount; ++i)
+      assertTrue (aIndex.add (aRandom.nextLong (), aRandom.nextLong ()));
+    assertEquals (nCount, aIndex.getCount ());
+    assertTrue (aIndex.getCapacity () >= nCount * 4L / 3);
+
+    // Same sequence again - all contained
+    final SplittableRandom aRandom2 = new SplittableRandom (42);
+    for (int i = 0; i < nCount; ++i)
+    {
+      final long nMSB = aRandom2.nextLong ();
+      final long nLSB = aRandom2.nextLong ();
+      assertTrue (aIndex.contains (nMSB, nLSB));
+      assertFalse (aIndex.add (nMSB, nLSB));
+    }
+    assertEquals (nCount, aIndex.getCount ());
+
+    // Different sequence - none contained
+    final SplittableRandom aRandom3 = new SplittableRandom (4711);
+    for (int i = 0; i < nCount; ++i)
+      assertFalse (aIndex.contains (aRandom3.nextLong (), aRandom3.nextLong ()));
+  }
+
+  @Test
+  public void testSpecialValues ()
+  {
+    final PeppolViDATDDDuplicateIndex aIndex = new PeppolViDATDDDuplicateIndex ();
+    // The nil UUID
+    assertFalse (aIndex.contains (0, 0));
+    assertTrue (aIndex.add (new UUID (0, 0)));
+    assertFalse (aIndex.add (0, 0));
+    assertTrue (aIndex.contains (0, 0));
+    assertFalse (aIndex.contains (0, 1));
+    assertTrue (aIndex.add (0, 1));
+    assertTrue (aIndex.add (1, 0));
+    assertEquals (3, aIndex.getCount ());
+
+    // Strings
+    final String sUUID = UUID.randomUUID ().toString ();
+    assertTrue (aIndex.add (sUUID));
+    assertTrue (aIndex.contains (UUID.fromString (sUUID)));
+    assertTrue (aIndex.add ("no-uuid"));
+    assertTrue (aIndex.contains ("no-uuid"));
+    assertFalse (aIndex.contains ("other"));
+  }
+
+  @Test
+  public void testReportedDocuments ()
+  {
+    final PeppolViDATDDDuplicateIndex aIndex = new PeppolViDATDDDuplicateIndex ();
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT);
+    // Different test files may describe the same document (type, ID, issue date and seller)
+    final ICommonsSet <String> aDistinct = new CommonsHashSet <> ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+    {
+      final InvoiceType aInvoice = UBL21Marshaller.invoice ().read (aRes);
+      assertNotNull (aRes.getPath (), aInvoice);
+
+      final ReportedTransaction aRT = aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT).initFromInvoice (aInvoice).build ();
+      assertNotNull (aRes.getPath (), aRT);
+      final String sUUID = aRT.getReportedDocument ().getUUID ();
+      assertEquals (aRes.getPath (), Boolean.valueOf (aDistinct.add (sUUID)), Boolean.valueOf (aIndex.add (sUUID)));
+
+      // Reporting the same invoice again results in the same UUID
+      final ReportedTransaction aRT2 = aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT).initFromInvoice (aInvoice).build ();
+      assertNotNull (aRes.getPath (), aRT2);
+      assertFalse (aRes.getPath (), aIndex.add (aRT2.getReportedDocument ().getUUID ()));
+    }
+    assertTrue (aDistinct.size () > 1);
+    assertEquals (aDistinct.size (), aIndex.getCount ());
+  }
+
+  @Test
+  public void testPersistence () throws Exception
+  {
+    final PeppolViDATDDDuplicateIndex aIndex = new PeppolViDATDDDuplicateIndex (5000);
+    final SplittableRandom aRandom = new SplittableRandom (1);
+    for (int i = 0; i < 10_000; ++i)
+      aIndex.add (aRandom.nextLong (), aRandom.nextLong ());
+    aIndex.add (0, 0);
+
+    final Path aFile = Files.createTempFile ("tdd-dedupe", ".pvdx");
+    try
+    {
+      aIndex.writeTo (aFile);
+      assertEquals (PeppolViDATDDDuplicateIndex.FILE_HEADER_SIZE + aIndex.getCapacity () * (1 + UUIDLongDirectHashMap.SLOT_SIZE), Files.size (aFile));
+
+      final PeppolViDATDDDuplicateIndex aIndex2 = PeppolViDATDDDuplicateIndex.readFrom (aFile);
+      assertEquals (aIndex.getCount (), aIndex2.getCount ());
+      assertEquals (aIndex.getCapacity (), aIndex2.getCapacity ());
+      assertTrue (aIndex2.contains (0, 0));
+      final SplittableRandom aRandom2 = new SplittableRandom (1);
+      for (int i = 0; i < 10_000; ++i)
+        assertTrue (aIndex2.contains (aRandom2.nextLong (), aRandom2.nextLong ()));
+
+      // The loaded index can be extended
+      assertTrue (aIndex2.add (UUID.randomUUID ()));
+
+      // Count does not match the slots
+      aIndex.writeTo (aFile);
+      try (final FileChannel aFC = FileChannel.open (aFile, StandardOpenOption.WRITE))
+      {
+        aFC.write (ByteBuffer.allocate (Long.BYTES).putLong (0, aIndex.getCount () + 1), 16);
+      }
+      try
+      {
+        PeppolViDATDDDuplicateIndex.readFrom (aFile);
+        fail ();
+      }
+      catch (final IOException ex)
+      {
+        // expected
+      }
+
+      // Damaged file
+      try (final FileChannel aFC = FileChannel.open (aFile, StandardOpenOption.WRITE))
+      {
+        aFC.write (ByteBuffer.wrap (new byte [] { 0 }), 0);
+      }
+      try
+      {
+        PeppolViDATDDDuplicateIndex.readFrom (aFile);
+        fail ();
+      }
+      catch (final IOException ex)
+      {
+        // expected
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists (aFile);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.metrics.EPeppolViDATDDMetric;
+import com.helger.peppol.vida.tdd.metrics.MockPeppolViDATDDMetricsSPI;
+import com.helger.peppol.vida.tdd.metrics.PeppolViDATDDMetrics;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchConverter;
+
+/**
+ * Test class for class {@link PeppolViDATDD090BatchConverter} with the
+ * {@link MockPeppolViDATDDMetricsSPI} registered. Runs in the separate <code>metrics-test</code>
+ * Surefire execution only.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090BatchConverterMetricsTest
+{
+  @Test
+  public void testMetrics () throws Exception
+  {
+    // Registered via src/test/metrics-spi/META-INF/services
+    assertTrue (PeppolViDATDDMetrics.isEnabled ());
+
+    final ICommonsList <ClassPathResource> aSources = PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ();
+    final EPeppolViDATDDMetric [] aMetrics = { EPeppolViDATDDMetric.INIT_FROM_INVOICE,
+                                               EPeppolViDATDDMetric.BUILD_TDD,
+                                               EPeppolViDATDDMetric.BUILD_REPORTED_TRANSACTION,
+                                               EPeppolViDATDDMetric.UUID_GENERATION,
+                                               EPeppolViDATDDMetric.MARSHAL_WRITE,
+                                               EPeppolViDATDDMetric.SCHEMATRON_VALIDATION };
+    final long [] aBefore = new long [aMetrics.length];
+    for (int i = 0; i < aMetrics.length; ++i)
+      aBefore[i] = MockPeppolViDATDDMetricsSPI.getCallCount (aMetrics[i]);
+    final long nLinesBefore = MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.BUILD_DOCUMENT_LINE);
+
+    final PeppolViDATDD090BatchConverter aConverter = PeppolViDATDD090BatchConverterTest.createConverter ();
+    final PeppolViDATDD090BatchConverter.Summary aSummary = aConverter.schematronValidation (true)
+                                                                      .convert (aSources, x -> {});
+    assertEquals (aSources.size (), aSummary.getTotalCount ());
+
+    // Every metric was recorded at least once per document
+    for (int i = 0; i < aMetrics.length; ++i)
+      assertTrue (aMetrics[i].getID (),
+                  MockPeppolViDATDDMetricsSPI.getCallCount (aMetrics[i]) >= aBefore[i] + aSources.size ());
+    assertTrue (MockPeppolViDATDDMetricsSPI.getCallCount (EPeppolViDATDDMetric.BUILD_DOCUMENT_LINE) > nLinesBefore);
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchConverter;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BatchResult;
+import com.helger.peppolid.factory.IIdentifierFactory;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test class for class {@link PeppolViDATDD090BatchConverter}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090BatchConverterTest
+{
+  @NonNull
+  static PeppolViDATDD090BatchConverter createConverter ()
+  {
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    return new PeppolViDATDD090BatchConverter ().documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                                .reporterRole (EViDATDDReporterRole.SENDER)
+                                                .reportingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                                                .receivingParty (aIF.createParticipantIdentifierWithDefaultScheme ("0242:c5id"))
+                                                .reportersRepresentative (aIF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                                                .taxAuthorityID ("XX");
+  }
+
+  @Test
+  public void testConvertAll () throws Exception
+  {
+    final ICommonsList <ClassPathResource> aSources = new CommonsArrayList <> ();
+    // Repeat to have more documents than in-flight slots
+    for (int i = 0; i < 5; ++i)
+    {
+      aSources.addAll (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ());
+      aSources.addAll (PeppolViDATestFiles.getAllGoodBillingCreditNoteFiles ());
+    }
+    // A TDD is not a UBL document
+    final int nBadIndex = aSources.size ();
+    aSources.add (PeppolViDATestFiles.getAllGoodTDD090Files ().getFirstOrNull ());
+    // A non-existing file
+    aSources.add (new ClassPathResource ("does/not/exist.xml"));
+
+    final ICommonsList <PeppolViDATDD090BatchResult> aResults = new CommonsArrayList <> ();
+    final PeppolViDATDD090BatchConverter.Summary aSummary = createConverter ().workerCount (3)
+                                                                              .maxInFlight (4)
+                                                                              .convert (aSources, aResults::add);
+    assertEquals (aSources.size (), aSummary.getTotalCount ());
+    assertEquals (2, aSummary.getFailureCount ());
+    assertEquals (aSources.size (), aResults.size ());
+
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    for (int i = 0; i < aResults.size (); ++i)
+    {
+      final PeppolViDATDD090BatchResult aResult = aResults.get (i);
+      // In input order
+      assertEquals (i, aResult.getIndex ());
+      assertEquals (aSources.get (i).getPath (), aResult.getSourceName ());
+
+      if (i < nBadIndex)
+      {
+        assertTrue (aResult.getSourceName () + ": " + aResult.getErrorMessage (), aResult.isSuccess ());
+        assertNotNull (aResult.getTDD ());
+        assertTrue (aResult.getAllFailedAssertions ().isEmpty ());
+        // Serialized bytes can be read again
+        assertEquals (aResult.getTDD ().getUUID (), m.read (aResult.getTDDBytes ()).getUUID ());
+      }
+      else
+      {
+        assertFalse (aResult.isSuccess ());
+        assertNull (aResult.getTDD ());
+        assertNull (aResult.getTDDBytes ());
+        assertNotNull (aResult.getErrorMessage ());
+      }
+    }
+  }
+
+  @Test
+  public void testConvertSingle () throws Exception
+  {
+    final PeppolViDATDD090BatchConverter aConverter = createConverter ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingCreditNoteFiles ())
+    {
+      final byte [] aBytes;
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        aBytes = aIS.readAllBytes ();
+      }
+      final PeppolViDATDD090BatchResult aResult = aConverter.convertSingle (aRes.getPath (), aBytes);
+      assertTrue (aResult.getSourceName () + ": " + aResult.getErrorMessage (), aResult.isSuccess ());
+      assertEquals (0, aResult.getIndex ());
+      assertNotNull (aResult.getTDDBytes ());
+    }
+
+    // Directly from the stream
+    final ClassPathResource aInvoice = PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().getFirstOrNull ();
+    try (final InputStream aIS = aInvoice.getInputStream ())
+    {
+      final PeppolViDATDD090BatchResult aResult = aConverter.convertSingle (aInvoice.getPath (), aIS);
+      assertTrue (aResult.getErrorMessage (), aResult.isSuccess ());
+      assertEquals ("XX", aResult.getTDD ().getTaxAuthority ().getIDValue ());
+    }
+
+    // Changing a header field invalidates the cached header
+    aConverter.taxAuthorityID ("YY");
+    try (final InputStream aIS = aInvoice.getInputStream ())
+    {
+      final PeppolViDATDD090BatchResult aResult = aConverter.convertSingle (aInvoice.getPath (), aIS);
+      assertTrue (aResult.getErrorMessage (), aResult.isSuccess ());
+      assertEquals ("YY", aResult.getTDD ().getTaxAuthority ().getIDValue ());
+    }
+
+    // Not a UBL document
+    final PeppolViDATDD090BatchResult aResult = aConverter.convertSingle ("dummy", "<a/>".getBytes (StandardCharsets.UTF_8));
+    assertFalse (aResult.isSuccess ());
+    assertNotNull (aResult.getErrorMessage ());
+  }
+
+  @Test
+  public void testConvertSingleConcurrently () throws Exception
+  {
+    final PeppolViDATDD090BatchConverter aConverter = createConverter ();
+    final byte [] aBytes;
+    try (final InputStream aIS = PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().getFirstOrNull ().getInputStream ())
+    {
+      aBytes = aIS.readAllBytes ();
+    }
+
+    final ExecutorService aES = Executors.newFixedThreadPool (8);
+    try
+    {
+      final ICommonsList <Future <PeppolViDATDD090BatchResult>> aFutures = new CommonsArrayList <> ();
+      for (int i = 0; i < 64; ++i)
+        aFutures.add (aES.submit ( () -> aConverter.convertSingle ("concurrent", aBytes)));
+      for (final Future <PeppolViDATDD090BatchResult> aFuture : aFutures)
+      {
+        final PeppolViDATDD090BatchResult aResult = aFuture.get ();
+        assertTrue (aResult.getErrorMessage (), aResult.isSuccess ());
+        assertEquals ("XX", aResult.getTDD ().getTaxAuthority ().getIDValue ());
+      }
+    }
+    finally
+    {
+      aES.shutdownNow ();
+    }
+  }
+
+  @Test
+  public void testSchematronValidation () throws Exception
+  {
+    final ICommonsList <PeppolViDATDD090BatchResult> aResults = new CommonsArrayList <> ();
+    createConverter ().schematronValidation (true)
+                      .convert (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles (), aResults::add);
+    assertEquals (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().size (), aResults.size ());
+    for (final PeppolViDATDD090BatchResult aResult : aResults)
+    {
+      // The conversion itself must work
+      assertNull (aResult.getSourceName (), aResult.getErrorMessage ());
+      assertNotNull (aResult.getTDD ());
+      assertNotNull (aResult.getAllFailedAssertions ());
+    }
+  }
+
+  @Test
+  public void testJFREvents () throws Exception
+  {
+    final String [] aEventNames = { "com.helger.peppol.vida.UBLToTDDConvert",
+                                    "com.helger.peppol.vida.TDDBuild",
+                                    "com.helger.peppol.vida.TDDMarshal",
+                                    "com.helger.peppol.vida.TDDSchematronValidate" };
+    final ICommonsList <ClassPathResource> aSources = PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ();
+    final ICommonsList <PeppolViDATDD090BatchResult> aResults = new CommonsArrayList <> ();
+    final Path aFile = Files.createTempFile ("tdd", ".jfr");
+    try
+    {
+      try (final Recording aRecording = new Recording ())
+      {
+        // All events are disabled by default
+        for (final String sEventName : aEventNames)
+          aRecording.enable (sEventName);
+        aRecording.start ();
+        createConverter ().schematronValidation (true).convert (aSources, aResults::add);
+        aRecording.stop ();
+        aRecording.dump (aFile);
+      }
+
+      final ICommonsMap <String, Integer> aCounts = new CommonsHashMap <> ();
+      for (final RecordedEvent aEvent : RecordingFile.readAllEvents (aFile))
+      {
+        final String sEventName = aEvent.getEventType ().getName ();
+        if (sEventName.startsWith ("com.helger.peppol.vida."))
+        {
+          aCounts.merge (sEventName, Integer.valueOf (1), (a, b) -> Integer.valueOf (a.intValue () + b.intValue ()));
+          assertNotNull (sEventName, aEvent.getString ("tddUUID"));
+        }
+        if (sEventName.equals ("com.helger.peppol.vida.TDDBuild"))
+          assertTrue (aEvent.getInt ("documentLineCount") > 0);
+      }
+      for (final String sEventName : aEventNames)
+        assertEquals (sEventName, Integer.valueOf (aSources.size ()), aCounts.get (sEventName));
+    }
+    finally
+    {
+      Files.deleteIfExists (aFile);
+    }
+  }
+
+  @Test
+  public void testMissingHeader () throws Exception
+  {
+    // Reporter role is missing - every document fails, but the batch continues
+    final ICommonsList <PeppolViDATDD090BatchResult> aResults = new CommonsArrayList <> ();
+    final PeppolViDATDD090BatchConverter.Summary aSummary = createConverter ().reporterRole (null)
+                                                                              .convert (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles (),
+                                                                                        aResults::add);
+    assertEquals (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().size (), aSummary.getTotalCount ());
+    assertEquals (aSummary.getTotalCount (), aSummary.getFailureCount ());
+    for (final PeppolViDATDD090BatchResult aResult : aResults)
+      assertFalse (aResult.isSuccess ());
+  }
+
+  @Test
+  public void testSinkException () throws Exception
+  {
+    final RuntimeException aEx = new IllegalStateException ("stop");
+    try
+    {
+      createConverter ().workerCount (2).maxInFlight (2).convert (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles (), x -> {
+        throw aEx;
+      });
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      assertSame (aEx, ex);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.ICommonsList;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal.TaxSubtotal;
+import com.helger.peppol.vida.tddv090.EViDATDD090BuilderErrorCode;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090Builder;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BuilderError;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BuilderErrorList;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090TaxSubtotalBuilder;
+import com.helger.peppolid.factory.IIdentifierFactory;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+
+/**
+ * Test class for class {@link PeppolViDATDD090BuilderErrorList}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090BuilderErrorListTest
+{
+  @Test
+  public void testEmptyBuilder ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    assertTrue (aErrorList.isCollecting ());
+    assertNull (new PeppolViDATDD090Builder ().build (aErrorList));
+    assertTrue (aErrorList.hasErrors ());
+
+    final ICommonsList <PeppolViDATDD090BuilderError> aErrors = aErrorList.getAllErrors ();
+    assertEquals (aErrorList.getErrorCount (), aErrors.size ());
+    for (final PeppolViDATDD090BuilderError aError : aErrors)
+      assertEquals (EViDATDD090BuilderErrorCode.MISSING_FIELD, aError.getErrorCode ());
+
+    final PeppolViDATDD090BuilderError aFirst = aErrors.getFirstOrNull ();
+    assertEquals ("DocumentTypeCode", aFirst.getFieldPath ());
+    assertEquals ("DocumentTypeCode is missing", aFirst.getMessage ());
+    assertEquals ("Error in Peppol ViDA pilot TDD 0.9.0 builder: DocumentTypeCode is missing", aFirst.getLogMessage ());
+    assertEquals ("ReportedTransaction", aErrors.getLastOrNull ().getFieldPath ());
+
+    // Counting only
+    final PeppolViDATDD090BuilderErrorList aCounting = PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    assertFalse (aCounting.isCollecting ());
+    assertFalse (new PeppolViDATDD090Builder ().isEveryRequiredFieldSet (aCounting));
+    assertEquals (aErrorList.getErrorCount (), aCounting.getErrorCount ());
+    assertTrue (aCounting.getAllErrors ().isEmpty ());
+
+    // Reuse
+    aErrorList.clear ();
+    assertTrue (aErrorList.hasNoErrors ());
+    assertTrue (aErrorList.getAllErrors ().isEmpty ());
+  }
+
+  @Test
+  public void testElementBuilder ()
+  {
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    assertNull (new PeppolViDATDD090TaxSubtotalBuilder ("EUR").taxCategoryID ("S").taxSchemeID ("VAT").build (aErrorList));
+    assertEquals (2, aErrorList.getErrorCount ());
+    final PeppolViDATDD090BuilderError aError = aErrorList.getAllErrors ().getFirstOrNull ();
+    assertEquals ("TaxSubtotal", aError.getBuilderName ());
+    assertEquals ("TaxableAmount", aError.getFieldName ());
+    assertEquals ("TaxSubtotal/TaxableAmount", aError.getFieldPath ());
+    assertEquals ("Error in Peppol ViDA pilot TDD 0.9.0 TaxSubtotal builder: TaxableAmount is missing",
+                  aError.getLogMessage ());
+  }
+
+  @Test
+  public void testNestedCountingOnly ()
+  {
+    final PeppolViDATDD090BuilderErrorList aCounting = PeppolViDATDD090BuilderErrorList.createCountingOnly ();
+    final PeppolViDATDD090TaxSubtotalBuilder aTSBuilder = new PeppolViDATDD090TaxSubtotalBuilder ("EUR").taxCategoryID ("S")
+                                                                                                        .taxSchemeID ("VAT");
+    final TaxSubtotal ret = aCounting.buildNested ("TaxTotal", 0, aNested -> {
+      // No error objects are created for nested elements either
+      assertFalse (aNested.isCollecting ());
+      final TaxSubtotal aTS = aTSBuilder.build (aNested);
+      assertEquals (2, aNested.getErrorCount ());
+      assertTrue (aNested.getAllErrors ().isEmpty ());
+      return aTS;
+    });
+    assertNull (ret);
+    assertEquals (2, aCounting.getErrorCount ());
+    assertTrue (aCounting.getAllErrors ().isEmpty ());
+  }
+
+  @Test
+  public void testNestedAndIdentifierErrors ()
+  {
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    final PeppolViDATDD090Builder aBuilder = new PeppolViDATDD090Builder ().documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                                                                           .documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                                                           .reporterRole (EViDATDDReporterRole.SENDER)
+                                                                           .reportingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                                                                           .receivingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:c5id"))
+                                                                           .reportersRepresentative (aIF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                                                                           .taxAuthorityID ("XX")
+                                                                           .reportedTransaction (rt -> rt.id ("inv-1"));
+    assertNull (aBuilder.build (aErrorList));
+
+    final ICommonsList <String> aPaths = aErrorList.getAllErrors ().getAllMapped (PeppolViDATDD090BuilderError::getFieldPath);
+    assertTrue (aPaths.toString (), aPaths.contains ("ReceivingParty"));
+    assertTrue (aPaths.toString (), aPaths.contains ("ReportedTransaction/DocumentCurrencyCode"));
+    assertTrue (aPaths.toString (), aPaths.contains ("ReportedTransaction/DocumentLine"));
+    assertTrue (aPaths.toString (), aPaths.contains ("ReportedTransaction"));
+    assertFalse (aPaths.toString (), aPaths.contains ("ReportedTransaction/ID"));
+
+    final PeppolViDATDD090BuilderError aError = aErrorList.getAllErrors ().getFirstOrNull ();
+    assertEquals (EViDATDD090BuilderErrorCode.IDENTIFIER_SCHEME_NOT_0242, aError.getErrorCode ());
+    assertEquals ("ReceivingParty identifier value '9915:c5id' must use the 0242 identifier scheme", aError.getMessage ());
+  }
+
+  @Test
+  public void testNestedElementBuilderPath ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aRTBuilder = new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT).documentCurrencyCode ("EUR");
+    for (int i = 0; i < 5; ++i)
+    {
+      final String sID = Integer.toString (i);
+      // The Item of the fourth line has no name
+      final String sItemName = i == 3 ? null : "Item " + sID;
+      aRTBuilder.addDocumentLine (l -> l.id (sID)
+                                        .quantity (BigDecimal.ONE)
+                                        .quantityUnit ("C62")
+                                        .lineExtensionAmount (BigDecimal.TEN)
+                                        .priceAmount (BigDecimal.TEN)
+                                        .item (it -> it.name (sItemName)
+                                                       .classifiedTaxCategory (c -> c.id ("S")
+                                                                                     .percentage (BigDecimal.TEN)
+                                                                                     .taxSchemeID ("VAT"))));
+    }
+    // The failed line is not added
+    assertEquals (4, aRTBuilder.documentLines ().size ());
+
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    assertFalse (aRTBuilder.isEveryRequiredFieldSet (aErrorList));
+    final ICommonsList <String> aPaths = aErrorList.getAllErrors ().getAllMapped (PeppolViDATDD090BuilderError::getFieldPath);
+    assertTrue (aPaths.toString (), aPaths.contains ("ReportedTransaction/DocumentLine[3]/Item/Name"));
+    assertTrue (aPaths.toString (), aPaths.contains ("ReportedTransaction/DocumentLine[3]/Item"));
+
+    final PeppolViDATDD090BuilderError aError = aErrorList.getAllErrors ().getFirstOrNull ();
+    assertEquals ("Item", aError.getBuilderName ());
+    assertEquals ("ReportedTransaction/DocumentLine[3]/Item", aError.getBuilderPath ());
+    assertEquals ("Name", aError.getFieldName ());
+    assertEquals ("Error in Peppol ViDA pilot TDD 0.9.0 ReportedTransaction/DocumentLine[3]/Item builder: Name is missing",
+                  aError.getLogMessage ());
+
+    // A new line gets the next index
+    aRTBuilder.addDocumentLine (l -> l.id ("5"));
+    aErrorList.clear ();
+    assertFalse (aRTBuilder.isEveryRequiredFieldSet (aErrorList));
+    assertTrue (aErrorList.getAllErrors ()
+                          .getAllMapped (PeppolViDATDD090BuilderError::getFieldPath)
+                          .contains ("ReportedTransaction/DocumentLine[5]/Quantity"));
+
+    // Reset drops the errors of the nested builders
+    aRTBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT);
+    aErrorList.clear ();
+    assertFalse (aRTBuilder.isEveryRequiredFieldSet (aErrorList));
+    assertFalse (aErrorList.getAllErrors ()
+                           .getAllMapped (PeppolViDATDD090BuilderError::getFieldPath)
+                           .containsAny (x -> x.startsWith ("ReportedTransaction/DocumentLine[")));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.OffsetDateTime;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090Builder;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BuilderPool;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+import com.helger.peppolid.factory.IIdentifierFactory;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+import com.helger.ubl21.UBL21Marshaller;
+
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link PeppolViDATDD090BuilderPool}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090BuilderPoolTest
+{
+  @NonNull
+  private static PeppolViDATDD090Builder _fill (@NonNull final PeppolViDATDD090Builder aBuilder,
+                                                @NonNull final OffsetDateTime aNow,
+                                                @NonNull final Consumer <PeppolViDATDD090ReportedTransactionBuilder> aRT)
+  {
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    return aBuilder.uuid ("uuid-1")
+                   .issueDateTime (aNow)
+                   .documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                   .documentScope (EViDATDDDocumentScope.DOMESTIC)
+                   .reporterRole (EViDATDDReporterRole.SENDER)
+                   .reportingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                   .receivingParty (aIF.createParticipantIdentifierWithDefaultScheme ("0242:c5id"))
+                   .reportersRepresentative (aIF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                   .taxAuthorityID ("XX")
+                   .reportedTransaction (aRT);
+  }
+
+  @Test
+  public void testReuse ()
+  {
+    final OffsetDateTime aNow = PDTFactory.getCurrentOffsetDateTime ();
+    final ICommonsList <Consumer <PeppolViDATDD090ReportedTransactionBuilder>> aRTs = new CommonsArrayList <> ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+    {
+      final InvoiceType aInvoice = UBL21Marshaller.invoice ().read (aRes);
+      assertNotNull (aInvoice);
+      aRTs.add (rt -> rt.initFromInvoice (aInvoice));
+    }
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingCreditNoteFiles ())
+    {
+      final CreditNoteType aCreditNote = UBL21Marshaller.creditNote ().read (aRes);
+      assertNotNull (aCreditNote);
+      aRTs.add (rt -> rt.initFromCreditNote (aCreditNote));
+    }
+
+    final ICommonsList <TaxDataType> aPooled = new CommonsArrayList <> ();
+    final ICommonsList <TaxDataType> aExpected = new CommonsArrayList <> ();
+    for (final Consumer <PeppolViDATDD090ReportedTransactionBuilder> aRT : aRTs)
+    {
+      final PeppolViDATDD090Builder aBuilder = PeppolViDATDD090BuilderPool.getBuilder ();
+      // Always the same instance per thread
+      assertSame (aBuilder, PeppolViDATDD090BuilderPool.getBuilder ());
+
+      final TaxDataType aTDD = _fill (aBuilder, aNow, aRT).build ();
+      assertNotNull (aTDD);
+      aPooled.add (aTDD);
+      aExpected.add (_fill (new PeppolViDATDD090Builder (), aNow, aRT).build ());
+    }
+
+    // Previously built objects must not be modified by the reuse
+    assertEquals (aExpected, aPooled);
+  }
+
+  @Test
+  public void testReset ()
+  {
+    final PeppolViDATDD090Builder aBuilder = PeppolViDATDD090BuilderPool.getBuilder ().taxAuthorityID ("XX");
+    final String sUUID = aBuilder.uuid ();
+    assertNotNull (sUUID);
+
+    aBuilder.reset ();
+    assertNull (aBuilder.taxAuthorityID ());
+    assertEquals (PeppolViDATDD090Builder.DEFAULT_CUSTOMIZATION_ID, aBuilder.customizationID ());
+    assertNotNull (aBuilder.uuid ());
+
+    final PeppolViDATDD090ReportedTransactionBuilder aRT = PeppolViDATDD090BuilderPool.getReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT)
+                                                                                       .id ("x")
+                                                                                       .documentCurrencyCode ("EUR")
+                                                                                       .addDocumentLine (new DocumentLine ());
+    assertEquals (1, aRT.documentLines ().size ());
+    assertSame (aRT, PeppolViDATDD090BuilderPool.getReportedTransactionBuilder (EViDATDDDocumentTypeCode.DISREGARD));
+    assertNull (aRT.id ());
+    assertEquals (0, aRT.documentLines ().size ());
+  }
+}
@@ -19,7 +19,9 @@ package com.helger.peppol.vida.tdd.v090;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -33,6 +35,7 @@ import org.slf4j.LoggerFactory;
 
 import com.helger.base.numeric.BigHelper;
 import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.datetime.helper.PDTFactory;
 import com.helger.io.resource.ClassPathResource;
 import com.helger.io.resource.inmemory.ReadableResourceString;
@@ -42,7 +45,10 @@ import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
 import com.helger.peppol.vida.tdd.jaxb.PeppolViDATDD090Marshaller;
 import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
 import com.helger.peppol.vida.tdd.validate.PeppolViDATDDValidator;
+import com.helger.peppol.vida.tddv090.EViDATDD090BuilderErrorCode;
 import com.helger.peppol.vida.tddv090.PeppolViDATDD090Builder;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BuilderError;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BuilderErrorList;
 import com.helger.peppolid.factory.IIdentifierFactory;
 import com.helger.peppolid.factory.PeppolIdentifierFactory;
 import com.helger.schematron.ISchematronResource;
@@ -372,4 +378,68 @@ public final class PeppolViDATDD090BuilderTest
       assertEquals (new CommonsArrayList <> (), SVRLHelper.getAllFailedAssertions (aSVRL));
     }
   }
+
+  @Test
+  public void testMultipleReportedTransactions () throws Exception
+  {
+    final IIdentifierFactory aIF = PeppolIdentifierFactory.INSTANCE;
+    final PeppolViDATDD090Builder aBuilder = new PeppolViDATDD090Builder ().documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                                                                           .documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                                                           .reporterRole (EViDATDDReporterRole.SENDER)
+                                                                           .reportingParty (aIF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                                                                           .receivingParty (aIF.createParticipantIdentifierWithDefaultScheme ("0242:c5id"))
+                                                                           .reportersRepresentative (aIF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                                                                           .taxAuthorityID ("XX");
+    assertFalse (aBuilder.multipleReportedTransactions ());
+
+    // All transactions of a TDD must use the same currency
+    final ICommonsList <InvoiceType> aInvoices = new CommonsArrayList <> ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+    {
+      final InvoiceType aInvoice = UBL21Marshaller.invoice ().read (aRes);
+      if ("EUR".equals (aInvoice.getDocumentCurrencyCodeValue ()))
+        aInvoices.add (aInvoice);
+    }
+    assertTrue (aInvoices.size () > 1);
+
+    // Must be enabled explicitly
+    try
+    {
+      aBuilder.addReportedTransaction (rt -> rt.initFromInvoice (aInvoices.getFirstOrNull ()));
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+
+    aBuilder.multipleReportedTransactions (true);
+    for (final InvoiceType aInvoice : aInvoices)
+      aBuilder.addReportedTransaction (rt -> rt.initFromInvoice (aInvoice));
+    assertEquals (aInvoices.size (), aBuilder.getReportedTransactionCount ());
+
+    // ViDA-1 allows only a single ReportedTransaction
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    assertNull (aBuilder.build (aErrorList));
+    assertEquals (EViDATDD090BuilderErrorCode.TOO_MANY_FOR_CUSTOMIZATION_ID,
+                  aErrorList.getAllErrors ().getLastOrNull ().getErrorCode ());
+
+    final TaxDataType aTDD = aBuilder.customizationID ("urn:example:taxdata:bulk").build ();
+    assertNotNull (aTDD);
+    assertEquals (aInvoices.size (), aTDD.getReportedTransaction ().size ());
+
+    // Must be XSD valid. Compared as XML, as empty lists are not read back
+    final PeppolViDATDD090Marshaller m = new PeppolViDATDD090Marshaller ();
+    final String sXML = m.getAsString (aTDD);
+    assertNotNull (sXML);
+    assertEquals (sXML, m.getAsString (m.read (sXML)));
+
+    // All transactions must use the same DocumentCurrencyCode
+    aBuilder.addReportedTransaction (rt -> rt.initFromInvoice (aInvoices.getFirstOrNull ()).documentCurrencyCode ("XXX"));
+    aErrorList.clear ();
+    assertNull (aBuilder.build (aErrorList));
+    final PeppolViDATDD090BuilderError aError = aErrorList.getAllErrors ().getLastOrNull ();
+    assertEquals (EViDATDD090BuilderErrorCode.DIFFERENT_FROM_FIRST_ELEMENT, aError.getErrorCode ());
+    assertEquals ("ReportedTransaction[" + aInvoices.size () + "]/DocumentCurrencyCode", aError.getFieldPath ());
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.OffsetDateTime;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.datetime.helper.PDTFactory;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentScope;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDReporterRole;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090Builder;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090HeaderTemplate;
+import com.helger.peppolid.factory.IIdentifierFactory;
+import com.helger.peppolid.factory.PeppolIdentifierFactory;
+import com.helger.ubl21.UBL21Marshaller;
+
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link PeppolViDATDD090HeaderTemplate}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090HeaderTemplateTest
+{
+  private static final IIdentifierFactory IF = PeppolIdentifierFactory.INSTANCE;
+
+  private static PeppolViDATDD090HeaderTemplate.@NonNull Builder _createTemplateBuilder ()
+  {
+    return PeppolViDATDD090HeaderTemplate.builder ()
+                                         .documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                         .reporterRole (EViDATDDReporterRole.SENDER)
+                                         .reportingParty (IF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                                         .receivingParty (IF.createParticipantIdentifierWithDefaultScheme ("0242:c5id"))
+                                         .reportersRepresentative (IF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                                         .taxAuthorityID ("XX");
+  }
+
+  @Test
+  public void testInvalid ()
+  {
+    assertNull (PeppolViDATDD090HeaderTemplate.builder ().build ());
+    assertNull (_createTemplateBuilder ().reporterRole (null).build ());
+    assertNull (_createTemplateBuilder ().receivingParty (IF.createParticipantIdentifierWithDefaultScheme ("9915:c5id"))
+                                         .build ());
+    assertNull (_createTemplateBuilder ().reportersRepresentative (null).build ());
+  }
+
+  @Test
+  public void testSameAsRegularBuilder ()
+  {
+    final PeppolViDATDD090HeaderTemplate aTemplate = _createTemplateBuilder ().build ();
+    assertNotNull (aTemplate);
+
+    final OffsetDateTime aNow = PDTFactory.getCurrentOffsetDateTime ();
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+    {
+      final InvoiceType aInvoice = UBL21Marshaller.invoice ().read (aRes);
+      assertNotNull (aInvoice);
+
+      final PeppolViDATDD090Builder aBuilder = aTemplate.createBuilder ();
+      assertSame (aTemplate, aBuilder.headerTemplate ());
+      final TaxDataType aTDD1 = aBuilder.uuid ("uuid-1")
+                                        .issueDateTime (aNow)
+                                        .documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                                        .reportedTransaction (rt -> rt.initFromInvoice (aInvoice))
+                                        .build ();
+      assertNotNull (aTDD1);
+
+      final TaxDataType aTDD2 = new PeppolViDATDD090Builder ().uuid ("uuid-1")
+                                                              .issueDateTime (aNow)
+                                                              .documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                                                              .documentScope (EViDATDDDocumentScope.DOMESTIC)
+                                                              .reporterRole (EViDATDDReporterRole.SENDER)
+                                                              .reportingParty (IF.createParticipantIdentifierWithDefaultScheme ("9915:c1id"))
+                                                              .receivingParty (IF.createParticipantIdentifierWithDefaultScheme ("0242:c5id"))
+                                                              .reportersRepresentative (IF.createParticipantIdentifierWithDefaultScheme ("0242:987654"))
+                                                              .taxAuthorityID ("XX")
+                                                              .reportedTransaction (rt -> rt.initFromInvoice (aInvoice))
+                                                              .build ();
+      assertEquals (aTDD2, aTDD1);
+
+      // The pre-built elements must not be shared
+      aTDD1.getReportingParty ().setEndpointID ("changed");
+      final TaxDataType aTDD3 = aTemplate.createBuilder ()
+                                         .documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                                         .reportedTransaction (rt -> rt.initFromInvoice (aInvoice))
+                                         .build ();
+      assertNotNull (aTDD3);
+      assertEquals ("c1id", aTDD3.getReportingParty ().getEndpointID ().getValue ());
+    }
+  }
+
+  @Test
+  public void testModifiedHeader ()
+  {
+    final PeppolViDATDD090HeaderTemplate aTemplate = _createTemplateBuilder ().build ();
+    assertNotNull (aTemplate);
+
+    // Modifying a party falls back to the regular validation
+    final PeppolViDATDD090Builder aBuilder = aTemplate.createBuilder ()
+                                                      .documentTypeCode (EViDATDDDocumentTypeCode.SUBMIT)
+                                                      .reportedTransaction (rt -> rt.initFromInvoice (UBL21Marshaller.invoice ()
+                                                                                                                     .read (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ()
+                                                                                                                                               .getFirstOrNull ())))
+                                                      .receivingParty (IF.createParticipantIdentifierWithDefaultScheme ("9915:c5id"));
+    assertNull (aBuilder.headerTemplate ());
+    assertFalse (aBuilder.isEveryRequiredFieldSet (false));
+    assertNull (aBuilder.build ());
+  }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.DocumentLine;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument.MonetaryTotal;
+import com.helger.peppol.vida.tdd.v090.cac.TaxTotal;
+import com.helger.peppol.vida.tddv090.EViDATDD090BuilderErrorCode;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090BuilderErrorList;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090DocumentLineColumns;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+import com.helger.ubl21.UBL21Marshaller;
+
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link PeppolViDATDD090ReportedTransactionBuilder}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090ReportedTransactionBuilderTest
+{
+  private static void _assertEquals (@NonNull final String sMsg, @Nullable final BigDecimal aExpected, @Nullable final BigDecimal aActual)
+  {
+    if (aExpected == null)
+      assertNull (sMsg, aActual);
+    else
+    {
+      assertNotNull (sMsg, aActual);
+      assertEquals (sMsg + ": " + aExpected + " vs. " + aActual, 0, aExpected.compareTo (aActual));
+    }
+  }
+
+  private static void _assertEquals (@NonNull final String sMsg,
+                                     @NonNull final BigDecimal aExpected,
+                                     @NonNull final BigDecimal aActual,
+                                     @NonNull final BigDecimal aTolerance)
+  {
+    assertTrue (sMsg + ": " + aExpected + " vs. " + aActual, aExpected.subtract (aActual).abs ().compareTo (aTolerance) <= 0);
+  }
+
+  @Test
+  public void testAggregateTotalsFromInvoices ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT);
+    assertFalse (aBuilder.aggregateTotals ());
+
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+    {
+      final String sPath = aRes.getPath ();
+      final InvoiceType aInvoice = UBL21Marshaller.invoice ().read (aRes);
+      assertNotNull (sPath, aInvoice);
+
+      final ReportedTransaction aExpected = aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT)
+                                                    .initFromInvoice (aInvoice)
+                                                    .build ();
+      assertNotNull (sPath, aExpected);
+
+      // Enable before the lines are added and remove all explicitly set totals
+      final ReportedTransaction aAggregated = aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT)
+                                                      .aggregateTotals (true)
+                                                      .initFromInvoice (aInvoice)
+                                                      .taxTotalDocumentCurrency ((TaxTotal) null)
+                                                      .lineExtensionAmount (null)
+                                                      .taxExclusiveTotalAmount (null)
+                                                      .taxInclusiveTotalAmount (null)
+                                                      .allowanceTotalAmount (null)
+                                                      .chargeTotalAmount (null)
+                                                      .payableAmount (null)
+                                                      .build ();
+      assertNotNull (sPath, aAggregated);
+
+      final ReportedDocument aExpDoc = aExpected.getReportedDocument ();
+      final ReportedDocument aAggDoc = aAggregated.getReportedDocument ();
+      final MonetaryTotal aExpMT = aExpDoc.getMonetaryTotal ();
+      final MonetaryTotal aAggMT = aAggDoc.getMonetaryTotal ();
+      _assertEquals (sPath + " LineExtension",
+                     aExpMT.getLineExtensionAmount ().getValue (),
+                     aAggMT.getLineExtensionAmount ().getValue ());
+      _assertEquals (sPath + " TaxExclusive",
+                     aExpMT.getTaxExclusiveAmount ().getValue (),
+                     aAggMT.getTaxExclusiveAmount ().getValue ());
+      if (aExpMT.getAllowanceTotalAmount () != null && aAggMT.getAllowanceTotalAmount () != null)
+        _assertEquals (sPath + " AllowanceTotal",
+                       aExpMT.getAllowanceTotalAmount ().getValue (),
+                       aAggMT.getAllowanceTotalAmount ().getValue ());
+      if (aExpMT.getChargeTotalAmount () != null && aAggMT.getChargeTotalAmount () != null)
+        _assertEquals (sPath + " ChargeTotal",
+                       aExpMT.getChargeTotalAmount ().getValue (),
+                       aAggMT.getChargeTotalAmount ().getValue ());
+
+      // Tax rounding may differ by one cent per category
+      final TaxTotal aExpTT = aExpDoc.getTaxTotal ().get (0);
+      final TaxTotal aAggTT = aAggDoc.getTaxTotal ().get (0);
+      assertEquals (sPath, aExpTT.getTaxSubtotal ().size (), aAggTT.getTaxSubtotal ().size ());
+      final BigDecimal aTolerance = new BigDecimal ("0.01").multiply (BigDecimal.valueOf (aExpTT.getTaxSubtotal ().size ()));
+      _assertEquals (sPath + " TaxAmount", aExpTT.getTaxAmount ().getValue (), aAggTT.getTaxAmount ().getValue (), aTolerance);
+      _assertEquals (sPath + " Payable",
+                     aExpMT.getPayableAmount ().getValue (),
+                     aAggMT.getPayableAmount ().getValue (),
+                     aTolerance);
+    }
+  }
+
+  @NonNull
+  private static PeppolViDATDD090ReportedTransactionBuilder _createBuilder ()
+  {
+    return new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT).customizationID ("urn:cen.eu:en16931:2017")
+                                                                                       .profileID ("urn:fdc:peppol.eu:2017:poacc:billing:01:1.0")
+                                                                                       .id ("inv-1")
+                                                                                       .issueDate (LocalDate.of (2026,
+                                                                                                                 1,
+                                                                                                                 30))
+                                                                                       .documentTypeCode ("380")
+                                                                                       .documentCurrencyCode ("EUR")
+                                                                                       .sellerTaxID ("AT123")
+                                                                                       .aggregateTotals (true);
+  }
+
+  private static void _addLine (@NonNull final PeppolViDATDD090ReportedTransactionBuilder aBuilder,
+                                @NonNull final String sID,
+                                @NonNull final String sAmount,
+                                @NonNull final String sCategory,
+                                @Nullable final String sPercent)
+  {
+    aBuilder.addDocumentLine (l -> l.id (sID)
+                                    .quantity (BigDecimal.ONE)
+                                    .quantityUnit ("C62")
+                                    .lineExtensionAmount (new BigDecimal (sAmount))
+                                    .priceAmount (new BigDecimal (sAmount))
+                                    .item (i -> i.name ("Item " + sID)
+                                                 .classifiedTaxCategory (c -> c.id (sCategory)
+                                                                               .percentage (sPercent == null ? null
+                                                                                                             : new BigDecimal (sPercent))
+                                                                               .taxSchemeID ("VAT"))));
+  }
+
+  @Test
+  public void testAggregateTotals ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _createBuilder ();
+    _addLine (aBuilder, "1", "100.00", "S", "20");
+    // Same category with a different scale
+    _addLine (aBuilder, "2", "50.5", "S", "20.00");
+    _addLine (aBuilder, "3", "10", "S", "10");
+    _addLine (aBuilder, "4", "7.123", "E", null);
+    aBuilder.addAllowanceCharge (ac -> ac.charge (false)
+                                         .amount (new BigDecimal ("0.50"))
+                                         .taxCategory (tc -> tc.id ("S").percentage (new BigDecimal ("20")).taxSchemeID ("VAT")));
+    aBuilder.addAllowanceCharge (ac -> ac.charge (true)
+                                         .amount (new BigDecimal ("5"))
+                                         .taxCategory (tc -> tc.id ("S").percentage (BigDecimal.TEN).taxSchemeID ("VAT")));
+    aBuilder.prepaidAmount (new BigDecimal ("1"));
+
+    final ReportedTransaction aRT = aBuilder.build ();
+    assertNotNull (aRT);
+    final ReportedDocument aDoc = aRT.getReportedDocument ();
+    final MonetaryTotal aMT = aDoc.getMonetaryTotal ();
+    _assertEquals ("LineExtension", new BigDecimal ("167.623"), aMT.getLineExtensionAmount ().getValue ());
+    _assertEquals ("Allowance", new BigDecimal ("0.5"), aMT.getAllowanceTotalAmount ().getValue ());
+    _assertEquals ("Charge", new BigDecimal ("5"), aMT.getChargeTotalAmount ().getValue ());
+    _assertEquals ("TaxExclusive", new BigDecimal ("172.123"), aMT.getTaxExclusiveAmount ().getValue ());
+
+    final TaxTotal aTT = aDoc.getTaxTotal ().get (0);
+    // S/20, S/10 and E
+    assertEquals (3, aTT.getTaxSubtotal ().size ());
+    _assertEquals ("S20 taxable", new BigDecimal ("150"), aTT.getTaxSubtotal ().get (0).getTaxableAmount ().getValue ());
+    _assertEquals ("S20 tax", new BigDecimal ("30"), aTT.getTaxSubtotal ().get (0).getTaxAmount ().getValue ());
+    _assertEquals ("S10 taxable", new BigDecimal ("15"), aTT.getTaxSubtotal ().get (1).getTaxableAmount ().getValue ());
+    _assertEquals ("S10 tax", new BigDecimal ("1.5"), aTT.getTaxSubtotal ().get (1).getTaxAmount ().getValue ());
+    _assertEquals ("E tax", BigDecimal.ZERO, aTT.getTaxSubtotal ().get (2).getTaxAmount ().getValue ());
+    _assertEquals ("Tax", new BigDecimal ("31.5"), aTT.getTaxAmount ().getValue ());
+    _assertEquals ("TaxInclusive", new BigDecimal ("203.623"), aMT.getTaxInclusiveAmount ().getValue ());
+    _assertEquals ("Payable", new BigDecimal ("202.623"), aMT.getPayableAmount ().getValue ());
+
+    // Explicit values win
+    _assertEquals ("Explicit",
+                   BigDecimal.TEN,
+                   aBuilder.lineExtensionAmount (BigDecimal.TEN)
+                           .build ()
+                           .getReportedDocument ()
+                           .getMonetaryTotal ()
+                           .getLineExtensionAmount ()
+                           .getValue ());
+  }
+
+  @Test
+  public void testAggregateTotalsCurrencyScale ()
+  {
+    // No fraction digits
+    PeppolViDATDD090ReportedTransactionBuilder aBuilder = _createBuilder ().documentCurrencyCode ("JPY");
+    _addLine (aBuilder, "1", "1005", "S", "10");
+    TaxTotal aTT = aBuilder.build ().getReportedDocument ().getTaxTotal ().get (0);
+    assertEquals (new BigDecimal ("101"), aTT.getTaxAmount ().getValue ());
+    assertEquals (new BigDecimal ("101"), aTT.getTaxSubtotal ().get (0).getTaxAmount ().getValue ());
+
+    // Three fraction digits
+    aBuilder = _createBuilder ().documentCurrencyCode ("BHD");
+    _addLine (aBuilder, "1", "10.005", "S", "10");
+    aTT = aBuilder.build ().getReportedDocument ().getTaxTotal ().get (0);
+    assertEquals (new BigDecimal ("1.001"), aTT.getTaxAmount ().getValue ());
+
+    // Not a currency with fraction digits
+    aBuilder = _createBuilder ().documentCurrencyCode ("XXX");
+    _addLine (aBuilder, "1", "10.05", "S", "10");
+    aTT = aBuilder.build ().getReportedDocument ().getTaxTotal ().get (0);
+    assertEquals (new BigDecimal ("1.01"), aTT.getTaxAmount ().getValue ());
+  }
+
+  @Test
+  public void testAggregateTotalsOverflow ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _createBuilder ();
+    // Fits into a long as a sum, but not after rescaling to 3 fraction digits
+    final String sBig = "900000000000000000";
+    _addLine (aBuilder, "1", sBig, "S", "0");
+    _addLine (aBuilder, "2", sBig, "S", "0");
+    _addLine (aBuilder, "3", "0.001", "S", "0");
+    final ReportedTransaction aRT = aBuilder.build ();
+    assertNotNull (aRT);
+    _assertEquals ("LineExtension",
+                   new BigDecimal ("1800000000000000000.001"),
+                   aRT.getReportedDocument ().getMonetaryTotal ().getLineExtensionAmount ().getValue ());
+  }
+
+  @Test
+  public void testAggregateTotalsMissingTaxCategory ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _createBuilder ();
+    _addLine (aBuilder, "1", "100", "S", "20");
+    // No tax category
+    aBuilder.addAllowanceCharge (ac -> ac.charge (false).amount (BigDecimal.ONE));
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    assertNull (aBuilder.build (aErrorList));
+    assertEquals (1, aErrorList.getErrorCount ());
+    assertEquals (EViDATDD090BuilderErrorCode.MISSING_FIELD, aErrorList.getAllErrors ().get (0).getErrorCode ());
+    assertEquals ("ReportedTransaction/AllowanceCharge/TaxCategory", aErrorList.getAllErrors ().get (0).getFieldPath ());
+  }
+
+  @Test
+  public void testScaledAmounts ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBD = _createBuilder ();
+    final PeppolViDATDD090ReportedTransactionBuilder aScaled = _createBuilder ();
+    for (int i = 0; i < 100; ++i)
+    {
+      final String sID = Integer.toString (i);
+      final long nCents = 1000 + i * 7L;
+      aBD.addDocumentLine (l -> l.id (sID)
+                                 .quantity (BigDecimal.valueOf (3))
+                                 .quantityUnit ("C62")
+                                 .lineExtensionAmount (BigDecimal.valueOf (nCents * 3, 2))
+                                 .priceAmount (BigDecimal.valueOf (nCents, 2))
+                                 .item (x -> x.name ("Item").classifiedTaxCategory (c -> c.id ("S")
+                                                                                            .percentage (BigDecimal.TEN)
+                                                                                            .taxSchemeID ("VAT"))));
+      aScaled.addDocumentLine (l -> l.id (sID)
+                                     .quantity (3, 0)
+                                     .quantityUnit ("C62")
+                                     .lineExtensionAmount (nCents * 3, 2)
+                                     .priceAmount (nCents, 2)
+                                     .item (x -> x.name ("Item").classifiedTaxCategory (c -> c.id ("S")
+                                                                                                .percentage (BigDecimal.TEN)
+                                                                                                .taxSchemeID ("VAT"))));
+    }
+    aBD.addAllowanceCharge (ac -> ac.charge (true)
+                                    .amount (new BigDecimal ("12.5"))
+                                    .taxCategory (tc -> tc.id ("S").percentage (BigDecimal.TEN).taxSchemeID ("VAT")));
+    aScaled.addAllowanceCharge (ac -> ac.charge (true)
+                                        .amount (125, 1)
+                                        .taxCategory (tc -> tc.id ("S").percentage (BigDecimal.TEN).taxSchemeID ("VAT")));
+
+    final ReportedTransaction aExpected = aBD.build ();
+    assertNotNull (aExpected);
+    assertEquals (aExpected, aScaled.build ());
+  }
+
+  @Test
+  public void testScaledAmountsOverflow ()
+  {
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = _createBuilder ();
+    for (int i = 0; i < 3; ++i)
+    {
+      final String sID = Integer.toString (i);
+      aBuilder.addDocumentLine (l -> l.id (sID)
+                                      .quantity (1, 0)
+                                      .quantityUnit ("C62")
+                                      .lineExtensionAmount (Long.MAX_VALUE, 2)
+                                      .priceAmount (Long.MAX_VALUE, 2)
+                                      .item (x -> x.name ("Item").classifiedTaxCategory (c -> c.id ("Z")
+                                                                                                .percentage (BigDecimal.ZERO)
+                                                                                                .taxSchemeID ("VAT"))));
+    }
+    final ReportedTransaction aRT = aBuilder.build ();
+    assertNotNull (aRT);
+    _assertEquals ("LineExtension",
+                   BigDecimal.valueOf (Long.MAX_VALUE, 2).multiply (BigDecimal.valueOf (3)),
+                   aRT.getReportedDocument ().getMonetaryTotal ().getLineExtensionAmount ().getValue ());
+  }
+
+  @NonNull
+  private static PeppolViDATDD090DocumentLineColumns _createColumns (final int nCount, final int nRowWithoutName)
+  {
+    final String [] aIDs = new String [nCount];
+    final BigDecimal [] aQuantities = new BigDecimal [nCount];
+    final String [] aUnits = new String [nCount];
+    final BigDecimal [] aAmounts = new BigDecimal [nCount];
+    final BigDecimal [] aPrices = new BigDecimal [nCount];
+    final String [] aNames = new String [nCount];
+    final String [] aTaxCategoryIDs = new String [nCount];
+    final BigDecimal [] aPercentages = new BigDecimal [nCount];
+    for (int i = 0; i < nCount; ++i)
+    {
+      aIDs[i] = Integer.toString (i + 1);
+      aQuantities[i] = BigDecimal.valueOf (2);
+      aUnits[i] = "C62";
+      aPrices[i] = BigDecimal.valueOf (100 + i, 2);
+      aAmounts[i] = aPrices[i].multiply (aQuantities[i]);
+      aNames[i] = "Item " + i;
+      aTaxCategoryIDs[i] = i < nCount / 2 ? "S" : "AA";
+      aPercentages[i] = i < nCount / 2 ? BigDecimal.valueOf (20) : BigDecimal.TEN;
+    }
+    if (nRowWithoutName >= 0)
+      aNames[nRowWithoutName] = null;
+    return new PeppolViDATDD090DocumentLineColumns (aIDs,
+                                                    aQuantities,
+                                                    aUnits,
+                                                    aAmounts,
+                                                    aPrices,
+                                                    aNames,
+                                                    aTaxCategoryIDs,
+                                                    aPercentages);
+  }
+
+  @Test
+  public void testDocumentLineSource ()
+  {
+    final PeppolViDATDD090DocumentLineColumns aColumns = _createColumns (500, -1);
+
+    final PeppolViDATDD090ReportedTransactionBuilder aEager = _createBuilder ();
+    _addLine (aEager, "first", "10", "S", "20");
+    aEager.addDocumentLines (aColumns);
+
+    final PeppolViDATDD090ReportedTransactionBuilder aLazy = _createBuilder ();
+    _addLine (aLazy, "first", "10", "S", "20");
+    aLazy.documentLineSource (aColumns);
+    assertEquals (501, aLazy.getDocumentLineCount ());
+    // Nothing materialized
+    assertEquals (1, aLazy.documentLines ().size ());
+
+    final ReportedTransaction aExpected = aEager.build ();
+    assertNotNull (aExpected);
+    final ReportedTransaction aActual = aLazy.build ();
+    assertNotNull (aActual);
+    assertEquals (aExpected, aActual);
+
+    // Without the source lines, but with all totals
+    final ReportedTransaction aHeader = aLazy.buildWithoutSourceLines (new PeppolViDATDD090BuilderErrorList ());
+    assertNotNull (aHeader);
+    assertEquals (1, aHeader.getReportedDocument ().getDocumentLine ().size ());
+    assertEquals (aExpected.getReportedDocument ().getMonetaryTotal (), aHeader.getReportedDocument ().getMonetaryTotal ());
+    assertEquals (aExpected.getReportedDocument ().getTaxTotal (), aHeader.getReportedDocument ().getTaxTotal ());
+
+    // Lazy lines can be iterated more than once
+    for (int nRun = 0; nRun < 2; ++nRun)
+    {
+      int i = 1;
+      for (final DocumentLine aLine : aLazy.getSourceDocumentLines ())
+        assertEquals (aExpected.getReportedDocument ().getDocumentLine ().get (i++), aLine);
+      assertEquals (501, i);
+    }
+
+    // Only the count is needed for the required field check
+    final PeppolViDATDD090ReportedTransactionBuilder aOnlySource = _createBuilder ().documentLineSource (aColumns);
+    assertTrue (aOnlySource.isEveryRequiredFieldSet (new PeppolViDATDD090BuilderErrorList ()));
+    aOnlySource.documentLineSource (_createColumns (0, -1));
+    assertFalse (aOnlySource.isEveryRequiredFieldSet (PeppolViDATDD090BuilderErrorList.createCountingOnly ()));
+  }
+
+  @Test
+  public void testAddDocumentLines ()
+  {
+    final int nCount = 1000;
+    // Missing mandatory field
+    final PeppolViDATDD090DocumentLineColumns aColumns = _createColumns (nCount, 7);
+
+    final PeppolViDATDD090ReportedTransactionBuilder aBulk = _createBuilder ();
+    final PeppolViDATDD090BuilderErrorList aErrorList = new PeppolViDATDD090BuilderErrorList ();
+    aBulk.addDocumentLines (aColumns, aErrorList);
+    assertEquals (1, aErrorList.getErrorCount ());
+    assertEquals ("ReportedTransaction/DocumentLine[7]/Item/Name", aErrorList.getAllErrors ().get (0).getFieldPath ());
+    assertEquals (nCount - 1, aBulk.documentLines ().size ());
+
+    final PeppolViDATDD090ReportedTransactionBuilder aSingle = _createBuilder ();
+    for (int i = 0; i < nCount; ++i)
+      if (i != 7)
+      {
+        final int nIndex = i;
+        aSingle.addDocumentLine (l -> l.id (aColumns.getID (nIndex))
+                                       .quantity (aColumns.getQuantity (nIndex))
+                                       .quantityUnit (aColumns.getQuantityUnit (nIndex))
+                                       .lineExtensionAmount (aColumns.getLineExtensionAmount (nIndex))
+                                       .priceAmount (aColumns.getPriceAmount (nIndex))
+                                       .item (x -> x.name (aColumns.getItemName (nIndex))
+                                                    .classifiedTaxCategory (c -> c.id (aColumns.getTaxCategoryID (nIndex))
+                                                                                  .percentage (aColumns.getTaxCategoryPercentage (nIndex))
+                                                                                  .taxSchemeID ("VAT"))));
+      }
+
+    final ReportedTransaction aExpected = aSingle.build ();
+    final ReportedTransaction aActual = aBulk.build ();
+    assertNotNull (aExpected);
+    assertNotNull (aActual);
+    assertEquals (aExpected.getReportedDocument ().getMonetaryTotal (), aActual.getReportedDocument ().getMonetaryTotal ());
+    assertEquals (aExpected.getReportedDocument ().getTaxTotal (), aActual.getReportedDocument ().getTaxTotal ());
+    for (int i = 0; i < nCount - 1; ++i)
+    {
+      final DocumentLine aExpLine = aExpected.getReportedDocument ().getDocumentLine ().get (i);
+      final DocumentLine aActLine = aActual.getReportedDocument ().getDocumentLine ().get (i);
+      assertEquals (aExpLine.getID (), aActLine.getID ());
+      assertEquals (aExpLine.getInvoicedQuantity (), aActLine.getInvoicedQuantity ());
+      assertEquals (aExpLine.getLineExtensionAmount (), aActLine.getLineExtensionAmount ());
+      assertEquals (aExpLine.getPrice (), aActLine.getPrice ());
+      assertEquals (aExpLine.getItem ().getName (), aActLine.getItem ().getName ());
+      assertEquals (aExpLine.getItem ().getClassifiedTaxCategory (), aActLine.getItem ().getClassifiedTaxCategory ());
+    }
+  }
+}
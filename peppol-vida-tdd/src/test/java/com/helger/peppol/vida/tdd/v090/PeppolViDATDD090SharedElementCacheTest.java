@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.helger.io.resource.ClassPathResource;
+import com.helger.peppol.vida.tdd.codelist.EViDATDDDocumentTypeCode;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction;
+import com.helger.peppol.vida.tdd.v090.TaxDataType.ReportedTransaction.ReportedDocument;
+import com.helger.peppol.vida.tdd.v090.cac.PartyTaxScheme;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090ReportedTransactionBuilder;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090SharedElementCache;
+import com.helger.ubl21.UBL21Marshaller;
+
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link PeppolViDATDD090SharedElementCache}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090SharedElementCacheTest
+{
+  @Test
+  public void testBuilder ()
+  {
+    final PeppolViDATDD090SharedElementCache aCache = new PeppolViDATDD090SharedElementCache (16);
+    final PeppolViDATDD090ReportedTransactionBuilder aBuilder = new PeppolViDATDD090ReportedTransactionBuilder (EViDATDDDocumentTypeCode.SUBMIT);
+    // Disabled by default
+    assertNull (aBuilder.sharedElementCache ());
+
+    PartyTaxScheme aPrevPTS = null;
+    for (final ClassPathResource aRes : PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ())
+    {
+      final InvoiceType aInvoice = UBL21Marshaller.invoice ().read (aRes);
+      assertNotNull (aInvoice);
+
+      final ReportedTransaction aExpected = aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT)
+                                                    .initFromInvoice (aInvoice)
+                                                    .build ();
+      assertNotNull (aExpected);
+
+      final ReportedTransaction aShared = aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT)
+                                                  .initFromInvoice (aInvoice)
+                                                  .sharedElementCache (aCache)
+                                                  .build ();
+      assertNotNull (aShared);
+      // Same content
+      assertEquals (aRes.getPath (), aExpected, aShared);
+
+      final ReportedDocument aDoc = aShared.getReportedDocument ();
+      final String sSellerCountry = aDoc.getAccountingSupplierParty ()
+                                        .getParty ()
+                                        .getPostalAddress ()
+                                        .get (0)
+                                        .getCountry ()
+                                        .getIdentificationCode ();
+      assertSame (aCache.getPostalAddress (sSellerCountry),
+                  aDoc.getAccountingSupplierParty ().getParty ().getPostalAddress ().get (0));
+
+      // Not every test invoice has a seller VAT number
+      final PartyTaxScheme aPTS = aDoc.getAccountingSupplierParty ().getParty ().getPartyTaxScheme ();
+      if (aPTS != null)
+      {
+        // Shared between different documents
+        if (aPrevPTS != null)
+          assertSame (aPrevPTS.getTaxScheme (), aPTS.getTaxScheme ());
+        aPrevPTS = aPTS;
+      }
+    }
+
+    // Reset disables it again
+    aBuilder.reset (EViDATDDDocumentTypeCode.SUBMIT);
+    assertNull (aBuilder.sharedElementCache ());
+  }
+
+  @Test
+  public void testBounded ()
+  {
+    final PeppolViDATDD090SharedElementCache aCache = new PeppolViDATDD090SharedElementCache (1);
+    assertSame (aCache.getCountry ("AT"), aCache.getCountry ("AT"));
+    // Cache is full
+    assertNotSame (aCache.getCountry ("DE"), aCache.getCountry ("DE"));
+    assertEquals (aCache.getCountry ("DE"), aCache.getCountry ("DE"));
+    assertEquals ("DE", aCache.getCountry ("DE").getIdentificationCode ());
+
+    aCache.clear ();
+    assertEquals (0, aCache.getCachedElementCount ());
+    assertSame (aCache.getCountry ("DE"), aCache.getCountry ("DE"));
+    assertEquals (1, aCache.getCachedElementCount ());
+  }
+}
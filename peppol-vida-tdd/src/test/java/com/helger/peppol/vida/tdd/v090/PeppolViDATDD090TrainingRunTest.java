@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 Philip Helger
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.peppol.vida.tdd.v090;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.io.resource.IReadableResource;
+import com.helger.peppol.vida.tdd.testfiles.PeppolViDATestFiles;
+import com.helger.peppol.vida.tddv090.PeppolViDATDD090TrainingRun;
+
+/**
+ * Test class for class {@link PeppolViDATDD090TrainingRun}.
+ *
+ * @author Philip Helger
+ */
+public final class PeppolViDATDD090TrainingRunTest
+{
+  @Test
+  public void testAllTestFiles () throws Exception
+  {
+    final ICommonsList <IReadableResource> aResources = new CommonsArrayList <> ();
+    aResources.addAll (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ());
+    aResources.addAll (PeppolViDATestFiles.getAllGoodBillingCreditNoteFiles ());
+    aResources.addAll (PeppolViDATestFiles.getAllGoodTDD090Files ());
+    // Not existing
+    aResources.add (new ClassPathResource ("does/not/exist.xml"));
+
+    final PeppolViDATDD090TrainingRun aRun = new PeppolViDATDD090TrainingRun ();
+    aRun.run (aResources);
+    assertEquals (PeppolViDATestFiles.getAllGoodBillingInvoiceFiles ().size () +
+                  PeppolViDATestFiles.getAllGoodBillingCreditNoteFiles ().size (),
+                  aRun.getUBLCount ());
+    assertEquals (PeppolViDATestFiles.getAllGoodTDD090Files ().size (), aRun.getTDDCount ());
+    assertEquals (1, aRun.getSkippedCount ());
+  }
+}